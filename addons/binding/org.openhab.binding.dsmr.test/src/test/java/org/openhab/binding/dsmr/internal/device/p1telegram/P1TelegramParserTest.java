@@ -10,6 +10,7 @@ package org.openhab.binding.dsmr.internal.device.p1telegram;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -29,6 +30,9 @@ import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram.TelegramSt
 @RunWith(value = Parameterized.class)
 public class P1TelegramParserTest {
 
+    private static final int REPLAY_COUNT = 3;
+    private static final int CHUNK_SIZE = 7;
+
     // @formatter:off
     @Parameters(name = "{0}")
     public static final List<Object[]> data() {
@@ -57,4 +61,24 @@ public class P1TelegramParserTest {
         assertEquals("Expected number of objects", numberOfCosemObjects,
                 telegram.getCosemObjects().stream().mapToInt(o -> o.getCosemValues().size()).sum());
     }
+
+    @Test
+    public void testParsingReplayedInChunks() {
+        byte[] telegram = TelegramReaderUtil.readRawTelegram(telegramName);
+        List<P1Telegram> telegrams = new ArrayList<>();
+        P1TelegramParser parser = new P1TelegramParser(telegrams::add);
+
+        for (int replay = 0; replay < REPLAY_COUNT; replay++) {
+            for (int offset = 0; offset < telegram.length; offset += CHUNK_SIZE) {
+                parser.parseData(telegram, offset, Math.min(CHUNK_SIZE, telegram.length - offset));
+            }
+        }
+        assertEquals("Expected number of telegrams", REPLAY_COUNT, telegrams.size());
+        for (P1Telegram p1Telegram : telegrams) {
+            assertEquals("Expected TelegramState should be as expected", TelegramState.OK,
+                    p1Telegram.getTelegramState());
+            assertEquals("Expected number of objects", numberOfCosemObjects,
+                    p1Telegram.getCosemObjects().stream().mapToInt(o -> o.getCosemValues().size()).sum());
+        }
+    }
 }
@@ -23,8 +23,19 @@ import org.slf4j.LoggerFactory;
  * @author M. Volaart - Initial contribution
  */
 public class CosemObjectFactory {
+    /**
+     * Maximum number of parsed OBIS Identifiers to cache
+     */
+    private static final int MAX_PARSED_OBIS_IDENTIFIERS = 256;
+
     private final Logger logger = LoggerFactory.getLogger(CosemObjectFactory.class);
 
+    /**
+     * Cache of parsed OBIS Identifiers by OBIS Identifier String. A meter sends the same OBIS Identifiers in each
+     * telegram, so this avoids parsing the identifiers again for every telegram.
+     */
+    private final Map<String, OBISIdentifier[]> parsedObisIdentifiers = new HashMap<>();
+
     /**
      * Lookup cache for fixed OBIS Identifiers
      */
@@ -81,16 +92,23 @@ public class CosemObjectFactory {
      * @return CosemObject or null if parsing failed
      */
     public CosemObject getCosemObject(String obisIdString, String cosemStringValues) {
-        OBISIdentifier obisId;
-        OBISIdentifier reducedObisId;
+        OBISIdentifier[] parsedObisId = parsedObisIdentifiers.get(obisIdString);
 
-        try {
-            obisId = new OBISIdentifier(obisIdString);
-            reducedObisId = obisId.getReducedOBISIdentifier();
-        } catch (ParseException pe) {
-            logger.debug("Received invalid OBIS identifier: {}", obisIdString);
-            return null;
+        if (parsedObisId == null) {
+            try {
+                OBISIdentifier newObisId = new OBISIdentifier(obisIdString);
+
+                parsedObisId = new OBISIdentifier[] { newObisId, newObisId.getReducedOBISIdentifier() };
+            } catch (ParseException pe) {
+                logger.debug("Received invalid OBIS identifier: {}", obisIdString);
+                return null;
+            }
+            if (parsedObisIdentifiers.size() < MAX_PARSED_OBIS_IDENTIFIERS) {
+                parsedObisIdentifiers.put(obisIdString, parsedObisId);
+            }
         }
+        OBISIdentifier obisId = parsedObisId[0];
+        OBISIdentifier reducedObisId = parsedObisId[1];
 
         logger.trace("Received obisIdString {}, obisId: {}, values: {}", obisIdString, obisId, cosemStringValues);
 
@@ -8,10 +8,11 @@
  */
 package org.openhab.binding.dsmr.internal.device.p1telegram;
 
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
@@ -26,6 +27,9 @@ import org.slf4j.LoggerFactory;
  *
  * Data can be parsed in chunks. If a full P1 telegram is received, listeners are notified
  *
+ * The parser works directly on the received bytes. Data is only converted to Strings per Cosem Object, and the raw
+ * telegram is only kept when it's needed (lenient mode or debug logging).
+ *
  * @author M. Volaart - Initial contribution
  * @author Hilbrand Bouwkamp - Removed asynchronous call and some clean up
  */
@@ -52,34 +56,75 @@ public class P1TelegramParser {
     CRC_VALUE
     }
 
-    private final Logger logger = LoggerFactory.getLogger(P1TelegramParser.class);
+    /**
+     * Buffer for bytes, reused for each telegram to avoid garbage.
+     */
+    private static final class ByteBuilder {
+        private byte[] bytes = new byte[64];
+        private int length;
+
+        void append(byte b) {
+            ensureCapacity(length + 1);
+            bytes[length++] = b;
+        }
+
+        void append(byte[] data, int offset, int dataLength) {
+            ensureCapacity(length + dataLength);
+            System.arraycopy(data, offset, bytes, length, dataLength);
+            length += dataLength;
+        }
+
+        byte get(int index) {
+            return bytes[index];
+        }
+
+        int length() {
+            return length;
+        }
+
+        void clear() {
+            length = 0;
+        }
+
+        String toString(Charset charset) {
+            return new String(bytes, 0, length, charset);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, capacity));
+            }
+        }
+    }
 
     /**
-     * Pattern for the CRC-code
+     * Number of characters of the CRC-code
      */
-    private static final String CRC_PATTERN = "[0-9A-Z]{4}";
+    private static final int CRC_LENGTH = 4;
+
+    private final Logger logger = LoggerFactory.getLogger(P1TelegramParser.class);
 
     /* internal state variables */
 
     /**
      * current obisId buffer.
      */
-    private final StringBuilder obisId = new StringBuilder();
+    private final ByteBuilder obisId = new ByteBuilder();
 
     /**
      * Current cosem object values buffer.
      */
-    private final StringBuilder cosemObjectValuesString = new StringBuilder();
+    private final ByteBuilder cosemObjectValues = new ByteBuilder();
 
     /**
-     * In lenient mode store raw data and log when a complete message is received.
+     * In lenient mode or with debug logging store raw data and log when a complete message is received.
      */
-    private final StringBuilder rawData = new StringBuilder();
+    private final ByteBuilder rawData = new ByteBuilder();
 
     /**
      * Current crc value read.
      */
-    private final StringBuilder crcValue = new StringBuilder();
+    private final ByteBuilder crcValue = new ByteBuilder();
 
     /**
      * CRC calculation helper
@@ -140,18 +185,16 @@ public class P1TelegramParser {
      * @param length number of bytes to parse
      */
     public void parseData(byte[] data, int offset, int length) {
-        if (lenientMode || logger.isTraceEnabled()) {
-            String rawBlock = new String(data, offset, length, StandardCharsets.UTF_8);
-
-            if (lenientMode) {
-                rawData.append(rawBlock);
-            }
-            if (logger.isTraceEnabled()) {
-                logger.trace("Data: {}, state before parsing: {}", rawBlock, state);
-            }
+        if (logger.isTraceEnabled()) {
+            logger.trace("Data: {}, state before parsing: {}", new String(data, offset, length, StandardCharsets.UTF_8),
+                    state);
+        }
+        if (isRawDataNeeded()) {
+            rawData.append(data, offset, length);
         }
         for (int i = offset; i < (offset + length); i++) {
-            char c = (char) data[i];
+            byte b = data[i];
+            char c = (char) b;
 
             switch (state) {
                 case WAIT_FOR_START:
@@ -232,28 +275,30 @@ public class P1TelegramParser {
                      * P1 telegram is correctly finished
                      */
                     if (c == '\r' || c == '/') {
-                        logger.trace("telegramState {}, crcValue to check 0x{}", telegramState, crcValue);
                         // Only perform CRC check if telegram is still ok
                         if (telegramState == TelegramState.OK && crcValue.length() > 0) {
-                            if (Pattern.matches(CRC_PATTERN, crcValue)) {
-                                int crcP1Telegram = Integer.parseInt(crcValue.toString(), 16);
-                                int calculatedCRC = crc.getCurrentCRCCode();
-
-                                if (logger.isDebugEnabled()) {
-                                    logger.trace("received CRC value: {}, calculated CRC value: 0x{}", crcValue,
-                                            String.format("%04X", calculatedCRC));
-                                }
-                                if (crcP1Telegram != calculatedCRC) {
-                                    logger.trace("CRC value does not match, p1 Telegram failed");
-
-                                    telegramState = TelegramState.CRC_ERROR;
-                                }
-                            } else {
+                            int crcP1Telegram = parseCrcValue();
+                            int calculatedCRC = crc.getCurrentCRCCode();
+
+                            if (logger.isTraceEnabled()) {
+                                logger.trace("received CRC value: {}, calculated CRC value: 0x{}",
+                                        crcValue.toString(StandardCharsets.US_ASCII),
+                                        String.format("%04X", calculatedCRC));
+                            }
+                            if (crcP1Telegram != calculatedCRC) {
+                                logger.trace("CRC value does not match, p1 Telegram failed");
+
                                 telegramState = TelegramState.CRC_ERROR;
                             }
                         }
+                        String rawTelegram = isRawDataNeeded() ? rawData.toString(StandardCharsets.UTF_8) : "";
+
+                        if (telegramState != TelegramState.OK && logger.isDebugEnabled()) {
+                            logger.debug("P1 telegram failed with state {}, raw telegram:\n{}", telegramState,
+                                    rawTelegram);
+                        }
                         telegramListener.telegramReceived(
-                                new P1Telegram(new ArrayList<>(cosemObjects), telegramState, rawData.toString()));
+                                new P1Telegram(new ArrayList<>(cosemObjects), telegramState, rawTelegram));
                         setState(State.WAIT_FOR_START);
                         if (c == '/') {
                             /*
@@ -266,11 +311,45 @@ public class P1TelegramParser {
                     break;
             }
 
-            handleCharacter(c);
+            handleByte(b);
         }
         logger.trace("State after parsing: {}", state);
     }
 
+    /**
+     * @return true if the raw telegram data needs to be stored
+     */
+    private boolean isRawDataNeeded() {
+        return lenientMode || logger.isDebugEnabled();
+    }
+
+    /**
+     * Parses the received CRC-code, which consists of 4 upper case hexadecimal characters.
+     *
+     * @return the CRC-code or -1 if the received CRC-code is invalid
+     */
+    private int parseCrcValue() {
+        if (crcValue.length() != CRC_LENGTH) {
+            return -1;
+        }
+        int value = 0;
+
+        for (int i = 0; i < CRC_LENGTH; i++) {
+            byte b = crcValue.get(i);
+            int digit;
+
+            if (b >= '0' && b <= '9') {
+                digit = b - '0';
+            } else if (b >= 'A' && b <= 'F') {
+                digit = b - 'A' + 10;
+            } else {
+                return -1;
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
     /**
      * Reset the current telegram state
      */
@@ -290,38 +369,38 @@ public class P1TelegramParser {
     }
 
     /**
-     * Stores a single character
+     * Stores a single byte
      *
-     * @param c the character to process
+     * @param b the byte to process
      */
-    private void handleCharacter(char c) {
+    private void handleByte(byte b) {
         switch (state) {
             case WAIT_FOR_START:
                 // ignore the data
                 break;
             case HEADER:
-                crc.processByte((byte) c);
+                crc.processByte(b);
                 break;
             case CRLF:
-                crc.processByte((byte) c);
+                crc.processByte(b);
                 break;
             case DATA_OBIS_ID:
-                obisId.append(c);
-                crc.processByte((byte) c);
+                obisId.append(b);
+                crc.processByte(b);
                 break;
             case DATA_OBIS_VALUE:
-                cosemObjectValuesString.append(c);
-                crc.processByte((byte) c);
+                cosemObjectValues.append(b);
+                crc.processByte(b);
                 break;
             case DATA_OBIS_VALUE_END:
-                cosemObjectValuesString.append(c);
-                crc.processByte((byte) c);
+                cosemObjectValues.append(b);
+                crc.processByte(b);
                 break;
             case CRC_VALUE:
-                if (c == '!') {
-                    crc.processByte((byte) c);
+                if (b == '!') {
+                    crc.processByte(b);
                 } else {
-                    crcValue.append(c);
+                    crcValue.append(b);
                 }
                 // CRC data is not part of received data
                 break;
@@ -334,10 +413,10 @@ public class P1TelegramParser {
      * Clears all internal state
      */
     private void clearInternalData() {
-        obisId.setLength(0);
-        cosemObjectValuesString.setLength(0);
-        rawData.setLength(0);
-        crcValue.setLength(0);
+        obisId.clear();
+        cosemObjectValues.clear();
+        rawData.clear();
+        crcValue.clear();
         crc.initialize();
         cosemObjects.clear();
     }
@@ -349,18 +428,17 @@ public class P1TelegramParser {
      * - current OBIS data object
      */
     private void clearObisData() {
-        obisId.setLength(0);
-        cosemObjectValuesString.setLength(0);
+        obisId.clear();
+        cosemObjectValues.clear();
     }
 
     /**
      * Store the current CosemObject in the list of received cosem Objects
      */
     private void storeCurrentCosemObject() {
-        String obisIdString = obisId.toString();
-
-        if (!obisIdString.isEmpty()) {
-            CosemObject cosemObject = factory.getCosemObject(obisIdString, cosemObjectValuesString.toString());
+        if (obisId.length() > 0) {
+            CosemObject cosemObject = factory.getCosemObject(obisId.toString(StandardCharsets.ISO_8859_1),
+                    cosemObjectValues.toString(StandardCharsets.ISO_8859_1));
 
             if (cosemObject != null) {
                 logger.trace("Adding {} to list of Cosem Objects", cosemObject);
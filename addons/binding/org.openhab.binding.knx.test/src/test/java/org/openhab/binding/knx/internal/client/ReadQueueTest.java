@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.openhab.binding.knx.client.ReadPriority;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+
+/**
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class ReadQueueTest {
+
+    private final ReadQueue queue = new ReadQueue();
+
+    @Test
+    public void testAdd_deduplicatesGroupAddresses() {
+        assertTrue(queue.add(datapoint(1, ReadPriority.INITIAL)));
+        assertFalse(queue.add(datapoint(1, ReadPriority.INITIAL)));
+        assertFalse(queue.add(datapoint(1, ReadPriority.PERIODIC)));
+        assertTrue(queue.add(datapoint(2, ReadPriority.INITIAL)));
+
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    public void testPoll_ordersByPriorityThenInsertion() {
+        queue.add(datapoint(1, ReadPriority.PERIODIC));
+        queue.add(datapoint(2, ReadPriority.INITIAL));
+        queue.add(datapoint(3, ReadPriority.REFRESH));
+        queue.add(datapoint(4, ReadPriority.INITIAL));
+
+        assertPolled(3, ReadPriority.REFRESH);
+        assertPolled(2, ReadPriority.INITIAL);
+        assertPolled(4, ReadPriority.INITIAL);
+        assertPolled(1, ReadPriority.PERIODIC);
+        assertNull(queue.poll());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testAdd_upgradesPriority() {
+        queue.add(datapoint(1, ReadPriority.INITIAL));
+        queue.add(datapoint(2, ReadPriority.PERIODIC));
+
+        assertTrue(queue.add(datapoint(2, ReadPriority.REFRESH)));
+
+        assertEquals(2, queue.size());
+        assertPolled(2, ReadPriority.REFRESH);
+        assertPolled(1, ReadPriority.INITIAL);
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testClear() {
+        queue.add(datapoint(1, ReadPriority.INITIAL));
+        queue.add(datapoint(2, ReadPriority.REFRESH));
+
+        queue.clear();
+
+        assertEquals(0, queue.size());
+        assertNull(queue.poll());
+    }
+
+    private void assertPolled(int address, ReadPriority priority) {
+        ReadDatapoint datapoint = queue.poll();
+        assertNotNull(datapoint);
+        assertEquals(new GroupAddress(address), datapoint.getDatapoint().getMainAddress());
+        assertEquals(priority, datapoint.getPriority());
+    }
+
+    private static ReadDatapoint datapoint(int address, ReadPriority priority) {
+        return new ReadDatapoint(new CommandDP(new GroupAddress(address), "test", 0, "1.001"), 3, priority);
+    }
+
+}
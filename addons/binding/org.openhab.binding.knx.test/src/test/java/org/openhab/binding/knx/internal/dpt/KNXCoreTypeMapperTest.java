@@ -10,9 +10,20 @@ package org.openhab.binding.knx.internal.dpt;
 
 import static org.junit.Assert.assertEquals;
 
+import java.math.BigDecimal;
+
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
 import org.junit.Test;
 
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.dptxlator.DPTXlator;
+import tuwien.auto.calimero.dptxlator.TranslatorTypes;
+
 /**
  *
  * @author Simon Kaufmann - initial contribution and API
@@ -26,4 +37,50 @@ public class KNXCoreTypeMapperTest {
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3.0"), "17.001"));
     }
 
+    @Test
+    public void testToType_boolean() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertEquals(OnOffType.ON, mapper.toType(datapoint("1.001"), new byte[] { 1 }));
+        assertEquals(OnOffType.OFF, mapper.toType(datapoint("1.001"), new byte[] { 0 }));
+        assertEquals(OpenClosedType.OPEN, mapper.toType(datapoint("1.009"), new byte[] { 1 }));
+    }
+
+    @Test
+    public void testToType_8BitUnsignedLikeTranslator() throws KNXException {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        DPTXlator scaling = TranslatorTypes.createTranslator(0, "5.001");
+        DPTXlator angle = TranslatorTypes.createTranslator(0, "5.003");
+        for (int i = 0; i < 256; i++) {
+            byte[] data = new byte[] { (byte) i };
+            scaling.setData(data);
+            angle.setData(data);
+            assertEquals(new PercentType(BigDecimal.valueOf(Math.round(scaling.getNumericValue()))),
+                    mapper.toType(datapoint("5.001"), data));
+            assertEquals(new DecimalType(angle.getNumericValue()), mapper.toType(datapoint("5.003"), data));
+            assertEquals(new DecimalType(i), mapper.toType(datapoint("5.010"), data));
+        }
+    }
+
+    @Test
+    public void testToType_2ByteFloatLikeTranslator() throws KNXException {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        DPTXlator translator = TranslatorTypes.createTranslator(0, "9.001");
+        for (int i = 0; i < 0x10000; i++) {
+            byte[] data = new byte[] { (byte) (i >> 8), (byte) i };
+            translator.setData(data);
+            assertEquals(new DecimalType(translator.getNumericValue()), mapper.toType(datapoint("9.001"), data));
+        }
+    }
+
+    @Test
+    public void testToType_4ByteFloat() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertEquals(new DecimalType(50.0), mapper.toType(datapoint("14.019"), new byte[] { 0x42, 0x48, 0, 0 }));
+        assertEquals(new DecimalType(-2.5), mapper.toType(datapoint("14.019"), new byte[] { (byte) 0xc0, 0x20, 0, 0 }));
+    }
+
+    private static CommandDP datapoint(String dpt) {
+        return new CommandDP(new GroupAddress(1), "test", 0, dpt);
+    }
+
 }
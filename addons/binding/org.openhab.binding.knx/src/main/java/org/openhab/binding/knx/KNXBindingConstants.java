@@ -82,6 +82,12 @@ public class KNXBindingConstants {
 
     public static final String CHANNEL_RESET = "reset";
 
+    // Bridge Channel IDs
+    public static final String CHANNEL_READ_QUEUE_SIZE = "read-queue-size";
+    public static final String CHANNEL_READ_QUEUE_DRAIN_TIME = "read-queue-drain-time";
+    public static final String CHANNEL_TELEGRAM_RATE = "telegram-rate";
+    public static final String CHANNEL_DISPATCH_LATENCY = "dispatch-latency";
+
     // Channel Configuration parameters
     public static final String GA = "ga";
     public static final String HSB_GA = "hsb";
@@ -77,7 +77,18 @@ public interface KNXClient {
      *
      * @param datapoint the datapoint
      */
-    void readDatapoint(Datapoint datapoint);
+    default void readDatapoint(Datapoint datapoint) {
+        readDatapoint(datapoint, ReadPriority.INITIAL);
+    }
+
+    /**
+     * Schedule the given data point for asynchronous reading. A data point which is already queued is read only once,
+     * with the higher of both priorities.
+     *
+     * @param datapoint the datapoint
+     * @param priority the priority of the read request
+     */
+    void readDatapoint(Datapoint datapoint, ReadPriority priority);
 
     /**
      * Write a command to the KNX bus.
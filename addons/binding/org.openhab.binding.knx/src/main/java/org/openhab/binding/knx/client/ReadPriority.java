@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.knx.client;
+
+/**
+ * The priority of a queued read request. Requests are sent to the KNX bus in the order of their priority, the
+ * constants being declared from the highest to the lowest priority.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public enum ReadPriority {
+
+    /**
+     * Explicitly requested reads, i.e. a REFRESH command or a newly linked channel
+     */
+    REFRESH,
+
+    /**
+     * Reads of the linked channels when a thing comes online
+     */
+    INITIAL,
+
+    /**
+     * Reads repeated in the read interval of a thing
+     */
+    PERIODIC
+
+}
@@ -8,6 +8,8 @@
  */
 package org.openhab.binding.knx.handler;
 
+import java.util.Set;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.knx.internal.client.BusMessageListener;
 
@@ -30,4 +32,12 @@ public interface GroupAddressListener extends BusMessageListener {
      */
     public boolean listensTo(GroupAddress destination);
 
+    /**
+     * Returns all GroupAddresses the GroupAddressListener has an interest in. The KNX client routes the telegrams by
+     * these addresses, so the listener has to register again when they change.
+     *
+     * @return the group addresses
+     */
+    public Set<GroupAddress> getGroupAddresses();
+
 }
@@ -8,22 +8,30 @@
  */
 package org.openhab.binding.knx.handler;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
 import org.eclipse.smarthome.core.types.Command;
+import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
+import org.openhab.binding.knx.KNXBindingConstants;
 import org.openhab.binding.knx.client.KNXClient;
 import org.openhab.binding.knx.client.StatusUpdateCallback;
+import org.openhab.binding.knx.internal.client.AbstractKNXClient;
 
 import tuwien.auto.calimero.IndividualAddress;
 import tuwien.auto.calimero.mgmt.Destination;
@@ -37,10 +45,31 @@ import tuwien.auto.calimero.mgmt.Destination;
 @NonNullByDefault
 public abstract class KNXBridgeBaseThingHandler extends BaseBridgeHandler implements StatusUpdateCallback {
 
+    /**
+     * Seconds between updates of the telegram statistics channels
+     */
+    private static final int STATISTICS_INTERVAL = 60;
+
+    /**
+     * Seconds between updates of the read queue channels
+     */
+    private static final int READ_QUEUE_INTERVAL = 5;
+
     protected ConcurrentHashMap<IndividualAddress, Destination> destinations = new ConcurrentHashMap<>();
     private final ScheduledExecutorService knxScheduler = ThreadPoolManager.getScheduledPool("knx");
     private final ScheduledExecutorService backgroundScheduler = Executors.newSingleThreadScheduledExecutor();
 
+    private @Nullable ScheduledFuture<?> statisticsJob;
+    private @Nullable ScheduledFuture<?> readQueueJob;
+    private long lastStatisticsTime;
+    private long lastReceivedTelegrams;
+    private long lastDispatchedTelegrams;
+    private long lastDispatchLatency;
+    private @Nullable DecimalType telegramRate;
+    private @Nullable DecimalType dispatchLatency;
+    private long lastReadQueueSize = -1;
+    private long lastReadQueueDrainTime = -1;
+
     public KNXBridgeBaseThingHandler(Bridge bridge) {
         super(bridge);
     }
@@ -54,7 +83,95 @@ public abstract class KNXBridgeBaseThingHandler extends BaseBridgeHandler implem
 
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
-        // Nothing to do here
+        if (command instanceof RefreshType) {
+            KNXClient client = getClient();
+            if (client instanceof AbstractKNXClient) {
+                updateReadQueue((AbstractKNXClient) client, true);
+            }
+            updateStatisticsChannels();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        stopStatisticsJob();
+        super.dispose();
+    }
+
+    /**
+     * Periodically publishes the rate of received telegrams, the average time until they are passed to the things and
+     * the state of the read queue on the bridge channels.
+     */
+    protected void startStatisticsJob() {
+        stopStatisticsJob();
+        KNXClient client = getClient();
+        if (client instanceof AbstractKNXClient) {
+            AbstractKNXClient knxClient = (AbstractKNXClient) client;
+            lastStatisticsTime = System.nanoTime();
+            lastReceivedTelegrams = knxClient.getReceivedTelegrams();
+            lastDispatchedTelegrams = knxClient.getDispatchedTelegrams();
+            lastDispatchLatency = knxClient.getDispatchLatency();
+            statisticsJob = knxScheduler.scheduleWithFixedDelay(() -> updateStatistics(knxClient),
+                    STATISTICS_INTERVAL, STATISTICS_INTERVAL, TimeUnit.SECONDS);
+            readQueueJob = knxScheduler.scheduleWithFixedDelay(() -> updateReadQueue(knxClient, false),
+                    READ_QUEUE_INTERVAL, READ_QUEUE_INTERVAL, TimeUnit.SECONDS);
+        }
+    }
+
+    private void stopStatisticsJob() {
+        ScheduledFuture<?> statisticsJob = this.statisticsJob;
+        if (statisticsJob != null) {
+            statisticsJob.cancel(false);
+            this.statisticsJob = null;
+        }
+        ScheduledFuture<?> readQueueJob = this.readQueueJob;
+        if (readQueueJob != null) {
+            readQueueJob.cancel(false);
+            this.readQueueJob = null;
+        }
+    }
+
+    private void updateStatistics(AbstractKNXClient client) {
+        long now = System.nanoTime();
+        long receivedTelegrams = client.getReceivedTelegrams();
+        long dispatchedTelegrams = client.getDispatchedTelegrams();
+        long dispatchLatency = client.getDispatchLatency();
+
+        double seconds = (now - lastStatisticsTime) / 1e9;
+        double telegramRate = seconds > 0 ? (receivedTelegrams - lastReceivedTelegrams) / seconds : 0;
+        long dispatched = dispatchedTelegrams - lastDispatchedTelegrams;
+        double averageLatency = dispatched > 0 ? (dispatchLatency - lastDispatchLatency) / 1e6 / dispatched : 0;
+
+        lastStatisticsTime = now;
+        lastReceivedTelegrams = receivedTelegrams;
+        lastDispatchedTelegrams = dispatchedTelegrams;
+        lastDispatchLatency = dispatchLatency;
+
+        this.telegramRate = new DecimalType(BigDecimal.valueOf(telegramRate).setScale(1, RoundingMode.HALF_UP));
+        this.dispatchLatency = new DecimalType(BigDecimal.valueOf(averageLatency).setScale(1, RoundingMode.HALF_UP));
+        updateStatisticsChannels();
+    }
+
+    private void updateStatisticsChannels() {
+        DecimalType telegramRate = this.telegramRate;
+        DecimalType dispatchLatency = this.dispatchLatency;
+        if (telegramRate != null && dispatchLatency != null) {
+            updateState(KNXBindingConstants.CHANNEL_TELEGRAM_RATE, telegramRate);
+            updateState(KNXBindingConstants.CHANNEL_DISPATCH_LATENCY, dispatchLatency);
+        }
+    }
+
+    private void updateReadQueue(AbstractKNXClient client, boolean force) {
+        long readQueueSize = client.getReadQueueSize();
+        long readQueueDrainTime = TimeUnit.MILLISECONDS.toSeconds(client.getReadQueueDrainTime());
+        if (force || readQueueSize != lastReadQueueSize) {
+            lastReadQueueSize = readQueueSize;
+            updateState(KNXBindingConstants.CHANNEL_READ_QUEUE_SIZE, new DecimalType(readQueueSize));
+        }
+        if (force || readQueueDrainTime != lastReadQueueDrainTime) {
+            lastReadQueueDrainTime = readQueueDrainTime;
+            updateState(KNXBindingConstants.CHANNEL_READ_QUEUE_DRAIN_TIME, new DecimalType(readQueueDrainTime));
+        }
     }
 
     public ScheduledExecutorService getScheduler() {
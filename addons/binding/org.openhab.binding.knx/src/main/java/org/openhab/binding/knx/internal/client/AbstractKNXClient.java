@@ -8,12 +8,15 @@
  */
 package org.openhab.binding.knx.internal.client;
 
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -26,6 +29,7 @@ import org.openhab.binding.knx.KNXTypeMapper;
 import org.openhab.binding.knx.client.DeviceInfoClient;
 import org.openhab.binding.knx.client.KNXClient;
 import org.openhab.binding.knx.client.OutboundSpec;
+import org.openhab.binding.knx.client.ReadPriority;
 import org.openhab.binding.knx.client.StatusUpdateCallback;
 import org.openhab.binding.knx.handler.GroupAddressListener;
 import org.openhab.binding.knx.internal.dpt.KNXCoreTypeMapper;
@@ -38,6 +42,7 @@ import tuwien.auto.calimero.FrameEvent;
 import tuwien.auto.calimero.GroupAddress;
 import tuwien.auto.calimero.IndividualAddress;
 import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.cemi.CEMILData;
 import tuwien.auto.calimero.datapoint.CommandDP;
 import tuwien.auto.calimero.datapoint.Datapoint;
 import tuwien.auto.calimero.device.ProcessCommunicationResponder;
@@ -65,6 +70,21 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
     private static final int MAX_SEND_ATTEMPTS = 2;
 
+    /**
+     * Upper bound in milliseconds of the pause between two read requests when the gateway is slow to acknowledge
+     */
+    private static final long MAX_READING_PAUSE = 5000;
+
+    /**
+     * The pause between two read requests is at least this multiple of the average acknowledgement latency
+     */
+    private static final int ACK_LATENCY_FACTOR = 2;
+
+    /**
+     * Weight of a new sample in the moving averages of the read timings
+     */
+    private static final double SMOOTHING = 0.2;
+
     private final Logger logger = LoggerFactory.getLogger(AbstractKNXClient.class);
     private final KNXTypeMapper typeHelper = new KNXCoreTypeMapper();
 
@@ -83,10 +103,53 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable KNXNetworkLink link;
     private @Nullable DeviceInfoClient deviceInfoClient;
     private @Nullable ScheduledFuture<?> busJob;
+    private final Object busJobLock = new Object();
+
+    /**
+     * Identifies the chain of read jobs of the current connection, guarded by {@link #busJobLock}. A job of a released
+     * connection must not schedule further reads, as the next connection has started its own chain.
+     */
+    private long busJobGeneration;
     private @Nullable ScheduledFuture<?> connectJob;
 
-    private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
-    private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
+    /**
+     * The registered listeners with the group addresses they listen to
+     */
+    private final Map<GroupAddressListener, Set<GroupAddress>> groupAddressListeners = new ConcurrentHashMap<>();
+
+    /**
+     * The listeners by group address, so that a telegram is only routed to the listeners of its destination
+     */
+    private final Map<GroupAddress, Set<GroupAddressListener>> groupAddressIndex = new ConcurrentHashMap<>();
+
+    /**
+     * The executors notifying the listeners, keeping the order of the telegrams per listener
+     */
+    private final Map<GroupAddressListener, SerialExecutor> listenerExecutors = new ConcurrentHashMap<>();
+
+    private final AtomicLong receivedTelegrams = new AtomicLong();
+    private final AtomicLong dispatchedTelegrams = new AtomicLong();
+    private final AtomicLong dispatchLatency = new AtomicLong();
+
+    private final ReadQueue readDatapoints = new ReadQueue();
+
+    /**
+     * The group address of the read request waiting for its confirmation by the gateway, and when it was sent
+     */
+    private volatile @Nullable GroupAddress pendingRead;
+    private volatile long pendingReadSentAt;
+
+    /**
+     * Moving averages in nanoseconds of the time until the gateway confirms a read request, and of the time a read
+     * request takes including the response
+     */
+    private volatile double ackLatency;
+    private volatile double readDuration;
+
+    /**
+     * The current pause in milliseconds between two read requests, adapted to the acknowledgement latency
+     */
+    private volatile long currentReadingPause;
 
     @FunctionalInterface
     private interface ListenerNotification {
@@ -129,6 +192,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         this.thingUID = thingUID;
         this.responseTimeout = responseTimeout;
         this.readingPause = readingPause;
+        this.currentReadingPause = readingPause;
         this.readRetriesLimit = readRetriesLimit;
         this.knxScheduler = knxScheduler;
         this.statusUpdateCallback = statusUpdateCallback;
@@ -196,8 +260,11 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
             link.addLinkListener(this);
 
-            busJob = knxScheduler.scheduleWithFixedDelay(() -> readNextQueuedDatapoint(), 0, readingPause,
-                    TimeUnit.MILLISECONDS);
+            synchronized (busJobLock) {
+                currentReadingPause = readingPause;
+                long generation = ++busJobGeneration;
+                busJob = knxScheduler.schedule(() -> readNextQueuedDatapoint(generation), 0, TimeUnit.MILLISECONDS);
+            }
 
             statusUpdateCallback.updateStatus(ThingStatus.ONLINE);
             cancelReconnectJob(false);
@@ -222,7 +289,10 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private void releaseConnection() {
         logger.debug("Bridge {} is disconnecting from the KNX bus", thingUID);
         readDatapoints.clear();
-        busJob = nullify(busJob, j -> j.cancel(true));
+        synchronized (busJobLock) {
+            busJob = nullify(busJob, j -> j.cancel(true));
+            busJobGeneration++;
+        }
         deviceInfoClient = null;
         managementProcedures = nullify(managementProcedures, mp -> mp.detach());
         managementClient = nullify(managementClient, mc -> mc.detach());
@@ -245,13 +315,24 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     }
 
     private void processEvent(String task, ProcessEvent event, ListenerNotification action) {
+        long receivedAt = System.nanoTime();
+        receivedTelegrams.incrementAndGet();
         GroupAddress destination = event.getDestination();
         IndividualAddress source = event.getSourceAddr();
         byte[] asdu = event.getASDU();
         logger.trace("Received a {} telegram from '{}' to '{}' with value '{}'", task, source, destination, asdu);
-        for (GroupAddressListener listener : groupAddressListeners) {
-            if (listener.listensTo(destination)) {
-                knxScheduler.schedule(() -> action.apply(listener, source, destination, asdu), 0, TimeUnit.SECONDS);
+        Set<GroupAddressListener> listeners = groupAddressIndex.get(destination);
+        if (listeners == null) {
+            return;
+        }
+        for (GroupAddressListener listener : listeners) {
+            SerialExecutor executor = listenerExecutors.get(listener);
+            if (executor != null) {
+                executor.execute(() -> {
+                    dispatchLatency.addAndGet(System.nanoTime() - receivedAt);
+                    dispatchedTelegrams.incrementAndGet();
+                    action.apply(listener, source, destination, asdu);
+                });
             }
         }
     }
@@ -268,36 +349,89 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         return typeHelper.toDPTValue(type, dpt);
     }
 
-    private void readNextQueuedDatapoint() {
-        if (!connectIfNotAutomatic()) {
-            return;
-        }
-        ProcessCommunicator processCommunicator = this.processCommunicator;
-        if (processCommunicator == null) {
-            return;
+    private void readNextQueuedDatapoint(long generation) {
+        try {
+            if (!connectIfNotAutomatic()) {
+                return;
+            }
+            ProcessCommunicator processCommunicator = this.processCommunicator;
+            if (processCommunicator == null) {
+                return;
+            }
+            ReadDatapoint datapoint = readDatapoints.poll();
+            if (datapoint != null) {
+                readQueuedDatapoint(processCommunicator, datapoint);
+            }
+        } finally {
+            scheduleNextRead(generation);
         }
-        ReadDatapoint datapoint = readDatapoints.poll();
-        if (datapoint != null) {
-            datapoint.incrementRetries();
-            try {
-                logger.trace("Sending a Group Read Request telegram for {}", datapoint.getDatapoint().getMainAddress());
-                processCommunicator.read(datapoint.getDatapoint());
-            } catch (KNXException e) {
-                if (datapoint.getRetries() < datapoint.getLimit()) {
-                    readDatapoints.add(datapoint);
-                    logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
-                            datapoint.getDatapoint().getMainAddress(), e.getMessage());
-                } else {
-                    logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.",
-                            datapoint.getDatapoint().getMainAddress(), datapoint.getLimit());
-                }
-            } catch (InterruptedException e) {
-                logger.debug("Interrupted sending KNX read request");
+    }
+
+    private void scheduleNextRead(long generation) {
+        synchronized (busJobLock) {
+            // the connection has been released or re-established while this job was running
+            if (generation != busJobGeneration) {
                 return;
             }
+            busJob = knxScheduler.schedule(() -> readNextQueuedDatapoint(generation), currentReadingPause,
+                    TimeUnit.MILLISECONDS);
         }
     }
 
+    private void readQueuedDatapoint(ProcessCommunicator processCommunicator, ReadDatapoint datapoint) {
+        GroupAddress groupAddress = datapoint.getDatapoint().getMainAddress();
+        datapoint.incrementRetries();
+        long sentAt = System.nanoTime();
+        pendingReadSentAt = sentAt;
+        pendingRead = groupAddress;
+        try {
+            logger.trace("Sending a Group Read Request telegram for {}", groupAddress);
+            processCommunicator.read(datapoint.getDatapoint());
+            readDuration = smooth(readDuration, System.nanoTime() - sentAt);
+            adaptReadingPause(true);
+        } catch (KNXException e) {
+            // the gateway is congested if it did not even confirm the request, otherwise the device did not respond
+            adaptReadingPause(pendingRead == null);
+            if (datapoint.getRetries() < datapoint.getLimit()) {
+                readDatapoints.add(datapoint);
+                logger.debug("Could not read value for datapoint {}: {}. Going to retry.", groupAddress,
+                        e.getMessage());
+            } else {
+                logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.",
+                        groupAddress, datapoint.getLimit());
+            }
+        } catch (InterruptedException e) {
+            logger.debug("Interrupted sending KNX read request");
+        } finally {
+            pendingRead = null;
+        }
+    }
+
+    /**
+     * Adapts the pause between two read requests: it backs off exponentially while the gateway does not confirm the
+     * requests and otherwise follows the acknowledgement latency, but never falls below the configured reading pause.
+     *
+     * @param confirmed whether the gateway confirmed the last read request
+     */
+    private void adaptReadingPause(boolean confirmed) {
+        long pause = currentReadingPause;
+        if (confirmed) {
+            long ackPause = TimeUnit.NANOSECONDS.toMillis((long) (ACK_LATENCY_FACTOR * ackLatency));
+            pause = Math.max(Math.max(readingPause, ackPause), pause / 2);
+        } else {
+            pause = Math.max(1, pause) * 2;
+        }
+        long newPause = Math.min(pause, Math.max(readingPause, MAX_READING_PAUSE));
+        if (newPause != currentReadingPause) {
+            logger.trace("Pause between read requests is now {} ms", newPause);
+            currentReadingPause = newPause;
+        }
+    }
+
+    private static double smooth(double average, long sample) {
+        return average == 0 ? sample : average + SMOOTHING * (sample - average);
+    }
+
     public void dispose() {
         cancelReconnectJob(true);
         disconnect(null);
@@ -325,7 +459,15 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
     @Override
     public void confirmation(@Nullable FrameEvent e) {
-        // no-op
+        GroupAddress pendingRead = this.pendingRead;
+        if (e == null || pendingRead == null || !(e.getFrame() instanceof CEMILData)) {
+            return;
+        }
+        CEMILData frame = (CEMILData) e.getFrame();
+        if (pendingRead.equals(frame.getDestination()) && frame.isPositiveConfirmation()) {
+            ackLatency = smooth(ackLatency, System.nanoTime() - pendingReadSentAt);
+            this.pendingRead = null;
+        }
     }
 
     @Override
@@ -362,23 +504,81 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     }
 
     @Override
-    public void readDatapoint(Datapoint datapoint) {
-        synchronized (this) {
-            ReadDatapoint retryDatapoint = new ReadDatapoint(datapoint, readRetriesLimit);
-            if (!readDatapoints.contains(retryDatapoint)) {
-                readDatapoints.add(retryDatapoint);
-            }
-        }
+    public void readDatapoint(Datapoint datapoint, ReadPriority priority) {
+        readDatapoints.add(new ReadDatapoint(datapoint, readRetriesLimit, priority));
     }
 
     @Override
     public final boolean registerGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.add(listener);
+        Set<GroupAddress> groupAddresses = new HashSet<>(listener.getGroupAddresses());
+        synchronized (groupAddressListeners) {
+            Set<GroupAddress> previousGroupAddresses = groupAddressListeners.put(listener, groupAddresses);
+            if (previousGroupAddresses != null) {
+                removeFromIndex(listener, previousGroupAddresses);
+            }
+            for (GroupAddress groupAddress : groupAddresses) {
+                groupAddressIndex.computeIfAbsent(groupAddress, ga -> new CopyOnWriteArraySet<>()).add(listener);
+            }
+            listenerExecutors.computeIfAbsent(listener, l -> new SerialExecutor(knxScheduler));
+            return previousGroupAddresses == null;
+        }
     }
 
     @Override
     public final boolean unregisterGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.remove(listener);
+        synchronized (groupAddressListeners) {
+            Set<GroupAddress> groupAddresses = groupAddressListeners.remove(listener);
+            if (groupAddresses == null) {
+                return false;
+            }
+            removeFromIndex(listener, groupAddresses);
+            listenerExecutors.remove(listener);
+            return true;
+        }
+    }
+
+    private void removeFromIndex(GroupAddressListener listener, Set<GroupAddress> groupAddresses) {
+        for (GroupAddress groupAddress : groupAddresses) {
+            groupAddressIndex.computeIfPresent(groupAddress, (ga, listeners) -> {
+                listeners.remove(listener);
+                return listeners.isEmpty() ? null : listeners;
+            });
+        }
+    }
+
+    /**
+     * @return the number of group telegrams received from the bus
+     */
+    public long getReceivedTelegrams() {
+        return receivedTelegrams.get();
+    }
+
+    /**
+     * @return the number of telegrams passed to the listeners, one per listener of the destination
+     */
+    public long getDispatchedTelegrams() {
+        return dispatchedTelegrams.get();
+    }
+
+    /**
+     * @return the total time in nanoseconds the dispatched telegrams waited before being passed to their listener
+     */
+    public long getDispatchLatency() {
+        return dispatchLatency.get();
+    }
+
+    /**
+     * @return the number of data points waiting to be read from the bus
+     */
+    public int getReadQueueSize() {
+        return readDatapoints.size();
+    }
+
+    /**
+     * @return the estimated time in milliseconds until all queued data points have been read
+     */
+    public long getReadQueueDrainTime() {
+        return readDatapoints.size() * (TimeUnit.NANOSECONDS.toMillis((long) readDuration) + currentReadingPause);
     }
 
     @Override
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.knx.client.ReadPriority;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ * Queue of the data points to be read from the KNX bus.
+ *
+ * A group address is queued only once, no matter how many things or channels request it. The data points are taken
+ * in the order of their {@link ReadPriority} and in the order they were added within the same priority. Requesting a
+ * queued group address again with a higher priority moves it up to that priority.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class ReadQueue {
+
+    private final List<Map<GroupAddress, ReadDatapoint>> queues = new ArrayList<>();
+    private int size;
+
+    public ReadQueue() {
+        for (int i = 0; i < ReadPriority.values().length; i++) {
+            queues.add(new LinkedHashMap<>());
+        }
+    }
+
+    /**
+     * Adds the given data point, unless its group address is already queued with the same or a higher priority.
+     *
+     * @param datapoint the data point to read
+     * @return {@code true} if the data point was added
+     */
+    public synchronized boolean add(ReadDatapoint datapoint) {
+        GroupAddress groupAddress = datapoint.getDatapoint().getMainAddress();
+        for (ReadPriority priority : ReadPriority.values()) {
+            Map<GroupAddress, ReadDatapoint> queue = queues.get(priority.ordinal());
+            if (queue.containsKey(groupAddress)) {
+                if (priority.compareTo(datapoint.getPriority()) <= 0) {
+                    return false;
+                }
+                queue.remove(groupAddress);
+                size--;
+                break;
+            }
+        }
+        queues.get(datapoint.getPriority().ordinal()).put(groupAddress, datapoint);
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the next data point to be read.
+     *
+     * @return the data point with the highest priority which was added first, or {@code null} if the queue is empty
+     */
+    public synchronized @Nullable ReadDatapoint poll() {
+        for (Map<GroupAddress, ReadDatapoint> queue : queues) {
+            Iterator<ReadDatapoint> iterator = queue.values().iterator();
+            if (iterator.hasNext()) {
+                ReadDatapoint datapoint = iterator.next();
+                iterator.remove();
+                size--;
+                return datapoint;
+            }
+        }
+        return null;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        for (Map<GroupAddress, ReadDatapoint> queue : queues) {
+            queue.clear();
+        }
+        size = 0;
+    }
+
+}
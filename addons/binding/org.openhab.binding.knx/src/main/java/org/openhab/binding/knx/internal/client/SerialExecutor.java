@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes tasks one after another in the order they were submitted, using the threads of a shared executor.
+ *
+ * Only one task is handed to the shared executor while tasks are queued, so that a busy listener neither blocks other
+ * listeners nor creates a task on the shared executor for every telegram.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class SerialExecutor implements Executor {
+
+    private final Logger logger = LoggerFactory.getLogger(SerialExecutor.class);
+
+    private final Executor executor;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public SerialExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::runTasks);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                tasks.clear();
+                throw e;
+            }
+        }
+    }
+
+    private void runTasks() {
+        try {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    logger.warn("An error occurred while processing a KNX telegram: {}", e.getMessage(), e);
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            // a task may have been added after the queue was found empty
+            if (!tasks.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+}
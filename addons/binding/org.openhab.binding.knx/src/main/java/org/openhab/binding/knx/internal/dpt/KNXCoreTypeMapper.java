@@ -20,6 +20,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -91,6 +94,27 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     private static final String TIME_DAY_FORMAT = new String("EEE, HH:mm:ss");
     private static final String DATE_FORMAT = new String("yyyy-MM-dd");
 
+    /**
+     * The date formats are not thread-safe, so every thread gets its own instances instead of creating them for
+     * every telegram.
+     */
+    private static final ThreadLocal<SimpleDateFormat> TIME_DAY_PARSER = ThreadLocal
+            .withInitial(() -> new SimpleDateFormat(TIME_DAY_FORMAT, Locale.US));
+    private static final ThreadLocal<SimpleDateFormat> DATE_PARSER = ThreadLocal
+            .withInitial(() -> new SimpleDateFormat(DATE_FORMAT));
+    private static final ThreadLocal<SimpleDateFormat> DATE_TIME_FORMATTER = ThreadLocal
+            .withInitial(() -> new SimpleDateFormat(DateTimeType.DATE_PATTERN));
+
+    /**
+     * Maximum number of idle translators kept per datapoint type
+     */
+    private static final int MAX_IDLE_TRANSLATORS = 4;
+
+    /**
+     * The main and sub numbers of the datapoint type ids, so that the ids are parsed only once
+     */
+    private static final Map<String, DPTDescriptor> DPT_DESCRIPTORS = new ConcurrentHashMap<>();
+
     /**
      * stores the openHAB type class for (supported) KNX datapoint types in a generic way.
      * dptTypeMap stores more specific type class and exceptions.
@@ -103,6 +127,13 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     /** stores the default KNX DPT to use for each openHAB type */
     private final Map<Class<? extends Type>, String> defaultDptMap;
 
+    /**
+     * The idle translators by datapoint type id. A translator holds the data it translates, so it is used by one
+     * thread at a time. As only few datapoint types are in use, they are kept instead of being created for every
+     * telegram.
+     */
+    private final Map<String, BlockingQueue<DPTXlator>> idleTranslators = new ConcurrentHashMap<>();
+
     public KNXCoreTypeMapper() {
 
         @SuppressWarnings("unused")
@@ -571,20 +602,22 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     public String toDPTValue(Type type, String dptID) {
 
         DPT dpt;
-        int mainNumber = getMainNumber(dptID);
+        DPTDescriptor descriptor = getDPTDescriptor(dptID);
+        int mainNumber = descriptor.mainNumber;
         if (mainNumber == -1) {
             logger.error("toDPTValue couldn't identify mainnumber in dptID: {}", dptID);
             return null;
         }
-        int subNumber = getSubNumber(dptID);
+        int subNumber = descriptor.subNumber;
         if (subNumber == -1) {
             logger.debug("toType: couldn't identify sub number in dptID: {}.", dptID);
             return null;
         }
 
         try {
-            DPTXlator translator = TranslatorTypes.createTranslator(mainNumber, dptID);
+            DPTXlator translator = acquireTranslator(mainNumber, dptID);
             dpt = translator.getType();
+            releaseTranslator(dptID, translator);
         } catch (KNXException e) {
             return null;
         }
@@ -662,45 +695,51 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
 
     @Override
     public Type toType(Datapoint datapoint, byte[] data) {
+        DPTXlator translator;
         try {
-            DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
-            translator.setData(data);
-            String value = translator.getValue();
+            translator = acquireTranslator(datapoint.getMainNumber(), datapoint.getDPT());
+        } catch (KNXException e) {
+            logger.warn("Failed creating a translator for datapoint type '{}'.", datapoint.getDPT(), e);
+            return null;
+        }
+        try {
+            return toType(datapoint, data, translator);
+        } finally {
+            releaseTranslator(datapoint.getDPT(), translator);
+        }
+    }
 
+    private Type toType(Datapoint datapoint, byte[] data, DPTXlator translator) {
+        try {
             String id = translator.getType().getID();
             logger.trace("toType datapoint DPT = {}", datapoint.getDPT());
 
-            int mainNumber = getMainNumber(id);
+            DPTDescriptor descriptor = getDPTDescriptor(id);
+            int mainNumber = descriptor.mainNumber;
             if (mainNumber == -1) {
                 logger.debug("toType: couldn't identify mainnumber in dptID: {}.", id);
                 return null;
             }
-            int subNumber = getSubNumber(id);
+            int subNumber = descriptor.subNumber;
             if (subNumber == -1) {
                 logger.debug("toType: couldn't identify sub number in dptID: {}.", id);
                 return null;
             }
+
+            Type fastType = toTypeFast(id, mainNumber, subNumber, data);
+            if (fastType != null) {
+                return fastType;
+            }
+
+            translator.setData(data);
+            String value = translator.getValue();
             /*
              * Following code section deals with specific mapping of values from KNX to openHAB types were the String
              * received from the DPTXlator is not sufficient to set the openHAB type or has bugs
              */
             switch (mainNumber) {
                 case 1:
-                    DPTXlatorBoolean translatorBoolean = (DPTXlatorBoolean) translator;
-                    switch (subNumber) {
-                        case 8:
-                            return translatorBoolean.getValueBoolean() ? UpDownType.DOWN : UpDownType.UP;
-                        case 9:
-                            return translatorBoolean.getValueBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
-                        case 10:
-                            return translatorBoolean.getValueBoolean() ? StopMoveType.MOVE : StopMoveType.STOP;
-                        case 19:
-                            return translatorBoolean.getValueBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
-                        case 22:
-                            return DecimalType.valueOf(translatorBoolean.getValueBoolean() ? "1" : "0");
-                        default:
-                            return translatorBoolean.getValueBoolean() ? OnOffType.ON : OnOffType.OFF;
-                    }
+                    return toBooleanType(subNumber, ((DPTXlatorBoolean) translator).getValueBoolean());
                 case 2:
                     DPTXlator1BitControlled translator1BitControlled = (DPTXlator1BitControlled) translator;
                     int decValue = (translator1BitControlled.getControlBit() ? 2 : 0)
@@ -781,7 +820,7 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                             && !translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
                         // Pure date format, no time information
                         cal.setTimeInMillis(translatorDateTime.getValueMilliseconds());
-                        value = new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime());
+                        value = DATE_TIME_FORMATTER.get().format(cal.getTime());
                         return DateTimeType.valueOf(value);
                     } else if (!translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
                             && translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
@@ -790,13 +829,13 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                         cal.set(Calendar.HOUR_OF_DAY, translatorDateTime.getHour());
                         cal.set(Calendar.MINUTE, translatorDateTime.getMinute());
                         cal.set(Calendar.SECOND, translatorDateTime.getSecond());
-                        value = new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime());
+                        value = DATE_TIME_FORMATTER.get().format(cal.getTime());
                         return DateTimeType.valueOf(value);
                     } else if (translatorDateTime.isValidField(DPTXlatorDateTime.YEAR)
                             && translatorDateTime.isValidField(DPTXlatorDateTime.TIME)) {
                         // Date format and time information
                         cal.setTimeInMillis(translatorDateTime.getValueMilliseconds());
-                        value = new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(cal.getTime());
+                        value = DATE_TIME_FORMATTER.get().format(cal.getTime());
                         return DateTimeType.valueOf(value);
                     }
                     break;
@@ -807,11 +846,8 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                 return null;
             }
 
-            if (typeClass.equals(PercentType.class)) {
-                return new PercentType(BigDecimal.valueOf(Math.round(translator.getNumericValue())));
-            }
-            if (typeClass.equals(DecimalType.class)) {
-                return new DecimalType(translator.getNumericValue());
+            if (typeClass.equals(PercentType.class) || typeClass.equals(DecimalType.class)) {
+                return toNumericType(typeClass, translator.getNumericValue());
             }
             if (typeClass.equals(StringType.class)) {
                 return StringType.valueOf(value);
@@ -842,13 +878,124 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
         } catch (KNXIllegalArgumentException kiae) {
             logger.info("Translator couldn't parse data for datapoint type '{}' (KNXIllegalArgumentException).",
                     datapoint.getDPT());
-        } catch (KNXException e) {
-            logger.warn("Failed creating a translator for datapoint type '{}'.", datapoint.getDPT(), e);
         }
 
         return null;
     }
 
+    /**
+     * Decodes the ASDU of the most common datapoint types directly, without having the translator format the value
+     * as a String first. The results are the same as the ones of the translators.
+     *
+     * @return the decoded type or {@code null} if there is no fast path for the datapoint type
+     */
+    private Type toTypeFast(String id, int mainNumber, int subNumber, byte[] data) {
+        switch (mainNumber) {
+            case 1:
+                return data.length == 1 ? toBooleanType(subNumber, (data[0] & 0x01) != 0) : null;
+            case 5:
+                if (data.length != 1) {
+                    return null;
+                }
+                int unsigned = data[0] & 0xff;
+                switch (subNumber) {
+                    case 1: // 5.001 Scaling
+                        return toNumericType(toTypeClass(id), unsigned * 100.0 / 255);
+                    case 3: // 5.003 Angle
+                        return toNumericType(toTypeClass(id), unsigned * 360.0 / 255);
+                    case 4:
+                    case 5:
+                    case 6:
+                    case 10:
+                        return toNumericType(toTypeClass(id), unsigned);
+                    default:
+                        return null;
+                }
+            case 9:
+                if (data.length != 2) {
+                    return null;
+                }
+                // sign bit, 4 bit exponent and the remaining 11 bit of the two's complement mantissa
+                int twoByteFloat = ((data[0] & 0xff) << 8) | (data[1] & 0xff);
+                int exponent = (twoByteFloat >> 11) & 0x0f;
+                int mantissa = (twoByteFloat & 0x8000) != 0 ? (twoByteFloat & 0x07ff) - 0x0800 : twoByteFloat & 0x07ff;
+                return toNumericType(toTypeClass(id), 0.01 * mantissa * (1 << exponent));
+            case 14:
+                if (data.length != 4) {
+                    return null;
+                }
+                int fourByteFloat = ((data[0] & 0xff) << 24) | ((data[1] & 0xff) << 16) | ((data[2] & 0xff) << 8)
+                        | (data[3] & 0xff);
+                return toNumericType(toTypeClass(id), Float.intBitsToFloat(fourByteFloat));
+            default:
+                return null;
+        }
+    }
+
+    private Type toBooleanType(int subNumber, boolean value) {
+        switch (subNumber) {
+            case 8:
+                return value ? UpDownType.DOWN : UpDownType.UP;
+            case 9:
+                return value ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+            case 10:
+                return value ? StopMoveType.MOVE : StopMoveType.STOP;
+            case 19:
+                return value ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+            case 22:
+                return DecimalType.valueOf(value ? "1" : "0");
+            default:
+                return value ? OnOffType.ON : OnOffType.OFF;
+        }
+    }
+
+    /**
+     * @return the {@link PercentType} or {@link DecimalType} of the value, or {@code null} for other type classes
+     */
+    private Type toNumericType(Class<? extends Type> typeClass, double value) {
+        if (PercentType.class.equals(typeClass)) {
+            return new PercentType(BigDecimal.valueOf(Math.round(value)));
+        }
+        if (DecimalType.class.equals(typeClass)) {
+            return new DecimalType(value);
+        }
+        return null;
+    }
+
+    /**
+     * Takes an idle translator for the given datapoint type, or creates one if there is none.
+     *
+     * @param mainNumber the main number of the datapoint type, or 0 to take it from the id
+     * @param dptID the datapoint type id
+     * @return the translator, which has to be used by the current thread only until it is released
+     * @throws KNXException if the datapoint type is not supported by calimero
+     */
+    private DPTXlator acquireTranslator(int mainNumber, String dptID) throws KNXException {
+        BlockingQueue<DPTXlator> translators = idleTranslators.get(dptID);
+        DPTXlator translator = translators != null ? translators.poll() : null;
+        if (translator == null) {
+            translator = TranslatorTypes.createTranslator(mainNumber, dptID);
+        }
+        return translator;
+    }
+
+    /**
+     * Keeps a translator taken by {@link #acquireTranslator(int, String)} for reuse, unless enough translators of its
+     * datapoint type are idle already.
+     */
+    private void releaseTranslator(String dptID, DPTXlator translator) {
+        idleTranslators.computeIfAbsent(dptID, id -> new ArrayBlockingQueue<>(MAX_IDLE_TRANSLATORS)).offer(translator);
+    }
+
+    private DPTDescriptor getDPTDescriptor(String dptID) {
+        DPTDescriptor descriptor = DPT_DESCRIPTORS.get(dptID);
+        if (descriptor == null) {
+            descriptor = new DPTDescriptor(getMainNumber(dptID), getSubNumber(dptID));
+            DPT_DESCRIPTORS.put(dptID, descriptor);
+        }
+        return descriptor;
+    }
+
     /**
      * Converts a datapoint type id into an openHAB type class
      *
@@ -859,7 +1006,7 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     public Class<? extends Type> toTypeClass(String dptId) {
         Class<? extends Type> ohClass = dptTypeMap.get(dptId);
         if (ohClass == null) {
-            int mainNumber = getMainNumber(dptId);
+            int mainNumber = getDPTDescriptor(dptId).mainNumber;
             if (mainNumber == -1) {
                 logger.debug("Couldn't convert KNX datapoint type id into openHAB type class for dptId: {}.", dptId);
                 return null;
@@ -894,7 +1041,7 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
 
         try {
             if (DPTXlatorDate.DPT_DATE.getID().equals(dpt)) {
-                date = new SimpleDateFormat(DATE_FORMAT).parse(value);
+                date = DATE_PARSER.get().parse(value);
             } else if (DPTXlatorTime.DPT_TIMEOFDAY.getID().equals(dpt)) {
                 if (value.contains("no-day")) {
                     /*
@@ -909,14 +1056,14 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                     stb.replace(start, end, String.format(Locale.US, "%1$ta", Calendar.getInstance()));
                     value = stb.toString();
                 }
-                date = new SimpleDateFormat(TIME_DAY_FORMAT, Locale.US).parse(value);
+                date = TIME_DAY_PARSER.get().parse(value);
             }
         } catch (ParseException pe) {
             // do nothing but logging
             logger.warn("Could not parse '{}' to a valid date", value);
         }
 
-        return date != null ? new SimpleDateFormat(DateTimeType.DATE_PATTERN).format(date) : "";
+        return date != null ? DATE_TIME_FORMATTER.get().format(date) : "";
     }
 
     /**
@@ -998,4 +1145,18 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
         }
         return result;
     }
+
+    /**
+     * The main and sub number of a datapoint type id, -1 if they could not be identified
+     */
+    private static final class DPTDescriptor {
+
+        private final int mainNumber;
+        private final int subNumber;
+
+        private DPTDescriptor(int mainNumber, int subNumber) {
+            this.mainNumber = mainNumber;
+            this.subNumber = subNumber;
+        }
+    }
 }
@@ -93,6 +93,7 @@ public class IPBridgeThingHandler extends KNXBridgeBaseThingHandler {
                 config.getReadingPause().intValue(), config.getReadRetriesLimit().intValue(), getScheduler(), this);
 
         client.initialize();
+        startStatisticsJob();
     }
 
     @Override
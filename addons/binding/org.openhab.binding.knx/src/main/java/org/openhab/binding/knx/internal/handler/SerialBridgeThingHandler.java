@@ -42,6 +42,7 @@ public class SerialBridgeThingHandler extends KNXBridgeBaseThingHandler {
     public void initialize() {
         updateStatus(ThingStatus.UNKNOWN);
         client.initialize();
+        startStatisticsJob();
     }
 
     @Override
@@ -0,0 +1,221 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.logreader.internal.filereader;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openhab.binding.logreader.internal.filereader.api.FileReaderListener;
+
+/**
+ * Tests for {@link NioFileTailer}
+ *
+ * @author agent - Initial contribution
+ */
+public class NioFileTailerTest {
+
+    /**
+     * Scheduler executing the reads of the tailer only when asked to
+     */
+    private static class ManualScheduler extends ScheduledThreadPoolExecutor {
+        private Runnable command;
+
+        ManualScheduler() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay,
+                TimeUnit unit) {
+            this.command = command;
+            return super.schedule(() -> {
+            }, 1, TimeUnit.DAYS);
+        }
+
+        void tick() {
+            command.run();
+        }
+    }
+
+    /**
+     * Listener recording the events, lines prefixed with the index of the batch they were received in
+     */
+    private static class RecordingListener implements FileReaderListener {
+        final List<String> events = new ArrayList<>();
+        private int batches;
+
+        @Override
+        public void fileNotFound() {
+            events.add("not found");
+        }
+
+        @Override
+        public void fileRotated() {
+            events.add("rotated");
+        }
+
+        @Override
+        public void handle(String line) {
+            handle(Collections.singletonList(line));
+        }
+
+        @Override
+        public void handle(List<String> lines) {
+            batches++;
+            for (String line : lines) {
+                events.add(batches + ":" + line);
+            }
+        }
+
+        @Override
+        public void handle(Exception ex) {
+            events.add("error " + ex.getMessage());
+        }
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ManualScheduler scheduler = new ManualScheduler();
+    private final RecordingListener listener = new RecordingListener();
+    private final NioFileTailer tailer = new NioFileTailer();
+    private File file;
+
+    @Before
+    public void setUp() {
+        file = new File(folder.getRoot(), "openhab.log");
+        tailer.registerListener(listener);
+    }
+
+    @After
+    public void tearDown() {
+        tailer.stop();
+        scheduler.shutdownNow();
+    }
+
+    private void append(File file, String data) throws IOException {
+        Files.write(file.toPath(), data.getBytes(Charset.defaultCharset()), StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    private void start() throws Exception {
+        tailer.start(file.getAbsolutePath(), 1000, scheduler);
+        scheduler.tick();
+    }
+
+    @Test
+    public void testStartsFromEndOfFile() throws Exception {
+        append(file, "old line\n");
+        start();
+        append(file, "first\nsecond\n");
+        scheduler.tick();
+
+        assertEquals(Arrays.asList("1:first", "1:second"), listener.events);
+    }
+
+    @Test
+    public void testPartialLinesAndWindowsLineEndings() throws Exception {
+        append(file, "");
+        start();
+        append(file, "par");
+        scheduler.tick();
+        assertTrue(listener.events.isEmpty());
+
+        append(file, "tial\r\nnext\n");
+        scheduler.tick();
+        assertEquals(Arrays.asList("1:partial", "1:next"), listener.events);
+    }
+
+    @Test
+    public void testFileNotFound() throws Exception {
+        start();
+
+        assertEquals(Arrays.asList("not found"), listener.events);
+    }
+
+    @Test
+    public void testRotationByRename() throws Exception {
+        append(file, "");
+        start();
+        append(file, "last of old\n");
+        assertTrue(file.renameTo(new File(folder.getRoot(), "openhab.log.1")));
+        append(file, "first of new\n");
+        scheduler.tick();
+
+        assertEquals(Arrays.asList("1:last of old", "rotated", "2:first of new"), listener.events);
+    }
+
+    @Test
+    public void testUnterminatedLineSentOnRotation() throws Exception {
+        append(file, "");
+        start();
+        append(file, "complete\nunterminated");
+        scheduler.tick();
+        assertTrue(file.renameTo(new File(folder.getRoot(), "openhab.log.1")));
+        append(file, "first of new\n");
+        scheduler.tick();
+
+        assertEquals(Arrays.asList("1:complete", "2:unterminated", "rotated", "3:first of new"), listener.events);
+    }
+
+    @Test
+    public void testRotationByTruncation() throws Exception {
+        append(file, "");
+        start();
+        append(file, "a long line before truncation\n");
+        scheduler.tick();
+        try (RandomAccessFile truncated = new RandomAccessFile(file, "rw")) {
+            truncated.setLength(0);
+        }
+        append(file, "short\n");
+        scheduler.tick();
+
+        assertEquals(Arrays.asList("1:a long line before truncation", "rotated", "2:short"), listener.events);
+    }
+
+    @Test
+    public void testLinesSpanningSeveralChunks() throws Exception {
+        append(file, "");
+        start();
+        StringBuilder data = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            data.append("line number ").append(i).append('\n');
+            expected.add("line number " + i);
+        }
+        append(file, data.toString());
+        scheduler.tick();
+
+        List<String> lines = new ArrayList<>();
+        for (String event : listener.events) {
+            lines.add(event.substring(event.indexOf(':') + 1));
+        }
+        assertEquals(expected, lines);
+        // Data is read in several chunks, each sent as a batch
+        assertTrue(listener.batches > 1);
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.logreader.internal.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.openhab.binding.logreader.internal.LogReaderBindingConstants.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.ThingStatusInfo;
+import org.eclipse.smarthome.core.thing.binding.ThingHandlerCallback;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.eclipse.smarthome.core.thing.binding.builder.ChannelBuilder;
+import org.eclipse.smarthome.core.thing.binding.builder.ThingBuilder;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.openhab.binding.logreader.internal.filereader.FileTailer;
+import org.openhab.binding.logreader.internal.filereader.NioFileTailer;
+
+/**
+ * Tests for {@link LogHandler}
+ *
+ * @author agent - Initial contribution
+ */
+public class LogHandlerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<String> channelEvents = new ArrayList<>();
+    private Thing thing;
+    private LogHandler handler;
+
+    @Before
+    public void setUp() {
+        System.setProperty("openhab.logdir", folder.getRoot().getAbsolutePath());
+        Configuration configuration = new Configuration();
+        configuration.put("filePath", new File(folder.getRoot(), "openhab.log").getAbsolutePath());
+        configuration.put("refreshRate", 1000);
+        configuration.put(CONFIG_READER_TYPE, READER_TYPE_NIO);
+        configuration.put("errorPatterns", "ERROR");
+        ThingUID thingUID = new ThingUID(THING_READER, "reader");
+        thing = ThingBuilder.create(THING_READER, thingUID).withConfiguration(configuration)
+                .withChannel(ChannelBuilder.create(new ChannelUID(thingUID, CHANNEL_ERRORS), "Number").build())
+                .withChannel(ChannelBuilder.create(new ChannelUID(thingUID, CHANNEL_LASTERROR), "String").build())
+                .withChannel(ChannelBuilder.create(new ChannelUID(thingUID, CHANNEL_NEWERROR), null).build()).build();
+
+        ThingHandlerCallback callback = Mockito.mock(ThingHandlerCallback.class);
+        Mockito.doAnswer(invocation -> {
+            thing.setStatusInfo((ThingStatusInfo) invocation.getArgument(1));
+            return null;
+        }).when(callback).statusUpdated(ArgumentMatchers.same(thing), ArgumentMatchers.any());
+        Mockito.when(callback.isChannelLinked(ArgumentMatchers.any())).thenReturn(true);
+        Mockito.doAnswer(invocation -> {
+            ChannelUID channelUID = invocation.getArgument(0);
+            State state = invocation.getArgument(1);
+            channelEvents.add(channelUID.getId() + "=" + state);
+            return null;
+        }).when(callback).stateUpdated(ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.doAnswer(invocation -> {
+            ChannelUID channelUID = invocation.getArgument(1);
+            String event = invocation.getArgument(2);
+            channelEvents.add(channelUID.getId() + ":" + event);
+            return null;
+        }).when(callback).channelTriggered(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        handler = new LogHandler(thing);
+        handler.setCallback(callback);
+    }
+
+    @After
+    public void tearDown() {
+        handler.dispose();
+    }
+
+    @Test
+    public void testCreateFileReader() {
+        assertThat(LogHandler.createFileReader(READER_TYPE_NIO), is(instanceOf(NioFileTailer.class)));
+        assertThat(LogHandler.createFileReader(READER_TYPE_TAILER), is(instanceOf(FileTailer.class)));
+        assertThat(LogHandler.createFileReader(null), is(instanceOf(FileTailer.class)));
+    }
+
+    @Test
+    public void testReaderSelectedOnInitialize() {
+        assertThat(handler.getFileReader(), is(nullValue()));
+
+        handler.initialize();
+
+        assertThat(handler.getFileReader(), is(instanceOf(NioFileTailer.class)));
+    }
+
+    @Test
+    public void testReaderSwitchedOnConfigurationUpdate() {
+        handler.initialize();
+        assertThat(handler.getFileReader(), is(instanceOf(NioFileTailer.class)));
+
+        handler.handleConfigurationUpdate(Collections.singletonMap(CONFIG_READER_TYPE, READER_TYPE_TAILER));
+        assertThat(handler.getFileReader(), is(instanceOf(FileTailer.class)));
+
+        handler.handleConfigurationUpdate(Collections.singletonMap(CONFIG_READER_TYPE, READER_TYPE_NIO));
+        assertThat(handler.getFileReader(), is(instanceOf(NioFileTailer.class)));
+    }
+
+    @Test
+    public void testStatesUpdatedBeforeEachTrigger() {
+        handler.initialize();
+        handler.handle(Arrays.asList("ERROR first", "INFO ignored", "ERROR second"));
+
+        assertEquals(Arrays.asList(CHANNEL_ERRORS + "=1", CHANNEL_LASTERROR + "=ERROR first",
+                CHANNEL_NEWERROR + ":ERROR first", CHANNEL_ERRORS + "=2", CHANNEL_LASTERROR + "=ERROR second",
+                CHANNEL_NEWERROR + ":ERROR second"), channelEvents);
+    }
+
+    @Test
+    public void testReaderReleasedOnDispose() {
+        handler.initialize();
+        handler.dispose();
+
+        assertThat(handler.getFileReader(), is(nullValue()));
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.logreader.internal.searchengine;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link MultiPatternMatcher}
+ *
+ * @author agent - Initial contribution
+ */
+public class MultiPatternMatcherTest {
+
+    private static String literal(String regex) {
+        return MultiPatternMatcher.requiredLiteral(Pattern.compile(regex));
+    }
+
+    private static boolean matches(String data, String... regexes) {
+        return new MultiPatternMatcher(Arrays.stream(regexes).map(Pattern::compile).collect(Collectors.toList()))
+                .isMatching(data);
+    }
+
+    @Test
+    public void testLiteralOfPlainText() {
+        assertEquals("ERROR", literal("ERROR"));
+        assertEquals("Exception", literal(".*Exception.*"));
+        assertEquals("[ERROR", literal("\\[ERROR\\s"));
+        assertEquals(" failed", literal("\\d+ failed"));
+    }
+
+    @Test
+    public void testLiteralWithOptionalCharacters() {
+        assertEquals("Warn", literal("Warn(ing)?"));
+        assertEquals("Erro", literal("Error?"));
+    }
+
+    @Test
+    public void testNoLiteralForUnanalyzedPatterns() {
+        assertNull(literal("ERROR|WARN"));
+        assertNull(literal("(?i)error"));
+        assertNull(literal("\\Qa.b\\E"));
+        assertNull(literal(".*"));
+    }
+
+    @Test
+    public void testNoLiteralForEscapesTakingFurtherCharacters() {
+        assertNull(literal("\\x41BC"));
+        assertNull(literal("\\x{41}BC"));
+        assertNull(literal("\\u0041BC"));
+        assertNull(literal("\\0101BC"));
+        assertNull(literal("\\cXBC"));
+        assertNull(literal("\\p{Lu}BC"));
+        assertNull(literal("(a)\\1BC"));
+    }
+
+    @Test
+    public void testEscapedPatternsStillMatch() {
+        assertTrue(matches("ABC", "\\x41BC"));
+        assertTrue(matches("ABC", "\\u0041BC"));
+        assertTrue(matches("ABC", "\\0101BC"));
+        assertTrue(matches("\u0018BC", "\\cXBC"));
+        assertFalse(matches("x41BC", "\\x41BC"));
+    }
+
+    @Test
+    public void testMatching() {
+        assertTrue(matches("2018-01-01 [ERROR] failure", "\\[ERROR\\]", "\\[WARN\\]"));
+        assertTrue(matches("2018-01-01 [WARN] failure", "\\[ERROR\\]", "\\[WARN\\]"));
+        assertFalse(matches("2018-01-01 [INFO] ok", "\\[ERROR\\]", "\\[WARN\\]"));
+        assertFalse(matches("ERROR", "ERROR\\d"));
+        assertTrue(matches("ERROR1", "ERROR\\d"));
+        assertFalse(matches("anything"));
+    }
+
+    @Test
+    public void testMatchingSeveralLines() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(
+                Arrays.asList(Pattern.compile("ERROR\\d"), Pattern.compile("WARN")));
+        // Each line tries the patterns of a found literal again
+        assertFalse(matcher.isMatching("ERROR"));
+        assertTrue(matcher.isMatching("ERROR2"));
+        assertFalse(matcher.isMatching("ERRORx"));
+        assertTrue(matcher.isMatching("ERROR ERROR3"));
+        assertTrue(matcher.isMatching("WARN"));
+    }
+}
@@ -37,4 +37,9 @@ public class LogReaderBindingConstants {
     public static final String CHANNEL_NEWWARNING = "newWarningEvent";
     public static final String CHANNEL_NEWERROR = "newErrorEvent";
     public static final String CHANNEL_NEWCUSTOM = "newCustomEvent";
+
+    // List of all configuration parameters and values
+    public static final String CONFIG_READER_TYPE = "readerType";
+    public static final String READER_TYPE_TAILER = "tailer";
+    public static final String READER_TYPE_NIO = "nio";
 }
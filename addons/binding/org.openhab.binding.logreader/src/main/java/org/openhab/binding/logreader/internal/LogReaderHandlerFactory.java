@@ -8,7 +8,7 @@
  */
 package org.openhab.binding.logreader.internal;
 
-import static org.openhab.binding.logreader.internal.LogReaderBindingConstants.THING_READER;
+import static org.openhab.binding.logreader.internal.LogReaderBindingConstants.*;
 
 import java.util.Collections;
 import java.util.Set;
@@ -22,7 +22,6 @@ import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.binding.BaseThingHandlerFactory;
 import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.thing.binding.ThingHandlerFactory;
-import org.openhab.binding.logreader.internal.filereader.FileTailer;
 import org.openhab.binding.logreader.internal.handler.LogHandler;
 import org.osgi.service.component.annotations.Component;
 
@@ -49,7 +48,7 @@ public class LogReaderHandlerFactory extends BaseThingHandlerFactory {
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
 
         if (thingTypeUID.equals(THING_READER)) {
-            return new LogHandler(thing, new FileTailer());
+            return new LogHandler(thing);
         }
 
         return null;
@@ -22,12 +22,13 @@ public class LogReaderConfiguration {
     public String errorBlacklistingPatterns;
     public String customPatterns;
     public String customBlacklistingPatterns;
+    public String readerType;
 
     @Override
     public String toString() {
         return "[" + "filePath=" + filePath + ", refreshRate=" + refreshRate + ", warningPatterns=" + warningPatterns
                 + ", warningBlacklistingPatterns=" + warningBlacklistingPatterns + ", errorPatterns=" + errorPatterns
                 + ", errorBlacklistingPatterns=" + errorBlacklistingPatterns + ", customPatterns=" + customPatterns
-                + ", customBlacklistingPatterns=" + customBlacklistingPatterns + "]";
+                + ", customBlacklistingPatterns=" + customBlacklistingPatterns + ", readerType=" + readerType + "]";
     }
 }
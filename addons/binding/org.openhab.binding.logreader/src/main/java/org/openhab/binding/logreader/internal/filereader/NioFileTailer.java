@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.logreader.internal.filereader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.logreader.internal.filereader.api.FileReaderException;
+import org.openhab.binding.logreader.internal.filereader.api.LogFileReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link FileChannel} based log file reader implementation.
+ *
+ * All data appended to the file since the previous read is read in large chunks, and the lines of each chunk are sent
+ * to the listeners as a batch. File rotation is detected by change of the file key (e.g. inode) or by the file
+ * shrinking (truncation).
+ *
+ * @author agent - Initial contribution
+ */
+public class NioFileTailer extends AbstractLogFileReader implements LogFileReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Logger logger = LoggerFactory.getLogger(NioFileTailer.class);
+
+    private final Charset charset = Charset.defaultCharset();
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /** Bytes of the last line which is not yet terminated by a newline */
+    private byte[] pending = new byte[256];
+    private int pendingLength;
+
+    private @Nullable Path path;
+    private @Nullable FileChannel channel;
+    private @Nullable Object fileKey;
+    private long position;
+    private @Nullable ScheduledFuture<?> job;
+
+    @Override
+    public synchronized void start(String filePath, long refreshRate, ScheduledExecutorService scheduler)
+            throws FileReaderException {
+        try {
+            path = Paths.get(filePath);
+            logger.debug("Start reading file {}", path);
+            job = scheduler.scheduleWithFixedDelay(this::read, 0, Math.max(1, refreshRate), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            throw new FileReaderException(e);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        logger.debug("Shutdown");
+
+        ScheduledFuture<?> job = this.job;
+        if (job != null) {
+            job.cancel(false);
+            this.job = null;
+        }
+        close();
+        path = null;
+    }
+
+    private synchronized void read() {
+        Path path = this.path;
+        if (path == null) {
+            return;
+        }
+        try {
+            FileChannel channel = this.channel;
+            if (channel == null) {
+                // Start from the end of the file, like tail does
+                if (!open(path, true)) {
+                    sendFileNotFoundToListeners();
+                }
+                return;
+            }
+
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                // Rotation in progress, file has been moved but the new one is not created yet
+                readAvailable(channel);
+                return;
+            }
+            Object newFileKey = attributes.fileKey();
+            boolean replaced = newFileKey != null && !newFileKey.equals(fileKey);
+            if (replaced || attributes.size() < position) {
+                logger.debug("File {} rotated", path);
+                if (replaced) {
+                    // Read rest of the old file before switching to the new one
+                    readAvailable(channel);
+                }
+                // The last line of the old file is complete, even without a newline
+                flushPending();
+                close();
+                if (!open(path, false)) {
+                    sendFileNotFoundToListeners();
+                    return;
+                }
+                sendFileRotationToListeners();
+            }
+            readAvailable(Objects.requireNonNull(this.channel));
+        } catch (IOException e) {
+            close();
+            sendExceptionToListeners(e);
+        }
+    }
+
+    private boolean open(Path path, boolean fromEnd) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        this.channel = channel;
+        fileKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        position = fromEnd ? channel.size() : 0;
+        pendingLength = 0;
+        return true;
+    }
+
+    private void close() {
+        FileChannel channel = this.channel;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Error closing file: {}", e.getMessage());
+            }
+            this.channel = null;
+        }
+    }
+
+    /**
+     * Read all available data and send the complete lines to the listeners, one batch per read chunk.
+     */
+    private void readAvailable(FileChannel channel) throws IOException {
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return;
+            }
+            position += read;
+
+            List<String> lines = new ArrayList<>();
+            byte[] bytes = buffer.array();
+            int lineStart = 0;
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] != '\n') {
+                    continue;
+                }
+                if (pendingLength > 0) {
+                    appendPending(bytes, lineStart, i - lineStart);
+                    lines.add(decodeLine(pending, 0, pendingLength));
+                    pendingLength = 0;
+                } else {
+                    lines.add(decodeLine(bytes, lineStart, i - lineStart));
+                }
+                lineStart = i + 1;
+            }
+            appendPending(bytes, lineStart, read - lineStart);
+
+            if (!lines.isEmpty()) {
+                sendLinesToListeners(lines);
+            }
+        }
+    }
+
+    private void flushPending() {
+        if (pendingLength > 0) {
+            String line = decodeLine(pending, 0, pendingLength);
+            pendingLength = 0;
+            sendLinesToListeners(Collections.singletonList(line));
+        }
+    }
+
+    private void appendPending(byte[] bytes, int offset, int length) {
+        if (pendingLength + length > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingLength + length));
+        }
+        System.arraycopy(bytes, offset, pending, pendingLength, length);
+        pendingLength += length;
+    }
+
+    private String decodeLine(byte[] bytes, int offset, int length) {
+        // Strip the carriage return of Windows line endings
+        int lineLength = length > 0 && bytes[offset + length - 1] == '\r' ? length - 1 : length;
+        return new String(bytes, offset, lineLength, charset);
+    }
+}
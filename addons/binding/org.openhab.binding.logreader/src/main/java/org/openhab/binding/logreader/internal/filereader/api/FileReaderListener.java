@@ -8,6 +8,8 @@
  */
 package org.openhab.binding.logreader.internal.filereader.api;
 
+import java.util.List;
+
 /**
  * Interface for file reader listeners.
  *
@@ -33,6 +35,17 @@ public interface FileReaderListener {
      */
     void handle(String line);
 
+    /**
+     * This method is called when several new lines are detected at once.
+     *
+     * @param lines the lines, in the order they appear in the file.
+     */
+    default void handle(List<String> lines) {
+        for (String line : lines) {
+            handle(line);
+        }
+    }
+
     /**
      * This method is called when exception has occurred.
      *
@@ -11,8 +11,11 @@ package org.openhab.binding.logreader.internal.handler;
 import static org.openhab.binding.logreader.internal.LogReaderBindingConstants.*;
 
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
 import java.util.regex.PatternSyntaxException;
 
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.StringType;
@@ -25,6 +28,8 @@ import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
 import org.openhab.binding.logreader.internal.config.LogReaderConfiguration;
+import org.openhab.binding.logreader.internal.filereader.FileTailer;
+import org.openhab.binding.logreader.internal.filereader.NioFileTailer;
 import org.openhab.binding.logreader.internal.filereader.api.FileReaderListener;
 import org.openhab.binding.logreader.internal.filereader.api.LogFileReader;
 import org.openhab.binding.logreader.internal.searchengine.SearchEngine;
@@ -43,15 +48,14 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
 
     private LogReaderConfiguration configuration;
 
-    private LogFileReader fileReader;
+    private @Nullable LogFileReader fileReader;
 
     private SearchEngine errorEngine;
     private SearchEngine warningEngine;
     private SearchEngine customEngine;
 
-    public LogHandler(Thing thing, LogFileReader fileReader) {
+    public LogHandler(Thing thing) {
         super(thing);
-        this.fileReader = fileReader;
     }
 
     @Override
@@ -98,6 +102,9 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
 
         logger.debug("Start file reader");
 
+        // Reader is selected on every initialization, so that configuration updates take effect
+        LogFileReader fileReader = createFileReader(configuration.readerType);
+        this.fileReader = fileReader;
         try {
             fileReader.registerListener(this);
             fileReader.start(configuration.filePath, configuration.refreshRate, scheduler);
@@ -115,6 +122,25 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
         shutdown();
     }
 
+    /**
+     * Create file reader of given type
+     *
+     * @param readerType {@link org.openhab.binding.logreader.internal.LogReaderBindingConstants#READER_TYPE_NIO} or
+     *            {@link org.openhab.binding.logreader.internal.LogReaderBindingConstants#READER_TYPE_TAILER}. Tailer is
+     *            used for other values.
+     */
+    static LogFileReader createFileReader(@Nullable String readerType) {
+        return READER_TYPE_NIO.equals(readerType) ? new NioFileTailer() : new FileTailer();
+    }
+
+    /**
+     * Get file reader in use, for tests
+     */
+    @Nullable
+    LogFileReader getFileReader() {
+        return fileReader;
+    }
+
     private void updateChannel(ChannelUID channelUID, Command command, SearchEngine matcher) {
         if (command instanceof DecimalType) {
             matcher.setMatchCount(((DecimalType) command).longValue());
@@ -144,9 +170,14 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
     }
 
     private void shutdown() {
+        LogFileReader fileReader = this.fileReader;
+        if (fileReader == null) {
+            return;
+        }
         logger.debug("Stop file reader");
         fileReader.unregisterListener(this);
         fileReader.stop();
+        this.fileReader = null;
     }
 
     @Override
@@ -167,25 +198,32 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
         if (line == null) {
             return;
         }
+        handle(Collections.singletonList(line));
+    }
 
+    @Override
+    public void handle(List<String> lines) {
         if (!(thing.getStatus() == ThingStatus.ONLINE)) {
             updateStatus(ThingStatus.ONLINE);
         }
 
-        if (errorEngine.isMatching(line)) {
-            updateChannelIfLinked(CHANNEL_ERRORS, new DecimalType(errorEngine.getMatchCount()));
-            updateChannelIfLinked(CHANNEL_LASTERROR, new StringType(line));
-            triggerChannel(CHANNEL_NEWERROR, line);
-        }
-        if (warningEngine.isMatching(line)) {
-            updateChannelIfLinked(CHANNEL_WARNINGS, new DecimalType(warningEngine.getMatchCount()));
-            updateChannelIfLinked(CHANNEL_LASTWARNING, new StringType(line));
-            triggerChannel(CHANNEL_NEWWARNING, line);
-        }
-        if (customEngine.isMatching(line)) {
-            updateChannelIfLinked(CHANNEL_CUSTOMEVENTS, new DecimalType(customEngine.getMatchCount()));
-            updateChannelIfLinked(CHANNEL_LASTCUSTOMEVENT, new StringType(line));
-            triggerChannel(CHANNEL_NEWCUSTOM, line);
+        // The states are updated before each trigger, so that rules triggered by a line read the states of that line
+        for (String line : lines) {
+            if (errorEngine.isMatching(line)) {
+                updateChannelIfLinked(CHANNEL_ERRORS, new DecimalType(errorEngine.getMatchCount()));
+                updateChannelIfLinked(CHANNEL_LASTERROR, new StringType(line));
+                triggerChannel(CHANNEL_NEWERROR, line);
+            }
+            if (warningEngine.isMatching(line)) {
+                updateChannelIfLinked(CHANNEL_WARNINGS, new DecimalType(warningEngine.getMatchCount()));
+                updateChannelIfLinked(CHANNEL_LASTWARNING, new StringType(line));
+                triggerChannel(CHANNEL_NEWWARNING, line);
+            }
+            if (customEngine.isMatching(line)) {
+                updateChannelIfLinked(CHANNEL_CUSTOMEVENTS, new DecimalType(customEngine.getMatchCount()));
+                updateChannelIfLinked(CHANNEL_LASTCUSTOMEVENT, new StringType(line));
+                triggerChannel(CHANNEL_NEWCUSTOM, line);
+            }
         }
     }
 
@@ -0,0 +1,333 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.logreader.internal.searchengine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Matcher checking whether data matches any of several regular expressions.
+ *
+ * Literal text that every match of a pattern must contain is extracted from the patterns. All the literals are
+ * searched with single pass over the data (Aho-Corasick), and regular expressions are executed only for the patterns
+ * whose literal was found. Patterns without such literal are always executed.
+ *
+ * @author agent - Initial contribution
+ */
+public class MultiPatternMatcher {
+
+    /**
+     * Escapes consisting of backslash and single letter, matching something else than the letter itself. Other
+     * escapes with a letter or digit either take further characters (e.g. <code>\x41</code>, <code>\u0041</code>,
+     * <code>\0101</code>, <code>\cX</code>, <code>\p{Lu}</code>) or are back references, and are not analyzed.
+     */
+    private static final String SINGLE_LETTER_ESCAPES = "dDwWsShHvVbBAGzZRXtnrfae";
+
+    /** Patterns which need to be executed for all data */
+    private final Pattern[] unfilteredPatterns;
+
+    /** Patterns indexed by literal id of the automaton */
+    private final Pattern[][] patternsByLiteral;
+
+    private final @Nullable LiteralAutomaton automaton;
+
+    /** Generation of {@link #isMatching(String)} call in which each literal was last tried */
+    private final int[] triedGeneration;
+
+    private int generation;
+
+    /**
+     * Create matcher
+     *
+     * @param patterns patterns to match
+     */
+    public MultiPatternMatcher(List<Pattern> patterns) {
+        List<Pattern> unfiltered = new ArrayList<>();
+        Map<String, List<Pattern>> literals = new LinkedHashMap<>();
+        for (Pattern pattern : patterns) {
+            String literal = requiredLiteral(pattern);
+            if (literal == null) {
+                unfiltered.add(pattern);
+            } else {
+                literals.computeIfAbsent(literal, l -> new ArrayList<>()).add(pattern);
+            }
+        }
+        unfilteredPatterns = unfiltered.toArray(new Pattern[0]);
+        patternsByLiteral = new Pattern[literals.size()][];
+        int literalId = 0;
+        for (List<Pattern> literalPatterns : literals.values()) {
+            patternsByLiteral[literalId++] = literalPatterns.toArray(new Pattern[0]);
+        }
+        automaton = literals.isEmpty() ? null : new LiteralAutomaton(literals.keySet().toArray(new String[0]));
+        triedGeneration = new int[patternsByLiteral.length];
+    }
+
+    /**
+     * Check if data is matching to one of the patterns.
+     *
+     * @param data data against search will be done.
+     * @return true if one of the patterns is found.
+     */
+    public synchronized boolean isMatching(String data) {
+        LiteralAutomaton automaton = this.automaton;
+        if (automaton != null) {
+            if (++generation == 0) {
+                Arrays.fill(triedGeneration, 0);
+                generation = 1;
+            }
+            int state = 0;
+            for (int i = 0; i < data.length(); i++) {
+                state = automaton.next(state, data.charAt(i));
+                for (int literalId : automaton.outputs[state]) {
+                    if (triedGeneration[literalId] == generation) {
+                        continue;
+                    }
+                    triedGeneration[literalId] = generation;
+                    for (Pattern pattern : patternsByLiteral[literalId]) {
+                        if (pattern.matcher(data).find()) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        for (Pattern pattern : unfilteredPatterns) {
+            if (pattern.matcher(data).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extract literal text which must be contained by all the matches of the pattern.
+     *
+     * Extraction is conservative: only literal characters outside of groups and character classes are considered,
+     * and patterns with flags, alternation, quoting or escapes taking further characters (e.g. <code>\x41</code>) are
+     * not analyzed at all.
+     *
+     * @param pattern pattern to analyze
+     * @return the longest found literal, or null if no literal could be extracted
+     */
+    static @Nullable String requiredLiteral(Pattern pattern) {
+        String regex = pattern.pattern();
+        if (pattern.flags() != 0 || regex.contains("(?") || regex.contains("|") || regex.contains("\\Q")) {
+            return null;
+        }
+        String longest = "";
+        StringBuilder current = new StringBuilder();
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            int literalChar = -1;
+            int next = i + 1;
+            if (c == '\\') {
+                if (next >= regex.length()) {
+                    return null;
+                }
+                char escaped = regex.charAt(next);
+                next++;
+                if (!Character.isLetterOrDigit(escaped)) {
+                    literalChar = escaped;
+                } else if (SINGLE_LETTER_ESCAPES.indexOf(escaped) < 0) {
+                    return null;
+                }
+            } else if (c == '(' || c == '[') {
+                next = skipGroupOrClass(regex, i);
+                if (next < 0) {
+                    return null;
+                }
+            } else if (c == '{') {
+                // Quantifier applies to the group or class preceding it, skip it
+                next = regex.indexOf('}', i);
+                if (next < 0) {
+                    return null;
+                }
+                next++;
+            } else if ("^$.?*+)]}".indexOf(c) < 0) {
+                literalChar = c;
+            }
+
+            if (literalChar < 0) {
+                longest = longer(longest, current);
+                current.setLength(0);
+                i = next;
+                continue;
+            }
+
+            // Check quantifier following the literal character
+            char quantifier = next < regex.length() ? regex.charAt(next) : 0;
+            if (quantifier == '?' || quantifier == '*' || quantifier == '{') {
+                // Character is optional (or might be), end the literal here
+                longest = longer(longest, current);
+                current.setLength(0);
+            } else if (quantifier == '+') {
+                // Character is repeated, literal cannot continue after it
+                current.append((char) literalChar);
+                longest = longer(longest, current);
+                current.setLength(0);
+            } else {
+                current.append((char) literalChar);
+            }
+            i = next;
+        }
+        longest = longer(longest, current);
+        return longest.isEmpty() ? null : longest;
+    }
+
+    private static String longer(String longest, StringBuilder current) {
+        return current.length() > longest.length() ? current.toString() : longest;
+    }
+
+    /**
+     * Find the end of the group or character class starting at given index
+     *
+     * @return index after the group or class, or -1 if the end is not found
+     */
+    private static int skipGroupOrClass(String regex, int start) {
+        int depth = 0;
+        boolean inClass = false;
+        for (int i = start; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (inClass) {
+                if (c == ']') {
+                    inClass = false;
+                    if (depth == 0) {
+                        return i + 1;
+                    }
+                }
+            } else if (c == '[') {
+                inClass = true;
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+                    // ']' as the first character of a class is literal
+                    i++;
+                }
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Aho-Corasick automaton finding occurrences of several literals with single pass
+     */
+    private static class LiteralAutomaton {
+        private final List<char[]> keys = new ArrayList<>();
+        private final List<int[]> targets = new ArrayList<>();
+        private final int[] fail;
+        /** Ids of literals ending at each state */
+        private final int[][] outputs;
+
+        LiteralAutomaton(String[] literals) {
+            List<List<Integer>> outputList = new ArrayList<>();
+            newState(outputList);
+            for (int literalId = 0; literalId < literals.length; literalId++) {
+                int state = 0;
+                for (char c : literals[literalId].toCharArray()) {
+                    int target = transition(state, c);
+                    if (target < 0) {
+                        target = newState(outputList);
+                        addTransition(state, c, target);
+                    }
+                    state = target;
+                }
+                outputList.get(state).add(literalId);
+            }
+
+            // Breadth-first construction of the failure links
+            fail = new int[keys.size()];
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int target : targets.get(0)) {
+                queue.add(target);
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                char[] stateKeys = keys.get(state);
+                int[] stateTargets = targets.get(state);
+                for (int i = 0; i < stateKeys.length; i++) {
+                    int target = stateTargets[i];
+                    int failState = fail[state];
+                    while (failState != 0 && transition(failState, stateKeys[i]) < 0) {
+                        failState = fail[failState];
+                    }
+                    int failTarget = transition(failState, stateKeys[i]);
+                    fail[target] = failTarget >= 0 && failTarget != target ? failTarget : 0;
+                    outputList.get(target).addAll(outputList.get(fail[target]));
+                    queue.add(target);
+                }
+            }
+
+            outputs = new int[outputList.size()][];
+            for (int state = 0; state < outputs.length; state++) {
+                outputs[state] = outputList.get(state).stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+
+        private int newState(List<List<Integer>> outputList) {
+            keys.add(new char[0]);
+            targets.add(new int[0]);
+            outputList.add(new ArrayList<>());
+            return keys.size() - 1;
+        }
+
+        private void addTransition(int state, char c, int target) {
+            char[] stateKeys = keys.get(state);
+            int[] stateTargets = targets.get(state);
+            int insertAt = -(Arrays.binarySearch(stateKeys, c) + 1);
+            char[] newKeys = new char[stateKeys.length + 1];
+            int[] newTargets = new int[stateTargets.length + 1];
+            System.arraycopy(stateKeys, 0, newKeys, 0, insertAt);
+            System.arraycopy(stateTargets, 0, newTargets, 0, insertAt);
+            newKeys[insertAt] = c;
+            newTargets[insertAt] = target;
+            System.arraycopy(stateKeys, insertAt, newKeys, insertAt + 1, stateKeys.length - insertAt);
+            System.arraycopy(stateTargets, insertAt, newTargets, insertAt + 1, stateTargets.length - insertAt);
+            keys.set(state, newKeys);
+            targets.set(state, newTargets);
+        }
+
+        private int transition(int state, char c) {
+            int index = Arrays.binarySearch(keys.get(state), c);
+            return index >= 0 ? targets.get(state)[index] : -1;
+        }
+
+        /**
+         * Get the next state of the automaton
+         */
+        int next(int state, char c) {
+            int current = state;
+            while (true) {
+                int target = transition(current, c);
+                if (target >= 0) {
+                    return target;
+                }
+                if (current == 0) {
+                    return 0;
+                }
+                current = fail[current];
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.loxone.internal.core;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link LxControlStateTable}
+ *
+ * @author agent - Initial contribution
+ */
+public class LxControlStateTableTest {
+
+    private static final LxUuid CONTROL = new LxUuid("0f2b9d5c-0237-3b43-ffff403fb0c34b00");
+    private static final LxUuid OTHER_CONTROL = new LxUuid("0f2b9d5c-0237-3b43-ffff403fb0c34b01");
+
+    private final Map<LxUuid, Map<LxUuid, LxControlState>> states = new HashMap<>();
+    private final LxControlStateTable table = new LxControlStateTable();
+
+    /**
+     * Converts a state UUID to its binary form as received from Miniserver
+     */
+    static byte[] toBytes(String uuid) {
+        String hex = uuid.replace("-", "");
+        ByteBuffer buffer = ByteBuffer.allocate(LxControlStateTable.UUID_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt((int) Long.parseLong(hex.substring(0, 8), 16));
+        buffer.putShort((short) Integer.parseInt(hex.substring(8, 12), 16));
+        buffer.putShort((short) Integer.parseInt(hex.substring(12, 16), 16));
+        for (int i = 16; i < 32; i += 2) {
+            buffer.put((byte) Integer.parseInt(hex.substring(i, i + 2), 16));
+        }
+        return buffer.array();
+    }
+
+    private LxControlState addState(String uuid, LxUuid control) {
+        LxUuid id = new LxUuid(uuid);
+        LxControlState state = new LxControlState(id, "value", null);
+        states.computeIfAbsent(id, k -> new HashMap<>()).put(control, state);
+        return state;
+    }
+
+    private void assertFound(LxControlState state, String uuid) {
+        LxControlState[] found = table.get(toBytes(uuid), 0);
+        assertNotNull(found);
+        assertEquals(1, found.length);
+        assertSame(state, found[0]);
+    }
+
+    @Test
+    public void testBinaryUuidMatchesParsedUuid() {
+        String uuid = "0f2b9d5c-0237-3b43-ffff403fb0c34b9e";
+        assertEquals(new LxUuid(uuid), new LxUuid(toBytes(uuid), 0));
+    }
+
+    @Test
+    public void testStatesFoundByBinaryUuid() {
+        // the Miniserver sends lower case UUIDs, LxUuid converts them to upper case
+        LxControlState first = addState("0f2b9d5c-0237-3b43-ffff403fb0c34b9e", CONTROL);
+        LxControlState second = addState("8badf00d-ffff-0000-0102030405060708", CONTROL);
+        table.build(states);
+
+        assertEquals(2, table.size());
+        assertFound(first, "0f2b9d5c-0237-3b43-ffff403fb0c34b9e");
+        assertFound(second, "8badf00d-ffff-0000-0102030405060708");
+    }
+
+    @Test
+    public void testStateFoundAtOffset() {
+        String uuid = "0f2b9d5c-0237-3b43-ffff403fb0c34b9e";
+        LxControlState state = addState(uuid, CONTROL);
+        table.build(states);
+
+        byte[] data = new byte[24 + LxControlStateTable.UUID_SIZE];
+        System.arraycopy(toBytes(uuid), 0, data, 24, LxControlStateTable.UUID_SIZE);
+        LxControlState[] found = table.get(data, 24);
+        assertNotNull(found);
+        assertSame(state, found[0]);
+    }
+
+    @Test
+    public void testUnknownUuidNotFound() {
+        addState("0f2b9d5c-0237-3b43-ffff403fb0c34b9e", CONTROL);
+        table.build(states);
+
+        assertNull(table.get(toBytes("0f2b9d5c-0237-3b43-ffff403fb0c34b9f"), 0));
+        assertNull(table.get(new byte[LxControlStateTable.UUID_SIZE], 0));
+    }
+
+    @Test
+    public void testEmptyTable() {
+        table.build(states);
+
+        assertEquals(0, table.size());
+        assertNull(table.get(toBytes("0f2b9d5c-0237-3b43-ffff403fb0c34b9e"), 0));
+    }
+
+    @Test
+    public void testStatesOfAllControlsFound() {
+        String uuid = "0f2b9d5c-0237-3b43-ffff403fb0c34b9e";
+        LxControlState first = addState(uuid, CONTROL);
+        LxControlState second = addState(uuid, OTHER_CONTROL);
+        table.build(states);
+
+        assertEquals(1, table.size());
+        LxControlState[] found = table.get(toBytes(uuid), 0);
+        assertNotNull(found);
+        assertEquals(2, found.length);
+        assertTrue(found[0] == first && found[1] == second || found[0] == second && found[1] == first);
+    }
+
+    @Test
+    public void testUuidWithoutStatesSkipped() {
+        String uuid = "0f2b9d5c-0237-3b43-ffff403fb0c34b9e";
+        states.put(new LxUuid(uuid), new HashMap<>());
+        table.build(states);
+
+        assertEquals(0, table.size());
+        assertNull(table.get(toBytes(uuid), 0));
+    }
+
+    @Test
+    public void testUuidInOtherFormatSkipped() {
+        addState("0f2b9d5c-0237-3b43-ffff403fb0c34b9e-extra", CONTROL);
+        addState("not-a-uuid", CONTROL);
+        table.build(states);
+
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testCollidingUuidsFound() {
+        // hash is high * 31 + low of the first and last 8 bytes, these UUIDs have the same hash and are placed in
+        // consecutive slots
+        LxControlState first = addState("00000000-0000-0001-0000000000000040", CONTROL);
+        LxControlState second = addState("00000000-0000-0002-0000000000000021", CONTROL);
+        LxControlState third = addState("00000000-0000-0003-0000000000000002", CONTROL);
+        table.build(states);
+
+        assertEquals(3, table.size());
+        assertFound(first, "00000000-0000-0001-0000000000000040");
+        assertFound(second, "00000000-0000-0002-0000000000000021");
+        assertFound(third, "00000000-0000-0003-0000000000000002");
+        // same hash, but not in the table
+        assertNull(table.get(toBytes("00000000-0000-0004-ffffffffffffffe3"), 0));
+    }
+
+    @Test
+    public void testTableGrowsWhenRebuilt() {
+        LxControlState first = addState("0f2b9d5c-0237-3b43-ffff403fb0c34b9e", CONTROL);
+        table.build(states);
+        assertEquals(1, table.size());
+
+        Map<String, LxControlState> added = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            String uuid = String.format("%08x-0237-3b43-ffff403fb0c3%04x", i * 7919, i);
+            added.put(uuid, addState(uuid, CONTROL));
+        }
+        table.build(states);
+
+        assertEquals(1001, table.size());
+        assertFound(first, "0f2b9d5c-0237-3b43-ffff403fb0c34b9e");
+        added.forEach((uuid, state) -> assertFound(state, uuid));
+
+        // states removed from configuration are not found after the next rebuild
+        states.clear();
+        addState("0f2b9d5c-0237-3b43-ffff403fb0c34b9e", CONTROL);
+        table.build(states);
+        assertEquals(1, table.size());
+        assertNull(table.get(toBytes(added.keySet().iterator().next()), 0));
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.loxone.internal.core;
+
+import static org.junit.Assert.*;
+
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+/**
+ * Tests for decoding of binary tables of state value updates by {@link LxServer}
+ *
+ * @author agent - Initial contribution
+ */
+public class LxServerStateValuesTest {
+
+    private static final String KITCHEN = "0f2b9d5c-0237-3b43-ffff403fb0c30001";
+    private static final String HALL = "0f2b9d5c-0237-3b43-ffff403fb0c30002";
+    private static final String KITCHEN_ACTIVE = "0f2b9d5c-0237-3b43-ffff403fb0c34b9e";
+    private static final String SHARED_ACTIVE = "0f2b9d5c-0237-3b43-ffff403fb0c34b9f";
+
+    private static final String CONFIG = "{ \"controls\": {"
+            + "\"" + KITCHEN + "\": { \"uuidAction\": \"" + KITCHEN + "\", \"name\": \"Kitchen\", \"type\": \"Switch\","
+            + " \"states\": { \"active\": \"" + KITCHEN_ACTIVE + "\", \"other\": \"" + SHARED_ACTIVE + "\" } },"
+            + "\"" + HALL + "\": { \"uuidAction\": \"" + HALL + "\", \"name\": \"Hall\", \"type\": \"Switch\","
+            + " \"states\": { \"active\": \"" + SHARED_ACTIVE + "\" } } } }";
+
+    private final List<String> updates = new ArrayList<>();
+    private LxServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new LxServer(LxWsSecurityType.HASH, InetAddress.getLoopbackAddress(), 80, "user", "password");
+        server.addListener(new LxServerListener() {
+            @Override
+            public void onNewConfig(LxServer server) {
+            }
+
+            @Override
+            public void onServerGoesOnline() {
+            }
+
+            @Override
+            public void onServerGoesOffline(LxOfflineReason reason, String details) {
+            }
+
+            @Override
+            public void onControlStateUpdate(LxControl control, String stateName) {
+                updates.add(control.getName());
+            }
+
+            @Override
+            public Object getSetting(String name) {
+                return null;
+            }
+
+            @Override
+            public void setSettings(Map<String, String> properties) {
+            }
+        });
+        server.updateConfig(new Gson().fromJson(CONFIG, LxJsonApp3.class));
+    }
+
+    private static byte[] table(Object... entries) {
+        ByteBuffer buffer = ByteBuffer.allocate(entries.length / 2 * 24).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < entries.length; i += 2) {
+            buffer.put(LxControlStateTableTest.toBytes((String) entries[i]));
+            buffer.putDouble((Double) entries[i + 1]);
+        }
+        return buffer.array();
+    }
+
+    private Double value(String control, String state) {
+        return server.findControl(new LxUuid(control)).getStates().get(state).getValue();
+    }
+
+    @Test
+    public void testValuesDecoded() {
+        server.updateStateValues(table(KITCHEN_ACTIVE, 1.0, SHARED_ACTIVE, -1234.5678));
+
+        assertEquals(Double.valueOf(1.0), value(KITCHEN, "active"));
+        assertEquals(Double.valueOf(-1234.5678), value(KITCHEN, "other"));
+        assertEquals(Double.valueOf(-1234.5678), value(HALL, "active"));
+    }
+
+    @Test
+    public void testListenersNotifiedOncePerControl() {
+        server.updateStateValues(table(KITCHEN_ACTIVE, 1.0, SHARED_ACTIVE, 0.0));
+
+        assertEquals(2, updates.size());
+        assertTrue(updates.contains("Kitchen"));
+        assertTrue(updates.contains("Hall"));
+    }
+
+    @Test
+    public void testUnknownStatesAndIncompleteEntrySkipped() {
+        byte[] data = table("8badf00d-ffff-0000-0102030405060708", 5.0, KITCHEN_ACTIVE, 0.5);
+        byte[] truncated = new byte[data.length + 10];
+        System.arraycopy(data, 0, truncated, 0, data.length);
+
+        server.updateStateValues(truncated);
+
+        assertEquals(Double.valueOf(0.5), value(KITCHEN, "active"));
+        assertEquals(1, updates.size());
+        assertEquals("Kitchen", updates.get(0));
+    }
+}
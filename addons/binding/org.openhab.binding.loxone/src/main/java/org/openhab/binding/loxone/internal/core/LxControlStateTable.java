@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.loxone.internal.core;
+
+import java.util.Map;
+
+/**
+ * An index of control states ({@link LxControlState}) by the binary form of their UUID.
+ * <p>
+ * Loxone Miniserver sends value state updates in binary event tables, each entry consisting of a 16 bytes state UUID
+ * followed by an 8 bytes value. This table allows to find the states of an entry directly in the received buffer,
+ * without creating {@link LxUuid} objects for every update. It is built from the states known to the server and must
+ * be rebuilt each time the configuration changes.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+class LxControlStateTable {
+    /**
+     * Size of a state UUID in a binary message
+     */
+    static final int UUID_SIZE = 16;
+
+    private static final LxControlState[] NO_STATES = new LxControlState[0];
+
+    // open addressing hash table, each slot has two keys: the first and the last 8 bytes of the UUID
+    private long[] keys = new long[2];
+    private LxControlState[][] values = new LxControlState[1][];
+    private int mask = 0;
+    private int size = 0;
+
+    /**
+     * Rebuilds the table from the states known to the server
+     *
+     * @param states
+     *            map of state UUID to a map of control UUID and state objects
+     */
+    void build(Map<LxUuid, Map<LxUuid, LxControlState>> states) {
+        int capacity = 2;
+        while (capacity < states.size() * 2) {
+            capacity <<= 1;
+        }
+        keys = new long[capacity * 2];
+        values = new LxControlState[capacity][];
+        mask = capacity - 1;
+        size = 0;
+
+        states.forEach((uuid, perControl) -> {
+            long[] key = toKey(uuid.toString());
+            if (key != null && !perControl.isEmpty()) {
+                int slot = findSlot(key[0], key[1]);
+                keys[slot * 2] = key[0];
+                keys[slot * 2 + 1] = key[1];
+                values[slot] = perControl.values().toArray(NO_STATES);
+                size++;
+            }
+        });
+    }
+
+    /**
+     * Finds the states with the UUID at the given offset of a binary message
+     *
+     * @param data
+     *            buffer with binary message received from Miniserver
+     * @param offset
+     *            offset of the state UUID in the buffer
+     * @return
+     *         all states with this UUID (one per control) or null if no state has this UUID
+     */
+    LxControlState[] get(byte[] data, int offset) {
+        long high = (getLittleEndian(data, offset, 4) << 32) | (getLittleEndian(data, offset + 4, 2) << 16)
+                | getLittleEndian(data, offset + 6, 2);
+        long low = 0;
+        for (int i = offset + 8; i < offset + UUID_SIZE; i++) {
+            low = (low << 8) | (data[i] & 0xff);
+        }
+        return values[findSlot(high, low)];
+    }
+
+    /**
+     * Gets number of state UUIDs in the table
+     *
+     * @return
+     *         number of state UUIDs
+     */
+    int size() {
+        return size;
+    }
+
+    private int findSlot(long high, long low) {
+        long hash = high * 31 + low;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (values[slot] != null && (keys[slot * 2] != high || keys[slot * 2 + 1] != low)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static long getLittleEndian(byte[] data, int offset, int length) {
+        long value = 0;
+        for (int i = offset + length - 1; i >= offset; i--) {
+            value = (value << 8) | (data[i] & 0xff);
+        }
+        return value;
+    }
+
+    /**
+     * Converts a state UUID in the form received in binary messages (e.g. 0f2b9d5c-0237-3b43-ffff403fb0c34b9e) into
+     * the two keys of the table.
+     *
+     * @param uuid
+     *            UUID string
+     * @return
+     *         keys of the UUID or null if the UUID can't be received in binary messages
+     */
+    private static long[] toKey(String uuid) {
+        if (uuid.length() != 35) {
+            return null;
+        }
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < uuid.length(); i++) {
+            char c = uuid.charAt(i);
+            if (i == 8 || i == 13 || i == 18) {
+                if (c != '-') {
+                    return null;
+                }
+                continue;
+            }
+            int digit = Character.digit(c, 16);
+            if (digit < 0) {
+                return null;
+            }
+            if (i < 18) {
+                high = (high << 4) | digit;
+            } else {
+                low = (low << 4) | digit;
+            }
+        }
+        return new long[] { high, low };
+    }
+}
@@ -9,9 +9,12 @@
 package org.openhab.binding.loxone.internal.core;
 
 import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
@@ -96,6 +99,8 @@ public class LxServer {
     // the state. It must be ensured that updates received for this state UUID are passed to all controls that have this
     // state UUID configured.
     private final Map<LxUuid, Map<LxUuid, LxControlState>> states = new HashMap<>();
+    // Index of the above states by binary UUID, used to decode binary tables of state value updates
+    private final LxControlStateTable stateTable = new LxControlStateTable();
     private final List<LxServerListener> listeners = new ArrayList<>();
 
     // Services
@@ -106,6 +111,8 @@ public class LxServer {
     private final Logger logger = LoggerFactory.getLogger(LxServer.class);
     private final int debugId;
     private static final AtomicInteger STATIC_DEBUG_ID = new AtomicInteger(1);
+    // Size of an entry in a binary table of state value updates - state UUID followed by a double value
+    private static final int VALUE_ENTRY_SIZE = LxControlStateTable.UUID_SIZE + 8;
 
     /**
      * Creates a new instance of Loxone Miniserver with provided host address and credentials.
@@ -464,6 +471,9 @@ public class LxServer {
                         });
                     }
                     break;
+                case STATE_VALUE_TABLE:
+                    updateStateValues((byte[]) wsMsg.getObject());
+                    break;
                 case SERVER_ONLINE:
                     for (LxServerListener listener : listeners) {
                         listener.onServerGoesOnline();
@@ -514,7 +524,7 @@ public class LxServer {
      * @param config
      *            parsed JSON LoxApp3.json file
      */
-    private void updateConfig(LxJsonApp3 config) {
+    void updateConfig(LxJsonApp3 config) {
         logger.trace("[{}] Updating configuration from Miniserver", debugId);
 
         invalidateMap(rooms);
@@ -565,6 +575,50 @@ public class LxServer {
         removeUnusedFromMap(categories);
         removeUnusedFromMap(controls);
         removeUnusedFromMap(states);
+        stateTable.build(states);
+    }
+
+    /**
+     * Updates control states with values from a binary table of state value updates received from Miniserver.
+     * <p>
+     * Each entry of the table is a 16 bytes state UUID followed by an 8 bytes little endian double value. The values
+     * are set to all states of the table first and then listeners are notified only once for each updated control, no
+     * matter how many of its states were in the table.
+     *
+     * @param data
+     *            entries of the table
+     */
+    void updateStateValues(byte[] data) {
+        if (data.length % VALUE_ENTRY_SIZE != 0) {
+            logger.debug("[{}] Value table length {} is not a multiple of entry size, last entry discarded", debugId,
+                    data.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        Map<LxControl, String> updated = new LinkedHashMap<>();
+        for (int offset = 0; offset + VALUE_ENTRY_SIZE <= data.length; offset += VALUE_ENTRY_SIZE) {
+            LxControlState[] perStateUuid = stateTable.get(data, offset);
+            if (perStateUuid == null) {
+                continue;
+            }
+            Double value = buffer.getDouble(offset + LxControlStateTable.UUID_SIZE);
+            for (LxControlState state : perStateUuid) {
+                state.setValue(value, null);
+                LxControl control = state.getControl();
+                if (control != null) {
+                    logger.debug("[{}] State update {} ({}:{}) to value {}", debugId, state.getUuid(),
+                            control.getName(), state.getName(), value);
+                    updated.putIfAbsent(control, state.getName());
+                } else {
+                    logger.debug("[{}] State update {} ({}) of unknown control", debugId, state.getUuid(),
+                            state.getName());
+                }
+            }
+        }
+        updated.forEach((control, stateName) -> {
+            for (LxServerListener listener : listeners) {
+                listener.onControlStateUpdate(control, stateName.toLowerCase());
+            }
+        });
     }
 
     /**
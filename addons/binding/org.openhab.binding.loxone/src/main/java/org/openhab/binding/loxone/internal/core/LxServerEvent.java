@@ -46,6 +46,11 @@ class LxServerEvent {
          * associated.
          */
         STATE_UPDATE,
+        /**
+         * Received a binary table of control's state value updates from Miniserver. There is a byte[] object
+         * associated, containing the entries of the table.
+         */
+        STATE_VALUE_TABLE,
         /**
          * Received request to shutdown thread from {@link LxServer} object.
          */
@@ -15,6 +15,7 @@ import java.net.HttpURLConnection;
 import java.net.InetAddress;
 import java.net.URI;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -651,12 +652,9 @@ class LxWsClient {
                     switch (header.type) {
                         case EVENT_TABLE_OF_VALUE_STATES:
                             stopResponseTimeout();
-                            while (length > 0) {
-                                LxWsStateUpdateEvent event = new LxWsStateUpdateEvent(true, data, offset);
-                                offset += event.getSize();
-                                length -= event.getSize();
-                                notifyMaster(EventType.STATE_UPDATE, null, event);
-                            }
+                            // decoded by the server thread in one pass, websocket may reuse the buffer
+                            notifyMaster(EventType.STATE_VALUE_TABLE, null,
+                                    Arrays.copyOfRange(data, offset, offset + length));
                             break;
                         case EVENT_TABLE_OF_TEXT_STATES:
                             while (length > 0) {
@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -600,10 +601,17 @@ public class ModbusDataHandlerTest extends JavaTest {
                 true);
     }
 
-    @SuppressWarnings({ "null" })
     private ModbusDataThingHandler testReadHandlingGeneric(ModbusReadFunctionCode functionCode, String start,
             String transform, ValueType valueType, BitArray bits, ModbusRegisterArray registers, Exception error,
             BundleContext context, boolean autoCreateItemsAndLinkToChannels) {
+        return testReadHandlingGeneric(functionCode, start, transform, valueType, bits, registers, error, context,
+                autoCreateItemsAndLinkToChannels, new Configuration());
+    }
+
+    @SuppressWarnings({ "null" })
+    private ModbusDataThingHandler testReadHandlingGeneric(ModbusReadFunctionCode functionCode, String start,
+            String transform, ValueType valueType, BitArray bits, ModbusRegisterArray registers, Exception error,
+            BundleContext context, boolean autoCreateItemsAndLinkToChannels, Configuration dataConfig) {
         ModbusSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("thisishost", 502);
 
         int pollLength = 3;
@@ -619,7 +627,6 @@ public class ModbusDataHandlerTest extends JavaTest {
 
         Bridge poller = createPollerMock("poller1", task);
 
-        Configuration dataConfig = new Configuration();
         dataConfig.put("readStart", start);
         dataConfig.put("readTransform", transform);
         dataConfig.put("readValueType", valueType.getConfigValue());
@@ -726,6 +733,49 @@ public class ModbusDataHandlerTest extends JavaTest {
         // no datetime, conversion not possible without transformation
     }
 
+    @Test
+    public void testOnRegistersUnchangedValueUpdatedByDefault() {
+        ModbusDataThingHandler dataHandler = testReadHandlingGeneric(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS,
+                "0", "default", ModbusConstants.ValueType.INT16, null, new BasicModbusRegisterArray(
+                        new ModbusRegister[] { new BasicModbusRegister((byte) 0xff, (byte) 0xfd) }),
+                null);
+        ChannelUID numberChannel = new ChannelUID(dataHandler.getThing().getUID(), CHANNEL_NUMBER);
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+
+        // Same data again: data channels are updated on every poll
+        dataHandler.onRegisters(request, new BasicModbusRegisterArray(
+                new ModbusRegister[] { new BasicModbusRegister((byte) 0xff, (byte) 0xfd) }));
+        assertThat(stateUpdates.get(numberChannel),
+                is(equalTo(Arrays.asList(new State[] { new DecimalType(-3), new DecimalType(-3) }))));
+    }
+
+    @Test
+    public void testOnRegistersUnchangedValueNotUpdated() {
+        Configuration dataConfig = new Configuration();
+        dataConfig.put("updateUnchangedValuesEveryMillis", 60_000L);
+        ModbusDataThingHandler dataHandler = testReadHandlingGeneric(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS,
+                "0", "default", ModbusConstants.ValueType.INT16, null, new BasicModbusRegisterArray(
+                        new ModbusRegister[] { new BasicModbusRegister((byte) 0xff, (byte) 0xfd) }),
+                null, null, true, dataConfig);
+        ChannelUID numberChannel = new ChannelUID(dataHandler.getThing().getUID(), CHANNEL_NUMBER);
+        ChannelUID lastReadSuccessChannel = new ChannelUID(dataHandler.getThing().getUID(),
+                CHANNEL_LAST_READ_SUCCESS);
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+
+        // Same data again: data channels are not updated
+        dataHandler.onRegisters(request, new BasicModbusRegisterArray(
+                new ModbusRegister[] { new BasicModbusRegister((byte) 0xff, (byte) 0xfd) }));
+        assertThat(stateUpdates.get(numberChannel),
+                is(equalTo(Arrays.asList(new State[] { new DecimalType(-3) }))));
+        assertThat(stateUpdates.get(lastReadSuccessChannel).size(), is(equalTo(2)));
+
+        // Changed data is updated
+        dataHandler.onRegisters(request, new BasicModbusRegisterArray(
+                new ModbusRegister[] { new BasicModbusRegister((byte) 0xff, (byte) 0xfe) }));
+        assertThat(stateUpdates.get(numberChannel),
+                is(equalTo(Arrays.asList(new State[] { new DecimalType(-3), new DecimalType(-2) }))));
+    }
+
     private void mockTransformation(String name, TransformationService service) throws InvalidSyntaxException {
         doReturn(Arrays.asList(new Object[] { null })).when(bundleContext)
                 .getServiceReferences(TransformationService.class, "(smarthome.transform=" + name + ")");
@@ -761,6 +811,35 @@ public class ModbusDataHandlerTest extends JavaTest {
         // no datetime, conversion not possible without transformation
     }
 
+    @Test
+    public void testOnRegistersRealTransformationExecutedOncePerPoll() throws InvalidSyntaxException {
+        AtomicInteger transformCount = new AtomicInteger();
+        mockTransformation("MULTIPLY", new TransformationService() {
+
+            @Override
+            public String transform(String function, String source) throws TransformationException {
+                transformCount.incrementAndGet();
+                return String.valueOf(Integer.parseInt(function) * Integer.parseInt(source));
+            }
+        });
+        ModbusDataThingHandler dataHandler = testReadHandlingGeneric(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS,
+                "0", "MULTIPLY(10)", ModbusConstants.ValueType.INT16, null,
+                new BasicModbusRegisterArray(
+                        new ModbusRegister[] { new BasicModbusRegister((byte) 0xff, (byte) 0xfd) }),
+                null, bundleContext);
+        // Several channels are updated with single transformation
+        assertSingleStateUpdate(dataHandler, CHANNEL_NUMBER, new DecimalType(-30));
+        assertSingleStateUpdate(dataHandler, CHANNEL_STRING, new StringType("-30"));
+        assertThat(transformCount.get(), is(equalTo(1)));
+
+        dataHandler.onRegisters(Mockito.mock(ModbusReadRequestBlueprint.class), new BasicModbusRegisterArray(
+                new ModbusRegister[] { new BasicModbusRegister((byte) 0xff, (byte) 0xfe) }));
+        assertThat(transformCount.get(), is(equalTo(2)));
+        // Transformation service is resolved only once
+        verify(bundleContext, times(1)).getServiceReferences(TransformationService.class,
+                "(smarthome.transform=MULTIPLY)");
+    }
+
     @Test
     public void testOnRegistersRealTransformationNoLinks() throws InvalidSyntaxException {
         mockTransformation("MULTIPLY", new TransformationService() {
@@ -58,6 +58,7 @@ public class ModbusTcpThingHandlerTest {
         thingConfig.put("connectMaxTries", 3);
         thingConfig.put("reconnectAfterMillis", 4);
         thingConfig.put("connectTimeoutMillis", 5);
+        thingConfig.put("maxInFlightTransactions", 6);
 
         EndpointPoolConfiguration expectedPoolConfiguration = new EndpointPoolConfiguration();
         expectedPoolConfiguration.setConnectMaxTries(3);
@@ -65,6 +66,7 @@ public class ModbusTcpThingHandlerTest {
         expectedPoolConfiguration.setInterConnectDelayMillis(2);
         expectedPoolConfiguration.setInterTransactionDelayMillis(1);
         expectedPoolConfiguration.setReconnectAfterMillis(4);
+        expectedPoolConfiguration.setMaxInFlightTransactions(6);
 
         Bridge thing = createTcpThingBuilder("tcpendpoint").withConfiguration(thingConfig).build();
         ThingHandlerCallback thingCallback = Mockito.mock(ThingHandlerCallback.class);
@@ -45,6 +45,26 @@ public class ModbusBindingConstantsInternal {
     public static final String CHANNEL_LAST_WRITE_SUCCESS = "lastWriteSuccess";
     public static final String CHANNEL_LAST_WRITE_ERROR = "lastWriteError";
 
+    // Endpoint statistics channels
+    public static final String CHANNEL_OPERATION_COUNT = "operationCount";
+    public static final String CHANNEL_ERROR_COUNT = "errorCount";
+    public static final String CHANNEL_ERROR_COUNTS_BY_TYPE = "errorCountsByType";
+    public static final String CHANNEL_CONNECTION_LATENCY = "connectionLatency";
+    public static final String CHANNEL_TRANSACTION_LATENCY = "transactionLatency";
+    public static final String CHANNEL_TRANSACTION_LATENCY_MAX = "transactionLatencyMax";
+    public static final String CHANNEL_TRANSACTION_LATENCY_HISTOGRAM = "transactionLatencyHistogram";
+    public static final String CHANNEL_CALLBACK_LATENCY = "callbackLatency";
+    public static final String CHANNEL_BORROW_WAIT = "borrowWait";
+    public static final String CHANNEL_CALLBACKS_IN_PROGRESS = "callbacksInProgress";
+    public static final String CHANNEL_POLLER_OVERDUE_TASKS = "pollerOverdueTasks";
+    public static final String CHANNEL_POLLER_MAX_OVERDUE = "pollerMaxOverdue";
+
+    public static final String[] ENDPOINT_STATISTICS_CHANNELS = { CHANNEL_OPERATION_COUNT, CHANNEL_ERROR_COUNT,
+            CHANNEL_ERROR_COUNTS_BY_TYPE, CHANNEL_CONNECTION_LATENCY, CHANNEL_TRANSACTION_LATENCY,
+            CHANNEL_TRANSACTION_LATENCY_MAX, CHANNEL_TRANSACTION_LATENCY_HISTOGRAM, CHANNEL_CALLBACK_LATENCY,
+            CHANNEL_BORROW_WAIT, CHANNEL_CALLBACKS_IN_PROGRESS, CHANNEL_POLLER_OVERDUE_TASKS,
+            CHANNEL_POLLER_MAX_OVERDUE };
+
     public static final String[] DATA_CHANNELS = { CHANNEL_SWITCH, CHANNEL_CONTACT, CHANNEL_DATETIME, CHANNEL_DIMMER,
             CHANNEL_NUMBER, CHANNEL_STRING, CHANNEL_ROLLERSHUTTER };
 
@@ -11,6 +11,7 @@ package org.openhab.binding.modbus.internal;
 import static org.apache.commons.lang.StringUtils.isEmpty;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.regex.Matcher;
@@ -25,12 +26,13 @@ import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.OpenClosedType;
 import org.eclipse.smarthome.core.transform.TransformationException;
-import org.eclipse.smarthome.core.transform.TransformationHelper;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.TypeParser;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,6 +63,31 @@ public class Transformation {
         DEFAULT_TYPES.add(OnOffType.class);
     }
 
+    /**
+     * Transformation service resolved from the service registry, together with the context it was resolved with
+     */
+    private static class ResolvedService {
+        private final BundleContext context;
+        private final @Nullable ServiceReference<TransformationService> reference;
+        private final TransformationService service;
+
+        ResolvedService(BundleContext context, @Nullable ServiceReference<TransformationService> reference,
+                TransformationService service) {
+            this.context = context;
+            this.reference = reference;
+            this.service = service;
+        }
+
+        /**
+         * Whether this service can be used with the given context. The service is invalidated when it is
+         * unregistered (reference has no bundle anymore).
+         */
+        boolean isValidFor(BundleContext context) {
+            ServiceReference<TransformationService> reference = this.reference;
+            return this.context == context && (reference == null || reference.getBundle() != null);
+        }
+    }
+
     private final Logger logger = LoggerFactory.getLogger(Transformation.class);
 
     private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
@@ -75,6 +102,8 @@ public class Transformation {
     private final String transformationServiceName;
     @Nullable
     private final String transformationServiceParam;
+    @Nullable
+    private volatile ResolvedService resolvedService;
 
     /**
      *
@@ -134,7 +163,7 @@ public class Transformation {
                             "transformation service parameter is missing! Invalid transform?");
                 }
                 @Nullable
-                TransformationService transformationService = TransformationHelper.getTransformationService(context,
+                TransformationService transformationService = getTransformationService(context,
                         transformationServiceName);
                 if (transformationService != null) {
                     transformedResponse = transformationService.transform(transformationServiceParam, value);
@@ -162,6 +191,38 @@ public class Transformation {
         return transformedResponse == null ? "" : transformedResponse;
     }
 
+    /**
+     * Get the transformation service, re-using the previously resolved service as long as it is registered
+     *
+     * @param context context to resolve the service with
+     * @param serviceName name of the transformation service, e.g. MAP
+     * @return transformation service, or null if the service is not available
+     */
+    private @Nullable TransformationService getTransformationService(BundleContext context, String serviceName) {
+        ResolvedService resolvedService = this.resolvedService;
+        if (resolvedService != null && resolvedService.isValidFor(context)) {
+            return resolvedService.service;
+        }
+        String filter = "(smarthome.transform=" + serviceName + ")";
+        try {
+            Collection<ServiceReference<TransformationService>> references = context
+                    .getServiceReferences(TransformationService.class, filter);
+            if (references == null || references.isEmpty()) {
+                return null;
+            }
+            ServiceReference<TransformationService> reference = references.iterator().next();
+            TransformationService service = context.getService(reference);
+            if (service == null) {
+                return null;
+            }
+            this.resolvedService = new ResolvedService(context, reference, service);
+            return service;
+        } catch (InvalidSyntaxException e) {
+            logger.error("Cannot get service reference for transformation service of type {}", serviceName, e);
+            return null;
+        }
+    }
+
     public boolean isIdentityTransform() {
         return TRANSFORM_DEFAULT.equalsIgnoreCase(this.transformation);
     }
@@ -187,6 +248,29 @@ public class Transformation {
         return TypeParser.parseState(types, transformed);
     }
 
+    /**
+     * Transform state using this transformation, and convert the result to several states, one for each given list of
+     * types.
+     *
+     * Compared to calling {@link #transformState(BundleContext, List, State)} for each list of types, the
+     * transformation is executed only once.
+     *
+     * @param context
+     * @param typesList lists of types used to parse the transformation result
+     * @param state state to transform
+     * @return transformed states, in the same order as typesList. Element is null if the transformation result could
+     *         not be parsed to any of the corresponding types.
+     */
+    public List<@Nullable State> transformStates(BundleContext context, List<List<Class<? extends State>>> typesList,
+            State state) {
+        final String transformed = transform(context, state.toString());
+        List<@Nullable State> states = new ArrayList<>(typesList.size());
+        for (List<Class<? extends State>> types : typesList) {
+            states.add(TypeParser.parseState(types, transformed));
+        }
+        return states;
+    }
+
     public boolean hasTransformationService() {
         return transformationServiceName != null;
     }
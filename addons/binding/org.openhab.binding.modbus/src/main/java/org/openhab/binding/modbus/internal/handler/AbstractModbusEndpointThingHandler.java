@@ -8,18 +8,30 @@
  */
 package org.openhab.binding.modbus.internal.handler;
 
+import static org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.StringType;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
 import org.eclipse.smarthome.core.types.Command;
+import org.eclipse.smarthome.core.types.RefreshType;
 import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
 import org.openhab.binding.modbus.internal.ModbusConfigurationException;
+import org.openhab.io.transport.modbus.ModbusEndpointStatistics;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusManagerListener;
 import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
@@ -39,6 +51,11 @@ import org.slf4j.LoggerFactory;
 public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEndpoint, C> extends BaseBridgeHandler
         implements ModbusManagerListener, ModbusEndpointThingHandler {
 
+    /**
+     * Interval for updating the linked statistics channels
+     */
+    private static final long STATISTICS_REFRESH_INTERVAL_MILLIS = 10000;
+
     @Nullable
     protected volatile C config;
     @Nullable
@@ -46,6 +63,8 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
     protected Supplier<ModbusManager> managerRef;
     @Nullable
     protected volatile EndpointPoolConfiguration poolConfiguration;
+    @Nullable
+    private volatile ScheduledFuture<?> statisticsJob;
     private final Logger logger = LoggerFactory.getLogger(AbstractModbusEndpointThingHandler.class);
 
     public AbstractModbusEndpointThingHandler(Bridge bridge, Supplier<ModbusManager> managerRef) {
@@ -55,6 +74,9 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
 
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
+        if (RefreshType.REFRESH == command) {
+            updateStatistics();
+        }
     }
 
     @Override
@@ -71,6 +93,7 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
                 managerRef.get().addListener(this);
                 managerRef.get().setEndpointPoolConfiguration(endpoint, poolConfiguration);
                 updateStatus(ThingStatus.ONLINE);
+                startStatisticsJob();
             } catch (ModbusConfigurationException e) {
                 logger.debug("Exception during initialization", e);
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, String.format(
@@ -83,6 +106,7 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
 
     @Override
     public void dispose() {
+        stopStatisticsJob();
         managerRef.get().removeListener(this);
     }
 
@@ -115,6 +139,78 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
     @Override
     public abstract int getSlaveId();
 
+    private synchronized void startStatisticsJob() {
+        stopStatisticsJob();
+        statisticsJob = scheduler.scheduleWithFixedDelay(this::updateStatistics, STATISTICS_REFRESH_INTERVAL_MILLIS,
+                STATISTICS_REFRESH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopStatisticsJob() {
+        ScheduledFuture<?> statisticsJob = this.statisticsJob;
+        if (statisticsJob != null) {
+            statisticsJob.cancel(false);
+            this.statisticsJob = null;
+        }
+    }
+
+    /**
+     * Update the statistics channels from the endpoint statistics of the manager.
+     *
+     * Nothing is done when none of the statistics channels is linked.
+     */
+    protected void updateStatistics() {
+        E endpoint = this.endpoint;
+        if (endpoint == null || Arrays.stream(ENDPOINT_STATISTICS_CHANNELS).noneMatch(this::isLinked)) {
+            return;
+        }
+        try {
+            ModbusEndpointStatistics statistics = managerRef.get().getEndpointStatistics(endpoint);
+            updateState(CHANNEL_OPERATION_COUNT, new DecimalType(statistics.getOperationCount()));
+            updateState(CHANNEL_ERROR_COUNT, new DecimalType(statistics.getErrorCount()));
+            updateState(CHANNEL_ERROR_COUNTS_BY_TYPE,
+                    new StringType(new TreeMap<>(statistics.getErrorCounts()).toString()));
+            updateState(CHANNEL_CONNECTION_LATENCY, toMillisState(statistics.getConnectionLatency().getMeanMillis()));
+            updateState(CHANNEL_TRANSACTION_LATENCY,
+                    toMillisState(statistics.getTransactionLatency().getMeanMillis()));
+            updateState(CHANNEL_TRANSACTION_LATENCY_MAX,
+                    new DecimalType(statistics.getTransactionLatency().getMaxMillis()));
+            updateState(CHANNEL_TRANSACTION_LATENCY_HISTOGRAM,
+                    new StringType(formatHistogram(statistics.getTransactionLatency().getHistogram())));
+            updateState(CHANNEL_CALLBACK_LATENCY, toMillisState(statistics.getCallbackLatency().getMeanMillis()));
+            updateState(CHANNEL_BORROW_WAIT, toMillisState(statistics.getBorrowWaitLatency().getMeanMillis()));
+            updateState(CHANNEL_CALLBACKS_IN_PROGRESS, new DecimalType(statistics.getCallbacksInProgress()));
+            updateState(CHANNEL_POLLER_OVERDUE_TASKS, new DecimalType(statistics.getPollerOverdueTasks()));
+            updateState(CHANNEL_POLLER_MAX_OVERDUE, new DecimalType(statistics.getPollerMaxOverdueMillis()));
+        } catch (RuntimeException e) {
+            logger.warn("Could not update statistics of thing {}: {} {}", getThing().getUID(),
+                    e.getClass().getName(), e.getMessage());
+        }
+    }
+
+    private static DecimalType toMillisState(double millis) {
+        return new DecimalType(new BigDecimal(millis).setScale(1, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Format histogram as e.g. <code>&lt;=1ms: 5, &lt;=5ms: 2, ..., &gt;5000ms: 0</code>
+     */
+    private static String formatHistogram(long[] histogram) {
+        long[] bounds = ModbusEndpointStatistics.HISTOGRAM_BUCKET_UPPER_BOUNDS_MILLIS;
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < histogram.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            if (i < bounds.length) {
+                builder.append("<=").append(bounds[i]);
+            } else {
+                builder.append('>').append(bounds[bounds.length - 1]);
+            }
+            builder.append("ms: ").append(histogram[i]);
+        }
+        return builder.toString();
+    }
+
     /**
      * Must be overriden by subclasses to initialize config, endpoint, and poolConfiguration
      */
@@ -13,6 +13,7 @@ import static org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -135,6 +136,10 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
     private volatile boolean childOfEndpoint;
     private volatile @Nullable ModbusPollerThingHandler pollerHandler;
     private volatile Map<String, ChannelUID> channelCache = new HashMap<>();
+    // Raw value of the previously processed poll, used to skip processing of unchanged data
+    private volatile boolean lastReadRawValuePresent;
+    private volatile long lastReadRawValue;
+    private volatile long lastReadRawValueProcessedMillis;
 
     private volatile LocalDateTime lastStatusInfoUpdate = LocalDateTime.MIN;
     private volatile ThingStatusInfo statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE,
@@ -164,6 +169,8 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             // We *schedule* the REFRESH to avoid dead-lock situation where poller is trying update this
             // data thing with cached data (resulting in deadlock in two synchronized methods: this (handleCommand) and
             // onRegisters.
+            // The data is processed even if it has not changed since the last poll
+            invalidateLastReadRawValue();
             scheduler.schedule(() -> poller.refresh(), 0, TimeUnit.SECONDS);
             return;
         } else if (hasConfigurationError()) {
@@ -398,6 +405,7 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         childOfEndpoint = false;
         pollerHandler = null;
         channelCache = new HashMap<>();
+        invalidateLastReadRawValue();
         lastStatusInfoUpdate = LocalDateTime.MIN;
         statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE, null);
     }
@@ -409,6 +417,13 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         this.initialize();
     }
 
+    @Override
+    public void channelLinked(ChannelUID channelUID) {
+        // Make sure the newly linked channel receives the next polled value
+        invalidateLastReadRawValue();
+        super.channelLinked(channelUID);
+    }
+
     private boolean hasConfigurationError() {
         ThingStatusInfo statusInfo = getThing().getStatusInfo();
         return statusInfo.getStatus() == ThingStatus.OFFLINE
@@ -661,6 +676,23 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             int itemsPerRegister = 16 / readValueType.getBits();
             extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
         }
+
+        // Registers containing the value
+        int firstRegisterIndex = readValueType.getBits() >= 16 ? extractIndex : readIndex.get() - pollStart;
+        int registerCount = Math.max(1, readValueType.getBits() / 16);
+        if (firstRegisterIndex >= 0 && firstRegisterIndex + registerCount <= registers.size()) {
+            long rawValue = 0;
+            for (int i = firstRegisterIndex; i < firstRegisterIndex + registerCount; i++) {
+                rawValue = (rawValue << 16) | registers.getUnsignedShort(i);
+            }
+            if (isUnchangedSinceLastProcessed(rawValue)) {
+                logger.trace("Thing {} registers unchanged since last poll, not updating the data channels. Request {}",
+                        thing.getUID(), request);
+                updateLastReadSuccess();
+                return;
+            }
+        }
+
         numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType);
         boolean boolValue = !numericState.equals(DecimalType.ZERO);
         Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
@@ -678,6 +710,12 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             return;
         }
         boolean boolValue = bits.getBit(readIndex.get() - pollStart);
+        if (isUnchangedSinceLastProcessed(boolValue ? 1 : 0)) {
+            logger.trace("Thing {} bits unchanged since last poll, not updating the data channels. Request {}",
+                    thing.getUID(), request);
+            updateLastReadSuccess();
+            return;
+        }
         DecimalType numericState = boolValue ? new DecimalType(BigDecimal.ONE) : DecimalType.ZERO;
         Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
         logger.debug(
@@ -704,6 +742,7 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
                     getThing().getUID(), getThing().getLabel(), error.getClass().getName(), error.toString(),
                     error.getMessage(), error);
         }
+        invalidateLastReadRawValue();
         Map<@NonNull ChannelUID, @NonNull State> states = new HashMap<>();
         ChannelUID lastReadErrorUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_ERROR);
         if (isLinked(lastReadErrorUID)) {
@@ -783,6 +822,9 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
      */
     private Map<ChannelUID, State> processUpdatedValue(DecimalType numericState, boolean boolValue) {
         Map<@NonNull ChannelUID, @NonNull State> states = new HashMap<>();
+        // Channels requiring transformation. All of these are transformed with single transformation call.
+        List<String> transformChannelIds = new ArrayList<>();
+        List<List<Class<? extends State>>> transformAcceptedDataTypes = new ArrayList<>();
         CHANNEL_ID_TO_ACCEPTED_TYPES.keySet().stream().forEach(channelId -> {
             ChannelUID channelUID = getChannelUID(channelId);
             if (!isLinked(channelUID)) {
@@ -802,38 +844,45 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
                 boolLikeState = null;
             }
 
-            State transformedState;
-            if (readTransformation.isIdentityTransform()) {
-                if (boolLikeState != null) {
-                    // A bit of smartness for ON/OFF and OPEN/CLOSED with boolean like items
-                    transformedState = boolLikeState;
-                } else {
-                    // Numeric states always go through transformation. This allows value of 17.5 to be
-                    // converted to
-                    // 17.5% with percent types (instead of raising error)
-                    transformedState = readTransformation.transformState(bundleContext, acceptedDataTypes,
-                            numericState);
-                }
-            } else {
-                transformedState = readTransformation.transformState(bundleContext, acceptedDataTypes, numericState);
-            }
-
-            if (transformedState != null) {
+            if (readTransformation.isIdentityTransform() && boolLikeState != null) {
+                // A bit of smartness for ON/OFF and OPEN/CLOSED with boolean like items
                 logger.trace(
-                        "Channel {} will be updated to '{}' (type {}). Input data: number value {} (value type '{}' taken into account) and bool value {}. Transformation: {}",
-                        channelId, transformedState, transformedState.getClass().getSimpleName(), numericState,
-                        readValueType, boolValue,
-                        readTransformation.isIdentityTransform() ? "<identity>" : readTransformation);
-                states.put(channelUID, transformedState);
+                        "Channel {} will be updated to '{}' (type {}). Input data: number value {} (value type '{}' taken into account) and bool value {}. Transformation: <identity>",
+                        channelId, boolLikeState, boolLikeState.getClass().getSimpleName(), numericState,
+                        readValueType, boolValue);
+                states.put(channelUID, boolLikeState);
             } else {
-                String types = StringUtils.join(acceptedDataTypes.stream().map(cls -> cls.getSimpleName()).toArray(),
-                        ", ");
-                logger.warn(
-                        "Channel {} will not be updated since transformation was unsuccessful. Channel is expecting the following data types [{}]. Input data: number value {} (value type '{}' taken into account) and bool value {}. Transformation: {}",
-                        channelId, types, numericState, readValueType, boolValue,
-                        readTransformation.isIdentityTransform() ? "<identity>" : readTransformation);
+                // Numeric states always go through transformation. This allows value of 17.5 to be converted to
+                // 17.5% with percent types (instead of raising error)
+                transformChannelIds.add(channelId);
+                transformAcceptedDataTypes.add(acceptedDataTypes);
             }
         });
+
+        if (!transformChannelIds.isEmpty()) {
+            List<@Nullable State> transformedStates = readTransformation.transformStates(bundleContext,
+                    transformAcceptedDataTypes, numericState);
+            for (int i = 0; i < transformChannelIds.size(); i++) {
+                String channelId = transformChannelIds.get(i);
+                State transformedState = transformedStates.get(i);
+                if (transformedState != null) {
+                    logger.trace(
+                            "Channel {} will be updated to '{}' (type {}). Input data: number value {} (value type '{}' taken into account) and bool value {}. Transformation: {}",
+                            channelId, transformedState, transformedState.getClass().getSimpleName(), numericState,
+                            readValueType, boolValue,
+                            readTransformation.isIdentityTransform() ? "<identity>" : readTransformation);
+                    states.put(getChannelUID(channelId), transformedState);
+                } else {
+                    String types = StringUtils.join(
+                            transformAcceptedDataTypes.get(i).stream().map(cls -> cls.getSimpleName()).toArray(),
+                            ", ");
+                    logger.warn(
+                            "Channel {} will not be updated since transformation was unsuccessful. Channel is expecting the following data types [{}]. Input data: number value {} (value type '{}' taken into account) and bool value {}. Transformation: {}",
+                            channelId, types, numericState, readValueType, boolValue,
+                            readTransformation.isIdentityTransform() ? "<identity>" : readTransformation);
+                }
+            }
+        }
         ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
         if (isLinked(lastReadSuccessUID)) {
             states.put(lastReadSuccessUID, new DateTimeType());
@@ -850,6 +899,40 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         return states;
     }
 
+    /**
+     * Check whether the polled value is unchanged since the last processed value, and should not be processed. Value
+     * is considered changed (and remembered as the last processed value) also when
+     * updateUnchangedValuesEveryMillis has elapsed since the last processed value.
+     *
+     * @param rawValue raw polled value, before any decoding
+     * @return whether the processing of the value can be skipped
+     */
+    private boolean isUnchangedSinceLastProcessed(long rawValue) {
+        ModbusDataConfiguration config = this.config;
+        long updateUnchangedValuesEveryMillis = config == null ? 0 : config.getUpdateUnchangedValuesEveryMillis();
+        long now = System.currentTimeMillis();
+        if (updateUnchangedValuesEveryMillis > 0 && lastReadRawValuePresent && lastReadRawValue == rawValue
+                && now - lastReadRawValueProcessedMillis < updateUnchangedValuesEveryMillis) {
+            return true;
+        }
+        lastReadRawValue = rawValue;
+        lastReadRawValueProcessedMillis = now;
+        lastReadRawValuePresent = true;
+        return false;
+    }
+
+    private void invalidateLastReadRawValue() {
+        lastReadRawValuePresent = false;
+    }
+
+    private void updateLastReadSuccess() {
+        updateStatusIfChanged(ThingStatus.ONLINE);
+        ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
+        if (isLinked(lastReadSuccessUID)) {
+            tryUpdateState(lastReadSuccessUID, new DateTimeType());
+        }
+    }
+
     private void tryUpdateState(ChannelUID uid, State state) {
         try {
             updateState(uid, state);
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.network.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.Test;
+import org.openhab.binding.network.internal.utils.NetworkUtils;
+import org.openhab.binding.network.internal.utils.NetworkUtils.IpPingMethodEnum;
+
+/**
+ * Tests cases for {@see PresenceDetectionEngine}
+ *
+ * @author agent - Initial contribution
+ */
+public class PresenceDetectionEngineTest {
+    private static final int TIMEOUT_IN_MS = 1000;
+
+    private final CountDownLatch pingStarted = new CountDownLatch(1);
+    private final CountDownLatch pingReleased = new CountDownLatch(1);
+    private final AtomicInteger pingCount = new AtomicInteger();
+
+    // Native pings block until released, to have checks in progress
+    private final NetworkUtils networkUtils = new NetworkUtils() {
+        @Override
+        public boolean nativePing(@Nullable IpPingMethodEnum method, String hostname, int timeoutInMS)
+                throws IOException, InterruptedException {
+            pingCount.incrementAndGet();
+            pingStarted.countDown();
+            pingReleased.await();
+            return true;
+        }
+    };
+
+    private final PresenceDetectionEngine subject = new PresenceDetectionEngine(networkUtils);
+
+    @Test
+    public void servicePingOpenPort() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            double latency = subject.servicePing(InetAddress.getLoopbackAddress(), server.getLocalPort(), TIMEOUT_IN_MS)
+                    .get(TIMEOUT_IN_MS * 2, TimeUnit.MILLISECONDS);
+            assertTrue(latency >= 0);
+        }
+    }
+
+    @Test
+    public void servicePingClosedPort() throws Exception {
+        int port;
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = server.getLocalPort();
+        }
+        double latency = subject.servicePing(InetAddress.getLoopbackAddress(), port, TIMEOUT_IN_MS)
+                .get(TIMEOUT_IN_MS * 2, TimeUnit.MILLISECONDS);
+        assertEquals(PresenceDetection.NOT_REACHABLE, latency, 0);
+    }
+
+    @Test
+    public void identicalChecksAreShared() throws Exception {
+        CompletableFuture<Double> first = subject.nativePing(IpPingMethodEnum.IPUTILS_LINUX_PING, "127.0.0.1",
+                TIMEOUT_IN_MS, false);
+        assertTrue(pingStarted.await(TIMEOUT_IN_MS, TimeUnit.MILLISECONDS));
+        CompletableFuture<Double> second = subject.nativePing(IpPingMethodEnum.IPUTILS_LINUX_PING, "127.0.0.1",
+                TIMEOUT_IN_MS, false);
+        assertSame(first, second);
+        assertEquals(1, subject.getRunningChecks());
+
+        pingReleased.countDown();
+        assertTrue(first.get(TIMEOUT_IN_MS, TimeUnit.MILLISECONDS) >= 0);
+        assertEquals(1, pingCount.get());
+        assertEquals(0, subject.getRunningChecks());
+    }
+
+    @Test
+    public void blockingCheckTimesOut() throws Exception {
+        CompletableFuture<Double> result = subject.nativePing(IpPingMethodEnum.IPUTILS_LINUX_PING, "127.0.0.1", 100,
+                false);
+        double latency = result.get(100 + PresenceDetectionEngine.TIMEOUT_GRACE_IN_MS + TIMEOUT_IN_MS,
+                TimeUnit.MILLISECONDS);
+        assertEquals(PresenceDetection.NOT_REACHABLE, latency, 0);
+        assertEquals(0, subject.getRunningChecks());
+    }
+
+    /**
+     * Engine whose threads are all busy with pings to "busy" hosts, which end one by one when released. The other
+     * hosts are recorded in the order they are pinged.
+     */
+    private static class BusyEngine {
+        final Semaphore busyPings = new Semaphore(0);
+        final List<String> pinged = Collections.synchronizedList(new ArrayList<>());
+        final PresenceDetectionEngine engine;
+
+        BusyEngine() throws InterruptedException {
+            CountDownLatch allBusy = new CountDownLatch(PresenceDetectionEngine.MAX_CONCURRENT_BLOCKING_CHECKS);
+            engine = new PresenceDetectionEngine(new NetworkUtils() {
+                @Override
+                public boolean nativePing(@Nullable IpPingMethodEnum method, String hostname, int timeoutInMS)
+                        throws IOException, InterruptedException {
+                    if (hostname.startsWith("busy")) {
+                        allBusy.countDown();
+                        busyPings.acquire();
+                    } else {
+                        pinged.add(hostname);
+                    }
+                    return true;
+                }
+            });
+            for (int i = 0; i < PresenceDetectionEngine.MAX_CONCURRENT_BLOCKING_CHECKS; i++) {
+                ping("busy" + i, false);
+            }
+            assertTrue(allBusy.await(TIMEOUT_IN_MS, TimeUnit.MILLISECONDS));
+        }
+
+        CompletableFuture<Double> ping(String hostname, boolean background) {
+            return engine.nativePing(IpPingMethodEnum.IPUTILS_LINUX_PING, hostname, TIMEOUT_IN_MS, background);
+        }
+    }
+
+    @Test
+    public void thingChecksAreStartedBeforeBackgroundChecks() throws Exception {
+        BusyEngine busy = new BusyEngine();
+        CompletableFuture<Double> discovery = busy.ping("discovery", true);
+        CompletableFuture<Double> thing = busy.ping("thing", false);
+
+        // A single thread becomes free and runs the queued checks one after another
+        busy.busyPings.release();
+        discovery.get(TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
+        thing.get(TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
+        busy.busyPings.release(PresenceDetectionEngine.MAX_CONCURRENT_BLOCKING_CHECKS);
+
+        assertEquals(Arrays.asList("thing", "discovery"), busy.pinged);
+    }
+
+    @Test
+    public void queuedBackgroundCheckIsPrioritizedWhenRequestedByThing() throws Exception {
+        BusyEngine busy = new BusyEngine();
+        CompletableFuture<Double> first = busy.ping("first", true);
+        CompletableFuture<Double> second = busy.ping("second", true);
+        assertSame(second, busy.ping("second", false));
+
+        busy.busyPings.release();
+        first.get(TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
+        second.get(TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
+        busy.busyPings.release(PresenceDetectionEngine.MAX_CONCURRENT_BLOCKING_CHECKS);
+
+        assertEquals(Arrays.asList("second", "first"), busy.pinged);
+    }
+}
@@ -16,7 +16,7 @@ import static org.mockito.Mockito.*;
 import java.io.IOException;
 import java.net.UnknownHostException;
 import java.util.Collections;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -45,9 +45,6 @@ public class PresenceDetectionTest {
     @Mock
     PresenceDetectionListener listener;
 
-    @Mock
-    ExecutorService executorService;
-
     @Mock
     Consumer<PresenceDetectionValue> callback;
 
@@ -64,6 +61,7 @@ public class PresenceDetectionTest {
 
         subject = spy(new PresenceDetection(listener, (int) CACHETIME));
         subject.networkUtils = networkUtils;
+        subject.engine = spy(new PresenceDetectionEngine(networkUtils));
         subject.cache = spy(new ExpiringCacheAsync<PresenceDetectionValue>(CACHETIME, () -> {
             subject.performPresenceDetection(false);
         }));
@@ -85,26 +83,27 @@ public class PresenceDetectionTest {
         subject.waitForPresenceDetection();
     }
 
-    // Depending on the amount of test methods an according amount of threads is spawned.
-    // We will check if they spawn and return in time.
+    // Depending on the amount of test methods an according amount of checks is started.
+    // We will check if they start and finish.
     @Test
-    public void threadCountTest() {
-        assertNull(subject.executorService);
+    public void checkCountTest() {
+        assertNull(subject.detectionResult);
 
-        doNothing().when(subject).performARPping(any());
-        doNothing().when(subject).performJavaPing();
-        doNothing().when(subject).performSystemPing();
-        doNothing().when(subject).performServicePing(anyInt());
+        CompletableFuture<Double> check = new CompletableFuture<>();
+        doReturn(check).when(subject).performARPping(any());
+        doReturn(check).when(subject).performJavaPing();
+        doReturn(check).when(subject).performSystemPing();
+        doReturn(check).when(subject).performServicePing(anyInt());
 
         subject.performPresenceDetection(false);
 
-        // Thread count: ARP + ICMP + 1*TCP
+        // Check count: ARP + ICMP + 1*TCP
         assertThat(subject.detectionChecks, is(3));
-        assertNotNull(subject.executorService);
+        assertNotNull(subject.detectionResult);
 
-        subject.waitForPresenceDetection();
+        check.complete(PresenceDetection.NOT_REACHABLE);
         assertThat(subject.detectionChecks, is(0));
-        assertNull(subject.executorService);
+        assertNull(subject.detectionResult);
     }
 
     @Test
@@ -112,7 +111,7 @@ public class PresenceDetectionTest {
         doReturn(true).when(networkUtils).nativePing(eq(IpPingMethodEnum.WINDOWS_PING), anyString(), anyInt());
         doReturn(true).when(networkUtils).nativeARPPing(eq(ArpPingUtilEnum.IPUTILS_ARPING), anyString(), anyString(),
                 any(), anyInt());
-        doReturn(true).when(networkUtils).servicePing(anyString(), anyInt(), anyInt());
+        doReturn(CompletableFuture.completedFuture(1.0)).when(subject.engine).servicePing(any(), anyInt(), anyInt());
 
         assertTrue(subject.performPresenceDetection(false));
         subject.waitForPresenceDetection();
@@ -131,30 +130,30 @@ public class PresenceDetectionTest {
 
     @Test
     public void cacheTest() throws InterruptedException, IOException {
-        doReturn(true).when(networkUtils).nativePing(eq(IpPingMethodEnum.WINDOWS_PING), anyString(), anyInt());
-        doReturn(true).when(networkUtils).nativeARPPing(eq(ArpPingUtilEnum.IPUTILS_ARPING), anyString(), anyString(),
-                any(), anyInt());
-        doReturn(true).when(networkUtils).servicePing(anyString(), anyInt(), anyInt());
-
-        doReturn(executorService).when(subject).getThreadsFor(anyInt());
+        CompletableFuture<Double> icmpPing = new CompletableFuture<>();
+        CompletableFuture<Double> arpPing = new CompletableFuture<>();
+        CompletableFuture<Double> servicePing = new CompletableFuture<>();
+        // Checks of a later presence detection never finish
+        doReturn(icmpPing, new CompletableFuture<>()).when(subject.engine).nativePing(any(), anyString(), anyInt(),
+                anyBoolean());
+        doReturn(arpPing, new CompletableFuture<>()).when(subject.engine).nativeARPPing(any(), anyString(),
+                anyString(), anyString(), anyInt(), anyInt(), anyBoolean());
+        doReturn(servicePing, new CompletableFuture<>()).when(subject.engine).servicePing(any(), anyInt(), anyInt());
 
         // We expect no valid value
         assertTrue(subject.cache.isExpired());
         // Get value will issue a PresenceDetection internally.
         subject.getValue(callback);
         verify(subject).performPresenceDetection(eq(false));
-        assertNotNull(subject.executorService);
+        assertNotNull(subject.detectionResult);
         // There should be no straight callback yet
         verify(callback, times(0)).accept(any());
 
-        // Perform the different presence detection threads now
-        ArgumentCaptor<Runnable> capture = ArgumentCaptor.forClass(Runnable.class);
-        verify(executorService, times(3)).execute(capture.capture());
-        for (Runnable r : capture.getAllValues()) {
-            r.run();
-        }
-        // "Wait" for the presence detection to finish
-        subject.waitForPresenceDetection();
+        // Finish the different presence detection checks now
+        icmpPing.complete(1.0);
+        arpPing.complete(1.0);
+        servicePing.complete(1.0);
+        assertNull(subject.detectionResult);
 
         // Although there are multiple partial results and a final result,
         // the getValue() consumers get the fastest response possible, and only once.
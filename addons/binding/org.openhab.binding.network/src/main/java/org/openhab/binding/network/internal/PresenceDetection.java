@@ -13,13 +13,16 @@ import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 
 import org.apache.commons.lang.StringUtils;
@@ -43,6 +46,8 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 public class PresenceDetection implements IPRequestReceivedCallback {
     public static final double NOT_REACHABLE = -1;
+    // Time given to iOS devices to wake up before they are ARP pinged
+    static final int IOS_WAKEUP_DELAY_IN_MS = 50;
     NetworkUtils networkUtils = new NetworkUtils();
     private final Logger logger = LoggerFactory.getLogger(PresenceDetection.class);
 
@@ -54,6 +59,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     private String arpPingUtilPath = "arping";
     protected @Nullable IpPingMethodEnum pingMethod = null;
     private boolean iosDevice;
+    private boolean background;
     private Set<Integer> tcpPorts = new HashSet<>();
 
     private long refreshIntervalInMS = 60000;
@@ -65,11 +71,11 @@ public class PresenceDetection implements IPRequestReceivedCallback {
 
     /// State variables (cannot be final because of test dependency injections)
     ExpiringCacheAsync<PresenceDetectionValue> cache;
+    PresenceDetectionEngine engine = PresenceDetectionEngine.getInstance();
     private final PresenceDetectionListener updateListener;
     private @Nullable ScheduledFuture<?> refreshJob;
-    protected @Nullable ExecutorService executorService;
+    protected volatile @Nullable CompletableFuture<PresenceDetectionValue> detectionResult;
     private String dhcpState = "off";
-    Integer currentCheck = 0;
     int detectionChecks;
 
     public PresenceDetection(final PresenceDetectionListener updateListener, int cacheDeviceStateTimeInMS)
@@ -196,6 +202,14 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         iosDevice = value;
     }
 
+    /**
+     * Set to true if the presence detection is not done for a thing, e.g. by the discovery. Its pings wait until
+     * the pings of the things have been started.
+     */
+    public void setBackground(boolean value) {
+        background = value;
+    }
+
     /**
      * Return the last seen value in milliseconds based on {@link System.currentTimeMillis()} or 0 if not seen yet.
      */
@@ -214,14 +228,10 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         cache.getValue(callback);
     }
 
-    public ExecutorService getThreadsFor(int threadCount) {
-        return Executors.newFixedThreadPool(threadCount);
-    }
-
     /**
-     * Perform a presence detection with ICMP-, ARP ping and
-     * TCP connection attempts simultaneously. A fixed thread pool will be created with as many
-     * thread as necessary to perform all tests at once.
+     * Perform a presence detection with ICMP-, ARP ping and TCP connection attempts simultaneously.
+     * The checks are performed asynchronously by the {@link PresenceDetectionEngine} shared by all presence
+     * detections.
      *
      * This is a NO-OP, if there is already an ongoing detection or if the cached value
      * is not expired yet.
@@ -235,90 +245,98 @@ public class PresenceDetection implements IPRequestReceivedCallback {
      * @return Return true if a presence detection is performed and false otherwise.
      */
     public boolean performPresenceDetection(boolean waitForDetectionToFinish) {
-        if (executorService != null) {
-            logger.debug(
-                    "There is already an ongoing presence discovery for {} and a new one was issued by the scheduler! TCP Port {}",
-                    hostname, tcpPorts);
+        if (!startPresenceDetection()) {
             return false;
         }
 
-        if (!cache.isExpired()) {
-            return false;
+        if (waitForDetectionToFinish) {
+            waitForPresenceDetection();
         }
 
-        Set<String> interfaceNames = null;
+        return true;
+    }
 
-        currentCheck = 0;
-        detectionChecks = tcpPorts.size();
-        if (pingMethod != null) {
-            detectionChecks += 1;
-        }
-        if (arpPingMethod != null) {
-            interfaceNames = networkUtils.getInterfaceNames();
-            detectionChecks += interfaceNames.size();
+    private synchronized boolean startPresenceDetection() {
+        if (detectionResult != null) {
+            logger.debug(
+                    "There is already an ongoing presence discovery for {} and a new one was issued by the scheduler! TCP Port {}",
+                    hostname, tcpPorts);
+            return false;
         }
 
-        if (detectionChecks == 0) {
+        if (!cache.isExpired()) {
             return false;
         }
 
-        final ExecutorService executorService = getThreadsFor(detectionChecks);
-        this.executorService = executorService;
+        List<CompletableFuture<Double>> checks = new ArrayList<>();
 
         for (Integer tcpPort : tcpPorts) {
-            executorService.execute(() -> {
-                Thread.currentThread().setName("presenceDetectionTCP_" + hostname + " " + String.valueOf(tcpPort));
-                performServicePing(tcpPort);
-                checkIfFinished();
-            });
+            checks.add(performServicePing(tcpPort));
         }
 
-        // ARP ping for IPv4 addresses. Use an own executor for each network interface
-        if (interfaceNames != null) {
+        // ARP ping for IPv4 addresses on each network interface
+        if (arpPingMethod != null) {
+            Set<String> interfaceNames = networkUtils.getInterfaceNames();
+            if (iosDevice && !interfaceNames.isEmpty()) {
+                wakeUpIOS();
+            }
             for (final String interfaceName : interfaceNames) {
-                executorService.execute(() -> {
-                    Thread.currentThread().setName("presenceDetectionARP_" + hostname + " " + interfaceName);
-                    performARPping(interfaceName);
-                    checkIfFinished();
-                });
+                checks.add(performARPping(interfaceName));
             }
         }
 
         // ICMP ping
         if (pingMethod != null) {
-            executorService.execute(() -> {
-                if (pingMethod != IpPingMethodEnum.JAVA_PING) {
-                    Thread.currentThread().setName("presenceDetectionICMP_" + hostname);
-                    performSystemPing();
-                } else {
-                    performJavaPing();
-                }
-                checkIfFinished();
-            });
+            checks.add(pingMethod != IpPingMethodEnum.JAVA_PING ? performSystemPing() : performJavaPing());
         }
 
-        if (waitForDetectionToFinish) {
-            waitForPresenceDetection();
+        detectionChecks = checks.size();
+        if (detectionChecks == 0) {
+            return false;
         }
 
+        final CompletableFuture<PresenceDetectionValue> result = new CompletableFuture<>();
+        detectionResult = result;
+        CompletableFuture.allOf(checks.toArray(new CompletableFuture<?>[checks.size()]))
+                .whenComplete((ignored, e) -> submitFinalResult(result));
         return true;
     }
 
+    /**
+     * Return the result of the ongoing presence detection or the cached result if it is still valid. A new
+     * presence detection is started, if necessary.
+     *
+     * @return A future that completes with the final result of the presence detection
+     */
+    public CompletableFuture<PresenceDetectionValue> getFinalValue() {
+        CompletableFuture<PresenceDetectionValue> result = detectionResult;
+        if (result != null) {
+            return result;
+        }
+        if (!cache.isExpired()) {
+            return CompletableFuture.completedFuture(cache.getExpiredValue());
+        }
+        performPresenceDetection(false);
+        result = detectionResult;
+        if (result != null) {
+            return result;
+        }
+        // Nothing to check
+        return CompletableFuture.completedFuture(new PresenceDetectionValue(destination.getHostAddress(), -1));
+    }
+
     /**
      * Calls updateListener.finalDetectionResult() with a final result value.
      * Safe to be called from different threads. After a call to this method,
-     * the presence detection process is finished and all threads are forcefully
-     * shut down.
+     * the presence detection process is finished.
      */
-    private synchronized void submitFinalResult() {
-        // Do nothing if we are not in a detection process
-        ExecutorService service = executorService;
-        if (service == null) {
+    private synchronized void submitFinalResult(CompletableFuture<PresenceDetectionValue> result) {
+        // Do nothing if we are not in this detection process anymore
+        if (detectionResult != result) {
             return;
         }
         // Finish the detection process
-        service.shutdownNow();
-        executorService = null;
+        detectionResult = null;
         detectionChecks = 0;
 
         PresenceDetectionValue v;
@@ -334,39 +352,25 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         }
         cache.setValue(v);
         updateListener.finalDetectionResult(v);
+        result.complete(v);
     }
 
     /**
-     * This method is called after each individual check and increases a check counter.
-     * If the counter equals the total checks,the final result is submitted. This will
-     * happen way before the "timeoutInMS", if all checks were successful.
-     * Thread safe.
-     */
-    private synchronized void checkIfFinished() {
-        currentCheck += 1;
-        if (currentCheck < detectionChecks) {
-            return;
-        }
-        submitFinalResult();
-    }
-
-    /**
-     * Waits for the presence detection threads to finish. Returns immediately
+     * Waits for the ongoing presence detection to finish. Returns immediately
      * if no presence detection is performed right now.
      */
     public void waitForPresenceDetection() {
-        ExecutorService service = executorService;
-        if (service == null) {
+        CompletableFuture<PresenceDetectionValue> result = detectionResult;
+        if (result == null) {
             return;
         }
         try {
             // We may get interrupted here by cancelRefreshJob().
-            service.awaitTermination(timeoutInMS + 100, TimeUnit.MILLISECONDS);
-            submitFinalResult();
+            result.get(timeoutInMS + PresenceDetectionEngine.TIMEOUT_GRACE_IN_MS + 100, TimeUnit.MILLISECONDS);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt(); // Reset interrupt flag
-            service.shutdownNow();
-            executorService = null;
+        } catch (ExecutionException | TimeoutException e) {
+            logger.debug("Presence detection for {} did not finish in time", hostname);
         }
     }
 
@@ -395,49 +399,48 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         return v;
     }
 
-    protected void performServicePing(int tcpPort) {
+    protected CompletableFuture<Double> performServicePing(int tcpPort) {
         logger.trace("Perform TCP presence detection for {} on port: {}", hostname, tcpPort);
-        try {
-            double pingTime = System.nanoTime();
-            if (networkUtils.servicePing(destination.getHostAddress(), tcpPort, timeoutInMS)) {
-                final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
+        return engine.servicePing(destination, tcpPort, timeoutInMS).thenApply(latency -> {
+            if (latency != NOT_REACHABLE) {
                 PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.TCP_CONNECTION, latency);
                 v.addReachableTcpService(tcpPort);
                 updateListener.partialDetectionResult(v);
             }
+            return latency;
+        });
+    }
+
+    /**
+     * iOS devices are in a deep sleep mode and need to be woken up before they respond to ARP pings,
+     * see {@see NetworkUtils.wakeUpIOS()}.
+     */
+    protected void wakeUpIOS() {
+        try {
+            networkUtils.wakeUpIOS(destination);
         } catch (IOException e) {
-            // This should not happen and might be a user configuration issue, we log a warning message therefore.
-            logger.warn("Could not create a socket connection", e);
+            logger.trace("Failed to wake up iOS device {}", hostname, e);
         }
     }
 
     /**
      * Performs an "ARP ping" (ARP request) on the given interface.
-     * If it is an iOS device, the {@see NetworkUtils.wakeUpIOS()} method is
-     * called before performing the ARP ping.
+     * If it is an iOS device, the ARP ping is delayed to give the device time
+     * to wake up.
      *
      * @param interfaceName The interface name. You can request a list of interface names
      *            from {@see NetworkUtils.getInterfaceNames()} for example.
      */
-    protected void performARPping(String interfaceName) {
-        try {
-            logger.trace("Perform ARP ping presence detection for {} on interface: {}", hostname, interfaceName);
-            if (iosDevice) {
-                networkUtils.wakeUpIOS(destination);
-                Thread.sleep(50);
-            }
-            double pingTime = System.nanoTime();
-            if (networkUtils.nativeARPPing(arpPingMethod, arpPingUtilPath, interfaceName, destination.getHostAddress(),
-                    timeoutInMS)) {
-                final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
-                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ARP_PING, latency);
-                updateListener.partialDetectionResult(v);
-            }
-        } catch (IOException e) {
-            logger.trace("Failed to execute an arp ping for ip {}", hostname, e);
-        } catch (InterruptedException ignored) {
-            // This can be ignored, the thread will end anyway
-        }
+    protected CompletableFuture<Double> performARPping(String interfaceName) {
+        logger.trace("Perform ARP ping presence detection for {} on interface: {}", hostname, interfaceName);
+        return engine.nativeARPPing(arpPingMethod, arpPingUtilPath, interfaceName, destination.getHostAddress(),
+                timeoutInMS, iosDevice ? IOS_WAKEUP_DELAY_IN_MS : 0, background).thenApply(latency -> {
+                    if (latency != NOT_REACHABLE) {
+                        PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ARP_PING, latency);
+                        updateListener.partialDetectionResult(v);
+                    }
+                    return latency;
+                });
     }
 
     /**
@@ -446,34 +449,23 @@ public class PresenceDetection implements IPRequestReceivedCallback {
      * the TCP echo service on port 7 which barely no device or server supports nowadays.
      * (http://docs.oracle.com/javase/7/docs/api/java/net/InetAddress.html#isReachable%28int%29)
      */
-    protected void performJavaPing() {
-        try {
-            logger.trace("Perform java ping presence detection for {}", hostname);
-            double pingTime = System.nanoTime();
-            if (destination.isReachable(timeoutInMS)) {
-                final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
-                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING, latency);
-                updateListener.partialDetectionResult(v);
-            }
-        } catch (IOException e) {
-            logger.trace("Failed to execute a java ping for ip {}", hostname, e);
-        }
+    protected CompletableFuture<Double> performJavaPing() {
+        logger.trace("Perform java ping presence detection for {}", hostname);
+        return engine.javaPing(destination, timeoutInMS, background).thenApply(this::icmpPingResult);
     }
 
-    protected void performSystemPing() {
-        try {
-            logger.trace("Perform native ping presence detection for {}", hostname);
-            double pingTime = System.nanoTime();
-            if (networkUtils.nativePing(pingMethod, destination.getHostAddress(), timeoutInMS)) {
-                final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
-                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING, latency);
-                updateListener.partialDetectionResult(v);
-            }
-        } catch (IOException e) {
-            logger.trace("Failed to execute a native ping for ip {}", hostname, e);
-        } catch (InterruptedException e) {
-            // This can be ignored, the thread will end anyway
+    protected CompletableFuture<Double> performSystemPing() {
+        logger.trace("Perform native ping presence detection for {}", hostname);
+        return engine.nativePing(pingMethod, destination.getHostAddress(), timeoutInMS, background)
+                .thenApply(this::icmpPingResult);
+    }
+
+    private double icmpPingResult(double latency) {
+        if (latency != NOT_REACHABLE) {
+            PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING, latency);
+            updateListener.partialDetectionResult(v);
         }
+        return latency;
     }
 
     @Override
@@ -492,7 +484,8 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         if (future != null && !future.isDone()) {
             future.cancel(true);
         }
-        refreshJob = scheduledExecutorService.scheduleWithFixedDelay(() -> performPresenceDetection(true), 0,
+        // The detection is asynchronous, there is no need to block a thread of the scheduler until it is finished
+        refreshJob = scheduledExecutorService.scheduleWithFixedDelay(() -> performPresenceDetection(false), 0,
                 refreshIntervalInMS, TimeUnit.MILLISECONDS);
 
         enableDHCPListen(useDHCPsniffing);
@@ -0,0 +1,436 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.network.internal;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.network.internal.utils.NetworkUtils;
+import org.openhab.binding.network.internal.utils.NetworkUtils.ArpPingUtilEnum;
+import org.openhab.binding.network.internal.utils.NetworkUtils.IpPingMethodEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A singleton, shared by all {@link PresenceDetection} objects, that performs the individual presence checks
+ * asynchronously. Every check returns a future with the latency in milliseconds or
+ * {@link PresenceDetection#NOT_REACHABLE}.
+ *
+ * TCP connection attempts are non-blocking and are all handled by a single selector thread. Checks that can only be
+ * done by a blocking call (native ping and arping processes, Java ping) run on a small pool of threads, which caps
+ * the number of concurrently running ping processes for the whole binding. Identical checks that are requested while
+ * one is still in progress (e.g. the same host by a thing and the discovery) share the running check.
+ *
+ * Blocking checks of things are started before background checks, so that a discovery scan of a whole network does
+ * not delay the status updates of the things.
+ *
+ * All threads are created on demand and end after some idle time.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PresenceDetectionEngine {
+    // Maximum number of blocking checks (native ping processes, Java pings) running at the same time
+    static final int MAX_CONCURRENT_BLOCKING_CHECKS = 16;
+    // Maximum number of TCP connection attempts in progress at the same time
+    static final int MAX_CONCURRENT_CONNECTIONS = 256;
+    // Additional time a blocking check is granted before it is interrupted
+    static final int TIMEOUT_GRACE_IN_MS = 500;
+    private static final long IDLE_THREAD_KEEP_ALIVE_IN_S = 60;
+
+    private static @Nullable PresenceDetectionEngine instance;
+
+    private final Logger logger = LoggerFactory.getLogger(PresenceDetectionEngine.class);
+    private final NetworkUtils networkUtils;
+    private final ThreadPoolExecutor blockingChecks;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Map<String, CompletableFuture<Double>> runningChecks = new ConcurrentHashMap<>();
+    // Background checks waiting for a thread, so that they can be prioritized when a thing requests the same check
+    private final Map<String, BlockingJob> queuedBackgroundJobs = new ConcurrentHashMap<>();
+
+    // TCP connection attempts, only accessed by the selector thread apart from the queue
+    private final Queue<ConnectionAttempt> queuedConnections = new ConcurrentLinkedQueue<>();
+    private @Nullable Selector selector;
+    private int pendingConnections;
+
+    /**
+     * A TCP connection attempt in progress.
+     */
+    private static class ConnectionAttempt {
+        final InetSocketAddress address;
+        final int timeoutInMS;
+        final CompletableFuture<Double> result;
+        long startTime;
+
+        ConnectionAttempt(InetSocketAddress address, int timeoutInMS, CompletableFuture<Double> result) {
+            this.address = address;
+            this.timeoutInMS = timeoutInMS;
+            this.result = result;
+        }
+
+        long getDeadline() {
+            return startTime + TimeUnit.MILLISECONDS.toNanos(timeoutInMS);
+        }
+    }
+
+    /**
+     * A check that can only be done by a blocking call.
+     */
+    @FunctionalInterface
+    interface BlockingCheck {
+        boolean isReachable() throws IOException, InterruptedException;
+    }
+
+    /**
+     * A blocking check waiting for a thread. Checks of things are taken before background checks and in the order
+     * they were requested otherwise.
+     */
+    private static class BlockingJob implements Runnable, Comparable<BlockingJob> {
+        private static final AtomicLong SEQUENCE = new AtomicLong();
+
+        final Runnable check;
+        final long sequence = SEQUENCE.getAndIncrement();
+        // Only changed while the job is not queued
+        volatile boolean background;
+
+        BlockingJob(Runnable check, boolean background) {
+            this.check = check;
+            this.background = background;
+        }
+
+        @Override
+        public void run() {
+            check.run();
+        }
+
+        @Override
+        public int compareTo(BlockingJob other) {
+            if (background != other.background) {
+                return background ? 1 : -1;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Return the engine shared by all presence detections. It is created on first use.
+     */
+    public static synchronized PresenceDetectionEngine getInstance() {
+        PresenceDetectionEngine engine = instance;
+        if (engine == null) {
+            engine = new PresenceDetectionEngine(new NetworkUtils());
+            instance = engine;
+        }
+        return engine;
+    }
+
+    PresenceDetectionEngine(NetworkUtils networkUtils) {
+        this.networkUtils = networkUtils;
+        blockingChecks = new ThreadPoolExecutor(MAX_CONCURRENT_BLOCKING_CHECKS, MAX_CONCURRENT_BLOCKING_CHECKS,
+                IDLE_THREAD_KEEP_ALIVE_IN_S, TimeUnit.SECONDS, new PriorityBlockingQueue<>(),
+                namedDaemonThreads("presenceDetection"));
+        blockingChecks.allowCoreThreadTimeOut(true);
+        scheduler = new ScheduledThreadPoolExecutor(1, namedDaemonThreads("presenceDetectionScheduler"));
+        scheduler.setKeepAliveTime(IDLE_THREAD_KEEP_ALIVE_IN_S, TimeUnit.SECONDS);
+        scheduler.allowCoreThreadTimeOut(true);
+        scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Try to establish a tcp connection to the given port without blocking. A refused connection or a timeout
+     * is reported as not reachable.
+     *
+     * @param address The destination address
+     * @param port The tcp port. Must be not 0.
+     * @param timeoutInMS Timeout in milliseconds
+     * @return The latency of the connection attempt or {@link PresenceDetection#NOT_REACHABLE}
+     */
+    public CompletableFuture<Double> servicePing(InetAddress address, int port, int timeoutInMS) {
+        return runOnce("tcp " + address.getHostAddress() + ":" + port + " " + timeoutInMS, false, result -> {
+            queuedConnections.add(new ConnectionAttempt(new InetSocketAddress(address, port), timeoutInMS, result));
+            wakeUpSelector();
+        });
+    }
+
+    /**
+     * Use the native ping utility of the operating system to detect device presence. See
+     * {@link NetworkUtils#nativePing(IpPingMethodEnum, String, int)}.
+     *
+     * @param background True if the check is not done for a thing, e.g. by the discovery
+     * @return The latency of the ping or {@link PresenceDetection#NOT_REACHABLE}
+     */
+    public CompletableFuture<Double> nativePing(@Nullable IpPingMethodEnum method, String hostname, int timeoutInMS,
+            boolean background) {
+        String key = "icmp " + method + " " + hostname + " " + timeoutInMS;
+        return runOnce(key, background, result -> runBlocking(key, result, background, 0, timeoutInMS,
+                () -> networkUtils.nativePing(method, hostname, timeoutInMS)));
+    }
+
+    /**
+     * Perform a Java ping, see {@link InetAddress#isReachable(int)}.
+     *
+     * @param background True if the check is not done for a thing, e.g. by the discovery
+     * @return The latency of the ping or {@link PresenceDetection#NOT_REACHABLE}
+     */
+    public CompletableFuture<Double> javaPing(InetAddress address, int timeoutInMS, boolean background) {
+        String key = "java " + address.getHostAddress() + " " + timeoutInMS;
+        return runOnce(key, background, result -> runBlocking(key, result, background, 0, timeoutInMS,
+                () -> address.isReachable(timeoutInMS)));
+    }
+
+    /**
+     * Execute the arping tool to perform an ARP ping. See
+     * {@link NetworkUtils#nativeARPPing(ArpPingUtilEnum, String, String, String, int)}.
+     *
+     * @param delayInMS Time to wait before the ARP ping is started, e.g. to give a device time to wake up
+     * @param background True if the check is not done for a thing, e.g. by the discovery
+     * @return The latency of the ARP ping or {@link PresenceDetection#NOT_REACHABLE}
+     */
+    public CompletableFuture<Double> nativeARPPing(@Nullable ArpPingUtilEnum arpingTool, @Nullable String arpUtilPath,
+            String interfaceName, String ipV4address, int timeoutInMS, int delayInMS, boolean background) {
+        String key = "arp " + arpingTool + " " + interfaceName + " " + ipV4address + " " + timeoutInMS;
+        return runOnce(key, background, result -> runBlocking(key, result, background, delayInMS, timeoutInMS,
+                () -> networkUtils.nativeARPPing(arpingTool, arpUtilPath, interfaceName, ipV4address, timeoutInMS)));
+    }
+
+    /**
+     * Return the number of checks that are queued or in progress.
+     */
+    public int getRunningChecks() {
+        return runningChecks.size();
+    }
+
+    /**
+     * Start the check with the given key, unless the same check is already in progress. In that case the
+     * future of the check in progress is returned. If a thing requests a check which is queued as a background
+     * check, it is moved before the other background checks.
+     */
+    private CompletableFuture<Double> runOnce(String key, boolean background,
+            Consumer<CompletableFuture<Double>> check) {
+        CompletableFuture<Double> result = new CompletableFuture<>();
+        CompletableFuture<Double> running = runningChecks.putIfAbsent(key, result);
+        if (running != null) {
+            if (!background) {
+                BlockingJob job = queuedBackgroundJobs.remove(key);
+                // The job is only queued again if it has not been taken by a thread in the meantime
+                if (job != null && blockingChecks.remove(job)) {
+                    job.background = false;
+                    blockingChecks.execute(job);
+                }
+            }
+            return running;
+        }
+        result.whenComplete((latency, e) -> runningChecks.remove(key, result));
+        check.accept(result);
+        return result;
+    }
+
+    /**
+     * Run a blocking check on the pool of the engine. The check is interrupted and reported as not reachable if it
+     * does not return in time. The time a check waits for a free thread is not part of its timeout.
+     */
+    private void runBlocking(String key, CompletableFuture<Double> result, boolean background, int delayInMS,
+            int timeoutInMS, BlockingCheck check) {
+        BlockingJob job = new BlockingJob(() -> {
+            final Thread worker = Thread.currentThread();
+            ScheduledFuture<?> timeout = scheduler.schedule(() -> {
+                if (result.complete(PresenceDetection.NOT_REACHABLE)) {
+                    worker.interrupt();
+                }
+            }, timeoutInMS + TIMEOUT_GRACE_IN_MS, TimeUnit.MILLISECONDS);
+            long startTime = System.nanoTime();
+            try {
+                result.complete(check.isReachable() ? latencySince(startTime) : PresenceDetection.NOT_REACHABLE);
+            } catch (IOException e) {
+                logger.trace("Presence check failed", e);
+                result.complete(PresenceDetection.NOT_REACHABLE);
+            } catch (InterruptedException e) {
+                // Interrupted by the timeout, the result is already set
+            } finally {
+                timeout.cancel(false);
+            }
+        }, background);
+        if (background) {
+            queuedBackgroundJobs.put(key, job);
+            result.whenComplete((latency, e) -> queuedBackgroundJobs.remove(key, job));
+        }
+        if (delayInMS > 0) {
+            scheduler.schedule(() -> blockingChecks.execute(job), delayInMS, TimeUnit.MILLISECONDS);
+        } else {
+            blockingChecks.execute(job);
+        }
+    }
+
+    private static double latencySince(long startTime) {
+        return Math.round((System.nanoTime() - startTime) / 1000000.0f);
+    }
+
+    /**
+     * Start the selector thread if it is not running or wake it up to pick up queued connection attempts.
+     */
+    private synchronized void wakeUpSelector() {
+        Selector selector = this.selector;
+        if (selector != null) {
+            selector.wakeup();
+            return;
+        }
+        try {
+            selector = Selector.open();
+        } catch (IOException e) {
+            logger.warn("Could not open a selector for TCP presence checks", e);
+            ConnectionAttempt attempt;
+            while ((attempt = queuedConnections.poll()) != null) {
+                attempt.result.complete(PresenceDetection.NOT_REACHABLE);
+            }
+            return;
+        }
+        this.selector = selector;
+        final Selector threadSelector = selector;
+        namedDaemonThreads("presenceDetectionTCP").newThread(() -> selectLoop(threadSelector)).start();
+    }
+
+    /**
+     * Returns true and stops the selector thread if there is no more work to do.
+     */
+    private synchronized boolean stopIfIdle(Selector selector) {
+        if (pendingConnections > 0 || !queuedConnections.isEmpty()) {
+            return false;
+        }
+        this.selector = null;
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+        }
+        return true;
+    }
+
+    private void selectLoop(Selector selector) {
+        while (true) {
+            ConnectionAttempt attempt;
+            while (pendingConnections < MAX_CONCURRENT_CONNECTIONS && (attempt = queuedConnections.poll()) != null) {
+                connect(selector, attempt);
+            }
+            if (stopIfIdle(selector)) {
+                return;
+            }
+
+            // Wait for connections to be established or for the next connection attempt to time out
+            long now = System.nanoTime();
+            long nextDeadline = Long.MAX_VALUE;
+            for (SelectionKey key : selector.keys()) {
+                if (key.isValid()) {
+                    nextDeadline = Math.min(nextDeadline, ((ConnectionAttempt) key.attachment()).getDeadline());
+                }
+            }
+            try {
+                if (nextDeadline == Long.MAX_VALUE) {
+                    selector.selectNow();
+                } else {
+                    selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(nextDeadline - now)));
+                }
+            } catch (IOException e) {
+                logger.warn("Waiting for TCP presence checks failed", e);
+            }
+
+            for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext();) {
+                SelectionKey key = it.next();
+                it.remove();
+                ConnectionAttempt selected = (ConnectionAttempt) key.attachment();
+                boolean connected;
+                try {
+                    connected = ((SocketChannel) key.channel()).finishConnect();
+                } catch (IOException ignored) {
+                    // Connection refused, no route to host and the like
+                    connected = false;
+                }
+                finish(key, selected, connected);
+            }
+
+            now = System.nanoTime();
+            for (SelectionKey key : selector.keys()) {
+                ConnectionAttempt pending = (ConnectionAttempt) key.attachment();
+                if (key.isValid() && pending.getDeadline() - now <= 0) {
+                    finish(key, pending, false);
+                }
+            }
+        }
+    }
+
+    private void connect(Selector selector, ConnectionAttempt attempt) {
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            attempt.startTime = System.nanoTime();
+            if (channel.connect(attempt.address)) {
+                channel.close();
+                complete(attempt, latencySince(attempt.startTime));
+                return;
+            }
+            channel.register(selector, SelectionKey.OP_CONNECT, attempt);
+            pendingConnections++;
+        } catch (IOException e) {
+            logger.trace("Could not start a connection to {}", attempt.address, e);
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+            complete(attempt, PresenceDetection.NOT_REACHABLE);
+        }
+    }
+
+    private void finish(SelectionKey key, ConnectionAttempt attempt, boolean connected) {
+        key.cancel();
+        pendingConnections--;
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+        }
+        complete(attempt, connected ? latencySince(attempt.startTime) : PresenceDetection.NOT_REACHABLE);
+    }
+
+    /**
+     * Results are passed on by the scheduler, so that callers of the engine never run on the selector thread.
+     */
+    private void complete(ConnectionAttempt attempt, double latency) {
+        scheduler.execute(() -> attempt.result.complete(latency));
+    }
+
+    private static ThreadFactory namedDaemonThreads(String name) {
+        final AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
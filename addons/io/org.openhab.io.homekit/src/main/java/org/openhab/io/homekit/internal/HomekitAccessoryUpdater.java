@@ -8,9 +8,17 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.StateChangeListener;
@@ -26,12 +34,32 @@ import com.beowulfe.hap.HomekitCharacteristicChangeCallback;
  * Homekit library takes care of insuring only a single subscription exists for
  * each accessory.
  *
+ * Changes are collected for a short time before the Homekit clients are notified,
+ * so that an item changing several times within this window results in a single
+ * event with its latest value, and the events of items changing together (e.g. by
+ * a scene) are sent in one go.
+ *
  * @author Andy Lintner
  */
 public class HomekitAccessoryUpdater {
 
+    /**
+     * Time to collect changes before notifying the Homekit clients
+     */
+    private static final long AGGREGATION_WINDOW_MILLIS = 20;
+
     private Logger logger = LoggerFactory.getLogger(HomekitAccessoryUpdater.class);
     private final ConcurrentMap<ItemKey, Subscription> subscriptionsByName = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool("homekit");
+
+    /**
+     * Changed items waiting to be sent, in order of their first change
+     */
+    private final Set<ItemKey> pendingChanges = new LinkedHashSet<>();
+    private boolean flushScheduled = false;
+
+    private final AtomicLong eventsSent = new AtomicLong();
+    private final AtomicLong eventsCoalesced = new AtomicLong();
 
     public void subscribe(GenericItem item, HomekitCharacteristicChangeCallback callback) {
         subscribe(item, null, callback);
@@ -48,9 +76,9 @@ public class HomekitAccessoryUpdater {
         subscriptionsByName.compute(itemKey, (k, v) -> {
             if (v != null) {
                 logger.error("Received duplicate subscription on {}", item.getName());
-                unsubscribe(item, key);
+                item.removeStateChangeListener(v);
             }
-            Subscription subscription = (changedItem, oldState, newState) -> callback.changed();
+            Subscription subscription = new Subscription(k, callback);
             item.addStateChangeListener(subscription);
             return subscription;
         });
@@ -64,20 +92,116 @@ public class HomekitAccessoryUpdater {
         if (item == null) {
             return;
         }
-        subscriptionsByName.computeIfPresent(new ItemKey(item, key), (k, v) -> {
+        ItemKey itemKey = new ItemKey(item, key);
+        subscriptionsByName.computeIfPresent(itemKey, (k, v) -> {
             item.removeStateChangeListener(v);
             return null;
         });
+        synchronized (pendingChanges) {
+            pendingChanges.remove(itemKey);
+        }
+    }
+
+    /**
+     * Moves the subscriptions of an item to its updated instance. The accessories look up their items by name, so
+     * they can be kept when an item is updated without changes relevant to Homekit.
+     *
+     * @param oldItem the item instance which has been replaced
+     * @param newItem the updated item instance
+     */
+    public void updateItem(GenericItem oldItem, GenericItem newItem) {
+        for (ItemKey itemKey : subscriptionsByName.keySet()) {
+            if (itemKey.item == newItem || !itemKey.item.getName().equals(oldItem.getName())) {
+                continue;
+            }
+            Subscription subscription = subscriptionsByName.remove(itemKey);
+            if (subscription == null) {
+                continue;
+            }
+            itemKey.item.removeStateChangeListener(subscription);
+            ItemKey newItemKey = new ItemKey(newItem, itemKey.key);
+            Subscription newSubscription = new Subscription(newItemKey, subscription.callback);
+            newItem.addStateChangeListener(newSubscription);
+            subscriptionsByName.put(newItemKey, newSubscription);
+            synchronized (pendingChanges) {
+                if (pendingChanges.remove(itemKey)) {
+                    pendingChanges.add(newItemKey);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return number of events sent to the Homekit library
+     */
+    public long getEventsSent() {
+        return eventsSent.get();
     }
 
-    @FunctionalInterface
-    private static interface Subscription extends StateChangeListener {
+    /**
+     * @return number of changes which were merged into an event of a previous change of the same item
+     */
+    public long getEventsCoalesced() {
+        return eventsCoalesced.get();
+    }
+
+    private void queue(ItemKey itemKey) {
+        synchronized (pendingChanges) {
+            if (!pendingChanges.add(itemKey)) {
+                // the event sent for the pending change will contain the latest value
+                eventsCoalesced.incrementAndGet();
+                return;
+            }
+            if (flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        scheduler.schedule(this::flush, AGGREGATION_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        List<ItemKey> changes;
+        synchronized (pendingChanges) {
+            changes = new ArrayList<>(pendingChanges);
+            pendingChanges.clear();
+            flushScheduled = false;
+        }
+        int sent = 0;
+        for (ItemKey itemKey : changes) {
+            Subscription subscription = subscriptionsByName.get(itemKey);
+            if (subscription == null) {
+                continue;
+            }
+            try {
+                subscription.callback.changed();
+                sent++;
+            } catch (RuntimeException e) {
+                logger.warn("Could not notify Homekit clients of a change of {}: {}", itemKey.item.getName(),
+                        e.getMessage(), e);
+            }
+        }
+        eventsSent.addAndGet(sent);
+        logger.trace("Sent {} Homekit events, {} events sent and {} changes coalesced in total", sent,
+                eventsSent.get(), eventsCoalesced.get());
+    }
+
+    private class Subscription implements StateChangeListener {
+        private final ItemKey itemKey;
+        private final HomekitCharacteristicChangeCallback callback;
+
+        public Subscription(ItemKey itemKey, HomekitCharacteristicChangeCallback callback) {
+            this.itemKey = itemKey;
+            this.callback = callback;
+        }
 
         @Override
-        void stateChanged(Item item, State oldState, State newState);
+        public void stateChanged(Item item, State oldState, State newState) {
+            queue(itemKey);
+        }
 
         @Override
-        default void stateUpdated(Item item, State state) {
+        public void stateUpdated(Item item, State state) {
             // Do nothing on non-change update
         }
     }
@@ -9,7 +9,12 @@
 package org.openhab.io.homekit.internal;
 
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
+import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.eclipse.smarthome.core.items.ItemRegistryChangeListener;
@@ -17,12 +22,17 @@ import org.openhab.io.homekit.internal.accessories.HomekitAccessoryFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.beowulfe.hap.HomekitAccessory;
 import com.beowulfe.hap.HomekitRoot;
 
 /**
  * Listens for changes to the item registry. When changes are detected, check
  * for Homekit tags and, if present, add the items to the HomekitAccessoryRegistry.
  *
+ * The accessories of all items are created in parallel when the item registry is set.
+ * Updated items only cause their accessory to be recreated if the accessory changes,
+ * otherwise the existing accessory is kept.
+ *
  * @author Andy Lintner
  */
 public class HomekitChangeListener implements ItemRegistryChangeListener {
@@ -60,11 +70,38 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     }
 
     @Override
-    public void updated(Item oldElement, Item element) {
+    public synchronized void updated(Item oldElement, Item element) {
+        HomekitTaggedItem oldTaggedItem = new HomekitTaggedItem(oldElement, itemRegistry);
+        HomekitTaggedItem taggedItem = new HomekitTaggedItem(element, itemRegistry);
+        if (!isAccessoryChanged(oldTaggedItem, taggedItem)) {
+            if (taggedItem.isTagged() && oldElement instanceof GenericItem && element instanceof GenericItem) {
+                logger.debug("Keeping homekit accessory of updated item {}", element.getName());
+                updater.updateItem((GenericItem) oldElement, (GenericItem) element);
+            }
+            return;
+        }
         removed(oldElement);
         added(element);
     }
 
+    /**
+     * Checks if an item update changes anything the accessories are created from.
+     */
+    private boolean isAccessoryChanged(HomekitTaggedItem oldTaggedItem, HomekitTaggedItem taggedItem) {
+        if (!oldTaggedItem.isTagged() && !taggedItem.isTagged()) {
+            return false;
+        }
+        Item oldItem = oldTaggedItem.getItem();
+        Item item = taggedItem.getItem();
+        return oldTaggedItem.isTagged() != taggedItem.isTagged()
+                || oldTaggedItem.getDeviceType() != taggedItem.getDeviceType()
+                || oldTaggedItem.getCharacteristicType() != taggedItem.getCharacteristicType()
+                || oldTaggedItem.getId() != taggedItem.getId() || oldItem.getClass() != item.getClass()
+                || !Objects.equals(oldItem.getType(), item.getType())
+                || !Objects.equals(oldItem.getLabel(), item.getLabel())
+                || !new HashSet<>(oldItem.getGroupNames()).equals(new HashSet<>(item.getGroupNames()));
+    }
+
     public synchronized void clearAccessories() {
         accessoryRegistry.clear();
     }
@@ -76,7 +113,24 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     public synchronized void setItemRegistry(ItemRegistry itemRegistry) {
         this.itemRegistry = itemRegistry;
         itemRegistry.addRegistryChangeListener(this);
-        itemRegistry.getAll().forEach(item -> added(item));
+        addAll(itemRegistry.getAll());
+    }
+
+    /**
+     * Adds the accessories of the given items. The items are tagged and their accessories are created in parallel,
+     * before all of them are added to the accessory registry.
+     */
+    private void addAll(Collection<Item> items) {
+        List<HomekitTaggedItem> taggedItems = items.parallelStream()
+                .map(item -> new HomekitTaggedItem(item, itemRegistry)).filter(HomekitTaggedItem::isTagged)
+                .collect(Collectors.toList());
+        List<HomekitAccessory> accessories = taggedItems.parallelStream().filter(HomekitTaggedItem::isRootDevice)
+                .map(this::createAccessory).filter(Objects::nonNull).collect(Collectors.toList());
+
+        accessories.forEach(accessory -> accessoryRegistry.addRootDevice(accessory));
+        taggedItems.stream().filter(HomekitTaggedItem::isCharacteristic)
+                .forEach(taggedItem -> createCharacteristic(taggedItem));
+        logger.debug("Added {} homekit accessories", accessories.size());
     }
 
     public void setUpdater(HomekitAccessoryUpdater updater) {
@@ -94,13 +148,20 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     }
 
     private void createRootDevice(HomekitTaggedItem taggedItem) {
-        try {
-            logger.debug("Adding homekit device {}", taggedItem.getItem().getName());
-            accessoryRegistry
-                    .addRootDevice(HomekitAccessoryFactory.create(taggedItem, itemRegistry, updater, settings));
+        HomekitAccessory accessory = createAccessory(taggedItem);
+        if (accessory != null) {
+            accessoryRegistry.addRootDevice(accessory);
             logger.debug("Added homekit device {}", taggedItem.getItem().getName());
+        }
+    }
+
+    private HomekitAccessory createAccessory(HomekitTaggedItem taggedItem) {
+        try {
+            logger.debug("Creating homekit device {}", taggedItem.getItem().getName());
+            return HomekitAccessoryFactory.create(taggedItem, itemRegistry, updater, settings);
         } catch (Exception e) {
             logger.error("Could not add device: {}", e.getMessage(), e);
+            return null;
         }
     }
 
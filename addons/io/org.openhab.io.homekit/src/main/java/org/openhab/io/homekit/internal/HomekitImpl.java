@@ -97,7 +97,8 @@ public class HomekitImpl implements Homekit {
         homekit = new HomekitServer(settings.getNetworkInterface(), settings.getPort());
         bridge = homekit.createBridge(new HomekitAuthInfoImpl(storageService, settings.getPin()), settings.getName(),
                 settings.getManufacturer(), settings.getModel(), settings.getSerialNumber());
-        bridge.start();
+        // Add the accessories before starting the bridge, a started bridge resets all connections on every change
         changeListener.setBridge(bridge);
+        bridge.start();
     }
 }
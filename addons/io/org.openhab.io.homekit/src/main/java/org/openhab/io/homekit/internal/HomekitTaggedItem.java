@@ -107,15 +107,13 @@ public class HomekitTaggedItem {
         if (id < 2) {
             id = 2; // 0 and 1 are reserved
         }
-        if (CREATED_ACCESSORY_IDS.containsKey(id)) {
-            if (!CREATED_ACCESSORY_IDS.get(id).equals(item.getName())) {
-                logger.error(
-                        "Could not create homekit accessory {} because its hash conflicts with {}. This is a 1:1,000,000 chance occurrence. Change one of the names and consider playing the lottery. See https://github.com/openhab/openhab2-addons/issues/257#issuecomment-125886562",
-                        item.getName(), CREATED_ACCESSORY_IDS.get(id));
-                return 0;
-            }
-        } else {
-            CREATED_ACCESSORY_IDS.put(id, item.getName());
+        // Tagged items are created in parallel, so check and store the id atomically
+        String existingName = CREATED_ACCESSORY_IDS.putIfAbsent(id, item.getName());
+        if (existingName != null && !existingName.equals(item.getName())) {
+            logger.error(
+                    "Could not create homekit accessory {} because its hash conflicts with {}. This is a 1:1,000,000 chance occurrence. Change one of the names and consider playing the lottery. See https://github.com/openhab/openhab2-addons/issues/257#issuecomment-125886562",
+                    item.getName(), existingName);
+            return 0;
         }
         return id;
     }
@@ -29,6 +29,7 @@ import org.eclipse.smarthome.core.events.EventPublisher;
 import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.library.items.ColorItem;
 import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -41,6 +42,7 @@ import org.openhab.io.hueemulation.internal.dto.HueStatePlug;
 import org.openhab.io.hueemulation.internal.dto.HueUserAuth;
 
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 
 /**
  * Tests for {@link RESTApi}.
@@ -60,7 +62,7 @@ public class HueRestAPITest {
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
-        gson = new Gson();
+        gson = new GsonBuilder().registerTypeAdapterFactory(new HueDevice.SerializerFactory()).create();
         ds = new HueDataStore();
         userManagement = spy(new UserManagement(ds));
         configManagement = spy(new ConfigManagement(ds));
@@ -165,4 +167,37 @@ public class HueRestAPITest {
         assertThat(((HueStateColorBulb) ds.lights.get(2).state).on, is(true));
         assertThat(((HueStateColorBulb) ds.lights.get(2).state).bri, is(200));
     }
+
+    @Test
+    public void lightsFromCachedJSON() throws IOException {
+        ds.config.whitelist.put("testuser", new HueUserAuth("testuser"));
+
+        StringWriter out = new StringWriter();
+        int result = restAPI.handle(HttpMethod.GET, "", out, Paths.get("/api/testuser/lights"), false);
+        assertEquals(200, result);
+        assertThat(out.toString(), is(new Gson().toJson(ds.lights)));
+
+        String eTag = restAPI.getETag(HttpMethod.GET, Paths.get("/api/testuser/lights"));
+        assertThat(eTag, is(notNullValue()));
+        assertThat(restAPI.getETag(HttpMethod.GET, Paths.get("/api/testuser/lights")), is(eTag));
+        assertThat(restAPI.getETag(HttpMethod.GET, Paths.get("/api/invalid/lights")), is(nullValue()));
+
+        // A changed item state must invalidate the cached JSON
+        HueDevice device = ds.lights.get(1);
+        ((SwitchItem) device.item).setState(OnOffType.ON);
+        device.updateState();
+        assertThat(restAPI.getETag(HttpMethod.GET, Paths.get("/api/testuser/lights")), is(not(eTag)));
+
+        out = new StringWriter();
+        result = restAPI.handle(HttpMethod.GET, "", out, Paths.get("/api/testuser/lights/1"), false);
+        assertEquals(200, result);
+        assertThat(out.toString(), is(new Gson().toJson(device)));
+        assertThat(((HueStatePlug) device.state).on, is(true));
+
+        // The full data store contains the same lights
+        out = new StringWriter();
+        result = restAPI.handle(HttpMethod.GET, "", out, Paths.get("/api/testuser"), false);
+        assertEquals(200, result);
+        assertThat(out.toString(), is(new Gson().toJson(ds)));
+    }
 }
@@ -44,6 +44,7 @@ import org.eclipse.smarthome.core.service.ReadyService.ReadyTracker;
 import org.eclipse.smarthome.core.storage.StorageService;
 import org.openhab.io.hueemulation.internal.RESTApi.HttpMethod;
 import org.openhab.io.hueemulation.internal.dto.HueDataStore;
+import org.openhab.io.hueemulation.internal.dto.HueDevice;
 import org.openhab.io.hueemulation.internal.dto.HueGroup;
 import org.openhab.io.hueemulation.internal.dto.response.HueResponse;
 import org.openhab.io.hueemulation.internal.dto.response.HueResponse.HueErrorMessage;
@@ -100,7 +101,8 @@ public class HueEmulationService implements ReadyTracker {
     private final Logger logger = LoggerFactory.getLogger(HueEmulationService.class);
     private final Gson gson = new GsonBuilder()
             .registerTypeAdapter(HueSuccessResponseStateChanged.class, new HueSuccessResponseStateChanged.Serializer())
-            .registerTypeAdapter(HueGroup.class, new HueGroup.Serializer()).create();
+            .registerTypeAdapter(HueGroup.class, new HueGroup.Serializer())
+            .registerTypeAdapterFactory(new HueDevice.SerializerFactory()).create();
 
     //// Required services ////
     private @NonNullByDefault({}) HttpService httpService;
@@ -170,6 +172,16 @@ public class HueEmulationService implements ReadyTracker {
                     postBody = "";
                 }
 
+                // Lights are polled frequently. Answer with "not modified" if the client already has them.
+                String eTag = isDebug ? null : restAPI.getETag(method, path);
+                if (eTag != null) {
+                    resp.setHeader("ETag", eTag);
+                    if (Utils.matchesETag(req.getHeader("If-None-Match"), eTag)) {
+                        resp.setStatus(304);
+                        return;
+                    }
+                }
+
                 int statuscode = 0;
                 try {
                     statuscode = restAPI.handle(method, postBody, out, path, isDebug);
@@ -17,11 +17,14 @@ import java.util.stream.Stream;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.registry.RegistryChangeListener;
+import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.items.StateChangeListener;
 import org.eclipse.smarthome.core.library.CoreItemFactory;
 import org.eclipse.smarthome.core.storage.Storage;
+import org.eclipse.smarthome.core.types.State;
 import org.openhab.io.hueemulation.internal.dto.HueDataStore;
 import org.openhab.io.hueemulation.internal.dto.HueDevice;
 import org.openhab.io.hueemulation.internal.dto.HueGroup;
@@ -42,6 +45,11 @@ import org.slf4j.LoggerFactory;
  * </p>
  *
  * <p>
+ * The state of the exposed items is observed, so that a {@link HueDevice} is only updated (and serialized again)
+ * if the state of its item has changed.
+ * </p>
+ *
+ * <p>
  * Implementing scenes should be done here as well.
  * </p>
  *
@@ -57,7 +65,7 @@ import org.slf4j.LoggerFactory;
  * @author David Graeff - Initial contribution
  */
 @NonNullByDefault
-public class LightItems implements RegistryChangeListener<Item> {
+public class LightItems implements RegistryChangeListener<Item>, StateChangeListener {
     private final Logger logger = LoggerFactory.getLogger(LightItems.class);
     private static final Set<String> ALLOWED_ITEM_TYPES = Stream
             .of(CoreItemFactory.COLOR, CoreItemFactory.DIMMER, CoreItemFactory.SWITCH).collect(Collectors.toSet());
@@ -147,6 +155,7 @@ public class LightItems implements RegistryChangeListener<Item> {
     public synchronized void fetchItems() {
         initDone = false;
 
+        dataStore.lights.values().forEach(device -> unobserve(device.item));
         dataStore.resetGroupsAndLights();
 
         itemRegistry.removeRegistryChangeListener(this);
@@ -184,9 +193,22 @@ public class LightItems implements RegistryChangeListener<Item> {
     /**
      * Unregisters from the {@link ItemRegistry}.
      */
-    public void close() {
+    public synchronized void close() {
         writeToFile();
         itemRegistry.removeRegistryChangeListener(this);
+        dataStore.lights.values().forEach(device -> unobserve(device.item));
+    }
+
+    private void observe(Item item) {
+        if (item instanceof GenericItem) {
+            ((GenericItem) item).addStateChangeListener(this);
+        }
+    }
+
+    private void unobserve(Item item) {
+        if (item instanceof GenericItem) {
+            ((GenericItem) item).removeStateChangeListener(this);
+        }
     }
 
     private @Nullable DeviceType determineTargetType(@Nullable String category, String type, Set<String> tags) {
@@ -280,7 +302,11 @@ public class LightItems implements RegistryChangeListener<Item> {
 
         HueDevice device = new HueDevice(element, dataStore.config.uuid + "-" + hueID.toString(), t);
         device.item = element;
-        dataStore.lights.put(hueID, device);
+        HueDevice oldDevice = dataStore.lights.put(hueID, device);
+        if (oldDevice != null) {
+            unobserve(oldDevice.item);
+        }
+        observe(element);
         if (element instanceof GroupItem) {
             GroupItem g = (GroupItem) element;
             g.getMembers();
@@ -314,7 +340,11 @@ public class LightItems implements RegistryChangeListener<Item> {
             return;
         }
         logger.debug("Remove item {}", element.getUID());
-        dataStore.lights.remove(hueID);
+        HueDevice device = dataStore.lights.remove(hueID);
+        if (device != null) {
+            unobserve(device.item);
+        }
+        unobserve(element);
         dataStore.groups.remove(hueID);
         updateGroup0();
         itemUIDtoHueID.remove(element.getUID());
@@ -357,6 +387,25 @@ public class LightItems implements RegistryChangeListener<Item> {
             return;
         }
 
+        unobserve(hueDevice.item);
         hueDevice.updateItem(element);
+        observe(element);
+    }
+
+    @Override
+    public synchronized void stateChanged(Item item, State oldState, State newState) {
+        Integer hueID = itemUIDtoHueID.get(item.getUID());
+        if (hueID == null) {
+            return;
+        }
+        HueDevice hueDevice = dataStore.lights.get(hueID);
+        if (hueDevice != null && hueDevice.item == item) {
+            hueDevice.updateState();
+        }
+    }
+
+    @Override
+    public void stateUpdated(Item item, State state) {
+        // Only state changes are of interest
     }
 }
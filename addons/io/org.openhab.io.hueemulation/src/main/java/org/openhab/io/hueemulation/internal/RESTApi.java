@@ -164,7 +164,7 @@ public class RESTApi {
         if (remainingPath.getNameCount() == 0) { /** /api/{username} */
             switch (method) {
                 case GET:
-                    out.write(gson.toJson(ds));
+                    writeDataStore(out);
                     return 200;
                 default:
                     return 405;
@@ -270,8 +270,7 @@ public class RESTApi {
                             out.write("\n");
                         }
                     } else {
-                        ds.lights.values().forEach(v -> v.updateState());
-                        out.write(gson.toJson(ds.lights));
+                        writeLights(out);
                     }
                     return 200;
                 case POST:
@@ -314,8 +313,9 @@ public class RESTApi {
 
         /** /api/{username}/lights/{id} */
         if (remainingPath.getNameCount() == 1) {
-            hueDevice.updateState();
-            out.write(gson.toJson(hueDevice));
+            try (JsonWriter writer = new JsonWriter(out)) {
+                gson.toJson(hueDevice, HueDevice.class, writer);
+            }
             return 200;
         }
 
@@ -420,6 +420,66 @@ public class RESTApi {
         return 200;
     }
 
+    /**
+     * Writes the data store. The lights are written from the JSON cached by each {@link HueDevice}.
+     */
+    private void writeDataStore(Writer out) throws IOException {
+        try (JsonWriter writer = new JsonWriter(out)) {
+            gson.toJson(ds, HueDataStore.class, writer);
+        }
+    }
+
+    /**
+     * Writes the lights map. The lights are written from the JSON cached by each {@link HueDevice}.
+     */
+    private void writeLights(Writer out) throws IOException {
+        try (JsonWriter writer = new JsonWriter(out)) {
+            gson.toJson(ds.lights, new TypeToken<Map<Integer, HueDevice>>() {
+            }.getType(), writer);
+        }
+    }
+
+    /**
+     * Returns the ETag of the response to a request, for the resources that can be validated cheaply:
+     * /api/{username}/lights and /api/{username}/lights/{id}. The ETag is derived from the revision of each
+     * {@link HueDevice}, so it changes whenever a light is added, removed or changed. No light is serialized for it.
+     * The whole data store contains the current time and is therefore never validated.
+     *
+     * @param method The http method
+     * @param path The request path
+     * @return The ETag or null if the response has no ETag
+     */
+    public @Nullable String getETag(HttpMethod method, Path path) throws IOException {
+        if (method != HttpMethod.GET || path.getNameCount() < 3 || path.getNameCount() > 4
+                || !"api".equals(path.getName(0).toString()) || !"lights".equals(path.getName(2).toString())) {
+            return null;
+        }
+        if (!userManagement.authorizeUser(path.getName(1).toString())) {
+            return null;
+        }
+
+        if (path.getNameCount() == 3) {
+            long hash = 17;
+            for (Map.Entry<Integer, HueDevice> entry : ds.lights.entrySet()) {
+                hash = hash * 31 + entry.getKey();
+                hash = hash * 31 + entry.getValue().getRevision();
+            }
+            return "\"l" + Long.toHexString(hash) + "\"";
+        }
+
+        final int hueID;
+        try {
+            hueID = Integer.parseInt(path.getName(3).toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        HueDevice hueDevice = ds.lights.get(hueID);
+        if (hueDevice == null) {
+            return null;
+        }
+        return "\"d" + Long.toHexString(hueDevice.getRevision()) + "\"";
+    }
+
     /**
      * Update changing parameters of the data store like the time.
      */
@@ -16,6 +16,7 @@ import java.nio.charset.StandardCharsets;
 import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 
 /**
  * Network utility methods
@@ -35,6 +36,26 @@ public class Utils {
         response.setHeader("Access-Control-Allow-Headers", "Origin, X-Requested-With, Content-Type, Accept");
     }
 
+    /**
+     * Checks if the value of an If-None-Match header matches the given ETag.
+     *
+     * @param ifNoneMatch The If-None-Match header value, may be null
+     * @param eTag The ETag of the resource
+     * @return true if the client already has the resource with the given ETag
+     */
+    static boolean matchesETag(@Nullable String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String value : ifNoneMatch.split(",")) {
+            value = value.trim();
+            if (value.equals("*") || value.equals(eTag) || value.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Try to get the ethernet interface MAC for the network interface that belongs to the given IP address.
      * Returns a default MAC on any failure.
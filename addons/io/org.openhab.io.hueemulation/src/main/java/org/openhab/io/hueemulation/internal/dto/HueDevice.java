@@ -8,8 +8,11 @@
  */
 package org.openhab.io.hueemulation.internal.dto;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -22,6 +25,13 @@ import org.eclipse.smarthome.core.types.State;
 import org.openhab.io.hueemulation.internal.DeviceType;
 import org.openhab.io.hueemulation.internal.dto.HueStateColorBulb.ColorMode;
 
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
 /**
  * Hue API device object
  *
@@ -30,6 +40,11 @@ import org.openhab.io.hueemulation.internal.dto.HueStateColorBulb.ColorMode;
  */
 @NonNullByDefault
 public class HueDevice {
+    /**
+     * Seeded with the start time, so that revisions and the ETags derived from them are not reused after a restart
+     */
+    private static final AtomicLong REVISIONS = new AtomicLong(System.currentTimeMillis() * 1000);
+
     public AbstractHueState state = new AbstractHueState();
     public final String type;
     public final String modelid;
@@ -49,6 +64,11 @@ public class HueDevice {
     public transient Item item;
     public transient DeviceType deviceType;
 
+    /** Serialized JSON of this device, null if the device changed since it was serialized the last time */
+    private transient @Nullable String json;
+    /** Unique number identifying the current state of this device */
+    private transient long revision = REVISIONS.incrementAndGet();
+
     public static class Config {
         public final String archetype = "classicbulb";
         public final String function = "functional";
@@ -200,10 +220,11 @@ public class HueDevice {
      * @param errorApplied Output: All erroneous items are added in here
      * @return Return a command computed via the incoming state object.
      */
-    public @Nullable Command applyState(HueStateChange newState, Map<String, Object> successApplied,
+    public synchronized @Nullable Command applyState(HueStateChange newState, Map<String, Object> successApplied,
             List<String> errorApplied) {
         // First synchronize the internal state information with the framework
         setState(item.getState());
+        changed();
 
         Command command = null;
         if (newState.on != null) {
@@ -361,9 +382,10 @@ public class HueDevice {
         return command;
     }
 
-    public void updateItem(Item element) {
+    public synchronized void updateItem(Item element) {
         item = element;
         setState(item.getState());
+        changed();
 
         // Just update the item label and item reference
         String label = element.getLabel();
@@ -375,8 +397,76 @@ public class HueDevice {
     /**
      * Synchronizes the item state with the hue state object
      */
-    public void updateState() {
+    public synchronized void updateState() {
         setState(item.getState());
+        changed();
+    }
+
+    private void changed() {
+        json = null;
+        revision = REVISIONS.incrementAndGet();
+    }
+
+    /**
+     * Returns the JSON of this device. The device is only serialized again if it has changed since the last call.
+     *
+     * @param serializer The adapter serializing the fields of the device
+     * @param out The writer the JSON is written to, whose settings are applied
+     * @return The JSON of this device
+     */
+    private synchronized String toJson(TypeAdapter<HueDevice> serializer, JsonWriter out) throws IOException {
+        String json = this.json;
+        if (json == null) {
+            StringWriter buffer = new StringWriter();
+            JsonWriter writer = new JsonWriter(buffer);
+            writer.setLenient(out.isLenient());
+            writer.setHtmlSafe(out.isHtmlSafe());
+            writer.setSerializeNulls(out.getSerializeNulls());
+            serializer.write(writer, this);
+            json = buffer.toString();
+            this.json = json;
+        }
+        return json;
+    }
+
+    /**
+     * Returns a number that identifies the current state of this device. It changes whenever the device changes, also
+     * across restarts, and is known without serializing the device.
+     */
+    public synchronized long getRevision() {
+        return revision;
+    }
+
+    /**
+     * This type adapter factory writes the JSON cached by each device, so that a device is only serialized again
+     * after it has changed.
+     */
+    @NonNullByDefault({})
+    public static class SerializerFactory implements TypeAdapterFactory {
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (type.getRawType() != HueDevice.class) {
+                return null;
+            }
+            TypeAdapter<HueDevice> fieldSerializer = gson.getDelegateAdapter(this, TypeToken.get(HueDevice.class));
+            return (TypeAdapter<T>) new TypeAdapter<HueDevice>() {
+                @Override
+                public void write(JsonWriter out, HueDevice device) throws IOException {
+                    if (device == null) {
+                        out.nullValue();
+                    } else {
+                        out.jsonValue(device.toJson(fieldSerializer, out));
+                    }
+                }
+
+                @Override
+                public HueDevice read(JsonReader in) throws IOException {
+                    return fieldSerializer.read(in);
+                }
+            };
+        }
     }
 
     @Override
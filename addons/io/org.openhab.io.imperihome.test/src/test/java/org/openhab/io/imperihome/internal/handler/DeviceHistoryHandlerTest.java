@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.imperihome.internal.handler;
+
+import static org.junit.Assert.*;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.library.items.NumberItem;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.persistence.PersistenceItemInfo;
+import org.eclipse.smarthome.core.persistence.PersistenceServiceRegistry;
+import org.eclipse.smarthome.core.persistence.QueryablePersistenceService;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.openhab.io.imperihome.internal.model.device.AbstractDevice;
+import org.openhab.io.imperihome.internal.model.device.TemperatureDevice;
+import org.openhab.io.imperihome.internal.processor.DeviceRegistry;
+
+/**
+ * Tests for {@link DeviceHistoryHandler}
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceHistoryHandlerTest {
+
+    private static final Pattern URL_PATTERN = Pattern.compile("/devices/(.+?)/(.+?)/histo/(.+?)/(.+?)$");
+
+    private static final String ITEM_NAME = "temperature";
+
+    private static final long FIVE_MINUTES = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * Start of a 5 minute bucket in the past
+     */
+    private static final long BASE = 1500000000000L - 1500000000000L % FIVE_MINUTES;
+
+    /**
+     * Persistence service honouring the range and ordering of the criteria, newest first by default like the
+     * persistence services do.
+     */
+    private static class TestPersistenceService implements QueryablePersistenceService {
+        private final List<HistoricItem> values = new ArrayList<>();
+        private final List<FilterCriteria> queries = new ArrayList<>();
+
+        void add(long time, int value) {
+            values.add(new HistoricItem() {
+                @Override
+                public Date getTimestamp() {
+                    return new Date(time);
+                }
+
+                @Override
+                public State getState() {
+                    return new DecimalType(value);
+                }
+
+                @Override
+                public String getName() {
+                    return ITEM_NAME;
+                }
+            });
+        }
+
+        @Override
+        public String getId() {
+            return "test";
+        }
+
+        @Override
+        public String getLabel(Locale locale) {
+            return "Test";
+        }
+
+        @Override
+        public void store(Item item) {
+        }
+
+        @Override
+        public void store(Item item, String alias) {
+        }
+
+        @Override
+        public Iterable<HistoricItem> query(FilterCriteria filter) {
+            queries.add(filter);
+            List<HistoricItem> result = new ArrayList<>();
+            for (HistoricItem value : values) {
+                if (!value.getTimestamp().before(filter.getBeginDate())
+                        && !value.getTimestamp().after(filter.getEndDate())) {
+                    result.add(value);
+                }
+            }
+            Comparator<HistoricItem> byTime = Comparator.comparing(HistoricItem::getTimestamp);
+            result.sort(filter.getOrdering() == Ordering.ASCENDING ? byTime : byTime.reversed());
+            return result;
+        }
+
+        @Override
+        public Set<PersistenceItemInfo> getItemInfo() {
+            return Collections.emptySet();
+        }
+    }
+
+    private final TestPersistenceService persistence = new TestPersistenceService();
+    private DeviceHistoryHandler handler;
+
+    @Before
+    public void setUp() {
+        AbstractDevice device = new TemperatureDevice(new NumberItem(ITEM_NAME));
+        device.setId("device");
+        DeviceRegistry deviceRegistry = new DeviceRegistry();
+        deviceRegistry.add(device);
+
+        PersistenceServiceRegistry persistenceServiceRegistry = Mockito.mock(PersistenceServiceRegistry.class);
+        Mockito.when(persistenceServiceRegistry.getDefault()).thenReturn(persistence);
+
+        handler = new DeviceHistoryHandler(deviceRegistry, persistenceServiceRegistry);
+    }
+
+    private String request(long start, long end) throws Exception {
+        Matcher matcher = URL_PATTERN.matcher("/devices/device/value/histo/" + start + "/" + end);
+        assertTrue(matcher.find());
+        StringWriter writer = new StringWriter();
+        assertTrue(handler.handle(null, matcher, writer));
+        return writer.toString();
+    }
+
+    @Test
+    public void testShortRangeReturnsValuesOldestFirst() throws Exception {
+        persistence.add(BASE + 3000, 3);
+        persistence.add(BASE + 1000, 1);
+        persistence.add(BASE + 2000, 2);
+
+        assertEquals("{\"values\":[{\"date\":" + (BASE + 1000) + ",\"value\":1},{\"date\":" + (BASE + 2000)
+                + ",\"value\":2},{\"date\":" + (BASE + 3000) + ",\"value\":3}]}", request(BASE, BASE + 60000));
+    }
+
+    @Test
+    public void testLongRangeAggregatesBucketsOldestFirst() throws Exception {
+        persistence.add(BASE, 1);
+        persistence.add(BASE + 60000, 3);
+        persistence.add(BASE + FIVE_MINUTES, 10);
+        persistence.add(BASE + FIVE_MINUTES + 60000, 20);
+
+        // a day is aggregated into 5 minute buckets
+        String expected = "{\"values\":[{\"date\":" + BASE + ",\"value\":2.0},{\"date\":" + (BASE + FIVE_MINUTES)
+                + ",\"value\":15.0}]}";
+        long end = BASE + TimeUnit.DAYS.toMillis(1);
+        assertEquals(expected, request(BASE, end));
+        assertEquals(1, persistence.queries.size());
+        // the second request is served from the cached buckets, persistence is only queried for the values after them
+        assertEquals(expected, request(BASE, end));
+        assertEquals(2, persistence.queries.size());
+        assertEquals(new Date(end), persistence.queries.get(1).getBeginDate());
+    }
+}
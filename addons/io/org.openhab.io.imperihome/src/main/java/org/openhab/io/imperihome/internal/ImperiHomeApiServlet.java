@@ -205,7 +205,10 @@ public class ImperiHomeApiServlet extends HttpServlet {
         } else if (actionMatcher.matches()) {
             deviceActionHandler.handle(req, actionMatcher);
         } else if (historyMatcher.matches()) {
-            response = deviceHistoryHandler.handle(req, historyMatcher);
+            // The history is streamed, it can be too large to be built in memory
+            if (deviceHistoryHandler.handle(req, historyMatcher, resp.getWriter())) {
+                return;
+            }
         } else if (URL_PATTERN_SYSTEM.matcher(path).matches()) {
             response = systemHandler.handle(req);
         } else {
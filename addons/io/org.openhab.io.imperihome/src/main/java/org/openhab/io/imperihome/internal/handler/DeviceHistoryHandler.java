@@ -8,50 +8,94 @@
  */
 package org.openhab.io.imperihome.internal.handler;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
 import org.eclipse.smarthome.core.persistence.HistoricItem;
 import org.eclipse.smarthome.core.persistence.PersistenceService;
 import org.eclipse.smarthome.core.persistence.PersistenceServiceRegistry;
 import org.eclipse.smarthome.core.persistence.QueryablePersistenceService;
 import org.eclipse.smarthome.core.types.State;
 import org.openhab.io.imperihome.internal.model.HistoryItem;
-import org.openhab.io.imperihome.internal.model.HistoryList;
 import org.openhab.io.imperihome.internal.model.device.AbstractDevice;
 import org.openhab.io.imperihome.internal.processor.DeviceRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.stream.JsonWriter;
+
 /**
  * Device history request handler.
  *
+ * Long ranges are not returned with every persisted value, but aggregated into buckets, so that about as many values
+ * are returned as a phone screen can display. The completed buckets are cached per item, so that a following request
+ * for the same range only needs to query persistence for the values since the last request.
+ *
  * @author Pepijn de Geus - Initial contribution
  */
 public class DeviceHistoryHandler {
 
     private static final String CHARSET = "UTF-8";
 
+    /**
+     * Number of values to return for a history request, about the width of a phone screen in pixels.
+     */
+    private static final int TARGET_VALUE_COUNT = 400;
+
+    /**
+     * Sizes of the buckets the values are aggregated in. Larger buckets are multiples of a day.
+     */
+    private static final long[] BUCKET_SIZES = { TimeUnit.MINUTES.toMillis(1), TimeUnit.MINUTES.toMillis(5),
+            TimeUnit.MINUTES.toMillis(15), TimeUnit.MINUTES.toMillis(30), TimeUnit.HOURS.toMillis(1),
+            TimeUnit.HOURS.toMillis(3), TimeUnit.HOURS.toMillis(6), TimeUnit.HOURS.toMillis(12),
+            TimeUnit.DAYS.toMillis(1) };
+
+    private static final int MAX_CACHED_HISTORIES = 64;
+
     private final Logger logger = LoggerFactory.getLogger(DeviceHistoryHandler.class);
 
     private final DeviceRegistry deviceRegistry;
     private final PersistenceServiceRegistry persistenceServiceRegistry;
 
+    /**
+     * Aggregated histories by persistence service, item and bucket size, least recently used first.
+     */
+    private final Map<String, AggregatedHistory> cache = new LinkedHashMap<String, AggregatedHistory>(16, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, AggregatedHistory> eldest) {
+            return size() > MAX_CACHED_HISTORIES;
+        }
+    };
+
     public DeviceHistoryHandler(DeviceRegistry deviceRegistry, PersistenceServiceRegistry persistenceServiceRegistry) {
         this.deviceRegistry = deviceRegistry;
         this.persistenceServiceRegistry = persistenceServiceRegistry;
     }
 
-    public HistoryList handle(HttpServletRequest req, Matcher urlMatcher) {
+    /**
+     * Writes the history list of the requested device as JSON.
+     *
+     * @return false if the history could not be served and nothing was written.
+     */
+    public boolean handle(HttpServletRequest req, Matcher urlMatcher, Writer writer) throws IOException {
         String deviceId, field;
         long start, end;
         try {
@@ -68,52 +112,223 @@ public class DeviceHistoryHandler {
         AbstractDevice device = deviceRegistry.getDevice(deviceId);
         if (device == null) {
             logger.warn("Received history request for unknown device: {}", urlMatcher.group(0));
-            return null;
+            return false;
         }
 
         PersistenceService persistence = persistenceServiceRegistry.getDefault();
         if (persistence == null) {
             logger.warn("Could not retrieve default persistence service; can't serve history request");
-            return null;
+            return false;
         }
         if (!(persistence instanceof QueryablePersistenceService)) {
             logger.warn("Default persistence service is not queryable; can't serve history request");
-            return null;
+            return false;
         }
 
-        return serveHistory(device, (QueryablePersistenceService) persistence, start, end);
+        serveHistory(device, (QueryablePersistenceService) persistence, start, end, writer);
+        return true;
     }
 
-    private HistoryList serveHistory(AbstractDevice device, QueryablePersistenceService persistence, long start,
-            long end) {
-        logger.info("Querying persistence for history of Item {}, from {} to {}", device.getItemName(), start, end);
+    private void serveHistory(AbstractDevice device, QueryablePersistenceService persistence, long start, long end,
+            Writer writer) throws IOException {
+        long bucketSize = getBucketSize(end - start);
+        logger.info("Querying persistence for history of Item {}, from {} to {}, aggregated by {} ms",
+                device.getItemName(), start, end, bucketSize);
+
+        JsonWriter jsonWriter = new JsonWriter(writer);
+        jsonWriter.beginObject().name("values").beginArray();
+        if (bucketSize == 0) {
+            writeHistory(jsonWriter, device.getItemName(), persistence, start, end);
+        } else {
+            writeAggregatedHistory(jsonWriter, device.getItemName(), persistence, start, end, bucketSize);
+        }
+        jsonWriter.endArray().endObject();
+        jsonWriter.flush();
+    }
+
+    /**
+     * Returns the size of the buckets to aggregate a range in, or 0 if the range is short enough to be returned
+     * without aggregation.
+     */
+    private long getBucketSize(long range) {
+        long minimumSize = range / TARGET_VALUE_COUNT;
+        if (minimumSize < BUCKET_SIZES[0]) {
+            return 0;
+        }
+        for (long bucketSize : BUCKET_SIZES) {
+            if (bucketSize >= minimumSize) {
+                return bucketSize;
+            }
+        }
+        long day = BUCKET_SIZES[BUCKET_SIZES.length - 1];
+        return (minimumSize + day - 1) / day * day;
+    }
+
+    /**
+     * Writes every persisted value of the range.
+     */
+    private void writeHistory(JsonWriter jsonWriter, String itemName, QueryablePersistenceService persistence,
+            long start, long end) throws IOException {
+        int results = 0;
+        int count = 0;
+        for (HistoricItem historicItem : persistence.query(createCriteria(itemName, start, end))) {
+            results++;
+            State state = historicItem.getState();
+            if (state instanceof DecimalType) {
+                writeValue(jsonWriter, historicItem.getTimestamp().getTime(), ((DecimalType) state).toBigDecimal());
+                count++;
+            }
+        }
+        logEmptyHistory(results, count);
+    }
+
+    /**
+     * Writes the average values of the buckets of the range. The buckets are aligned to the epoch and identified by
+     * their start time. Completed buckets are taken from and added to the cache.
+     */
+    private void writeAggregatedHistory(JsonWriter jsonWriter, String itemName,
+            QueryablePersistenceService persistence, long start, long end, long bucketSize) throws IOException {
+        long alignedStart = start - Math.floorMod(start, bucketSize);
+        // buckets ending before this time are in the past and fully covered by the requested range
+        long completeEnd = Math.min(end, System.currentTimeMillis());
+        completeEnd -= Math.floorMod(completeEnd, bucketSize);
+
+        String cacheKey = persistence.getId() + ":" + itemName + ":" + bucketSize;
+        List<HistoryItem> cachedBuckets = Collections.emptyList();
+        long queryStart = alignedStart;
+        synchronized (cache) {
+            AggregatedHistory history = cache.get(cacheKey);
+            if (history != null && history.start <= alignedStart && history.end >= alignedStart) {
+                cachedBuckets = history.getBuckets(alignedStart, end);
+                queryStart = history.end;
+            }
+        }
+
+        int count = 0;
+        for (HistoryItem bucket : cachedBuckets) {
+            writeValue(jsonWriter, bucket.getDate(), bucket.getValue());
+            count++;
+        }
+        if (queryStart > end) {
+            return;
+        }
 
-        FilterCriteria criteria = new FilterCriteria().setItemName(device.getItemName()).setBeginDate(new Date(start))
-                .setEndDate(new Date(end));
+        List<HistoryItem> completedBuckets = new ArrayList<>();
+        long bucketStart = 0;
+        int valueCount = 0;
+        double sum = 0;
+        int results = 0;
+        for (HistoricItem historicItem : persistence.query(createCriteria(itemName, queryStart, end))) {
+            results++;
+            State state = historicItem.getState();
+            if (!(state instanceof DecimalType)) {
+                continue;
+            }
+            long time = historicItem.getTimestamp().getTime();
+            long bucket = time - Math.floorMod(time, bucketSize);
+            if (valueCount > 0 && bucket != bucketStart) {
+                HistoryItem item = new HistoryItem(bucketStart, sum / valueCount);
+                writeValue(jsonWriter, item.getDate(), item.getValue());
+                count++;
+                if (bucketStart + bucketSize <= completeEnd) {
+                    completedBuckets.add(item);
+                }
+                valueCount = 0;
+            }
+            if (valueCount == 0) {
+                bucketStart = bucket;
+                sum = 0;
+            }
+            sum += ((DecimalType) state).doubleValue();
+            valueCount++;
+        }
+        if (valueCount > 0) {
+            HistoryItem item = new HistoryItem(bucketStart, sum / valueCount);
+            writeValue(jsonWriter, item.getDate(), item.getValue());
+            count++;
+            if (bucketStart + bucketSize <= completeEnd) {
+                completedBuckets.add(item);
+            }
+        }
+        logEmptyHistory(results, count);
 
-        List<HistoryItem> resultItems = new LinkedList<>();
-        Iterable<HistoricItem> historicItems = persistence.query(criteria);
+        if (completeEnd > queryStart) {
+            synchronized (cache) {
+                AggregatedHistory history = cache.get(cacheKey);
+                if (history != null && history.end == queryStart) {
+                    history.append(completedBuckets, completeEnd);
+                    history.removeBefore(alignedStart);
+                } else if (queryStart == alignedStart && (history == null || history.end < completeEnd)) {
+                    history = new AggregatedHistory(alignedStart, alignedStart);
+                    history.append(completedBuckets, completeEnd);
+                    cache.put(cacheKey, history);
+                }
+            }
+        }
+    }
 
-        Iterator<HistoricItem> iterator = historicItems.iterator();
-        if (!iterator.hasNext()) {
+    /**
+     * Logs why no values were written for a history query, given the number of results returned by persistence and
+     * the number of values written.
+     */
+    private void logEmptyHistory(int results, int count) {
+        if (count > 0) {
+            return;
+        }
+        if (results == 0) {
             logger.info("Persistence returned no results for history query");
         } else {
-            while (iterator.hasNext()) {
-                HistoricItem historicItem = iterator.next();
-                State state = historicItem.getState();
-                if (state instanceof DecimalType) {
-                    Number value = ((DecimalType) state).toBigDecimal();
-                    resultItems.add(new HistoryItem(historicItem.getTimestamp(), value));
+            logger.warn("Persistence returned results for history query, but could not be interpreted as DecimalTypes");
+        }
+    }
+
+    /**
+     * Creates the query criteria of a range. The values are aggregated and written in the order they are returned, so
+     * they are queried oldest first instead of the default newest first.
+     */
+    private FilterCriteria createCriteria(String itemName, long start, long end) {
+        return new FilterCriteria().setItemName(itemName).setBeginDate(new Date(start)).setEndDate(new Date(end))
+                .setOrdering(Ordering.ASCENDING);
+    }
+
+    private void writeValue(JsonWriter jsonWriter, long date, Number value) throws IOException {
+        jsonWriter.beginObject().name("date").value(date).name("value").value(value).endObject();
+    }
+
+    /**
+     * Completed buckets of an item history, from {@link #start} (inclusive) to {@link #end} (exclusive).
+     */
+    private static class AggregatedHistory {
+        private long start;
+        private long end;
+        private final List<HistoryItem> buckets = new ArrayList<>();
+
+        AggregatedHistory(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        List<HistoryItem> getBuckets(long from, long to) {
+            List<HistoryItem> result = new ArrayList<>();
+            for (HistoryItem bucket : buckets) {
+                if (bucket.getDate() >= from && bucket.getDate() <= to) {
+                    result.add(bucket);
                 }
             }
+            return result;
+        }
 
-            if (resultItems.isEmpty()) {
-                logger.warn(
-                        "Persistence returned results for history query, but could not be interpreted as DecimalTypes");
-            }
+        void append(List<HistoryItem> completedBuckets, long newEnd) {
+            buckets.addAll(completedBuckets);
+            end = newEnd;
         }
 
-        return new HistoryList(resultItems);
+        void removeBefore(long newStart) {
+            if (newStart > start) {
+                buckets.removeIf(bucket -> bucket.getDate() < newStart);
+                start = newStart;
+            }
+        }
     }
 
 }
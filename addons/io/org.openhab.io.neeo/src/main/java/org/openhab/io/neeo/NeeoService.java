@@ -390,6 +390,7 @@ public class NeeoService implements EventSubscriber, NetworkAddressChangeListene
                 validate(eventPublisher, "eventPublisher"), validate(networkAddressService, "networkAddressService"));
 
         context = localContext;
+        localContext.getTokenSearchIndex().open();
         discovery = new MdnsBrainDiscovery(context);
         discovery.addListener(discoveryListener);
 
@@ -445,6 +446,7 @@ public class NeeoService implements EventSubscriber, NetworkAddressChangeListene
 
         final ServiceContext localContext = context;
         if (localContext != null) {
+            localContext.getTokenSearchIndex().close();
             localContext.getDefinitions().save();
 
             final HttpService service = localContext.getHttpService();
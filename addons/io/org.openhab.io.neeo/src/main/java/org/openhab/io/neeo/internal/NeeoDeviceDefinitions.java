@@ -145,6 +145,7 @@ public class NeeoDeviceDefinitions {
 
         uidToDevice.put(device.getUid(), device);
         save();
+        context.getTokenSearchIndex().refresh(device.getUid());
     }
 
     /**
@@ -159,6 +160,7 @@ public class NeeoDeviceDefinitions {
         final boolean found = uidToDevice.remove(uid) != null;
         if (found) {
             save();
+            context.getTokenSearchIndex().refresh(uid);
         }
         return found;
     }
@@ -171,8 +173,7 @@ public class NeeoDeviceDefinitions {
     public List<NeeoDevice> getExposed() {
         final List<NeeoDevice> devices = new ArrayList<>();
         for (NeeoDevice device : exposeAll || exposeNeeoBinding ? getAllDevices() : uidToDevice.values()) {
-            if (device.getExposedChannels().length > 0 && !NeeoDeviceType.EXCLUDE.equals(device.getType())
-                    && StringUtils.isNotEmpty(device.getType().toString())) {
+            if (isExposed(device)) {
                 devices.add(device);
             }
         }
@@ -180,6 +181,43 @@ public class NeeoDeviceDefinitions {
         return devices;
     }
 
+    /**
+     * Returns the {@link NeeoDevice} for the given {@link NeeoThingUID} if it has been exposed. This is the single
+     * device equivalent of {@link #getExposed()}
+     *
+     * @param uid the non-null uid
+     * @return the exposed device or null if unknown or not exposed
+     */
+    @Nullable
+    public NeeoDevice getExposed(NeeoThingUID uid) {
+        Objects.requireNonNull(uid, "uid cannot be null");
+
+        NeeoDevice device = uidToDevice.get(uid);
+        if (exposeAll || exposeNeeoBinding) {
+            if (device == null || !StringUtils.equalsIgnoreCase(NeeoConstants.NEEOIO_BINDING_ID, uid.getBindingId())) {
+                final Thing thing = context.getThingRegistry().get(uid.asThingUID());
+                if (thing == null) {
+                    device = null;
+                } else {
+                    device = device == null ? converter.convert(thing) : device.merge(context);
+                }
+            }
+        }
+
+        return device != null && isExposed(device) ? device : null;
+    }
+
+    /**
+     * Whether the device is exposed (has exposed channels and a type other than {@link NeeoDeviceType#EXCLUDE})
+     *
+     * @param device the non-null device
+     * @return true if exposed, false otherwise
+     */
+    private boolean isExposed(NeeoDevice device) {
+        return device.getExposedChannels().length > 0 && !NeeoDeviceType.EXCLUDE.equals(device.getType())
+                && StringUtils.isNotEmpty(device.getType().toString());
+    }
+
     /**
      *
      * Checks to see if the specified itemName is bound given the {@link NeeoDeviceKeys}. This method will find any
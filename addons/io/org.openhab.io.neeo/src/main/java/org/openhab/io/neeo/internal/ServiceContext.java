@@ -67,6 +67,9 @@ public class ServiceContext {
     /** The definitions. */
     private final NeeoDeviceDefinitions definitions;
 
+    /** The search index of the exposed devices */
+    private final TokenSearchIndex tokenSearchIndex;
+
     /** The network address service. */
     private final NetworkAddressService networkAddressService;
 
@@ -113,6 +116,7 @@ public class ServiceContext {
         this.eventPublisher = eventPublisher;
         this.networkAddressService = networkAddressService;
         this.definitions = new NeeoDeviceDefinitions(this);
+        this.tokenSearchIndex = new TokenSearchIndex(this);
     }
 
     /**
@@ -124,6 +128,15 @@ public class ServiceContext {
         return definitions;
     }
 
+    /**
+     * Gets the search index of the exposed devices.
+     *
+     * @return the token search index
+     */
+    public TokenSearchIndex getTokenSearchIndex() {
+        return tokenSearchIndex;
+    }
+
     /**
      * Gets the component context.
      *
@@ -11,16 +11,12 @@ package org.openhab.io.neeo.internal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
-import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.NonNullByDefault;
-import org.eclipse.smarthome.core.binding.BindingInfo;
-import org.eclipse.smarthome.core.thing.Thing;
-import org.eclipse.smarthome.core.thing.type.ThingType;
 import org.openhab.io.neeo.internal.models.NeeoDevice;
 import org.openhab.io.neeo.internal.models.TokenScore;
 import org.slf4j.Logger;
@@ -78,7 +74,7 @@ public class TokenSearch {
     }
 
     /**
-     * Searches the registry for all {@link NeeoDevice} matching the query
+     * Searches the {@link TokenSearchIndex} for all {@link NeeoDevice} matching the query
      *
      * @param query the non-empty query
      * @return a non-null result
@@ -86,47 +82,27 @@ public class TokenSearch {
     public Result search(String query) {
         NeeoUtil.requireNotEmpty(query, "query cannot be empty");
 
-        final List<TokenScore<NeeoDevice>> results = new ArrayList<>();
-
+        final long start = System.nanoTime();
         final String[] needles = StringUtils.split(query, DELIMITER);
-        int maxScore = -1;
-
-        for (NeeoDevice device : context.getDefinitions().getExposed()) {
-            int score = search(device.getName(), needles);
-            score += search("openhab", needles);
-            // score += searchAlgorithm(thing.getLocation(), needles);
-            score += search(device.getUid().getBindingId(), needles);
-
-            final Thing thing = context.getThingRegistry().get(device.getUid().asThingUID());
-            if (thing != null) {
-                final String location = thing.getLocation();
-                if (location != null && StringUtils.isNotEmpty(location)) {
-                    score += search(location, needles);
-                }
-
-                final Map<@NonNull String, String> properties = thing.getProperties();
-                final String vendor = properties.get(Thing.PROPERTY_VENDOR);
-                if (StringUtils.isNotEmpty(vendor)) {
-                    score += search(vendor, needles);
-                }
 
-                final ThingType tt = context.getThingTypeRegistry().getThingType(thing.getThingTypeUID());
-                if (tt != null) {
-                    score += search(tt.getLabel(), needles);
+        // every device is an openHAB device so this part of the score is the same for all of them
+        final int openHabScore = search("openhab", needles);
 
-                    final BindingInfo bi = context.getBindingInfoRegistry().getBindingInfo(tt.getBindingId());
-                    if (bi != null) {
-                        score += search(bi.getName(), needles);
-                    }
-                }
-            }
+        final List<TokenScore<NeeoDevice>> scores = context.getTokenSearchIndex()
+                .score(token -> searchAlgorithm(token, needles));
 
+        final List<TokenScore<NeeoDevice>> results = new ArrayList<>(scores.size());
+        int maxScore = -1;
+        for (TokenScore<NeeoDevice> ts : scores) {
+            final int score = (int) ts.getScore() + openHabScore;
             maxScore = Math.max(maxScore, score);
-
-            results.add(new TokenScore<>(score, device));
+            results.add(new TokenScore<>(score, ts.getItem()));
         }
 
-        return new Result(applyThreshold(results, maxScore, threshold), maxScore);
+        final Result result = new Result(applyThreshold(results, maxScore, threshold), maxScore);
+        logger.debug("Searched {} devices for '{}' in {} us", results.size(), query,
+                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        return result;
     }
 
     /**
@@ -0,0 +1,331 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.neeo.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+import org.apache.commons.lang.StringUtils;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.binding.BindingInfo;
+import org.eclipse.smarthome.core.common.registry.RegistryChangeListener;
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.link.ItemChannelLink;
+import org.eclipse.smarthome.core.thing.type.ThingType;
+import org.openhab.io.neeo.internal.models.NeeoDevice;
+import org.openhab.io.neeo.internal.models.NeeoThingUID;
+import org.openhab.io.neeo.internal.models.TokenScore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An inverted index of the tokens of all exposed {@link NeeoDevice} used by the {@link TokenSearch}. The tokens are
+ * taken from the device name, binding id, thing location, vendor, thing type label and binding name. The index is
+ * built when opened and then updated for single devices from the thing, item and link registries and from changes
+ * to the device definitions.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TokenSearchIndex {
+
+    /** The logger */
+    private final Logger logger = LoggerFactory.getLogger(TokenSearchIndex.class);
+
+    /** The delimiter used to split the fields into tokens */
+    private static final char DELIMITER = ' ';
+
+    /** The service context */
+    private final ServiceContext context;
+
+    /** The indexed devices by their uid */
+    private final Map<NeeoThingUID, IndexedDevice> devices = new HashMap<>();
+
+    /** The posting lists - the number of occurrences of a token by device */
+    private final Map<String, Map<NeeoThingUID, Integer>> postings = new HashMap<>();
+
+    /** Whether the index is open */
+    private boolean open = false;
+
+    /** The listener to the thing registry */
+    private final RegistryChangeListener<Thing> thingListener = new RegistryChangeListener<Thing>() {
+        @Override
+        public void added(Thing element) {
+            refresh(new NeeoThingUID(element.getUID()));
+        }
+
+        @Override
+        public void removed(Thing element) {
+            refresh(new NeeoThingUID(element.getUID()));
+        }
+
+        @Override
+        public void updated(Thing oldElement, Thing element) {
+            refresh(new NeeoThingUID(element.getUID()));
+        }
+    };
+
+    /** The listener to the item registry */
+    private final RegistryChangeListener<Item> itemListener = new RegistryChangeListener<Item>() {
+        @Override
+        public void added(Item element) {
+            refreshBound(element.getName());
+        }
+
+        @Override
+        public void removed(Item element) {
+            refreshBound(element.getName());
+        }
+
+        @Override
+        public void updated(Item oldElement, Item element) {
+            refreshBound(element.getName());
+        }
+    };
+
+    /** The listener to the item channel link registry */
+    private final RegistryChangeListener<ItemChannelLink> linkListener = new RegistryChangeListener<ItemChannelLink>() {
+        @Override
+        public void added(ItemChannelLink element) {
+            refresh(new NeeoThingUID(element.getLinkedUID().getThingUID()));
+        }
+
+        @Override
+        public void removed(ItemChannelLink element) {
+            refresh(new NeeoThingUID(element.getLinkedUID().getThingUID()));
+        }
+
+        @Override
+        public void updated(ItemChannelLink oldElement, ItemChannelLink element) {
+            refresh(new NeeoThingUID(oldElement.getLinkedUID().getThingUID()));
+            refresh(new NeeoThingUID(element.getLinkedUID().getThingUID()));
+        }
+    };
+
+    /**
+     * Constructs the index from the {@link ServiceContext}. The index will be empty until {@link #open()} is called
+     *
+     * @param context the non-null context
+     */
+    TokenSearchIndex(ServiceContext context) {
+        Objects.requireNonNull(context, "context cannot be null");
+        this.context = context;
+    }
+
+    /**
+     * Builds the index from all exposed devices and starts listening to the registries
+     */
+    public void open() {
+        context.getThingRegistry().addRegistryChangeListener(thingListener);
+        context.getItemRegistry().addRegistryChangeListener(itemListener);
+        context.getItemChannelLinkRegistry().addRegistryChangeListener(linkListener);
+
+        final List<NeeoDevice> exposed = context.getDefinitions().getExposed();
+        final List<IndexedDevice> indexed = new ArrayList<>(exposed.size());
+        for (NeeoDevice device : exposed) {
+            indexed.add(createIndexedDevice(device));
+        }
+
+        synchronized (this) {
+            open = true;
+            devices.clear();
+            postings.clear();
+            for (IndexedDevice device : indexed) {
+                add(device);
+            }
+        }
+        logger.debug("Indexed {} devices with {} tokens", indexed.size(), postings.size());
+    }
+
+    /**
+     * Stops listening to the registries and clears the index
+     */
+    public void close() {
+        context.getThingRegistry().removeRegistryChangeListener(thingListener);
+        context.getItemRegistry().removeRegistryChangeListener(itemListener);
+        context.getItemChannelLinkRegistry().removeRegistryChangeListener(linkListener);
+
+        synchronized (this) {
+            open = false;
+            devices.clear();
+            postings.clear();
+        }
+    }
+
+    /**
+     * Re-indexes the device of the given {@link NeeoThingUID}. The device is removed from the index if it is no
+     * longer exposed.
+     *
+     * @param uid the non-null uid
+     */
+    public void refresh(NeeoThingUID uid) {
+        Objects.requireNonNull(uid, "uid cannot be null");
+
+        final NeeoDevice device = context.getDefinitions().getExposed(uid);
+        final IndexedDevice indexed = device == null ? null : createIndexedDevice(device);
+
+        synchronized (this) {
+            if (!open) {
+                return;
+            }
+            remove(uid);
+            if (indexed != null) {
+                add(indexed);
+            }
+        }
+        logger.trace("Re-indexed {} (exposed: {})", uid, device != null);
+    }
+
+    /**
+     * Scores all indexed devices. The score of a device is the sum of the token scores of all its tokens, where each
+     * token is scored once regardless of the number of devices sharing it.
+     *
+     * @param tokenScorer the non-null scorer of a single token
+     * @return a non-null, possibly empty list of all indexed devices with their score
+     */
+    public synchronized List<TokenScore<NeeoDevice>> score(ToIntFunction<String> tokenScorer) {
+        Objects.requireNonNull(tokenScorer, "tokenScorer cannot be null");
+
+        final Map<NeeoThingUID, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Map<NeeoThingUID, Integer>> posting : postings.entrySet()) {
+            final int tokenScore = tokenScorer.applyAsInt(posting.getKey());
+            if (tokenScore > 0) {
+                for (Map.Entry<NeeoThingUID, Integer> entry : posting.getValue().entrySet()) {
+                    scores.merge(entry.getKey(), tokenScore * entry.getValue(), Integer::sum);
+                }
+            }
+        }
+
+        final List<TokenScore<NeeoDevice>> results = new ArrayList<>(devices.size());
+        for (IndexedDevice device : devices.values()) {
+            final Integer score = scores.get(device.uid);
+            results.add(new TokenScore<>(score == null ? 0 : score, device.device));
+        }
+        return results;
+    }
+
+    /**
+     * Re-indexes all devices bound to the given item
+     *
+     * @param itemName the non-empty item name
+     */
+    private void refreshBound(String itemName) {
+        for (ChannelUID channelUID : context.getItemChannelLinkRegistry().getBoundChannels(itemName)) {
+            refresh(new NeeoThingUID(channelUID.getThingUID()));
+        }
+    }
+
+    /**
+     * Adds the device to the index. Must be called while holding the lock
+     *
+     * @param device the non-null device to add
+     */
+    private void add(IndexedDevice device) {
+        devices.put(device.uid, device);
+        for (Map.Entry<String, Integer> token : device.tokens.entrySet()) {
+            postings.computeIfAbsent(token.getKey(), k -> new HashMap<>()).put(device.uid, token.getValue());
+        }
+    }
+
+    /**
+     * Removes the device from the index. Must be called while holding the lock
+     *
+     * @param uid the non-null uid of the device to remove
+     */
+    private void remove(NeeoThingUID uid) {
+        final IndexedDevice device = devices.remove(uid);
+        if (device != null) {
+            for (String token : device.tokens.keySet()) {
+                final Map<NeeoThingUID, Integer> posting = postings.get(token);
+                if (posting != null) {
+                    posting.remove(uid);
+                    if (posting.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tokenizes the searchable fields of the device. This does the registry lookups once per change of the device
+     * rather than on every search.
+     *
+     * @param device the non-null device
+     * @return the non-null indexed device
+     */
+    private IndexedDevice createIndexedDevice(NeeoDevice device) {
+        final Map<String, Integer> tokens = new HashMap<>();
+        addTokens(tokens, device.getName());
+        addTokens(tokens, device.getUid().getBindingId());
+
+        final Thing thing = context.getThingRegistry().get(device.getUid().asThingUID());
+        if (thing != null) {
+            addTokens(tokens, thing.getLocation());
+
+            final Map<@NonNull String, String> properties = thing.getProperties();
+            addTokens(tokens, properties.get(Thing.PROPERTY_VENDOR));
+
+            final ThingType tt = context.getThingTypeRegistry().getThingType(thing.getThingTypeUID());
+            if (tt != null) {
+                addTokens(tokens, tt.getLabel());
+
+                final BindingInfo bi = context.getBindingInfoRegistry().getBindingInfo(tt.getBindingId());
+                if (bi != null) {
+                    addTokens(tokens, bi.getName());
+                }
+            }
+        }
+        return new IndexedDevice(device, tokens);
+    }
+
+    /**
+     * Adds the tokens of the field to the token counts
+     *
+     * @param tokens the non-null token counts
+     * @param field the possibly null, possibly empty field
+     */
+    private static void addTokens(Map<String, Integer> tokens, @Nullable String field) {
+        if (field != null && StringUtils.isNotEmpty(field)) {
+            for (String token : StringUtils.split(field, DELIMITER)) {
+                tokens.merge(token, 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * An indexed device with the number of occurrences of its tokens
+     *
+     * @author agent - Initial contribution
+     */
+    private static class IndexedDevice {
+        /** The uid of the device */
+        private final NeeoThingUID uid;
+
+        /** The device */
+        private final NeeoDevice device;
+
+        /** The number of occurrences by token */
+        private final Map<String, Integer> tokens;
+
+        private IndexedDevice(NeeoDevice device, Map<String, Integer> tokens) {
+            this.uid = device.getUid();
+            this.device = device;
+            this.tokens = tokens;
+        }
+    }
+}
@@ -8,6 +8,7 @@
  */
 package org.openhab.io.openhabcloud.internal;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URI;
@@ -15,27 +16,33 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
 
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.api.Request;
 import org.eclipse.jetty.client.api.Request.FailureListener;
 import org.eclipse.jetty.client.api.Response;
-import org.eclipse.jetty.client.api.Response.ContentListener;
+import org.eclipse.jetty.client.api.Response.AsyncContentListener;
 import org.eclipse.jetty.client.api.Response.HeadersListener;
 import org.eclipse.jetty.client.api.Result;
 import org.eclipse.jetty.client.util.BytesContentProvider;
 import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpStatus;
 import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.URIUtil;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.json.JSONException;
@@ -49,6 +56,7 @@ import io.socket.client.Manager;
 import io.socket.client.Socket;
 import io.socket.emitter.Emitter;
 import io.socket.engineio.client.Transport;
+import io.socket.thread.EventThread;
 
 /**
  * This class provides communication between openHAB and the openHAB Cloud service.
@@ -79,6 +87,14 @@ public class CloudClient {
      */
     private static final int HTTP_CLIENT_TIMEOUT = 30000;
 
+    /*
+     * This constant defines how many bytes of a response may be passed to the Socket.IO client
+     * before its transport reports them as written. Reading the response from openHAB is paused
+     * while this limit is exceeded, so that slow connections to the openHAB Cloud do not make
+     * responses pile up in memory
+     */
+    private static final int MAX_BYTES_IN_FLIGHT_PER_REQUEST = 256 * 1024;
+
     /*
      * This variable holds base URL for the openHAB Cloud connections
      */
@@ -105,9 +121,21 @@ public class CloudClient {
     private HttpClient jettyClient;
 
     /*
-     * This hashmap holds HTTP requests to local openHAB which are currently running
+     * This map holds HTTP requests to local openHAB which are currently running
+     */
+    private final Map<Integer, Request> runningRequests = new ConcurrentHashMap<>();
+
+    /*
+     * This variable holds the number of response bytes of all running requests which have not
+     * been written by the Socket.IO transport yet
+     */
+    private final AtomicLong bytesInFlight = new AtomicLong();
+
+    /*
+     * This queue holds the confirmations of response content which has been emitted but not been
+     * written by the Socket.IO transport yet. It is only accessed on the Socket.IO event thread
      */
-    private HashMap<Integer, Request> runningRequests;
+    private final Queue<Runnable> unwrittenContent = new ArrayDeque<>();
 
     /*
      * This variable indicates if connection to the openHAB Cloud is currently in an established state
@@ -155,8 +183,9 @@ public class CloudClient {
         this.localBaseUrl = localBaseUrl;
         this.remoteAccessEnabled = remoteAccessEnabled;
         this.exposedItems = exposedItems;
-        runningRequests = new HashMap<Integer, Request>();
         jettyClient = new HttpClient();
+        // Responses are passed through as they are, including their content encoding
+        jettyClient.getContentDecoderFactories().clear();
         jettyClient.setMaxConnectionsPerDestination(HTTP_CLIENT_MAX_CONNECTIONS_PER_DEST);
         jettyClient.setConnectTimeout(HTTP_CLIENT_TIMEOUT);
     }
@@ -193,6 +222,13 @@ public class CloudClient {
                         headers.put("remoteaccess", Arrays.asList(((Boolean) remoteAccessEnabled).toString()));
                     }
                 });
+                transport.on(Transport.EVENT_DRAIN, new Emitter.Listener() {
+                    @Override
+                    public void call(Object... args) {
+                        logger.trace("Transport.EVENT_DRAIN");
+                        onContentWritten();
+                    }
+                });
             }
         });
         socket.on(Socket.EVENT_CONNECT, new Emitter.Listener() {
@@ -271,6 +307,21 @@ public class CloudClient {
         if (runningRequests != null) {
             runningRequests.clear();
         }
+        // Content which has not been written is dropped
+        onContentWritten();
+    }
+
+    /**
+     * Callback method for socket.io client which is called when the transport has written all
+     * packets handed to it. The content emitted until then is confirmed, so that reading of the
+     * paused responses resumes. Content still buffered by the engine.io client is confirmed at
+     * most one write of the transport early.
+     */
+    private void onContentWritten() {
+        Runnable confirmation;
+        while ((confirmation = unwrittenContent.poll()) != null) {
+            confirmation.run();
+        }
     }
 
     /**
@@ -360,8 +411,9 @@ public class CloudClient {
                 logger.error("Unsupported request method {}", requestMethod);
                 return;
             }
-            ResponseListener listener = new ResponseListener(requestId);
-            request.onResponseHeaders(listener).onResponseContent(listener).onRequestFailure(listener).send(listener);
+            ResponseListener listener = new ResponseListener(requestId, acceptsGzip(requestHeadersJson));
+            request.onResponseHeaders(listener).onResponseContentAsync(listener).onRequestFailure(listener)
+                    .send(listener);
             // If successfully submitted request to http client, add it to the list of currently
             // running requests to be able to cancel it if needed
             runningRequests.put(requestId, request);
@@ -393,6 +445,18 @@ public class CloudClient {
         }
     }
 
+    private boolean acceptsGzip(JSONObject requestHeadersJson) {
+        @SuppressWarnings("unchecked")
+        Iterator<String> headersIterator = requestHeadersJson.keys();
+        while (headersIterator.hasNext()) {
+            String headerName = headersIterator.next();
+            if (headerName.equalsIgnoreCase("Accept-Encoding")) {
+                return requestHeadersJson.optString(headerName).contains("gzip");
+            }
+        }
+        return false;
+    }
+
     private void handleCancelEvent(JSONObject data) {
         try {
             int requestId = data.getInt("id");
@@ -553,36 +617,149 @@ public class CloudClient {
         this.listener = listener;
     }
 
+    /**
+     * Returns the number of requests from the openHAB Cloud which are currently proxied to openHAB
+     */
+    public int getActiveRequestCount() {
+        return runningRequests.size();
+    }
+
+    /**
+     * Returns the number of response bytes which have been received from openHAB but not yet been
+     * written by the Socket.IO transport
+     */
+    public long getBytesInFlight() {
+        return bytesInFlight.get();
+    }
+
+    private static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        return contentType.startsWith("text/") || contentType.startsWith("application/json")
+                || contentType.startsWith("application/javascript") || contentType.startsWith("application/xml")
+                || contentType.startsWith("image/svg+xml");
+    }
+
     /*
      * An internal class which forwards response headers and data back to the openHAB Cloud
      */
     private class ResponseListener
-            implements Response.CompleteListener, HeadersListener, ContentListener, FailureListener {
+            implements Response.CompleteListener, HeadersListener, AsyncContentListener, FailureListener {
 
         private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
         private int mRequestId;
         private boolean mHeadersSent = false;
-
-        public ResponseListener(int requestId) {
+        private final boolean mAcceptsGzip;
+
+        /*
+         * Compressor of the response content, if the response is sent compressed
+         */
+        private GZIPOutputStream mCompressor;
+        private final ByteArrayOutputStream mCompressedContent = new ByteArrayOutputStream();
+
+        /*
+         * Bytes of this response passed to the Socket.IO client but not written by its transport yet,
+         * and the callback to resume reading the response once they are
+         */
+        private long mBytesInFlight = 0;
+        private Callback mPendingCallback;
+
+        public ResponseListener(int requestId, boolean acceptsGzip) {
             mRequestId = requestId;
+            mAcceptsGzip = acceptsGzip;
         }
 
         private JSONObject getJSONHeaders(HttpFields httpFields) {
             JSONObject headersJSON = new JSONObject();
             try {
                 for (HttpField field : httpFields) {
+                    if (mCompressor != null && field.getHeader() == HttpHeader.CONTENT_LENGTH) {
+                        // The length of the compressed content is not known in advance
+                        continue;
+                    }
                     headersJSON.put(field.getName(), field.getValue());
                 }
+                if (mCompressor != null) {
+                    headersJSON.put(HttpHeader.CONTENT_ENCODING.asString(), "gzip");
+                    String vary = httpFields.get(HttpHeader.VARY);
+                    headersJSON.put(HttpHeader.VARY.asString(),
+                            vary == null ? "Accept-Encoding" : vary + ", Accept-Encoding");
+                }
             } catch (JSONException e) {
                 logger.error("Error forming response headers: {}", e.getMessage());
             }
             return headersJSON;
         }
 
+        private byte[] compress(byte[] content) throws IOException {
+            mCompressor.write(content);
+            mCompressor.flush();
+            byte[] compressed = mCompressedContent.toByteArray();
+            mCompressedContent.reset();
+            return compressed;
+        }
+
+        private void sendContent(byte[] body, Callback callback) {
+            JSONObject responseJson = new JSONObject();
+            try {
+                responseJson.put("id", mRequestId);
+                responseJson.put("body", body);
+            } catch (JSONException e) {
+                logger.error("{}", e.getMessage());
+                callback.failed(e);
+                return;
+            }
+            int size = body.length;
+            synchronized (this) {
+                mBytesInFlight += size;
+            }
+            bytesInFlight.addAndGet(size);
+            socket.emit("responseContentBinary", responseJson);
+            // Runs on the Socket.IO event thread after the content has been passed to the engine.io client
+            EventThread.exec(() -> unwrittenContent.add(() -> contentWritten(size)));
+            logger.debug("Sent content to request {}", mRequestId);
+
+            synchronized (this) {
+                if (mBytesInFlight > MAX_BYTES_IN_FLIGHT_PER_REQUEST) {
+                    logger.debug("Pausing request {} with {} bytes in flight", mRequestId, mBytesInFlight);
+                    mPendingCallback = callback;
+                    return;
+                }
+            }
+            callback.succeeded();
+        }
+
+        private void contentWritten(int size) {
+            bytesInFlight.addAndGet(-size);
+            Callback callback;
+            synchronized (this) {
+                mBytesInFlight -= size;
+                if (mPendingCallback == null || mBytesInFlight > MAX_BYTES_IN_FLIGHT_PER_REQUEST) {
+                    return;
+                }
+                callback = mPendingCallback;
+                mPendingCallback = null;
+            }
+            logger.debug("Resuming request {}", mRequestId);
+            // Jetty reads the response further when the callback succeeds, which must not block the event thread
+            ThreadPoolManager.getPool(THREADPOOL_OPENHABCLOUD).execute(callback::succeeded);
+        }
+
         @Override
         public void onComplete(Result result) {
             // Remove this request from list of running requests
             runningRequests.remove(mRequestId);
+            if (mCompressor != null && !result.isFailed()) {
+                try {
+                    mCompressor.finish();
+                    sendContent(mCompressedContent.toByteArray(), Callback.NOOP);
+                } catch (IOException e) {
+                    logger.error("Could not compress response of request {}: {}", mRequestId, e.getMessage());
+                }
+            }
+            logger.debug("{} requests are proxied, {} bytes are in flight", runningRequests.size(),
+                    bytesInFlight.get());
             if ((result != null && result.isFailed())
                     && (result.getResponse() != null && result.getResponse().getStatus() != HttpStatus.OK_200)) {
                 if (result.getFailure() != null) {
@@ -627,17 +804,19 @@ public class CloudClient {
         }
 
         @Override
-        public void onContent(Response response, ByteBuffer content) {
+        public void onContent(Response response, ByteBuffer content, Callback callback) {
             logger.debug("Jetty received response content of size {}", String.valueOf(content.remaining()));
-            JSONObject responseJson = new JSONObject();
-            try {
-                responseJson.put("id", mRequestId);
-                responseJson.put("body", BufferUtil.toArray(content));
-                socket.emit("responseContentBinary", responseJson);
-                logger.debug("Sent content to request {}", mRequestId);
-            } catch (JSONException e) {
-                logger.error("{}", e.getMessage());
+            byte[] body = BufferUtil.toArray(content);
+            if (mCompressor != null) {
+                try {
+                    body = compress(body);
+                } catch (IOException e) {
+                    logger.error("Could not compress response of request {}: {}", mRequestId, e.getMessage());
+                    callback.failed(e);
+                    return;
+                }
             }
+            sendContent(body, callback);
         }
 
         @Override
@@ -646,9 +825,20 @@ public class CloudClient {
                 logger.debug("Jetty finished receiving response header");
                 JSONObject responseJson = new JSONObject();
                 mHeadersSent = true;
+                HttpFields headers = response.getHeaders();
+                // Responses without a body are not compressed
+                if (mAcceptsGzip && response.getStatus() != 204 && response.getStatus() != 304
+                        && !headers.containsKey(HttpHeader.CONTENT_ENCODING.asString())
+                        && isCompressible(headers.get(HttpHeader.CONTENT_TYPE))) {
+                    try {
+                        mCompressor = new GZIPOutputStream(mCompressedContent, true);
+                    } catch (IOException e) {
+                        logger.error("Could not compress response of request {}: {}", mRequestId, e.getMessage());
+                    }
+                }
                 try {
                     responseJson.put("id", mRequestId);
-                    responseJson.put("headers", getJSONHeaders(response.getHeaders()));
+                    responseJson.put("headers", getJSONHeaders(headers));
                     responseJson.put("responseStatusCode", response.getStatus());
                     responseJson.put("responseStatusText", "OK");
                     socket.emit("responseHeader", responseJson);
@@ -381,4 +381,35 @@ public class BitUtilitiesExtractStateFromRegistersTest {
         assertThat(String.format("registers=%s, index=%d, type=%s", registers, index, type), actualState,
                 is(equalTo(expectedResult)));
     }
+
+    /**
+     * Primitive decoding should agree with the {@link DecimalType} variant
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testExtractPrimitiveFromRegisters() {
+        if (expectedResult instanceof Class && Exception.class.isAssignableFrom((Class) expectedResult)) {
+            shouldThrow.expect((Class) expectedResult);
+        }
+
+        final DecimalType actualState;
+        switch (type) {
+            case FLOAT32:
+            case FLOAT32_SWAP:
+                actualState = new DecimalType(
+                        ModbusBitUtilities.extractFloatFromRegisters(this.registers, this.index, this.type));
+                break;
+            case UINT64:
+            case UINT64_SWAP:
+                actualState = new DecimalType(Long.toUnsignedString(
+                        ModbusBitUtilities.extractLongFromRegisters(this.registers, this.index, this.type)));
+                break;
+            default:
+                actualState = new DecimalType(
+                        ModbusBitUtilities.extractLongFromRegisters(this.registers, this.index, this.type));
+                break;
+        }
+        assertThat(String.format("registers=%s, index=%d, type=%s", registers, index, type), actualState,
+                is(equalTo(expectedResult)));
+    }
 }
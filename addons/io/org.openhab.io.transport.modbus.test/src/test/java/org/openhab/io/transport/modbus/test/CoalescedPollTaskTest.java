@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusUnexpectedResponseSizeException;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.CoalescedPollTask;
+
+/**
+ * Tests for {@link CoalescedPollTask}
+ *
+ * @author agent - Initial contribution
+ */
+public class CoalescedPollTaskTest {
+
+    private static class RecordingCallback implements ModbusReadCallback {
+        final List<ModbusReadRequestBlueprint> requests = new ArrayList<>();
+        final List<Object> results = new ArrayList<>();
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            requests.add(request);
+            results.add(registers);
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+            requests.add(request);
+            results.add(bits);
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+            requests.add(request);
+            results.add(error);
+        }
+    }
+
+    private final ModbusSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("localhost", 502);
+
+    private PollTask task(ModbusSlaveEndpoint endpoint, int unitId, ModbusReadFunctionCode functionCode, int start,
+            int length, ModbusReadCallback callback) {
+        return new BasicPollTaskImpl(endpoint,
+                new BasicModbusReadRequestBlueprint(unitId, functionCode, start, length, 3), callback);
+    }
+
+    private PollTask task(int start, int length, ModbusReadCallback callback) {
+        return task(endpoint, 1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, start, length, callback);
+    }
+
+    @Test
+    public void testAdjacentAndOverlappingAreMerged() {
+        RecordingCallback callback = new RecordingCallback();
+        List<CoalescedPollTask> merged = CoalescedPollTask
+                .coalesce(Arrays.asList(task(10, 5, callback), task(0, 10, callback), task(12, 10, callback)), 0);
+        assertThat(merged.size(), is(equalTo(1)));
+        assertThat(merged.get(0).getRequest().getReference(), is(equalTo(0)));
+        assertThat(merged.get(0).getRequest().getDataLength(), is(equalTo(22)));
+        assertThat(merged.get(0).getMembers().size(), is(equalTo(3)));
+    }
+
+    @Test
+    public void testGapRespected() {
+        RecordingCallback callback = new RecordingCallback();
+        List<PollTask> tasks = Arrays.asList(task(0, 2, callback), task(5, 2, callback));
+        assertThat(CoalescedPollTask.coalesce(tasks, 2).size(), is(equalTo(2)));
+        List<CoalescedPollTask> merged = CoalescedPollTask.coalesce(tasks, 3);
+        assertThat(merged.size(), is(equalTo(1)));
+        assertThat(merged.get(0).getRequest().getDataLength(), is(equalTo(7)));
+    }
+
+    @Test
+    public void testProtocolLimitRespected() {
+        RecordingCallback callback = new RecordingCallback();
+        List<CoalescedPollTask> merged = CoalescedPollTask
+                .coalesce(Arrays.asList(task(0, 100, callback), task(100, 26, callback)), 0);
+        assertThat(merged.size(), is(equalTo(2)));
+
+        merged = CoalescedPollTask.coalesce(Arrays.asList(task(0, 100, callback), task(100, 25, callback)), 0);
+        assertThat(merged.size(), is(equalTo(1)));
+        assertThat(merged.get(0).getRequest().getDataLength(),
+                is(equalTo(CoalescedPollTask.MAX_REGISTERS_PER_REQUEST)));
+    }
+
+    @Test
+    public void testDifferentSlavesAndFunctionCodesNotMerged() {
+        RecordingCallback callback = new RecordingCallback();
+        List<CoalescedPollTask> merged = CoalescedPollTask.coalesce(Arrays.asList(task(0, 2, callback),
+                task(endpoint, 2, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2, callback),
+                task(endpoint, 1, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 2, 2, callback),
+                task(new ModbusTCPSlaveEndpoint("otherhost", 502), 1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS,
+                        2, 2, callback)),
+                0);
+        assertThat(merged.size(), is(equalTo(4)));
+    }
+
+    @Test
+    public void testRegistersSliced() {
+        RecordingCallback callback1 = new RecordingCallback();
+        RecordingCallback callback2 = new RecordingCallback();
+        PollTask task1 = task(3, 2, callback1);
+        PollTask task2 = task(4, 3, callback2);
+        List<CoalescedPollTask> merged = CoalescedPollTask.coalesce(Arrays.asList(task1, task2), 0);
+        assertThat(merged.size(), is(equalTo(1)));
+        CoalescedPollTask mergedTask = merged.get(0);
+
+        mergedTask.getCallback().onRegisters(mergedTask.getRequest(), new BasicModbusRegisterArray(30, 40, 50, 60));
+
+        assertThat(callback1.requests, is(equalTo(Arrays.asList(task1.getRequest()))));
+        ModbusRegisterArray registers1 = (ModbusRegisterArray) callback1.results.get(0);
+        assertThat(registers1.size(), is(equalTo(2)));
+        assertThat(registers1.getRegister(0).getValue(), is(equalTo(30)));
+        assertThat(registers1.getRegister(1).getValue(), is(equalTo(40)));
+
+        assertThat(callback2.requests, is(equalTo(Arrays.asList(task2.getRequest()))));
+        ModbusRegisterArray registers2 = (ModbusRegisterArray) callback2.results.get(0);
+        assertThat(registers2.size(), is(equalTo(3)));
+        assertThat(registers2.getRegister(0).getValue(), is(equalTo(40)));
+        assertThat(registers2.getRegister(2).getValue(), is(equalTo(60)));
+    }
+
+    @Test
+    public void testBitsSliced() {
+        RecordingCallback callback1 = new RecordingCallback();
+        RecordingCallback callback2 = new RecordingCallback();
+        PollTask task1 = task(endpoint, 1, ModbusReadFunctionCode.READ_COILS, 0, 2, callback1);
+        PollTask task2 = task(endpoint, 1, ModbusReadFunctionCode.READ_COILS, 2, 3, callback2);
+        CoalescedPollTask mergedTask = CoalescedPollTask.coalesce(Arrays.asList(task1, task2), 0).get(0);
+
+        mergedTask.getCallback().onBits(mergedTask.getRequest(), new BasicBitArray(true, false, false, true, true));
+
+        assertThat(callback1.results.get(0), is(equalTo(new BasicBitArray(true, false))));
+        assertThat(callback2.results.get(0), is(equalTo(new BasicBitArray(false, true, true))));
+    }
+
+    @Test
+    public void testShortResponseAndErrorsPropagated() {
+        RecordingCallback callback1 = new RecordingCallback();
+        RecordingCallback callback2 = new RecordingCallback();
+        PollTask task1 = task(0, 2, callback1);
+        PollTask task2 = task(2, 2, callback2);
+        CoalescedPollTask mergedTask = CoalescedPollTask.coalesce(Arrays.asList(task1, task2), 0).get(0);
+
+        mergedTask.getCallback().onRegisters(mergedTask.getRequest(),
+                new BasicModbusRegisterArray(IntStream.range(0, 3).toArray()));
+        assertThat(callback1.results.get(0), is(instanceOf(ModbusRegisterArray.class)));
+        assertThat(callback2.results.get(0), is(instanceOf(ModbusUnexpectedResponseSizeException.class)));
+
+        Exception error = new Exception("fail");
+        mergedTask.getCallback().onError(mergedTask.getRequest(), error);
+        assertThat(callback1.results.get(1), is(equalTo(error)));
+        assertThat(callback1.requests.get(1), is(equalTo(task1.getRequest())));
+        assertThat(callback2.results.get(1), is(equalTo(error)));
+        assertThat(callback2.requests.get(1), is(equalTo(task2.getRequest())));
+    }
+
+}
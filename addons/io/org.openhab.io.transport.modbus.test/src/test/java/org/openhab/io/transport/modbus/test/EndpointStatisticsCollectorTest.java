@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.ModbusEndpointStatistics;
+import org.openhab.io.transport.modbus.ModbusEndpointStatistics.Latency;
+import org.openhab.io.transport.modbus.internal.AggregateStopWatch;
+import org.openhab.io.transport.modbus.internal.EndpointStatisticsCollector;
+import org.openhab.io.transport.modbus.internal.ModbusSlaveErrorResponseExceptionImpl;
+import org.openhab.io.transport.modbus.internal.ModbusSlaveIOExceptionImpl;
+
+import net.wimpi.modbus.Modbus;
+import net.wimpi.modbus.ModbusSlaveException;
+
+/**
+ * Tests for {@link EndpointStatisticsCollector}
+ *
+ * @author agent - Initial contribution
+ */
+public class EndpointStatisticsCollectorTest {
+
+    private final EndpointStatisticsCollector collector = new EndpointStatisticsCollector();
+
+    private ModbusEndpointStatistics snapshot() {
+        return collector.snapshot(0, 0, 0);
+    }
+
+    @Test
+    public void testNothingRecorded() {
+        ModbusEndpointStatistics statistics = snapshot();
+        assertThat(statistics.getOperationCount(), is(equalTo(0L)));
+        assertThat(statistics.getErrorCount(), is(equalTo(0L)));
+        assertThat(statistics.getErrorCounts().isEmpty(), is(true));
+        assertThat(statistics.getTransactionLatency().getCount(), is(equalTo(0L)));
+        assertThat(statistics.getTransactionLatency().getMeanMillis(), is(equalTo(0.0)));
+    }
+
+    @Test
+    public void testOperationsCounted() {
+        collector.recordOperation(new AggregateStopWatch());
+        collector.recordOperation(new AggregateStopWatch());
+
+        ModbusEndpointStatistics statistics = snapshot();
+        assertThat(statistics.getOperationCount(), is(equalTo(2L)));
+        assertThat(statistics.getConnectionLatency().getCount(), is(equalTo(2L)));
+        assertThat(statistics.getTransactionLatency().getCount(), is(equalTo(2L)));
+        assertThat(statistics.getCallbackLatency().getCount(), is(equalTo(2L)));
+        assertThat(statistics.getErrorCount(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testErrorsCountedByPublicType() {
+        collector.recordError(new ModbusSlaveIOExceptionImpl(new IOException("timeout")));
+        collector.recordError(new ModbusSlaveIOExceptionImpl(new IOException("reset")));
+        collector.recordError(new ModbusSlaveErrorResponseExceptionImpl(
+                new ModbusSlaveException(Modbus.ILLEGAL_ADDRESS_EXCEPTION)));
+        collector.recordError(new IllegalStateException());
+
+        ModbusEndpointStatistics statistics = snapshot();
+        assertThat(statistics.getErrorCount(), is(equalTo(4L)));
+        assertThat(statistics.getErrorCounts().size(), is(equalTo(3)));
+        assertThat(statistics.getErrorCounts().get("ModbusSlaveIOException"), is(equalTo(2L)));
+        assertThat(statistics.getErrorCounts().get("ModbusSlaveErrorResponseException"), is(equalTo(1L)));
+        assertThat(statistics.getErrorCounts().get("IllegalStateException"), is(equalTo(1L)));
+        // errors are not operations
+        assertThat(statistics.getOperationCount(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testLatencyAveraged() {
+        collector.recordBorrowWait(10);
+        collector.recordBorrowWait(30);
+        collector.recordBorrowWait(6020);
+
+        Latency latency = snapshot().getBorrowWaitLatency();
+        assertThat(latency.getCount(), is(equalTo(3L)));
+        assertThat(latency.getTotalMillis(), is(equalTo(6060L)));
+        assertThat(latency.getMeanMillis(), is(equalTo(2020.0)));
+        assertThat(latency.getMaxMillis(), is(equalTo(6020L)));
+    }
+
+    @Test
+    public void testLatencyHistogram() {
+        // bucket bounds are inclusive
+        collector.recordBorrowWait(0);
+        collector.recordBorrowWait(1);
+        collector.recordBorrowWait(2);
+        collector.recordBorrowWait(5000);
+        collector.recordBorrowWait(5001);
+
+        long[] histogram = snapshot().getBorrowWaitLatency().getHistogram();
+        assertThat(histogram.length,
+                is(equalTo(ModbusEndpointStatistics.HISTOGRAM_BUCKET_UPPER_BOUNDS_MILLIS.length + 1)));
+        assertThat(histogram[0], is(equalTo(2L)));
+        assertThat(histogram[1], is(equalTo(1L)));
+        assertThat(histogram[histogram.length - 2], is(equalTo(1L)));
+        assertThat(histogram[histogram.length - 1], is(equalTo(1L)));
+    }
+
+    @Test
+    public void testCallbacksInProgress() {
+        collector.callbackStarted();
+        collector.callbackStarted();
+        collector.callbackFinished();
+
+        assertThat(snapshot().getCallbacksInProgress(), is(equalTo(1)));
+    }
+
+    @Test
+    public void testSnapshotNotChangedByLaterRecords() {
+        collector.recordOperation(new AggregateStopWatch());
+        collector.recordBorrowWait(10);
+        ModbusEndpointStatistics statistics = snapshot();
+
+        collector.recordOperation(new AggregateStopWatch());
+        collector.recordBorrowWait(20);
+        collector.recordError(new IllegalStateException());
+
+        assertThat(statistics.getOperationCount(), is(equalTo(1L)));
+        assertThat(statistics.getBorrowWaitLatency().getCount(), is(equalTo(1L)));
+        assertThat(statistics.getBorrowWaitLatency().getHistogram()[2], is(equalTo(1L)));
+        assertThat(statistics.getErrorCount(), is(equalTo(0L)));
+        assertThat(snapshot().getOperationCount(), is(equalTo(2L)));
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusEndpointStatistics;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+import net.wimpi.modbus.procimg.SimpleRegister;
+
+/**
+ * Tests for the endpoint statistics collected by the Modbus manager
+ *
+ * @author agent - Initial contribution
+ */
+public class EndpointStatisticsTest extends IntegrationTestSupport {
+
+    private void poll(int start) throws InterruptedException {
+        CountDownLatch callbackCalled = new CountDownLatch(1);
+        BasicPollTaskImpl task = new BasicPollTaskImpl(getEndpoint(), new BasicModbusReadRequestBlueprint(
+                SLAVE_UNIT_ID, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, start, 5, 1), new ModbusReadCallback() {
+
+                    @Override
+                    public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+                        callbackCalled.countDown();
+                    }
+
+                    @Override
+                    public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+                        callbackCalled.countDown();
+                    }
+
+                    @Override
+                    public void onError(ModbusReadRequestBlueprint request, Exception error) {
+                        callbackCalled.countDown();
+                    }
+                });
+        modbusManager.submitOneTimePoll(task);
+        assertTrue(callbackCalled.await(5, TimeUnit.SECONDS));
+    }
+
+    private ModbusEndpointStatistics statistics() {
+        return modbusManager.getEndpointStatistics(getEndpoint());
+    }
+
+    private void generateData() {
+        for (int i = 0; i < 10; i++) {
+            spi.addRegister(new SimpleRegister(i));
+        }
+    }
+
+    @Test
+    public void testSuccessfulOperationsCounted() throws InterruptedException {
+        generateData();
+        poll(0);
+        poll(5);
+
+        // the operation is recorded after the callback has returned
+        waitForAssert(() -> assertThat(statistics().getOperationCount(), is(equalTo(2L))));
+        assertThat(statistics().getErrorCount(), is(equalTo(0L)));
+        assertThat(statistics().getTransactionLatency().getCount(), is(equalTo(2L)));
+        assertThat(statistics().getBorrowWaitLatency().getCount(), is(equalTo(2L)));
+        assertThat(statistics().getCallbacksInProgress(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testErrorResponseCounted() throws InterruptedException {
+        // no registers, the slave responds with an exception
+        poll(0);
+
+        waitForAssert(() -> assertThat(statistics().getOperationCount(), is(equalTo(1L))));
+        assertThat(statistics().getErrorCount(), is(equalTo(1L)));
+        assertThat(statistics().getErrorCounts().get("ModbusSlaveErrorResponseException"), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testTransactionLatencyAveraged() throws InterruptedException {
+        generateData();
+        artificialServerWait = 100;
+        poll(0);
+        poll(5);
+
+        waitForAssert(() -> assertThat(statistics().getOperationCount(), is(equalTo(2L))));
+        double meanMillis = statistics().getTransactionLatency().getMeanMillis();
+        assertTrue(String.format("Mean transaction latency %f ms", meanMillis), meanMillis >= 90);
+        assertThat(statistics().getTransactionLatency().getMaxMillis() >= (long) meanMillis, is(true));
+        assertThat(statistics().getTransactionLatency().getTotalMillis(),
+                is(equalTo(Math.round(2 * meanMillis))));
+    }
+
+    @Test
+    public void testStatisticsClearedOnDeactivation() throws InterruptedException {
+        poll(0);
+        waitForAssert(() -> assertThat(statistics().getOperationCount(), is(equalTo(1L))));
+        assertThat(statistics().getErrorCount(), is(equalTo(1L)));
+
+        modbusManager.close();
+
+        assertThat(statistics().getOperationCount(), is(equalTo(0L)));
+        assertThat(statistics().getErrorCount(), is(equalTo(0L)));
+        assertThat(statistics().getTransactionLatency().getCount(), is(equalTo(0L)));
+    }
+}
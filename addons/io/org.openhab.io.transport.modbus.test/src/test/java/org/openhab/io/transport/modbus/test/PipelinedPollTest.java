@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusEndpointStatistics;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusSlaveErrorResponseException;
+import org.openhab.io.transport.modbus.ModbusSlaveIOException;
+import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.ModbusManagerImpl;
+
+import net.wimpi.modbus.procimg.SimpleRegister;
+
+/**
+ * Tests for coalesced regular polls pipelined over a single Modbus TCP connection
+ *
+ * @author agent - Initial contribution
+ */
+public class PipelinedPollTest extends IntegrationTestSupport {
+
+    /**
+     * Long enough for the tests to see only the first execution of the polls
+     */
+    private static final long POLL_PERIOD_MILLIS = 60_000;
+
+    /**
+     * Long enough for all polls of a test to be registered before the first execution
+     */
+    private static final long INITIAL_DELAY_MILLIS = 200;
+
+    /**
+     * Callback recording the time of the first result of each request, by start address
+     */
+    private static class RecordingCallback implements ModbusReadCallback {
+        final Map<Integer, Long> resultMillis = new ConcurrentHashMap<>();
+        final Map<Integer, Object> results = new ConcurrentHashMap<>();
+        final CountDownLatch called;
+
+        RecordingCallback(int expectedCalls) {
+            called = new CountDownLatch(expectedCalls);
+        }
+
+        private void record(ModbusReadRequestBlueprint request, Object result) {
+            if (results.putIfAbsent(request.getReference(), result) == null) {
+                resultMillis.put(request.getReference(), System.currentTimeMillis());
+                called.countDown();
+            }
+        }
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            record(request, registers);
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+            record(request, bits);
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+            record(request, error);
+        }
+    }
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        modbusManager.close();
+        Map<String, Object> config = new HashMap<>();
+        config.put(ModbusManagerImpl.CONFIG_COALESCE_REGULAR_POLLS, true);
+        // keep the requests separate
+        config.put(ModbusManagerImpl.CONFIG_COALESCE_MAX_GAP, 0);
+        modbusManager = new NonOSGIModbusManager(config);
+
+        for (int i = 0; i < 100; i++) {
+            spi.addRegister(new SimpleRegister(i));
+        }
+    }
+
+    private void configurePipelining(long interTransactionDelayMillis) {
+        EndpointPoolConfiguration configuration = new EndpointPoolConfiguration();
+        configuration.setMaxInFlightTransactions(4);
+        configuration.setInterTransactionDelayMillis(interTransactionDelayMillis);
+        modbusManager.setEndpointPoolConfiguration(getEndpoint(), configuration);
+    }
+
+    private void registerPoll(int start, RecordingCallback callback) {
+        BasicPollTaskImpl task = new BasicPollTaskImpl(getEndpoint(), new BasicModbusReadRequestBlueprint(
+                SLAVE_UNIT_ID, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, start, 5, 1), callback);
+        modbusManager.registerRegularPoll(task, POLL_PERIOD_MILLIS, INITIAL_DELAY_MILLIS);
+    }
+
+    private void assertRegisters(RecordingCallback callback, int start) {
+        Object result = callback.results.get(start);
+        assertThat(String.valueOf(result), result, is(instanceOf(ModbusRegisterArray.class)));
+        ModbusRegisterArray registers = (ModbusRegisterArray) result;
+        assertThat(registers.size(), is(equalTo(5)));
+        for (int i = 0; i < registers.size(); i++) {
+            assertThat(registers.getRegister(i).toUnsignedShort(), is(equalTo(start + i)));
+        }
+    }
+
+    private ModbusEndpointStatistics statistics() {
+        return modbusManager.getEndpointStatistics(getEndpoint());
+    }
+
+    @Test
+    public void testPipelinedPollSucceeds() throws InterruptedException {
+        configurePipelining(0);
+        RecordingCallback callback = new RecordingCallback(3);
+        registerPoll(0, callback);
+        registerPoll(20, callback);
+        registerPoll(40, callback);
+
+        assertTrue(callback.called.await(5, TimeUnit.SECONDS));
+        assertRegisters(callback, 0);
+        assertRegisters(callback, 20);
+        assertRegisters(callback, 40);
+        // all requests are executed by a single operation
+        waitForAssert(() -> assertThat(statistics().getOperationCount(), is(equalTo(1L))));
+        assertThat(statistics().getErrorCount(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testExceptionResponseExecutedAgainAndCountedOnce() throws InterruptedException {
+        configurePipelining(0);
+        RecordingCallback callback = new RecordingCallback(3);
+        registerPoll(0, callback);
+        // there are no registers at this address, the slave responds with an exception
+        registerPoll(200, callback);
+        registerPoll(40, callback);
+
+        assertTrue(callback.called.await(5, TimeUnit.SECONDS));
+        assertRegisters(callback, 0);
+        assertRegisters(callback, 40);
+        assertThat(callback.results.get(200), is(instanceOf(ModbusSlaveErrorResponseException.class)));
+        // pipelined operation, and the failed request executed again
+        waitForAssert(() -> assertThat(statistics().getOperationCount(), is(equalTo(2L))));
+        assertThat(statistics().getErrorCount(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testIOErrorExecutedAgainAndCountedOnce() throws InterruptedException {
+        // responses time out (see net.wimpi.modbus.Modbus.DEFAULT_TIMEOUT)
+        artificialServerWait = 30000;
+        configurePipelining(0);
+        RecordingCallback callback = new RecordingCallback(2);
+        registerPoll(0, callback);
+        registerPoll(40, callback);
+
+        assertTrue(callback.called.await(30, TimeUnit.SECONDS));
+        assertThat(callback.results.get(0), is(instanceOf(ModbusSlaveIOException.class)));
+        assertThat(callback.results.get(40), is(instanceOf(ModbusSlaveIOException.class)));
+        // one error per request executed again, none for the failed pipelined operation
+        waitForAssert(() -> assertThat(statistics().getErrorCount(), is(equalTo(2L))));
+    }
+
+    @Test
+    public void testInterTransactionDelayBetweenPipelinedRequests() throws InterruptedException {
+        configurePipelining(200);
+        RecordingCallback callback = new RecordingCallback(3);
+        long registered = System.currentTimeMillis();
+        registerPoll(0, callback);
+        registerPoll(20, callback);
+        registerPoll(40, callback);
+
+        assertTrue(callback.called.await(5, TimeUnit.SECONDS));
+        assertRegisters(callback, 0);
+        assertRegisters(callback, 20);
+        assertRegisters(callback, 40);
+        waitForAssert(() -> assertThat(statistics().getOperationCount(), is(equalTo(1L))));
+        // the responses are read once all requests are in flight, and the third request is sent at least two delays
+        // after the first one
+        long last = callback.resultMillis.values().stream().mapToLong(Long::longValue).max().getAsLong();
+        long elapsed = last - registered;
+        assertTrue(String.format("Responses received %d ms after registration", elapsed),
+                elapsed >= INITIAL_DELAY_MILLIS + 2 * 200);
+    }
+}
@@ -58,6 +58,11 @@ public class BasicModbusRegisterArray implements ModbusRegisterArray {
         return registers[index];
     }
 
+    @Override
+    public int getUnsignedShort(int index) {
+        return registers[index].toUnsignedShort();
+    }
+
     @Override
     public int size() {
         return registers.length;
@@ -10,8 +10,6 @@ package org.openhab.io.transport.modbus;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.Optional;
 
@@ -94,101 +92,124 @@ public class ModbusBitUtilities {
      */
     public static DecimalType extractStateFromRegisters(ModbusRegisterArray registers, int index,
             ModbusConstants.ValueType type) {
-        int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
-        // each register has 16 bits
-        int lastValidIndex = registers.size() * 16 - 1;
-        if (endBitIndex > lastValidIndex || index < 0) {
-            throw new IllegalArgumentException(
-                    String.format("Index=%d with type=%s is out-of-bounds given registers of size %d", index, type,
-                            registers.size()));
+        switch (type) {
+            case FLOAT32:
+            case FLOAT32_SWAP:
+                return new DecimalType(extractFloatFromRegisters(registers, index, type));
+            case UINT64:
+            case UINT64_SWAP: {
+                long value = extractLongFromRegisters(registers, index, type);
+                if (value >= 0) {
+                    return new DecimalType(value);
+                }
+                // out of bounds of signed 64bit
+                return new DecimalType(new BigDecimal(new BigInteger(Long.toUnsignedString(value))));
+            }
+            default:
+                return new DecimalType(extractLongFromRegisters(registers, index, type));
         }
+    }
+
+    /**
+     * Read integer data from registers without intermediate objects
+     *
+     * Interpretation of <tt>index</tt> and <tt>type</tt> is the same as with
+     * {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}.
+     *
+     * Note that values of UINT64 and UINT64_SWAP are returned as raw 64 bits, that is, values exceeding
+     * {@link Long#MAX_VALUE} are returned as negative numbers. Use {@link Long#toUnsignedString(long)} or similar
+     * methods to interpret them.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index
+     * @param type item type, any integer type (that is, other than FLOAT32 and FLOAT32_SWAP)
+     * @return value of the integer
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers, or the type is not an
+     *             integer type
+     */
+    public static long extractLongFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
+        checkBounds(registers, index, type);
         switch (type) {
             case BIT:
-                return new DecimalType((registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1);
+                return (registers.getUnsignedShort(index / 16) >> (index % 16)) & 1;
             case INT8:
-                return new DecimalType(registers.getRegister(index / 2).getBytes()[1 - (index % 2)]);
+                return (byte) (registers.getUnsignedShort(index / 2) >> (8 * (index % 2)));
             case UINT8:
-                return new DecimalType(
-                        (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff);
-            case INT16: {
-                ByteBuffer buff = ByteBuffer.allocate(2);
-                buff.put(registers.getRegister(index).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getShort(0));
-            }
+                return (registers.getUnsignedShort(index / 2) >> (8 * (index % 2))) & 0xff;
+            case INT16:
+                return (short) registers.getUnsignedShort(index);
             case UINT16:
-                return new DecimalType(registers.getRegister(index).toUnsignedShort());
-            case INT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0));
-            }
-            case UINT32: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0));
-            }
-            case FLOAT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0));
-            }
-            case INT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0));
-            }
-            case UINT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array())));
-            }
-            case INT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0));
-            }
-            case UINT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0));
-            }
-            case FLOAT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0));
-            }
-            case INT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0));
-            }
-            case UINT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array())));
-            }
+                return registers.getUnsignedShort(index);
+            case INT32:
+                return (int) extract32Bits(registers, index, index + 1);
+            case UINT32:
+                return extract32Bits(registers, index, index + 1);
+            case INT64:
+            case UINT64:
+                return (extract32Bits(registers, index, index + 1) << 32)
+                        | extract32Bits(registers, index + 2, index + 3);
+            case INT32_SWAP:
+                return (int) extract32Bits(registers, index + 1, index);
+            case UINT32_SWAP:
+                return extract32Bits(registers, index + 1, index);
+            case INT64_SWAP:
+            case UINT64_SWAP:
+                return (extract32Bits(registers, index + 3, index + 2) << 32)
+                        | extract32Bits(registers, index + 1, index);
+            default:
+                throw new IllegalArgumentException(
+                        String.format("Type %s is not an integer type", type.getConfigValue()));
+        }
+    }
+
+    /**
+     * Read floating point data from registers without intermediate objects
+     *
+     * Interpretation of <tt>index</tt> and <tt>type</tt> is the same as with
+     * {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based register index
+     * @param type item type, FLOAT32 or FLOAT32_SWAP
+     * @return value of the float
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers, or the type is not a
+     *             floating point type
+     */
+    public static float extractFloatFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
+        checkBounds(registers, index, type);
+        switch (type) {
+            case FLOAT32:
+                return Float.intBitsToFloat((int) extract32Bits(registers, index, index + 1));
+            case FLOAT32_SWAP:
+                return Float.intBitsToFloat((int) extract32Bits(registers, index + 1, index));
             default:
-                throw new IllegalArgumentException(type.getConfigValue());
+                throw new IllegalArgumentException(
+                        String.format("Type %s is not a floating point type", type.getConfigValue()));
+        }
+    }
+
+    /**
+     * Combine two registers to unsigned 32 bit value
+     *
+     * @param registers list of registers
+     * @param hiIndex index of the register with most significant 16 bits
+     * @param loIndex index of the register with least significant 16 bits
+     * @return unsigned 32 bit value
+     */
+    private static long extract32Bits(ModbusRegisterArray registers, int hiIndex, int loIndex) {
+        return ((long) registers.getUnsignedShort(hiIndex) << 16) | registers.getUnsignedShort(loIndex);
+    }
+
+    private static void checkBounds(ModbusRegisterArray registers, int index, ModbusConstants.ValueType type) {
+        int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
+        // each register has 16 bits
+        int lastValidIndex = registers.size() * 16 - 1;
+        if (endBitIndex > lastValidIndex || index < 0) {
+            throw new IllegalArgumentException(
+                    String.format("Index=%d with type=%s is out-of-bounds given registers of size %d", index, type,
+                            registers.size()));
         }
     }
 
@@ -0,0 +1,226 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Immutable snapshot of performance statistics of a single endpoint, collected since the activation of the
+ * {@link ModbusManager}
+ *
+ * @author agent - Initial contribution
+ *
+ * @see ModbusManager#getEndpointStatistics(org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint)
+ */
+@NonNullByDefault
+public class ModbusEndpointStatistics {
+
+    /**
+     * Upper bounds (inclusive) of the latency histogram buckets, in milliseconds. The last bucket of the histogram
+     * counts durations larger than the last bound.
+     */
+    public static final long[] HISTOGRAM_BUCKET_UPPER_BOUNDS_MILLIS = { 1, 5, 10, 50, 100, 500, 1000, 5000 };
+
+    private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
+
+    static {
+        toStringStyle.setUseShortClassName(true);
+    }
+
+    /**
+     * Latency statistics of single phase of Modbus operations
+     *
+     * @author agent - Initial contribution
+     */
+    public static class Latency {
+        private final long count;
+        private final long totalMillis;
+        private final long maxMillis;
+        private final long[] histogram;
+
+        /**
+         *
+         * @param count number of timed operations
+         * @param totalMillis total duration of the timed operations
+         * @param maxMillis duration of the slowest operation
+         * @param histogram number of operations per bucket, see {@link #HISTOGRAM_BUCKET_UPPER_BOUNDS_MILLIS}
+         */
+        public Latency(long count, long totalMillis, long maxMillis, long[] histogram) {
+            this.count = count;
+            this.totalMillis = totalMillis;
+            this.maxMillis = maxMillis;
+            this.histogram = histogram.clone();
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalMillis() {
+            return totalMillis;
+        }
+
+        public long getMaxMillis() {
+            return maxMillis;
+        }
+
+        /**
+         * Get mean duration
+         *
+         * @return mean duration in milliseconds, or zero if nothing has been timed
+         */
+        public double getMeanMillis() {
+            return count == 0 ? 0 : (double) totalMillis / count;
+        }
+
+        /**
+         * Get latency histogram
+         *
+         * @return number of operations per bucket. Element i counts operations with duration less or equal to
+         *         {@link ModbusEndpointStatistics#HISTOGRAM_BUCKET_UPPER_BOUNDS_MILLIS}[i], but larger than the
+         *         previous bound. The last element counts operations exceeding all the bounds.
+         */
+        public long[] getHistogram() {
+            return histogram.clone();
+        }
+
+        @Override
+        public String toString() {
+            return new ToStringBuilder(this, toStringStyle).append("count", count).append("totalMillis", totalMillis)
+                    .append("maxMillis", maxMillis).append("histogram", histogram).toString();
+        }
+    }
+
+    private final long operationCount;
+    private final Latency connectionLatency;
+    private final Latency transactionLatency;
+    private final Latency callbackLatency;
+    private final Latency borrowWaitLatency;
+    private final Map<String, Long> errorCounts;
+    private final int callbacksInProgress;
+    private final int pollerOverdueTasks;
+    private final long pollerMaxOverdueMillis;
+    private final int pollerActiveThreads;
+
+    public ModbusEndpointStatistics(long operationCount, Latency connectionLatency, Latency transactionLatency,
+            Latency callbackLatency, Latency borrowWaitLatency, Map<String, Long> errorCounts,
+            int callbacksInProgress, int pollerOverdueTasks, long pollerMaxOverdueMillis, int pollerActiveThreads) {
+        this.operationCount = operationCount;
+        this.connectionLatency = connectionLatency;
+        this.transactionLatency = transactionLatency;
+        this.callbackLatency = callbackLatency;
+        this.borrowWaitLatency = borrowWaitLatency;
+        this.errorCounts = Collections.unmodifiableMap(errorCounts);
+        this.callbacksInProgress = callbacksInProgress;
+        this.pollerOverdueTasks = pollerOverdueTasks;
+        this.pollerMaxOverdueMillis = pollerMaxOverdueMillis;
+        this.pollerActiveThreads = pollerActiveThreads;
+    }
+
+    /**
+     * Get number of executed operations (read or write requests, including the retries)
+     */
+    public long getOperationCount() {
+        return operationCount;
+    }
+
+    /**
+     * Get time spent in connection handling per operation (borrowing, establishing, returning and invalidating
+     * connections)
+     */
+    public Latency getConnectionLatency() {
+        return connectionLatency;
+    }
+
+    /**
+     * Get time spent in Modbus transactions per operation, i.e. writing the request and waiting for the response
+     */
+    public Latency getTransactionLatency() {
+        return transactionLatency;
+    }
+
+    /**
+     * Get time spent executing the callbacks per operation
+     */
+    public Latency getCallbackLatency() {
+        return callbackLatency;
+    }
+
+    /**
+     * Get time waited for a connection from the pool, per borrow
+     */
+    public Latency getBorrowWaitLatency() {
+        return borrowWaitLatency;
+    }
+
+    /**
+     * Get number of errors by exception type
+     *
+     * @return unmodifiable map from simple class name of the exception (e.g. <code>ModbusSlaveIOException</code>) to
+     *         the number of errors
+     */
+    public Map<String, Long> getErrorCounts() {
+        return errorCounts;
+    }
+
+    /**
+     * Get total number of errors
+     */
+    public long getErrorCount() {
+        return errorCounts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Get number of callbacks of this endpoint currently being executed. The callbacks are executed by the threads of
+     * the poller thread pool, so each of them keeps a poller thread busy.
+     */
+    public int getCallbacksInProgress() {
+        return callbacksInProgress;
+    }
+
+    /**
+     * Get number of executions that are due but still waiting for a thread of the poller thread pool. Executions
+     * that are scheduled for later, e.g. regular polls waiting for their next period, are not counted. Note that the
+     * thread pool is shared by all endpoints.
+     */
+    public int getPollerOverdueTasks() {
+        return pollerOverdueTasks;
+    }
+
+    /**
+     * Get how late the most overdue execution waiting for a thread of the poller thread pool is, in milliseconds.
+     * Zero when nothing is overdue. Note that the thread pool is shared by all endpoints.
+     */
+    public long getPollerMaxOverdueMillis() {
+        return pollerMaxOverdueMillis;
+    }
+
+    /**
+     * Get number of active threads in the poller thread pool. Note that the thread pool is shared by all endpoints.
+     */
+    public int getPollerActiveThreads() {
+        return pollerActiveThreads;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, toStringStyle).append("operationCount", operationCount)
+                .append("connectionLatency", connectionLatency).append("transactionLatency", transactionLatency)
+                .append("callbackLatency", callbackLatency).append("borrowWaitLatency", borrowWaitLatency)
+                .append("errorCounts", errorCounts).append("callbacksInProgress", callbacksInProgress)
+                .append("pollerOverdueTasks", pollerOverdueTasks)
+                .append("pollerMaxOverdueMillis", pollerMaxOverdueMillis)
+                .append("pollerActiveThreads", pollerActiveThreads).toString();
+    }
+}
@@ -79,6 +79,17 @@ public interface ModbusManager {
      */
     public @Nullable EndpointPoolConfiguration getEndpointPoolConfiguration(ModbusSlaveEndpoint endpoint);
 
+    /**
+     * Get performance statistics of a given endpoint
+     *
+     * Statistics are collected since the activation of the manager. Endpoints with no operations have empty
+     * statistics.
+     *
+     * @param endpoint endpoint to query
+     * @return snapshot of the statistics
+     */
+    public ModbusEndpointStatistics getEndpointStatistics(ModbusSlaveEndpoint endpoint);
+
     /**
      * Register listener for changes
      *
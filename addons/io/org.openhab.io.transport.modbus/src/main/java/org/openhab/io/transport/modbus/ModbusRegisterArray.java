@@ -31,6 +31,20 @@ public interface ModbusRegisterArray extends Iterable<ModbusRegister> {
      */
     ModbusRegister getRegister(int index);
 
+    /**
+     * Return the value of register at the given index, interpreted as unsigned 16 bit integer
+     *
+     * Equivalent to <code>getRegister(index).toUnsignedShort()</code>. Implementations should override this to
+     * avoid creating intermediate objects.
+     *
+     * @param index the index of the register
+     * @return unsigned value of the register, between 0 and 65535 (inclusive)
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    default int getUnsignedShort(int index) {
+        return getRegister(index).toUnsignedShort();
+    }
+
     /**
      * Get number of registers stored in this instance
      *
@@ -0,0 +1,295 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusUnexpectedResponseSizeException;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Poll task that reads the data of several registered poll tasks with a single request.
+ *
+ * The member tasks must share the endpoint, unit id and function code. The request of this task covers all the
+ * member requests, and the response is sliced so that each member callback receives exactly the data it asked for,
+ * together with its original request.
+ *
+ * Use {@link #coalesce(Collection, int)} to construct the tasks.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class CoalescedPollTask implements PollTask {
+
+    /**
+     * Maximum number of registers that can be read with single request (FC3, FC4), as per Modbus specification
+     */
+    public static final int MAX_REGISTERS_PER_REQUEST = 125;
+
+    /**
+     * Maximum number of coils or discrete inputs that can be read with single request (FC1, FC2), as per Modbus
+     * specification
+     */
+    public static final int MAX_BITS_PER_REQUEST = 2000;
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescedPollTask.class);
+
+    private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
+    static {
+        toStringStyle.setUseShortClassName(true);
+    }
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final BasicModbusReadRequestBlueprint request;
+    private final List<PollTask> members;
+    private final ModbusReadCallback callback = new SlicingCallback();
+
+    private CoalescedPollTask(ModbusSlaveEndpoint endpoint, BasicModbusReadRequestBlueprint request,
+            List<PollTask> members) {
+        this.endpoint = endpoint;
+        this.request = request;
+        this.members = Collections.unmodifiableList(members);
+    }
+
+    /**
+     * Merge poll tasks into as few requests as possible
+     *
+     * Tasks are grouped by endpoint, unit id and function code. Within a group, tasks with overlapping or
+     * near-adjacent ranges are merged as long as the merged request does not exceed the protocol limits
+     * ({@link #MAX_REGISTERS_PER_REQUEST} and {@link #MAX_BITS_PER_REQUEST}).
+     *
+     * @param tasks tasks to merge
+     * @param maxGap maximum number of unrequested registers (or bits) allowed between two merged ranges. Zero
+     *            means that only overlapping and directly adjacent ranges are merged.
+     * @return merged tasks, covering all the given tasks
+     */
+    public static List<CoalescedPollTask> coalesce(Collection<PollTask> tasks, int maxGap) {
+        if (maxGap < 0) {
+            throw new IllegalArgumentException("maxGap should be non-negative");
+        }
+        Map<GroupKey, List<PollTask>> groups = new LinkedHashMap<>();
+        for (PollTask task : tasks) {
+            ModbusReadRequestBlueprint taskRequest = task.getRequest();
+            groups.computeIfAbsent(new GroupKey(task.getEndpoint(), taskRequest.getUnitID(),
+                    taskRequest.getFunctionCode()), key -> new ArrayList<>()).add(task);
+        }
+
+        List<CoalescedPollTask> coalesced = new ArrayList<>();
+        groups.forEach((key, groupTasks) -> {
+            int maxLength = isBitRead(key.functionCode) ? MAX_BITS_PER_REQUEST : MAX_REGISTERS_PER_REQUEST;
+            groupTasks.sort(Comparator.comparingInt((PollTask task) -> task.getRequest().getReference())
+                    .thenComparingInt(task -> task.getRequest().getDataLength()));
+
+            List<PollTask> current = new ArrayList<>();
+            int start = 0;
+            int end = 0; // exclusive
+            for (PollTask task : groupTasks) {
+                int taskStart = task.getRequest().getReference();
+                int taskEnd = taskStart + task.getRequest().getDataLength();
+                if (!current.isEmpty() && taskStart <= end + maxGap && Math.max(end, taskEnd) - start <= maxLength) {
+                    current.add(task);
+                    end = Math.max(end, taskEnd);
+                    continue;
+                }
+                if (!current.isEmpty()) {
+                    coalesced.add(create(key, start, end, current));
+                }
+                current = new ArrayList<>();
+                current.add(task);
+                start = taskStart;
+                end = taskEnd;
+            }
+            if (!current.isEmpty()) {
+                coalesced.add(create(key, start, end, current));
+            }
+        });
+        return coalesced;
+    }
+
+    private static CoalescedPollTask create(GroupKey key, int start, int end, List<PollTask> members) {
+        int maxTries = members.stream().mapToInt(PollTask::getMaxTries).max().orElse(1);
+        return new CoalescedPollTask(key.endpoint,
+                new BasicModbusReadRequestBlueprint(key.unitId, key.functionCode, start, end - start, maxTries),
+                members);
+    }
+
+    private static boolean isBitRead(ModbusReadFunctionCode functionCode) {
+        return functionCode == ModbusReadFunctionCode.READ_COILS
+                || functionCode == ModbusReadFunctionCode.READ_INPUT_DISCRETES;
+    }
+
+    /**
+     * Get the original tasks served by this task
+     *
+     * @return unmodifiable list of member tasks, ordered by start address
+     */
+    public List<PollTask> getMembers() {
+        return members;
+    }
+
+    @Override
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public ModbusReadRequestBlueprint getRequest() {
+        return request;
+    }
+
+    @Override
+    public ModbusReadCallback getCallback() {
+        return callback;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, toStringStyle).append("request", request).append("endpoint", endpoint)
+                .append("members", members.size()).toString();
+    }
+
+    /**
+     * Callback distributing the slices of the merged response to the member callbacks
+     */
+    private class SlicingCallback implements ModbusReadCallback {
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint mergedRequest, ModbusRegisterArray registers) {
+            for (PollTask member : members) {
+                ModbusReadCallback memberCallback = member.getCallback();
+                if (memberCallback == null) {
+                    continue;
+                }
+                ModbusReadRequestBlueprint memberRequest = member.getRequest();
+                int offset = memberRequest.getReference() - request.getReference();
+                int length = memberRequest.getDataLength();
+                if (offset + length > registers.size()) {
+                    invokeMemberError(memberCallback, memberRequest,
+                            new ModbusUnexpectedResponseSizeException(offset + length, registers.size()));
+                    continue;
+                }
+                ModbusRegister[] slice = new ModbusRegister[length];
+                for (int i = 0; i < length; i++) {
+                    slice[i] = registers.getRegister(offset + i);
+                }
+                try {
+                    memberCallback.onRegisters(memberRequest, new BasicModbusRegisterArray(slice));
+                } catch (RuntimeException e) {
+                    // Do not let one failing callback prevent others receiving the data
+                    logger.error("Unhandled exception in read callback {} for request {}", memberCallback,
+                            memberRequest, e);
+                }
+            }
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint mergedRequest, BitArray bits) {
+            for (PollTask member : members) {
+                ModbusReadCallback memberCallback = member.getCallback();
+                if (memberCallback == null) {
+                    continue;
+                }
+                ModbusReadRequestBlueprint memberRequest = member.getRequest();
+                int offset = memberRequest.getReference() - request.getReference();
+                int length = memberRequest.getDataLength();
+                if (offset + length > bits.size()) {
+                    invokeMemberError(memberCallback, memberRequest,
+                            new ModbusUnexpectedResponseSizeException(offset + length, bits.size()));
+                    continue;
+                }
+                BasicBitArray slice = new BasicBitArray(length);
+                for (int i = 0; i < length; i++) {
+                    slice.setBit(i, bits.getBit(offset + i));
+                }
+                try {
+                    memberCallback.onBits(memberRequest, slice);
+                } catch (RuntimeException e) {
+                    logger.error("Unhandled exception in read callback {} for request {}", memberCallback,
+                            memberRequest, e);
+                }
+            }
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint mergedRequest, Exception error) {
+            for (PollTask member : members) {
+                ModbusReadCallback memberCallback = member.getCallback();
+                if (memberCallback != null) {
+                    invokeMemberError(memberCallback, member.getRequest(), error);
+                }
+            }
+        }
+
+        private void invokeMemberError(ModbusReadCallback memberCallback, ModbusReadRequestBlueprint memberRequest,
+                Exception error) {
+            try {
+                memberCallback.onError(memberRequest, error);
+            } catch (RuntimeException e) {
+                logger.error("Unhandled exception in read callback {} for request {}", memberCallback, memberRequest,
+                        e);
+            }
+        }
+    }
+
+    /**
+     * Key identifying poll tasks that can be served with a single request
+     */
+    private static class GroupKey {
+        private final ModbusSlaveEndpoint endpoint;
+        private final int unitId;
+        private final ModbusReadFunctionCode functionCode;
+
+        GroupKey(ModbusSlaveEndpoint endpoint, int unitId, ModbusReadFunctionCode functionCode) {
+            this.endpoint = endpoint;
+            this.unitId = unitId;
+            this.functionCode = functionCode;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(endpoint, unitId, functionCode);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+            GroupKey other = (GroupKey) obj;
+            return endpoint.equals(other.endpoint) && unitId == other.unitId && functionCode == other.functionCode;
+        }
+    }
+
+}
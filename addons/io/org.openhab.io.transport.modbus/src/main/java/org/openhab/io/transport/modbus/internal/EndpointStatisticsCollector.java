@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.ModbusEndpointStatistics;
+
+/**
+ * Thread-safe collector of performance statistics of single endpoint
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class EndpointStatisticsCollector {
+
+    /**
+     * Collector for latencies of single phase
+     */
+    static class LatencyCollector {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final AtomicLong maxMillis = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(
+                ModbusEndpointStatistics.HISTOGRAM_BUCKET_UPPER_BOUNDS_MILLIS.length + 1);
+
+        void record(long millis) {
+            count.increment();
+            totalMillis.add(millis);
+            maxMillis.accumulateAndGet(millis, Math::max);
+            histogram.incrementAndGet(bucketIndex(millis));
+        }
+
+        private static int bucketIndex(long millis) {
+            long[] bounds = ModbusEndpointStatistics.HISTOGRAM_BUCKET_UPPER_BOUNDS_MILLIS;
+            for (int i = 0; i < bounds.length; i++) {
+                if (millis <= bounds[i]) {
+                    return i;
+                }
+            }
+            return bounds.length;
+        }
+
+        ModbusEndpointStatistics.Latency snapshot() {
+            long[] histogramSnapshot = new long[histogram.length()];
+            for (int i = 0; i < histogramSnapshot.length; i++) {
+                histogramSnapshot[i] = histogram.get(i);
+            }
+            return new ModbusEndpointStatistics.Latency(count.sum(), totalMillis.sum(), maxMillis.get(),
+                    histogramSnapshot);
+        }
+    }
+
+    private final LongAdder operationCount = new LongAdder();
+    private final LatencyCollector connection = new LatencyCollector();
+    private final LatencyCollector transaction = new LatencyCollector();
+    private final LatencyCollector callback = new LatencyCollector();
+    private final LatencyCollector borrowWait = new LatencyCollector();
+    private final Map<String, LongAdder> errorCounts = new ConcurrentHashMap<>();
+    private final AtomicInteger callbacksInProgress = new AtomicInteger();
+
+    /**
+     * Record timing of a completed operation
+     *
+     * @param timer timer of the operation. All stop watches should be suspended.
+     */
+    public void recordOperation(AggregateStopWatch timer) {
+        operationCount.increment();
+        connection.record(timer.connection.getTotalTimeMillis());
+        transaction.record(timer.transaction.getTotalTimeMillis());
+        callback.record(timer.callback.getTotalTimeMillis());
+    }
+
+    /**
+     * Record time waited for a connection from the pool
+     *
+     * @param millis time waited
+     */
+    public void recordBorrowWait(long millis) {
+        borrowWait.record(millis);
+    }
+
+    /**
+     * Mark callback as started. Must be followed by {@link #callbackFinished()}.
+     */
+    public void callbackStarted() {
+        callbacksInProgress.incrementAndGet();
+    }
+
+    /**
+     * Mark callback as finished
+     */
+    public void callbackFinished() {
+        callbacksInProgress.decrementAndGet();
+    }
+
+    /**
+     * Record error
+     *
+     * @param error error to record, counted by the simple class name
+     */
+    public void recordError(Exception error) {
+        errorCounts.computeIfAbsent(errorType(error), type -> new LongAdder()).increment();
+    }
+
+    /**
+     * Use the public exception type for the internal implementations (e.g. ModbusSlaveIOExceptionImpl is counted as
+     * ModbusSlaveIOException)
+     */
+    private static String errorType(Exception error) {
+        Class<?> clazz = error.getClass();
+        if (clazz.getPackage() != null && clazz.getPackage().getName().equals(
+                EndpointStatisticsCollector.class.getPackage().getName()) && clazz.getSuperclass() != null) {
+            clazz = clazz.getSuperclass();
+        }
+        return clazz.getSimpleName();
+    }
+
+    /**
+     * Create snapshot of the statistics
+     *
+     * @param pollerOverdueTasks current number of due executions waiting for a thread of the poller thread pool
+     * @param pollerMaxOverdueMillis how late the most overdue of those executions is, in milliseconds
+     * @param pollerActiveThreads current number of active threads in the poller thread pool
+     * @return snapshot of the statistics
+     */
+    public ModbusEndpointStatistics snapshot(int pollerOverdueTasks, long pollerMaxOverdueMillis,
+            int pollerActiveThreads) {
+        Map<String, Long> errors = new HashMap<>();
+        errorCounts.forEach((type, count) -> errors.put(type, count.sum()));
+        return new ModbusEndpointStatistics(operationCount.sum(), connection.snapshot(), transaction.snapshot(),
+                callback.snapshot(), borrowWait.snapshot(), errors, callbacksInProgress.get(), pollerOverdueTasks,
+                pollerMaxOverdueMillis, pollerActiveThreads);
+    }
+}
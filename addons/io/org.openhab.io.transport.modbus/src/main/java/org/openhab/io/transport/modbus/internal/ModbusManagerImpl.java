@@ -9,17 +9,25 @@
 package org.openhab.io.transport.modbus.internal;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Delayed;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.imageio.IIOException;
@@ -33,6 +41,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.io.transport.modbus.ModbusCallback;
 import org.openhab.io.transport.modbus.ModbusConnectionException;
+import org.openhab.io.transport.modbus.ModbusEndpointStatistics;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusManagerListener;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
@@ -62,9 +71,12 @@ import net.wimpi.modbus.ModbusException;
 import net.wimpi.modbus.ModbusIOException;
 import net.wimpi.modbus.ModbusSlaveException;
 import net.wimpi.modbus.io.ModbusTransaction;
+import net.wimpi.modbus.io.ModbusTransport;
+import net.wimpi.modbus.msg.ExceptionResponse;
 import net.wimpi.modbus.msg.ModbusRequest;
 import net.wimpi.modbus.msg.ModbusResponse;
 import net.wimpi.modbus.net.ModbusSlaveConnection;
+import net.wimpi.modbus.net.TCPMasterConnection;
 
 /**
  * Main implementation of ModbusManager
@@ -73,6 +85,15 @@ import net.wimpi.modbus.net.ModbusSlaveConnection;
  * important with serial slaves but practice has shown that even many tcp slaves have limited
  * capability to handle many connections at the same time
  *
+ * Optionally, regular polls can be coalesced (configuration parameter {@value #CONFIG_COALESCE_REGULAR_POLLS}).
+ * In this mode, regular polls with the same endpoint and poll period are executed by a single scheduled job,
+ * and requests with overlapping or near-adjacent ranges are merged into as few requests as possible. See
+ * {@link CoalescedPollTask}.
+ *
+ * With Modbus TCP endpoints allowing more than one transaction in flight (see
+ * {@link EndpointPoolConfiguration#getMaxInFlightTransactions()}), the merged requests of a coalesced poll are
+ * pipelined over a single connection, and the responses are matched to requests using the transaction IDs.
+ *
  * @author Sami Salonen - Initial contribution
  */
 @Component(service = ModbusManager.class, immediate = true, configurationPid = "transport.modbus")
@@ -159,7 +180,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(), operationId);
             checkTransactionId(response, libRequest, task, operationId);
             if (callback != null) {
-                timer.callback.timeRunnable(
+                timeCallback(timer, endpoint,
                         () -> ModbusLibraryWrapper.invokeCallbackWithResponse(request, callback, response));
             }
         }
@@ -196,12 +217,107 @@ public class ModbusManagerImpl implements ModbusManager {
 
             checkTransactionId(response, libRequest, task, operationId);
             if (callback != null) {
-                timer.callback.timeRunnable(
+                timeCallback(timer, endpoint,
                         () -> invokeCallbackWithResponse(request, callback, new ModbusResponseImpl(response)));
             }
         }
     }
 
+    /**
+     * Regular polls sharing endpoint, poll period and initial delay, executed by a single scheduled job
+     *
+     * The poll tasks are merged to minimize the number of Modbus transactions. The merged tasks are re-calculated
+     * whenever poll tasks are added or removed.
+     *
+     * @author agent - Initial contribution
+     *
+     */
+    private class CoalescedPollSchedule implements Runnable {
+        private final Set<PollTask> members = new CopyOnWriteArraySet<>();
+        private final ModbusSlaveEndpoint endpoint;
+        private final long pollPeriodMillis;
+        private volatile List<CoalescedPollTask> mergedTasks = Collections.emptyList();
+        @Nullable
+        private volatile ScheduledFuture<?> future;
+
+        CoalescedPollSchedule(ModbusSlaveEndpoint endpoint, long pollPeriodMillis) {
+            this.endpoint = endpoint;
+            this.pollPeriodMillis = pollPeriodMillis;
+        }
+
+        void add(PollTask task) {
+            members.add(task);
+            mergedTasks = CoalescedPollTask.coalesce(members, coalesceMaxGap);
+        }
+
+        boolean remove(PollTask task) {
+            boolean removed = members.remove(task);
+            mergedTasks = CoalescedPollTask.coalesce(members, coalesceMaxGap);
+            return removed;
+        }
+
+        boolean contains(PollTask task) {
+            return members.contains(task);
+        }
+
+        boolean isEmpty() {
+            return members.isEmpty();
+        }
+
+        @Override
+        public void run() {
+            List<CoalescedPollTask> mergedTasks = this.mergedTasks;
+            long started = System.currentTimeMillis();
+            logger.debug("Executing scheduled ({}ms) coalesced poll of {} tasks using {} requests. Current millis: {}",
+                    pollPeriodMillis, members.size(), mergedTasks.size(), started);
+            int maxInFlight = getMaxInFlightTransactions(endpoint);
+            if (maxInFlight > 1 && mergedTasks.size() > 1) {
+                executePipelinedPolls(endpoint, mergedTasks, maxInFlight);
+            } else {
+                for (CoalescedPollTask task : mergedTasks) {
+                    executeOperation(task, false, pollOperation);
+                }
+            }
+            long finished = System.currentTimeMillis();
+            logger.debug(
+                    "Execution of scheduled ({}ms) coalesced poll finished at {}. Was started at millis: {} (=duration of {} millis)",
+                    pollPeriodMillis, finished, started, finished - started);
+        }
+    }
+
+    /**
+     * Key for {@link CoalescedPollSchedule}
+     */
+    private static class CoalescedPollScheduleKey {
+        private final ModbusSlaveEndpoint endpoint;
+        private final long pollPeriodMillis;
+        private final long initialDelayMillis;
+
+        CoalescedPollScheduleKey(ModbusSlaveEndpoint endpoint, long pollPeriodMillis, long initialDelayMillis) {
+            this.endpoint = endpoint;
+            this.pollPeriodMillis = pollPeriodMillis;
+            this.initialDelayMillis = initialDelayMillis;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(endpoint, pollPeriodMillis, initialDelayMillis);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+            CoalescedPollScheduleKey other = (CoalescedPollScheduleKey) obj;
+            return endpoint.equals(other.endpoint) && pollPeriodMillis == other.pollPeriodMillis
+                    && initialDelayMillis == other.initialDelayMillis;
+        }
+    }
+
     private final Logger logger = LoggerFactory.getLogger(ModbusManagerImpl.class);
     private final Logger pollMonitorLogger = LoggerFactory
             .getLogger(ModbusManagerImpl.class.getName() + ".PollMonitor");
@@ -243,6 +359,19 @@ public class ModbusManagerImpl implements ModbusManager {
      * Presumably slow callbacks can increase queue size with callbackThreadPool
      */
     private static final long WARN_QUEUE_SIZE = 500;
+
+    /**
+     * Configuration parameter for enabling coalescing of regular polls. Disabled by default.
+     */
+    public static final String CONFIG_COALESCE_REGULAR_POLLS = "coalesceRegularPolls";
+
+    /**
+     * Configuration parameter for maximum number of unrequested registers (or bits) between two requests that can
+     * still be merged when coalescing regular polls.
+     */
+    public static final String CONFIG_COALESCE_MAX_GAP = "coalesceMaxGap";
+
+    private static final int DEFAULT_COALESCE_MAX_GAP = 0;
     private static final long MONITOR_QUEUE_INTERVAL_MILLIS = 10000;
 
     private final PollOperation pollOperation = new PollOperation();
@@ -250,6 +379,11 @@ public class ModbusManagerImpl implements ModbusManager {
 
     private volatile long lastQueueMonitorLog = -1;
 
+    /**
+     * Transaction IDs for pipelined transactions. Modbus TCP transaction IDs are 16 bit unsigned integers.
+     */
+    private final AtomicInteger pipelinedTransactionId = new AtomicInteger();
+
     /**
      * We use connection pool to ensure that only single transaction is ongoing per each endpoint. This is especially
      * important with serial slaves but practice has shown that even many tcp slaves have limited
@@ -264,6 +398,10 @@ public class ModbusManagerImpl implements ModbusManager {
     @Nullable
     private volatile ModbusSlaveConnectionFactoryImpl connectionFactory;
     private volatile Map<PollTask, ScheduledFuture<?>> scheduledPollTasks = new ConcurrentHashMap<>();
+    private final Map<CoalescedPollScheduleKey, CoalescedPollSchedule> coalescedPollSchedules = new ConcurrentHashMap<>();
+    private volatile boolean coalesceRegularPolls;
+    private volatile int coalesceMaxGap = DEFAULT_COALESCE_MAX_GAP;
+    private final Map<ModbusSlaveEndpoint, EndpointStatisticsCollector> endpointStatistics = new ConcurrentHashMap<>();
     /**
      * Executor for requests
      */
@@ -336,6 +474,7 @@ public class ModbusManagerImpl implements ModbusManager {
             logger.warn("Error getting a new connection for endpoint {}. Error was: {} {}", endpoint,
                     e.getClass().getName(), e.getMessage());
         }
+        statistics(endpoint).recordBorrowWait(System.currentTimeMillis() - start);
         if (connection.isPresent()) {
             ModbusSlaveConnection slaveConnection = connection.get();
             if (!slaveConnection.isConnected()) {
@@ -425,14 +564,28 @@ public class ModbusManagerImpl implements ModbusManager {
         if (!connection.isPresent()) {
             logger.warn("Could not connect to endpoint {} -- aborting request {} [operation ID {}]", endpoint, request,
                     operationId);
+            ModbusConnectionException error = new ModbusConnectionException(endpoint);
+            statistics(endpoint).recordError(error);
             if (callback != null) {
-                timer.callback.timeRunnable(
-                        () -> invokeCallbackWithError(request, callback, new ModbusConnectionException(endpoint)));
+                timeCallback(timer, endpoint, () -> invokeCallbackWithError(request, callback, error));
             }
         }
         return connection;
     }
 
+    /**
+     * Execute callback, timing it and keeping track of the callbacks in progress with the endpoint
+     */
+    private void timeCallback(AggregateStopWatch timer, ModbusSlaveEndpoint endpoint, Runnable callback) {
+        EndpointStatisticsCollector statistics = statistics(endpoint);
+        statistics.callbackStarted();
+        try {
+            timer.callback.timeRunnable(callback);
+        } finally {
+            statistics.callbackFinished();
+        }
+    }
+
     private <R> void invokeCallbackWithError(ModbusRequestBlueprint request, ModbusCallback callback, Exception error) {
         try {
             logger.trace("Calling write response callback {} for request {}. Error was {} {}", callback, request,
@@ -464,7 +617,14 @@ public class ModbusManagerImpl implements ModbusManager {
     }
 
     private void verifyTaskIsRegistered(PollTask task) throws PollTaskUnregistered {
-        if (!this.scheduledPollTasks.containsKey(task)) {
+        boolean registered;
+        if (task instanceof CoalescedPollTask) {
+            // Merged task is relevant as long as any of the original tasks is registered
+            registered = ((CoalescedPollTask) task).getMembers().stream().anyMatch(scheduledPollTasks::containsKey);
+        } else {
+            registered = this.scheduledPollTasks.containsKey(task);
+        }
+        if (!registered) {
             String msg = String.format("Poll task %s is unregistered", task);
             logger.debug(msg);
             throw new PollTaskUnregistered(msg);
@@ -652,6 +812,10 @@ public class ModbusManagerImpl implements ModbusManager {
                     continue;
                 } finally {
                     lastTryMillis = System.currentTimeMillis();
+                    Exception tryError = lastError.get();
+                    if (tryError != null) {
+                        statistics(endpoint).recordError(tryError);
+                    }
                     // Connection was reseted in error handling and needs to be reconnected.
                     // Try to re-establish connection.
                     if (willRetry && !connection.isPresent()) {
@@ -663,7 +827,7 @@ public class ModbusManagerImpl implements ModbusManager {
             if (exception != null) {
                 // All retries failed with some error
                 if (callback != null) {
-                    timer.callback.timeRunnable(() -> {
+                    timeCallback(timer, endpoint, () -> {
                         invokeCallbackWithError(request, callback, exception);
                     });
                 }
@@ -682,10 +846,151 @@ public class ModbusManagerImpl implements ModbusManager {
             timer.connection.timeConsumer(c -> returnConnection(endpoint, c), connection);
             logger.trace("Connection was returned to the pool, ending operation [operation ID {}]", operationId);
             timer.suspendAllRunning();
+            statistics(endpoint).recordOperation(timer);
             logger.debug("Modbus operation ended, timing info: {} [operation ID {}]", timer, operationId);
         }
     }
 
+    /**
+     * Get the number of transactions that can be in flight with the given endpoint at the same time
+     *
+     * @return maximum number of transactions in flight. Always 1 with other than Modbus TCP endpoints.
+     */
+    private int getMaxInFlightTransactions(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        if (connectionFactory == null || !(endpoint instanceof ModbusTCPSlaveEndpoint)) {
+            return 1;
+        }
+        return Optional.ofNullable(connectionFactory.getEndpointPoolConfiguration(endpoint))
+                .map(cfg -> cfg.getMaxInFlightTransactions()).orElse(1);
+    }
+
+    /**
+     * Execute poll tasks using a single connection, having many transactions in flight at the same time
+     *
+     * Requests are sent without waiting for the responses, as long as there are less than maxInFlight requests
+     * waiting for response. Responses are matched to the requests using the transaction ID. Consecutive requests are
+     * sent at least {@link EndpointPoolConfiguration#getInterTransactionDelayMillis()} apart, like transactions
+     * executed one at a time.
+     *
+     * Tasks that do not succeed this way (I/O errors, exception responses from the slave, connection issues) are
+     * executed again using {@link #executeOperation(TaskWithEndpoint, boolean, ModbusOperation)}, i.e. one
+     * transaction at a time, with the usual retry and error reporting mechanism. Their errors are counted in the
+     * statistics only then, so that every failed task is counted once.
+     *
+     * @param endpoint endpoint shared by all the tasks. Should be a Modbus TCP endpoint
+     * @param tasks tasks to execute
+     * @param maxInFlight maximum number of transactions in flight
+     */
+    private void executePipelinedPolls(ModbusSlaveEndpoint endpoint, List<? extends PollTask> tasks, int maxInFlight) {
+        AggregateStopWatch timer = new AggregateStopWatch();
+        timer.total.resume();
+        String operationId = timer.operationId;
+
+        Deque<PollTask> unsent = new ArrayDeque<>(tasks);
+        Map<Integer, PollTask> inFlight = new LinkedHashMap<>();
+        List<PollTask> fallback = new ArrayList<>();
+        Optional<ModbusSlaveConnection> connection = Optional.empty();
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        long interTransactionDelay = Optional
+                .ofNullable(connectionFactory == null ? null : connectionFactory.getEndpointPoolConfiguration(endpoint))
+                .map(cfg -> cfg.getInterTransactionDelayMillis()).orElse(0L);
+        @Nullable
+        Long lastSentMillis = null;
+        try {
+            logTaskQueueInfo();
+            connection = timer.connection.timeSupplier(() -> borrowConnection(endpoint));
+            if (!connection.isPresent() || !(connection.get() instanceof TCPMasterConnection)) {
+                logger.debug(
+                        "Could not get connection for pipelined transactions, falling back to executing {} tasks one by one [operation ID {}]",
+                        unsent.size(), operationId);
+                fallback.addAll(unsent);
+                unsent.clear();
+            }
+            AtomicReference<@Nullable ModbusResponse> responseRef = new AtomicReference<>();
+            while (!unsent.isEmpty() || !inFlight.isEmpty()) {
+                ModbusTransport transport = ((TCPMasterConnection) connection.get()).getModbusTransport();
+                if (Thread.interrupted()) {
+                    logger.warn("Thread interrupted. Aborting pipelined operation [operation ID {}]", operationId);
+                    unsent.clear();
+                    inFlight.clear();
+                    return;
+                }
+                while (inFlight.size() < maxInFlight && !unsent.isEmpty()) {
+                    PollTask task = unsent.poll();
+                    try {
+                        verifyTaskIsRegistered(task);
+                    } catch (PollTaskUnregistered e) {
+                        continue;
+                    }
+                    long slept = ModbusSlaveConnectionFactoryImpl.waitAtleast(lastSentMillis, interTransactionDelay);
+                    logger.trace("Waited {}ms before sending pipelined request [operation ID {}]", slept,
+                            operationId);
+                    ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(task.getRequest());
+                    libRequest.setTransactionID(pipelinedTransactionId.updateAndGet(id -> (id + 1) & 0xFFFF));
+                    inFlight.put(libRequest.getTransactionID(), task);
+                    logger.trace("Sending pipelined request (FC={}, transaction ID={}): {} [operation ID {}]",
+                            libRequest.getFunctionCode(), libRequest.getTransactionID(), libRequest.getHexMessage(),
+                            operationId);
+                    timer.transaction.timeRunnableWithModbusException(() -> transport.writeMessage(libRequest));
+                    lastSentMillis = System.currentTimeMillis();
+                }
+                if (inFlight.isEmpty()) {
+                    break;
+                }
+                timer.transaction.timeRunnableWithModbusException(() -> responseRef.set(transport.readResponse()));
+                ModbusResponse response = Objects.requireNonNull(responseRef.get());
+                logger.trace("Received pipelined response (FC={}, transaction ID={}): {} [operation ID {}]",
+                        response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(),
+                        operationId);
+                PollTask task = inFlight.remove(response.getTransactionID());
+                if (task == null) {
+                    logger.warn(
+                            "Transaction id of the response ({}) does not match any of the pipelined requests. Endpoint {}. Ignoring response. [operation ID {}]",
+                            response.getTransactionID(), endpoint, operationId);
+                    continue;
+                }
+                if (response instanceof ExceptionResponse) {
+                    logger.debug(
+                            "Slave responded with exception code {} to pipelined request {}. Will retry without pipelining [operation ID {}]",
+                            ((ExceptionResponse) response).getExceptionCode(), task.getRequest(), operationId);
+                    fallback.add(task);
+                    continue;
+                }
+                ModbusReadCallback callback = task.getCallback();
+                if (callback != null) {
+                    timeCallback(timer, endpoint, () -> ModbusLibraryWrapper
+                            .invokeCallbackWithResponse(task.getRequest(), callback, response));
+                }
+            }
+        } catch (ModbusException e) {
+            logger.warn(
+                    "Pipelined transactions with endpoint {} failed, reseting the connection and executing remaining {} tasks one by one. Error details: {} {} [operation ID {}]",
+                    endpoint, inFlight.size() + unsent.size(), e.getClass().getName(), e.getMessage(), operationId);
+            // Not counted in the statistics, the errors of the tasks executed again are
+            timer.connection.timeConsumer(c -> invalidate(endpoint, c), connection);
+            connection = Optional.empty();
+        } catch (InterruptedException e) {
+            logger.warn("Pipelined poll was canceled -- not proceeding with the poll: {} [operation ID {}]",
+                    e.getMessage(), operationId);
+            unsent.clear();
+            inFlight.clear();
+            timer.connection.timeConsumer(c -> invalidate(endpoint, c), connection);
+            connection = Optional.empty();
+            return;
+        } finally {
+            timer.connection.timeConsumer(c -> returnConnection(endpoint, c), connection);
+            timer.suspendAllRunning();
+            statistics(endpoint).recordOperation(timer);
+            logger.debug("Pipelined Modbus operation ended, timing info: {} [operation ID {}]", timer, operationId);
+            fallback.addAll(inFlight.values());
+            fallback.addAll(unsent);
+        }
+        for (PollTask task : fallback) {
+            executeOperation(task, false, pollOperation);
+        }
+    }
+
     @Override
     public ScheduledFuture<?> submitOneTimePoll(PollTask task) {
         ScheduledExecutorService executor = scheduledThreadPoolExecutor;
@@ -712,6 +1017,10 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.trace("Unregistering previous poll task (possibly with different period)");
                 unregisterRegularPoll(task);
             }
+            if (coalesceRegularPolls) {
+                registerCoalescedPoll(executor, task, pollPeriodMillis, initialDelayMillis);
+                return;
+            }
             ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
                 long started = System.currentTimeMillis();
                 logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
@@ -729,6 +1038,59 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    /**
+     * Register poll task to be executed together with other poll tasks sharing the same endpoint, poll period and
+     * initial delay. Tasks with a different initial delay start a schedule of their own, so that no task is polled
+     * with a delay other than the one it was registered with.
+     *
+     * Should be called only when holding the lock of this instance.
+     */
+    private void registerCoalescedPoll(ScheduledExecutorService executor, PollTask task, long pollPeriodMillis,
+            long initialDelayMillis) {
+        CoalescedPollScheduleKey key = new CoalescedPollScheduleKey(task.getEndpoint(), pollPeriodMillis,
+                initialDelayMillis);
+        CoalescedPollSchedule schedule = coalescedPollSchedules.get(key);
+        ScheduledFuture<?> future;
+        if (schedule == null) {
+            schedule = new CoalescedPollSchedule(task.getEndpoint(), pollPeriodMillis);
+            schedule.add(task);
+            future = executor.scheduleWithFixedDelay(schedule, initialDelayMillis, pollPeriodMillis,
+                    TimeUnit.MILLISECONDS);
+            schedule.future = future;
+            coalescedPollSchedules.put(key, schedule);
+        } else {
+            schedule.add(task);
+            future = Objects.requireNonNull(schedule.future);
+        }
+        scheduledPollTasks.put(task, future);
+        logger.trace("Registered poll task {} with period {} to be coalesced with {} other poll tasks", task,
+                pollPeriodMillis, schedule.members.size() - 1);
+    }
+
+    /**
+     * Remove poll task from coalesced poll schedule, if any
+     *
+     * Should be called only when holding the lock of this instance.
+     *
+     * @return true if the task was coalesced with other tasks that are still registered. The scheduled future should
+     *         not be canceled in this case.
+     */
+    private boolean unregisterCoalescedPoll(PollTask task) {
+        for (Map.Entry<CoalescedPollScheduleKey, CoalescedPollSchedule> entry : coalescedPollSchedules.entrySet()) {
+            CoalescedPollSchedule schedule = entry.getValue();
+            if (!schedule.contains(task)) {
+                continue;
+            }
+            schedule.remove(task);
+            if (schedule.isEmpty()) {
+                coalescedPollSchedules.remove(entry.getKey());
+                return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
     @SuppressWarnings({ "null", "unused" })
     @Override
     public boolean unregisterRegularPoll(PollTask task) {
@@ -746,6 +1108,10 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.warn("Caller tried to unregister nonexisting poll task {}", task);
                 return false;
             }
+            if (unregisterCoalescedPoll(task)) {
+                logger.info("Unregistered regular poll task {}. Other coalesced poll tasks remain scheduled.", task);
+                return true;
+            }
             logger.info("Unregistering regular poll task {} (interrupting if necessary)", task);
 
             // Make sure connections to this endpoint are closed when they are returned to pool (which
@@ -802,6 +1168,35 @@ public class ModbusManagerImpl implements ModbusManager {
         return connectionFactory.getEndpointPoolConfiguration(endpoint);
     }
 
+    @Override
+    public ModbusEndpointStatistics getEndpointStatistics(ModbusSlaveEndpoint endpoint) {
+        int overdueTasks = 0;
+        long maxOverdueMillis = 0;
+        int activeThreads = 0;
+        ScheduledExecutorService scheduledThreadPoolExecutor = this.scheduledThreadPoolExecutor;
+        if (scheduledThreadPoolExecutor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor executor = ((ThreadPoolExecutor) scheduledThreadPoolExecutor);
+            // The queue holds every scheduled execution, including the regular polls waiting for their next
+            // period. Only executions that are already due are waiting for a free thread.
+            for (Runnable queued : executor.getQueue().toArray(new Runnable[0])) {
+                if (!(queued instanceof Delayed)) {
+                    continue;
+                }
+                long delayMillis = ((Delayed) queued).getDelay(TimeUnit.MILLISECONDS);
+                if (delayMillis <= 0) {
+                    overdueTasks++;
+                    maxOverdueMillis = Math.max(maxOverdueMillis, -delayMillis);
+                }
+            }
+            activeThreads = executor.getActiveCount();
+        }
+        return statistics(endpoint).snapshot(overdueTasks, maxOverdueMillis, activeThreads);
+    }
+
+    private EndpointStatisticsCollector statistics(ModbusSlaveEndpoint endpoint) {
+        return endpointStatistics.computeIfAbsent(endpoint, e -> new EndpointStatisticsCollector());
+    }
+
     @Override
     public void addListener(ModbusManagerListener listener) {
         listeners.add(listener);
@@ -821,6 +1216,17 @@ public class ModbusManagerImpl implements ModbusManager {
     protected void activate(Map<String, Object> configProperties) {
         synchronized (this) {
             logger.info("Modbus manager activated");
+            coalesceRegularPolls = Boolean.parseBoolean(
+                    String.valueOf(configProperties.getOrDefault(CONFIG_COALESCE_REGULAR_POLLS, Boolean.FALSE)));
+            try {
+                coalesceMaxGap = Math.max(0, Integer.parseInt(String.valueOf(
+                        configProperties.getOrDefault(CONFIG_COALESCE_MAX_GAP, DEFAULT_COALESCE_MAX_GAP))));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid {} configuration, using default of {}", CONFIG_COALESCE_MAX_GAP,
+                        DEFAULT_COALESCE_MAX_GAP);
+                coalesceMaxGap = DEFAULT_COALESCE_MAX_GAP;
+            }
+            logger.debug("Coalescing of regular polls enabled: {} (max gap {})", coalesceRegularPolls, coalesceMaxGap);
             if (connectionPool == null) {
                 constructConnectionPool();
             }
@@ -860,6 +1266,7 @@ public class ModbusManagerImpl implements ModbusManager {
             // when pool is received from ThreadPoolManager is called
             scheduledThreadPoolExecutor = null;
             connectionFactory = null;
+            endpointStatistics.clear();
             logger.debug("Modbus manager deactivated");
         }
     }
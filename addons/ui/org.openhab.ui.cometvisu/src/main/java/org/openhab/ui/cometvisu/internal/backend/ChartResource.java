@@ -8,15 +8,22 @@
  */
 package org.openhab.ui.cometvisu.internal.backend;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -31,6 +38,7 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 import org.eclipse.smarthome.core.items.GroupItem;
@@ -57,6 +65,10 @@ import org.slf4j.LoggerFactory;
  * handles requests for chart series data from the CometVisu client
  * used by the diagram plugin
  *
+ * Series of generic persistence services are consolidated to the requested
+ * resolution. Rendered series are cached for a short time, as usually many
+ * clients request the same charts.
+ *
  * @author Tobias Bräutigam
  *
  */
@@ -67,17 +79,45 @@ public class ChartResource implements RESTResource {
     // pattern RRDTool uses to format doubles in XML files
     static final String PATTERN = "0.0000000000E00";
 
-    static final DecimalFormat df;
+    // DecimalFormat is not thread safe
+    static final ThreadLocal<DecimalFormat> df = ThreadLocal.withInitial(() -> {
+        DecimalFormat format = (DecimalFormat) NumberFormat.getNumberInstance(Locale.ENGLISH);
+        format.applyPattern(PATTERN);
+        return format;
+    });
 
     protected static final String RRD_FOLDER = org.eclipse.smarthome.config.core.ConfigConstants.getUserDataFolder()
             + File.separator + "persistence" + File.separator + "rrd4j";
 
-    static {
-        df = (DecimalFormat) NumberFormat.getNumberInstance(Locale.ENGLISH);
-        df.applyPattern(PATTERN);
-        // df.setPositivePrefix("+");
+    // number of rendered series to cache
+    private static final int SERIES_CACHE_SIZE = 32;
+
+    // time to cache rendered series
+    private static final long SERIES_CACHE_TTL_MILLIS = 30000;
+
+    private static class CachedSeries {
+        final String json;
+        final long created = System.currentTimeMillis();
+
+        CachedSeries(String json) {
+            this.json = json;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() - created > SERIES_CACHE_TTL_MILLIS;
+        }
     }
 
+    private final Map<String, CachedSeries> seriesCache = Collections
+            .synchronizedMap(new LinkedHashMap<String, CachedSeries>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedSeries> eldest) {
+                    return size() > SERIES_CACHE_SIZE;
+                }
+            });
+
     protected static Map<String, QueryablePersistenceService> persistenceServices = new HashMap<String, QueryablePersistenceService>();
 
     private ItemRegistry itemRegistry;
@@ -160,24 +200,72 @@ public class ChartResource implements RESTResource {
             } else {
                 logger.debug("using {} persistence for item {}", persistenceService.getId(), itemName);
             }
-            Object data = null;
+            // relative times are part of the key, so the cached series are reused for the TTL of the cache
+            String cacheKey = persistenceService.getId() + ":" + itemName + ":" + consilidationFunction + ":" + start
+                    + ":" + end + ":" + resolution;
+            CachedSeries cachedSeries = seriesCache.get(cacheKey);
+            if (cachedSeries != null && !cachedSeries.isExpired()) {
+                logger.debug("using cached series for item {}", itemName);
+                return Response.ok(cachedSeries.json, responseType).build();
+            }
+
+            String data = null;
             if (persistenceService.getId().equals("rrd4j")) {
-                data = getRrdSeries(persistenceService, item, consilidationFunction, startTime, endTime, resolution);
-            } else {
-                data = getPersistenceSeries(persistenceService, item, startTime, endTime, resolution);
+                data = getRrdSeries(item, consilidationFunction, startTime, endTime, resolution);
             }
+            if (data == null) {
+                if (resolution <= 0) {
+                    // unconsolidated series can be large, stream it without caching
+                    final QueryablePersistenceService streamingService = persistenceService;
+                    final Item streamingItem = item;
+                    // the stream is written after this method has returned, so its errors are handled here
+                    StreamingOutput stream = output -> {
+                        try {
+                            Writer writer = new BufferedWriter(
+                                    new OutputStreamWriter(output, StandardCharsets.UTF_8));
+                            writePersistenceSeries(writer, streamingService, streamingItem, consilidationFunction,
+                                    startTime, endTime, resolution);
+                            writer.flush();
+                        } catch (IOException e) {
+                            logger.error("Error while writing series data: {}", e.getMessage());
+                        } catch (RuntimeException e) {
+                            logger.error("Error while querying series data of item '{}': {}", streamingItem.getName(),
+                                    e.getMessage(), e);
+                        }
+                    };
+                    return Response.ok(stream, responseType).build();
+                }
+                StringWriter writer = new StringWriter();
+                writePersistenceSeries(writer, persistenceService, item, consilidationFunction, startTime, endTime,
+                        resolution);
+                data = writer.toString();
+            }
+            seriesCache.put(cacheKey, new CachedSeries(data));
             return Response.ok(data, responseType).build();
         } catch (ItemNotFoundException e1) {
             logger.error("Item '{}' not found error while requesting series data.", itemName);
-
+        } catch (IOException e) {
+            logger.error("Error while writing series data: {}", e.getMessage());
         }
         return Response.serverError().build();
     }
 
-    public Object getPersistenceSeries(QueryablePersistenceService persistenceService, Item item, Date timeBegin,
-            Date timeEnd, long resolution) {
-        Map<Long, ArrayList<String>> data = new HashMap<Long, ArrayList<String>>();
-
+    /**
+     * writes the series of the item from the persistence service, consolidated
+     * to the resolution
+     *
+     * @param writer
+     * @param persistenceService
+     * @param item
+     * @param consilidationFunction
+     * @param timeBegin
+     * @param timeEnd
+     * @param resolution
+     *            - resolution in seconds, 0 to write all values
+     * @throws IOException
+     */
+    public void writePersistenceSeries(Writer writer, QueryablePersistenceService persistenceService, Item item,
+            ConsolFun consilidationFunction, Date timeBegin, Date timeEnd, long resolution) throws IOException {
         // Define the data filter
         FilterCriteria filter = new FilterCriteria();
         filter.setBeginDate(timeBegin);
@@ -189,36 +277,47 @@ public class ChartResource implements RESTResource {
         Iterable<HistoricItem> result = persistenceService.query(filter);
         Iterator<HistoricItem> it = result.iterator();
 
-        // Iterate through the data
+        ChartSeriesWriter seriesWriter = new ChartSeriesWriter(writer, consilidationFunction, resolution);
+        seriesWriter.start();
+
+        // Iterate through the data. A value is only written once the next timestamp is known, so that the last of the
+        // values with the same timestamp wins
         int dataCounter = 0;
+        long pendingTime = 0;
+        Double pendingValue = null;
         while (it.hasNext()) {
             dataCounter++;
             HistoricItem historicItem = it.next();
             org.eclipse.smarthome.core.types.State state = historicItem.getState();
             if (state instanceof DecimalType) {
-                ArrayList<String> vals = new ArrayList<String>();
-                vals.add(formatDouble(((DecimalType) state).doubleValue(), "null", true));
-                data.put(historicItem.getTimestamp().getTime(), vals);
+                long time = historicItem.getTimestamp().getTime();
+                if (pendingValue != null && time != pendingTime) {
+                    seriesWriter.addValue(pendingTime, pendingValue);
+                }
+                pendingTime = time;
+                pendingValue = ((DecimalType) state).doubleValue();
             }
         }
+        if (pendingValue != null) {
+            seriesWriter.addValue(pendingTime, pendingValue);
+        }
+        seriesWriter.end();
         logger.debug("'{}' querying item '{}' from '{}' to '{}' => '{}' results", persistenceService.getId(),
                 filter.getItemName(), filter.getBeginDate(), filter.getEndDate(), dataCounter);
-        return convertToRrd(data);
     }
 
     /**
      * returns a rrd series data, an array of [[timestamp,data1,data2,...]]
      *
-     * @param persistenceService
      * @param item
      * @param consilidationFunction
      * @param timeBegin
      * @param timeEnd
      * @param resolution
-     * @return
+     * @return the series as JSON, or null if the RRD files could not be read
      */
-    public Object getRrdSeries(QueryablePersistenceService persistenceService, Item item,
-            ConsolFun consilidationFunction, Date timeBegin, Date timeEnd, long resolution) {
+    public String getRrdSeries(Item item, ConsolFun consilidationFunction, Date timeBegin, Date timeEnd,
+            long resolution) {
         Map<Long, ArrayList<String>> data = new TreeMap<Long, ArrayList<String>>();
         try {
             List<String> itemNames = new ArrayList<String>();
@@ -235,28 +334,21 @@ public class ChartResource implements RESTResource {
                 addRrdData(data, itemName, consilidationFunction, timeBegin, timeEnd, resolution);
             }
 
+            StringWriter writer = new StringWriter();
+            ChartSeriesWriter seriesWriter = new ChartSeriesWriter(writer, consilidationFunction, 0);
+            seriesWriter.start();
+            for (Entry<Long, ArrayList<String>> row : data.entrySet()) {
+                seriesWriter.writeRow(row.getKey(), row.getValue());
+            }
+            seriesWriter.end();
+            return writer.toString();
         } catch (FileNotFoundException e) {
             // rrd file does not exist, fallback to generic persistance service
             logger.debug("no rrd file found '{}'", (RRD_FOLDER + File.separator + item.getName() + ".rrd"));
-            return getPersistenceSeries(persistenceService, item, timeBegin, timeEnd, resolution);
         } catch (Exception e) {
             logger.error("{}: fallback to generic persistance service", e.getLocalizedMessage());
-            return getPersistenceSeries(persistenceService, item, timeBegin, timeEnd, resolution);
-        }
-        return convertToRrd(data);
-    }
-
-    private ArrayList<Object> convertToRrd(Map<Long, ArrayList<String>> data) {
-        // sort data by key
-        Map<Long, ArrayList<String>> treeMap = new TreeMap<Long, ArrayList<String>>(data);
-        ArrayList<Object> rrd = new ArrayList<Object>();
-        for (Long time : treeMap.keySet()) {
-            Object[] entry = new Object[2];
-            entry[0] = time;
-            entry[1] = data.get(time);
-            rrd.add(entry);
         }
-        return rrd;
+        return null;
     }
 
     private Map<Long, ArrayList<String>> addRrdData(Map<Long, ArrayList<String>> data, String itemName,
@@ -295,7 +387,7 @@ public class ChartResource implements RESTResource {
             return nanString;
         }
         if (forceExponents) {
-            return df.format(x);
+            return df.get().format(x);
         }
         return "" + x;
     }
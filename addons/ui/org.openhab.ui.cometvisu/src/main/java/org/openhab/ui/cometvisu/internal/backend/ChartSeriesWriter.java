@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.ui.cometvisu.internal.backend;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.List;
+
+import org.rrd4j.ConsolFun;
+
+/**
+ * Writes chart series data incrementally in the format expected by the CometVisu diagram plugin, a JSON array of
+ * <code>[timestamp,["value1","value2",...]]</code> rows.
+ *
+ * Single values can be consolidated into buckets of the requested resolution, like RRD does. The buckets are aligned
+ * to the epoch and identified by their start time. Values must be added in ascending order of time.
+ *
+ * @author agent - Initial contribution
+ */
+class ChartSeriesWriter {
+
+    private final Writer writer;
+
+    private final ConsolFun consolidationFunction;
+
+    private final long bucketMillis;
+
+    private boolean firstRow = true;
+
+    /* state of the current bucket */
+    private long bucketStart;
+    private int count = 0;
+    private double first;
+    private double last;
+    private double min;
+    private double max;
+    private double sum;
+
+    /**
+     *
+     * @param writer writer to write the JSON to
+     * @param consolidationFunction function to consolidate the values of a bucket with
+     * @param resolution bucket size in seconds, or 0 to write all values without consolidation
+     */
+    ChartSeriesWriter(Writer writer, ConsolFun consolidationFunction, long resolution) {
+        this.writer = writer;
+        this.consolidationFunction = consolidationFunction;
+        this.bucketMillis = resolution * 1000;
+    }
+
+    void start() throws IOException {
+        writer.write('[');
+    }
+
+    /**
+     * Adds a single value, which is consolidated with the other values of the same bucket
+     *
+     * @param time timestamp in milliseconds
+     * @param value the value
+     */
+    void addValue(long time, double value) throws IOException {
+        if (bucketMillis <= 0) {
+            writeRow(time, Collections.singletonList(ChartResource.formatDouble(value, "null", true)));
+            return;
+        }
+        long bucket = time - Math.floorMod(time, bucketMillis);
+        if (count > 0 && bucket != bucketStart) {
+            writeBucket();
+        }
+        if (count == 0) {
+            bucketStart = bucket;
+            first = value;
+            min = value;
+            max = value;
+            sum = 0;
+        }
+        last = value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+        count++;
+    }
+
+    /**
+     * Writes a row of already consolidated values
+     *
+     * @param time timestamp in milliseconds
+     * @param values formatted values
+     */
+    void writeRow(long time, List<String> values) throws IOException {
+        if (!firstRow) {
+            writer.write(',');
+        }
+        firstRow = false;
+        writer.write('[');
+        writer.write(Long.toString(time));
+        writer.write(",[");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write('"');
+            writer.write(values.get(i));
+            writer.write('"');
+        }
+        writer.write("]]");
+    }
+
+    void end() throws IOException {
+        if (count > 0) {
+            writeBucket();
+        }
+        writer.write(']');
+    }
+
+    private void writeBucket() throws IOException {
+        double value;
+        switch (consolidationFunction) {
+            case MIN:
+                value = min;
+                break;
+            case MAX:
+                value = max;
+                break;
+            case FIRST:
+                value = first;
+                break;
+            case LAST:
+                value = last;
+                break;
+            case TOTAL:
+                value = sum;
+                break;
+            default:
+                value = sum / count;
+                break;
+        }
+        writeRow(bucketStart, Collections.singletonList(ChartResource.formatDouble(value, "null", true)));
+        count = 0;
+    }
+}
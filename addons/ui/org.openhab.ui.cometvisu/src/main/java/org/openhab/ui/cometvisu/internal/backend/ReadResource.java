@@ -14,9 +14,10 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -35,12 +36,10 @@ import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.io.rest.RESTResource;
 import org.glassfish.jersey.media.sse.EventOutput;
-import org.glassfish.jersey.media.sse.SseBroadcaster;
 import org.glassfish.jersey.media.sse.SseFeature;
 import org.openhab.ui.cometvisu.internal.Config;
 import org.openhab.ui.cometvisu.internal.backend.beans.StateBean;
 import org.openhab.ui.cometvisu.internal.listeners.StateEventListener;
-import org.openhab.ui.cometvisu.internal.util.SseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,22 +47,22 @@ import org.slf4j.LoggerFactory;
  * handles read request from the CometVisu client every request initializes a
  * SSE communication
  *
+ * Each client only receives the state updates of the items it has requested.
+ *
  * @author Tobias Bräutigam
  */
 @Path(Config.COMETVISU_BACKEND_ALIAS + "/" + Config.COMETVISU_BACKEND_READ_ALIAS)
 public class ReadResource implements EventBroadcaster, RESTResource {
     private final Logger logger = LoggerFactory.getLogger(ReadResource.class);
 
-    private SseBroadcaster broadcaster = new SseBroadcaster();
-
-    private final ExecutorService executorService;
-
     private ItemRegistry itemRegistry;
 
     private StateEventListener stateEventListener;
 
-    private List<String> itemNames = new ArrayList<String>();
-    private Map<Item, Map<String, Class<? extends State>>> items = new HashMap<Item, Map<String, Class<? extends State>>>();
+    /**
+     * openHAB item name -> clients that have subscribed to the item
+     */
+    private final Map<String, Set<SseClient>> clientsByItemName = new ConcurrentHashMap<>();
 
     @Context
     private UriInfo uriInfo;
@@ -77,7 +76,6 @@ public class ReadResource implements EventBroadcaster, RESTResource {
     private Collection<ItemFactory> itemFactories = new CopyOnWriteArrayList<ItemFactory>();
 
     public ReadResource() {
-        this.executorService = Executors.newSingleThreadExecutor();
         this.stateEventListener = new StateEventListener();
         this.stateEventListener.setEventBroadcaster(this);
     }
@@ -114,55 +112,65 @@ public class ReadResource implements EventBroadcaster, RESTResource {
             @QueryParam("t") long time) throws IOException, InterruptedException {
         final EventOutput eventOutput = new EventOutput();
 
-        this.itemNames = itemNames;
+        // get all requested items
+        Map<String, Map<String, Class<? extends State>>> clientItems = new HashMap<>();
+        for (String cvItemName : itemNames) {
+            String[] parts = cvItemName.split(":");
+            String ohItemName = cvItemName;
+            Class<? extends State> stateClass = null;
+            if (parts.length == 2) {
+                String classPrefix = parts[0].toLowerCase();
+                if (Config.itemTypeMapper.containsKey(classPrefix)) {
+                    stateClass = Config.itemTypeMapper.get(classPrefix);
+                } else {
+                    logger.debug("no type found for '{}'", classPrefix);
+                }
+                ohItemName = parts[1];
+            }
+            if (!clientItems.containsKey(ohItemName)) {
+                clientItems.put(ohItemName, new HashMap<String, Class<? extends State>>());
+            }
+            clientItems.get(ohItemName).put(cvItemName, stateClass);
+        }
 
-        broadcaster.add(eventOutput);
+        // Subscribe the client before reading the current states, so that no state change is missed in between
+        SseClient client = new SseClient(eventOutput, clientItems, this::removeClient);
+        for (String ohItemName : clientItems.keySet()) {
+            clientsByItemName.compute(ohItemName, (name, clients) -> {
+                Set<SseClient> itemClients = clients != null ? clients : new CopyOnWriteArraySet<>();
+                itemClients.add(client);
+                return itemClients;
+            });
+            // listen to state changes of the requested items
+            registerItem(ohItemName);
+        }
 
-        // get all requested items and send their states to the client
-        items = new HashMap<Item, Map<String, Class<? extends State>>>();
         // send the current states of all items to the client
+        List<StateBean> states = new ArrayList<StateBean>();
         if (this.itemRegistry != null) {
-            List<StateBean> states = new ArrayList<StateBean>();
-            for (String cvItemName : itemNames) {
+            for (Map.Entry<String, Map<String, Class<? extends State>>> clientItem : clientItems.entrySet()) {
                 try {
-                    String[] parts = cvItemName.split(":");
-                    String ohItemName = cvItemName;
-                    Class<? extends State> stateClass = null;
-                    if (parts.length == 2) {
-                        String classPrefix = parts[0].toLowerCase();
-                        if (Config.itemTypeMapper.containsKey(classPrefix)) {
-                            stateClass = Config.itemTypeMapper.get(classPrefix);
-                            classPrefix += ":";
+                    Item item = this.itemRegistry.getItem(clientItem.getKey());
+                    for (Map.Entry<String, Class<? extends State>> entry : clientItem.getValue().entrySet()) {
+                        Class<? extends State> stateClass = entry.getValue();
+                        StateBean itemState = new StateBean();
+                        itemState.name = entry.getKey();
+
+                        if (stateClass != null) {
+                            itemState.state = item.getStateAs(stateClass).toString();
+                            logger.trace("get state of '{}' as '{}' == '{}'", item, stateClass, itemState.state);
                         } else {
-                            logger.debug("no type found for '{}'", classPrefix);
-                            classPrefix = "";
+                            itemState.state = item.getState().toString();
                         }
-                        ohItemName = parts[1];
-                    }
-                    Item item = this.itemRegistry.getItem(ohItemName);
-                    if (!items.containsKey(item)) {
-                        items.put(item, new HashMap<String, Class<? extends State>>());
-                    }
-                    items.get(item).put(cvItemName, stateClass);
-                    StateBean itemState = new StateBean();
-                    itemState.name = cvItemName;
-
-                    if (stateClass != null) {
-                        itemState.state = item.getStateAs(stateClass).toString();
-                        logger.trace("get state of '{}' as '{}' == '{}'", item, stateClass, itemState.state);
-                    } else {
-                        itemState.state = item.getState().toString();
+                        states.add(itemState);
                     }
-                    states.add(itemState);
                 } catch (ItemNotFoundException e) {
                     logger.error("{}", e.getLocalizedMessage());
                 }
             }
-            logger.debug("initially broadcasting {}/{} item states", states.size(), itemNames.size());
-            broadcaster.broadcast(SseUtil.buildEvent(states));
         }
-        // listen to state changes of the requested items
-        registerItems();
+        logger.debug("initially sending {}/{} item states", states.size(), itemNames.size());
+        client.send(states);
 
         return eventOutput;
     }
@@ -172,10 +180,8 @@ public class ReadResource implements EventBroadcaster, RESTResource {
      */
     @Override
     public void registerItems() {
-        for (Item item : items.keySet()) {
-            if (item instanceof GenericItem) {
-                ((GenericItem) item).addStateChangeListener(stateEventListener);
-            }
+        for (String itemName : clientsByItemName.keySet()) {
+            registerItem(itemName);
         }
     }
 
@@ -188,7 +194,7 @@ public class ReadResource implements EventBroadcaster, RESTResource {
      */
     @Override
     public void registerItem(Item item) {
-        if (item == null || items.containsKey(item) || !itemNames.contains(item.getName())) {
+        if (item == null || !clientsByItemName.containsKey(item.getName())) {
             return;
         }
         if (item instanceof GenericItem) {
@@ -196,42 +202,71 @@ public class ReadResource implements EventBroadcaster, RESTResource {
         }
     }
 
+    private void registerItem(String itemName) {
+        if (this.itemRegistry != null) {
+            registerItem(this.itemRegistry.get(itemName));
+        }
+    }
+
     /**
-     * listens to state changes of the given item, if it is part of the
-     * requested items
+     * stops listening to state changes of the given item
      *
      * @param item
-     *            - the new item, that should be listened to
+     *            - the item, that should not be listened to anymore
      */
     @Override
     public void unregisterItem(Item item) {
-        if (item == null || items.containsKey(item) || !itemNames.contains(item.getName())) {
-            return;
-        }
         if (item instanceof GenericItem) {
             ((GenericItem) item).removeStateChangeListener(stateEventListener);
-            items.remove(item);
         }
     }
 
     /**
-     * Broadcasts an event described by the given parameters to all currently
-     * listening clients.
+     * Sends the state of the given item to all clients that have subscribed to
+     * it.
      *
      * @param item
      *            - the item which has changed
-     * @param eventObject
-     *            - bean that can be converted to a JSON object.
+     * @param typedOnly
+     *            - only send the state to subscriptions with a requested state type
      */
     @Override
-    public void broadcastEvent(final Object eventObject) {
-        executorService.execute(() -> {
-            broadcaster.broadcast(SseUtil.buildEvent(eventObject));
-        });
+    public void broadcastItemState(Item item, boolean typedOnly) {
+        Set<SseClient> clients = clientsByItemName.get(item.getName());
+        if (clients == null) {
+            unregisterItem(item);
+            return;
+        }
+        // the state is converted only once for all clients requesting the same state type
+        Map<Class<? extends State>, String> convertedStates = new HashMap<>();
+        for (SseClient client : clients) {
+            if (client.isClosed()) {
+                client.close();
+                continue;
+            }
+            Map<String, Class<? extends State>> clientItems = client.getItems().get(item.getName());
+            for (Map.Entry<String, Class<? extends State>> entry : clientItems.entrySet()) {
+                Class<? extends State> stateClass = entry.getValue();
+                if (typedOnly && stateClass == null) {
+                    continue;
+                }
+                String state = convertedStates.computeIfAbsent(stateClass,
+                        type -> type != null ? item.getStateAs(type).toString() : item.getState().toString());
+                client.queue(entry.getKey(), state);
+            }
+        }
     }
 
-    @Override
-    public Map<String, Class<? extends State>> getClientItems(Item item) {
-        return items.get(item);
+    /**
+     * Removes a disconnected client from all items it has subscribed to. Called when the client is closed.
+     */
+    private void removeClient(SseClient client) {
+        logger.debug("removing disconnected client");
+        for (String itemName : client.getItems().keySet()) {
+            clientsByItemName.computeIfPresent(itemName, (name, clients) -> {
+                clients.remove(client);
+                return clients.isEmpty() ? null : clients;
+            });
+        }
     }
 }
@@ -0,0 +1,245 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.ui.cometvisu.internal.backend;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.eclipse.smarthome.core.types.State;
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.openhab.ui.cometvisu.internal.backend.beans.StateBean;
+import org.openhab.ui.cometvisu.internal.util.SseUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A CometVisu client connected by SSE, with the items it has subscribed to.
+ *
+ * State updates are queued per client and sent together after a short delay. Only the latest state of each item is
+ * queued, so repeated updates of the same item are coalesced and a slow client only gets the latest states instead of
+ * all the stale ones.
+ *
+ * All writes to the client are done by a thread pool shared by all clients, one at a time, so that a slow
+ * client does not block the callers. A heartbeat is sent periodically, so that a disconnected client is noticed even if
+ * none of its items change.
+ *
+ * @author agent - Initial contribution
+ */
+public class SseClient {
+    private final Logger logger = LoggerFactory.getLogger(SseClient.class);
+
+    /**
+     * Time to collect state updates before sending them to the client
+     */
+    static final long COALESCE_WINDOW_MILLIS = 50;
+
+    /**
+     * Interval of the heartbeats detecting disconnected clients
+     */
+    static final long HEARTBEAT_INTERVAL_SECONDS = 30;
+
+    private static final String THREADPOOL_NAME = "cometvisu-sse";
+
+    private final EventOutput eventOutput;
+
+    /**
+     * openHAB item name -> (CometVisu item name -> requested state type)
+     */
+    private final Map<String, Map<String, Class<? extends State>>> items;
+
+    private final Consumer<SseClient> closeListener;
+
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(THREADPOOL_NAME);
+
+    private final ScheduledFuture<?> heartbeatJob;
+
+    private ScheduledFuture<?> flushJob;
+
+    /**
+     * Held while writing to the client, so that the events are written one at a time and in order
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * CometVisu item name -> latest state not yet sent to the client
+     */
+    private final Map<String, String> pendingStates = new LinkedHashMap<>();
+
+    private boolean flushScheduled = false;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     *
+     * @param eventOutput output of the SSE connection
+     * @param items the subscribed items, openHAB item name -> (CometVisu item name -> requested state type or null)
+     * @param closeListener called once when the connection to the client is closed
+     */
+    public SseClient(EventOutput eventOutput, Map<String, Map<String, Class<? extends State>>> items,
+            Consumer<SseClient> closeListener) {
+        this.eventOutput = eventOutput;
+        this.items = items;
+        this.closeListener = closeListener;
+        this.heartbeatJob = scheduler.scheduleWithFixedDelay(this::sendHeartbeat, HEARTBEAT_INTERVAL_SECONDS,
+                HEARTBEAT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @return the subscribed items, openHAB item name -> (CometVisu item name -> requested state type or null)
+     */
+    public Map<String, Map<String, Class<? extends State>>> getItems() {
+        return items;
+    }
+
+    /**
+     * @return true if the connection to the client is closed
+     */
+    public boolean isClosed() {
+        return closed.get() || eventOutput.isClosed();
+    }
+
+    /**
+     * Sends the states to the client without delay. State updates queued before this call take precedence over the
+     * given states of the same items, and state updates queued after this call are sent after them.
+     *
+     * @param states states to send
+     */
+    public void send(List<StateBean> states) {
+        if (isClosed()) {
+            return;
+        }
+        synchronized (pendingStates) {
+            for (StateBean state : states) {
+                pendingStates.putIfAbsent(state.name, state.state);
+            }
+            flushScheduled = true;
+        }
+        schedule(this::flush, 0);
+    }
+
+    /**
+     * Queues a state update. A previously queued state of the same item is replaced.
+     *
+     * @param cvItemName CometVisu item name
+     * @param state the new state
+     */
+    public void queue(String cvItemName, String state) {
+        if (isClosed()) {
+            return;
+        }
+        synchronized (pendingStates) {
+            // remove first so that the item is moved to the end of the queue
+            pendingStates.remove(cvItemName);
+            pendingStates.put(cvItemName, state);
+            if (flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        schedule(this::flush, COALESCE_WINDOW_MILLIS);
+    }
+
+    /**
+     * Sends all queued states to the client. States which are queued while sending are sent in the next round.
+     */
+    private void flush() {
+        synchronized (writeLock) {
+            List<StateBean> states = new ArrayList<>();
+            synchronized (pendingStates) {
+                for (Map.Entry<String, String> entry : pendingStates.entrySet()) {
+                    StateBean stateBean = new StateBean();
+                    stateBean.name = entry.getKey();
+                    stateBean.state = entry.getValue();
+                    states.add(stateBean);
+                }
+                pendingStates.clear();
+            }
+            if (!states.isEmpty()) {
+                write(SseUtil.buildEvent(states));
+            }
+        }
+        synchronized (pendingStates) {
+            if (pendingStates.isEmpty() || isClosed()) {
+                flushScheduled = false;
+                return;
+            }
+        }
+        // more states were queued while sending
+        schedule(this::flush, COALESCE_WINDOW_MILLIS);
+    }
+
+    private void sendHeartbeat() {
+        synchronized (writeLock) {
+            write(new OutboundEvent.Builder().comment("heartbeat").build());
+        }
+    }
+
+    /**
+     * Writes the event to the client. Only called while holding the write lock.
+     */
+    private void write(OutboundEvent event) {
+        if (isClosed()) {
+            close();
+            return;
+        }
+        try {
+            eventOutput.write(event);
+        } catch (IOException e) {
+            logger.debug("Failed to send to the client: {}", e.getMessage());
+            close();
+        }
+    }
+
+    private void schedule(Runnable task, long delayMillis) {
+        synchronized (pendingStates) {
+            if (closed.get()) {
+                return;
+            }
+            try {
+                flushJob = scheduler.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Failed to schedule sending to the client: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Closes the connection to the client
+     */
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        heartbeatJob.cancel(false);
+        synchronized (pendingStates) {
+            if (flushJob != null) {
+                flushJob.cancel(false);
+                flushJob = null;
+            }
+            pendingStates.clear();
+        }
+        try {
+            eventOutput.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close the connection to the client: {}", e.getMessage());
+        }
+        closeListener.accept(this);
+    }
+}
@@ -96,6 +96,8 @@ public class CometVisuServlet extends HttpServlet {
     private static final long DEFAULT_EXPIRE_TIME = 604800000L; // ..ms = 1
                                                                 // week.
     private static final String MULTIPART_BOUNDARY = "MULTIPART_BYTERANGES";
+    private static final long FILE_CACHE_SIZE = 32 * 1024 * 1024; // ..bytes = 32MB.
+    private static final long FILE_CACHE_MAX_FILE_SIZE = 1024 * 1024; // ..bytes = 1MB.
 
     private Pattern sitemapPattern = Pattern.compile(".*/visu_config_?(oh_)?([^\\.]+)?\\.xml");
     private Pattern configStorePattern = Pattern.compile("config/visu_config_oh_([a-z0-9_]+)\\.xml");
@@ -117,6 +119,8 @@ public class CometVisuServlet extends HttpServlet {
 
     private CometVisuApp cometVisuApp;
 
+    private final StaticFileCache fileCache = new StaticFileCache(FILE_CACHE_SIZE, FILE_CACHE_MAX_FILE_SIZE);
+
     public CometVisuServlet(String filesystemDir, CometVisuApp cometVisuApp) {
         root = filesystemDir;
         rootFolder = new File(root);
@@ -570,11 +574,24 @@ public class CometVisuServlet extends HttpServlet {
             return;
         }
 
-        // Prepare some variables. The ETag is an unique identifier of the file.
+        // Get content type by file name
         String fileName = file.getName();
+        String contentType = getServletContext().getMimeType(fileName);
+
+        // If content type is unknown, then set the default value.
+        // For all content types, see:
+        // http://www.w3schools.com/media/media_mimeref.asp
+        // To add new content types, add new mime-mapping entry in web.xml.
+        if (contentType == null) {
+            contentType = "application/octet-stream";
+        }
+        boolean compressible = isCompressible(contentType);
+
+        // Prepare some variables. The ETag is an unique identifier of the file version. The conditional requests are
+        // answered without reading the file.
         long length = file.length();
         long lastModified = file.lastModified();
-        String eTag = fileName + "_" + length + "_" + lastModified;
+        String eTag = StaticFileCache.createETag(length, lastModified);
         long expires = System.currentTimeMillis() + DEFAULT_EXPIRE_TIME;
 
         // Validate request headers for caching
@@ -697,27 +714,23 @@ public class CometVisuServlet extends HttpServlet {
         // Prepare and initialize response
         // --------------------------------------------------------
 
-        // Get content type by file name and set default GZIP support and
-        // content disposition.
-        String contentType = getServletContext().getMimeType(fileName);
+        // Set default GZIP support and content disposition.
         boolean acceptsGzip = false;
         String disposition = "inline";
 
-        // If content type is unknown, then set the default value.
-        // For all content types, see:
-        // http://www.w3schools.com/media/media_mimeref.asp
-        // To add new content types, add new mime-mapping entry in web.xml.
-        if (contentType == null) {
-            contentType = "application/octet-stream";
+        // If content type is compressible, then determine whether GZIP content
+        // encoding is supported by the browser. Files which are not cached are
+        // only gzipped on the fly for text content.
+        boolean cacheable = fileCache.isCacheable(length);
+        if (compressible && (cacheable || contentType.startsWith("text"))) {
+            String acceptEncoding = request.getHeader("Accept-Encoding");
+            acceptsGzip = acceptEncoding != null && accepts(acceptEncoding, "gzip");
+            response.setHeader("Vary", "Accept-Encoding");
         }
 
-        // If content type is text, then determine whether GZIP content encoding
-        // is supported by
-        // the browser and expand content type with the one and right character
-        // encoding.
+        // If content type is text, then expand content type with the one and
+        // right character encoding.
         if (contentType.startsWith("text")) {
-            String acceptEncoding = request.getHeader("Accept-Encoding");
-            acceptsGzip = acceptEncoding != null && accepts(acceptEncoding, "gzip");
             contentType += ";charset=UTF-8";
         }
 
@@ -736,6 +749,7 @@ public class CometVisuServlet extends HttpServlet {
         response.setHeader("ETag", eTag);
         response.setDateHeader("Last-Modified", lastModified);
         response.setDateHeader("Expires", expires);
+        response.setHeader("Cache-Control", "public, max-age=" + DEFAULT_EXPIRE_TIME / 1000);
 
         // Send requested file (part(s)) to client
         // ------------------------------------------------
@@ -746,7 +760,6 @@ public class CometVisuServlet extends HttpServlet {
 
         try {
             // Open streams.
-            input = new RandomAccessFile(file, "r");
             output = response.getOutputStream();
 
             if (ranges.isEmpty() || ranges.get(0) == full) {
@@ -756,7 +769,20 @@ public class CometVisuServlet extends HttpServlet {
                 response.setContentType(contentType);
                 response.setHeader("Content-Range", "bytes " + r.start + "-" + r.end + "/" + r.total);
 
-                if (content) {
+                // Small files are served from the cache, which also provides the
+                // gzipped content. The file is read only when its content is sent.
+                StaticFileCache.CachedFile cachedFile = content && cacheable ? fileCache.get(file, compressible)
+                        : null;
+                if (cachedFile != null) {
+                    // Write the cached content, which has been gzipped beforehand
+                    byte[] data = acceptsGzip ? cachedFile.getGzippedContent() : cachedFile.getContent();
+                    if (acceptsGzip) {
+                        response.setHeader("Content-Encoding", "gzip");
+                    }
+                    response.setHeader("Content-Length", String.valueOf(data.length));
+                    output.write(data);
+                } else if (content) {
+                    input = new RandomAccessFile(file, "r");
                     if (acceptsGzip) {
                         // The browser accepts GZIP, so GZIP the content.
                         response.setHeader("Content-Encoding", "gzip");
@@ -784,6 +810,7 @@ public class CometVisuServlet extends HttpServlet {
 
                 if (content) {
                     // Copy single part range.
+                    input = new RandomAccessFile(file, "r");
                     copy(input, output, r.start, r.length);
                 }
 
@@ -797,6 +824,7 @@ public class CometVisuServlet extends HttpServlet {
                     // Cast back to ServletOutputStream to get the easy println
                     // methods.
                     ServletOutputStream sos = (ServletOutputStream) output;
+                    input = new RandomAccessFile(file, "r");
 
                     // Copy multi part range.
                     for (Range r : ranges) {
@@ -1088,6 +1116,19 @@ public class CometVisuServlet extends HttpServlet {
                 || Arrays.binarySearch(acceptValues, "*/*") > -1;
     }
 
+    /**
+     * Returns true if content of the given type should be compressed.
+     *
+     * @param contentType
+     *            The content type.
+     * @return True if content of the given type should be compressed.
+     */
+    private static boolean isCompressible(String contentType) {
+        return contentType.startsWith("text") || contentType.equals("application/javascript")
+                || contentType.equals("application/x-javascript") || contentType.equals("application/json")
+                || contentType.equals("application/xml") || contentType.equals("image/svg+xml");
+    }
+
     /**
      * Returns true if the given match header matches the given value.
      *
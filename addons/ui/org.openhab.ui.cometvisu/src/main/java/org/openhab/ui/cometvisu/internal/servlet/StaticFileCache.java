@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.ui.cometvisu.internal.servlet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Size bounded in-memory cache of static files served by the {@link CometVisuServlet}.
+ *
+ * Compressible files are gzipped once when they are read. A cached file is read again when its size or modification
+ * time has changed. The least recently used files are evicted when the cache exceeds its size.
+ *
+ * The ETag of a file is derived from its size and modification time, so that conditional requests can be answered
+ * without reading the file.
+ *
+ * @author agent - Initial contribution
+ */
+public class StaticFileCache {
+    private final Logger logger = LoggerFactory.getLogger(StaticFileCache.class);
+
+    /**
+     * A cached file
+     */
+    public static class CachedFile {
+        private final long length;
+        private final long lastModified;
+        private final byte[] content;
+        private final byte[] gzippedContent;
+
+        CachedFile(long length, long lastModified, byte[] content, byte[] gzippedContent) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.content = content;
+            this.gzippedContent = gzippedContent;
+        }
+
+        /**
+         * @return the content of the file
+         */
+        public byte[] getContent() {
+            return content;
+        }
+
+        /**
+         * @return the gzipped content of the file, or null if the file is not compressible
+         */
+        public byte[] getGzippedContent() {
+            return gzippedContent;
+        }
+
+        long getSize() {
+            return content.length + (gzippedContent != null ? gzippedContent.length : 0);
+        }
+    }
+
+    private final long maxSize;
+
+    private final long maxFileSize;
+
+    private long size = 0;
+
+    private final Map<File, CachedFile> files = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     *
+     * @param maxSize maximum total size of the cached content in bytes
+     * @param maxFileSize maximum size of a single file to cache in bytes
+     */
+    public StaticFileCache(long maxSize, long maxFileSize) {
+        this.maxSize = maxSize;
+        this.maxFileSize = maxFileSize;
+    }
+
+    /**
+     * Checks whether a file of the given size can be cached
+     *
+     * @param length size of the file in bytes
+     * @return true if the file is small enough to be cached
+     */
+    public boolean isCacheable(long length) {
+        return length <= maxFileSize;
+    }
+
+    /**
+     * Creates the ETag of a file version
+     *
+     * @param length size of the file in bytes, see {@link File#length()}
+     * @param lastModified modification time of the file, see {@link File#lastModified()}
+     * @return strong ETag
+     */
+    public static String createETag(long length, long lastModified) {
+        return '"' + Long.toHexString(length) + '-' + Long.toHexString(lastModified) + '"';
+    }
+
+    /**
+     * Returns the cached file, reading it if it is not cached yet or has been modified.
+     *
+     * @param file the file
+     * @param compressible whether the file should be gzipped
+     * @return the cached file, or null if the file is too large to be cached or could not be read
+     */
+    public CachedFile get(File file, boolean compressible) {
+        long length = file.length();
+        long lastModified = file.lastModified();
+
+        synchronized (this) {
+            CachedFile cachedFile = files.get(file);
+            if (cachedFile != null) {
+                if (cachedFile.length == length && cachedFile.lastModified == lastModified) {
+                    return cachedFile;
+                }
+                remove(file);
+            }
+        }
+        if (!isCacheable(length)) {
+            return null;
+        }
+
+        CachedFile cachedFile;
+        try {
+            byte[] content = Files.readAllBytes(file.toPath());
+            if (content.length != length) {
+                // file is being modified
+                return null;
+            }
+            byte[] gzippedContent = compressible ? gzip(content) : null;
+            cachedFile = new CachedFile(length, lastModified, content, gzippedContent);
+        } catch (IOException e) {
+            logger.debug("Cannot read file '{}' into the cache: {}", file, e.getMessage());
+            return null;
+        }
+
+        synchronized (this) {
+            remove(file);
+            files.put(file, cachedFile);
+            size += cachedFile.getSize();
+            Iterator<CachedFile> it = files.values().iterator();
+            while (size > maxSize && it.hasNext()) {
+                size -= it.next().getSize();
+                it.remove();
+            }
+        }
+        return cachedFile;
+    }
+
+    /**
+     * Removes all files from the cache
+     */
+    public synchronized void clear() {
+        files.clear();
+        size = 0;
+    }
+
+    private void remove(File file) {
+        CachedFile cachedFile = files.remove(file);
+        if (cachedFile != null) {
+            size -= cachedFile.getSize();
+        }
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 3 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -10,16 +10,34 @@ package org.openhab.voice.marytts.internal;
 
 import static javax.sound.sampled.AudioSystem.NOT_SPECIFIED;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.text.BreakIterator;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.io.IOUtils;
+import org.eclipse.smarthome.config.core.ConfigurableService;
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioStream;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.voice.TTSException;
 import org.eclipse.smarthome.core.voice.TTSService;
+import org.openhab.voice.ttscache.TTSCache;
+import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,16 +50,57 @@ import marytts.modules.synthesis.Voice;
 /**
  * This is a TTS service implementation for using MaryTTS.
  *
+ * Requests are synthesized concurrently by a pool of MaryTTS interpreters. Optionally, texts of several sentences are
+ * streamed, i.e. the audio is returned as soon as the first sentence is synthesized.
+ *
  * @author Kelly Davis - Initial contribution and API
  * @author Kai Kreuzer - Refactored to updated APIs and moved to openHAB
  */
-@Component
+@Component(configurationPid = "org.openhab.marytts", property = { Constants.SERVICE_PID + "=org.openhab.marytts",
+        ConfigurableService.SERVICE_PROPERTY_DESCRIPTION_URI + "=voice:marytts",
+        ConfigurableService.SERVICE_PROPERTY_LABEL + "=Mary Text-to-Speech",
+        ConfigurableService.SERVICE_PROPERTY_CATEGORY + "=voice" })
 public class MaryTTSService implements TTSService {
 
+    private static final String THREADPOOL_NAME = "marytts";
+
+    private static final String CONFIG_POOL_SIZE = "poolSize";
+    private static final String CONFIG_STREAMING = "streaming";
+
+    private static final int DEFAULT_POOL_SIZE = 2;
+
+    /**
+     * Maximum time in seconds to wait for an interpreter when all are busy
+     */
+    private static final long INTERPRETER_TIMEOUT = 60;
+
+    /**
+     * Text synthesized for every voice on activation, so that the first announcement is not delayed by loading it
+     */
+    private static final String WARM_UP_TEXT = "openHAB";
+
     private final Logger logger = LoggerFactory.getLogger(MaryTTSService.class);
 
+    private final ExecutorService executor = ThreadPoolManager.getPool(THREADPOOL_NAME);
+
     private MaryInterface marytts;
 
+    private TTSCache ttsCache;
+
+    /**
+     * Idle interpreters of the pool
+     */
+    private final BlockingQueue<MaryInterface> interpreters = new LinkedBlockingQueue<>();
+
+    /**
+     * Number of idle and busy interpreters, guarded by {@link #interpreters}
+     */
+    private int interpreterCount;
+
+    private volatile int poolSize = DEFAULT_POOL_SIZE;
+
+    private volatile boolean streaming;
+
     /**
      * Set of supported voices
      */
@@ -52,14 +111,49 @@ public class MaryTTSService implements TTSService {
      */
     private Set<AudioFormat> audioFormats;
 
-    protected void activate() {
+    protected void activate(Map<String, Object> config) {
         try {
             marytts = new LocalMaryInterface();
             voices = initVoices();
             audioFormats = initAudioFormats();
         } catch (MaryConfigurationException e) {
             logger.error("Failed to initialize MaryTTS: {}", e.getMessage(), e);
+            return;
+        }
+        modified(config);
+        warmUp();
+    }
+
+    @Modified
+    protected void modified(Map<String, Object> config) {
+        if (config != null) {
+            Object poolSizeValue = config.get(CONFIG_POOL_SIZE);
+            try {
+                poolSize = poolSizeValue == null ? DEFAULT_POOL_SIZE
+                        : Math.max(1, Integer.parseInt(poolSizeValue.toString()));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid pool size '{}', using {}", poolSizeValue, DEFAULT_POOL_SIZE);
+                poolSize = DEFAULT_POOL_SIZE;
+            }
+            Object streamingValue = config.get(CONFIG_STREAMING);
+            streaming = streamingValue != null && Boolean.parseBoolean(streamingValue.toString());
         }
+        resizePool();
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        poolSize = 0;
+        resizePool();
+    }
+
+    @Reference
+    protected void setTTSCache(TTSCache ttsCache) {
+        this.ttsCache = ttsCache;
+    }
+
+    protected void unsetTTSCache(TTSCache ttsCache) {
+        this.ttsCache = null;
     }
 
     @Override
@@ -109,19 +203,197 @@ public class MaryTTSService implements TTSService {
          */
         Voice maryTTSVoice = Voice.getVoice(voice.getLabel());
         AudioFormat maryTTSVoiceAudioFormat = getAudioFormat(maryTTSVoice.dbAudioFormat());
+        String key = voice.getUID() + "|" + text;
 
-        // Synchronize on marytts
-        synchronized (marytts) {
-            // Set voice (Each voice supports only a single AudioFormat)
-            marytts.setLocale(voice.getLocale());
-            marytts.setVoice(voice.getLabel());
+        byte[] rawAudio;
+        if (streaming) {
+            rawAudio = ttsCache.getIfPresent(getId(), key);
+            if (rawAudio == null) {
+                List<String> sentences = splitSentences(text, voice.getLocale());
+                if (sentences.size() > 1) {
+                    return streamAudio(sentences, voice, maryTTSVoiceAudioFormat, key);
+                }
+                rawAudio = ttsCache.get(getId(), key, () -> generateAudio(text, voice));
+            }
+        } else {
+            rawAudio = ttsCache.get(getId(), key, () -> generateAudio(text, voice));
+        }
+        try {
+            return new MaryTTSAudioStream(rawAudio, maryTTSVoiceAudioFormat);
+        } catch (IOException e) {
+            throw new TTSException("Error generating an AudioStream", e);
+        }
+    }
 
+    /**
+     * Synthesizes the text with an interpreter of the pool
+     *
+     * @return The raw audio, without WAVE header
+     */
+    private byte[] generateAudio(String text, org.eclipse.smarthome.core.voice.Voice voice) throws TTSException {
+        MaryInterface interpreter = acquireInterpreter(voice);
+        try {
+            return generateAudio(interpreter, text);
+        } finally {
+            releaseInterpreter(interpreter);
+        }
+    }
+
+    private byte[] generateAudio(MaryInterface interpreter, String text) throws TTSException {
+        try {
+            return IOUtils.toByteArray(interpreter.generateAudio(text));
+        } catch (SynthesisException | IOException e) {
+            throw new TTSException("Error generating an AudioStream", e);
+        }
+    }
+
+    /**
+     * Synthesizes the first sentence and returns a stream to which the following sentences are appended as they are
+     * synthesized. The complete audio is added to the cache once all sentences are synthesized.
+     */
+    private AudioStream streamAudio(List<String> sentences, org.eclipse.smarthome.core.voice.Voice voice,
+            AudioFormat audioFormat, String key) throws TTSException {
+        MaryInterface interpreter = acquireInterpreter(voice);
+        boolean released = true;
+        try {
+            // errors in the first sentence are reported to the caller
+            byte[] firstAudio = generateAudio(interpreter, sentences.get(0));
+            ByteArrayOutputStream rawAudio = new ByteArrayOutputStream();
+            rawAudio.write(firstAudio, 0, firstAudio.length);
+
+            MaryTTSStreamingAudioStream audioStream = new MaryTTSStreamingAudioStream(audioFormat);
+            audioStream.append(firstAudio);
+            executor.execute(() -> streamRemainingAudio(interpreter, sentences, rawAudio, audioStream, key));
+            released = false;
+            return audioStream;
+        } catch (RejectedExecutionException e) {
+            throw new TTSException("Error generating an AudioStream", e);
+        } finally {
+            if (released) {
+                releaseInterpreter(interpreter);
+            }
+        }
+    }
+
+    private void streamRemainingAudio(MaryInterface interpreter, List<String> sentences,
+            ByteArrayOutputStream rawAudio, MaryTTSStreamingAudioStream audioStream, String key) {
+        try {
+            for (String sentence : sentences.subList(1, sentences.size())) {
+                byte[] audio = generateAudio(interpreter, sentence);
+                rawAudio.write(audio, 0, audio.length);
+                if (!audioStream.append(audio)) {
+                    logger.debug("Audio stream is not read anymore, stopping the synthesis");
+                    return;
+                }
+            }
+            audioStream.complete();
+        } catch (TTSException e) {
+            logger.warn("Failed to synthesize the streamed audio: {}", e.getMessage());
+            audioStream.fail(e);
+            return;
+        } finally {
+            releaseInterpreter(interpreter);
+        }
+        ttsCache.put(getId(), key, rawAudio.toByteArray());
+    }
+
+    /**
+     * Splits the text into sentences, which are synthesized one after another when streaming
+     */
+    private List<String> splitSentences(String text, Locale locale) {
+        List<String> sentences = new ArrayList<>();
+        BreakIterator iterator = BreakIterator.getSentenceInstance(locale);
+        iterator.setText(text);
+        int start = iterator.first();
+        for (int end = iterator.next(); end != BreakIterator.DONE; start = end, end = iterator.next()) {
+            String sentence = text.substring(start, end).trim();
+            if (!sentence.isEmpty()) {
+                sentences.add(sentence);
+            }
+        }
+        return sentences;
+    }
+
+    /**
+     * Takes an idle interpreter from the pool, waiting for one if all are busy, and sets it up for the voice
+     *
+     * @throws TTSException if no interpreter could be created or none became idle in time
+     */
+    private MaryInterface acquireInterpreter(org.eclipse.smarthome.core.voice.Voice voice) throws TTSException {
+        MaryInterface interpreter = interpreters.poll();
+        if (interpreter == null) {
+            synchronized (interpreters) {
+                if (interpreterCount == 0) {
+                    throw new TTSException("No MaryTTS interpreter could be created");
+                }
+            }
+            logger.debug("All {} MaryTTS interpreters are busy, waiting for a free one", poolSize);
+            try {
+                interpreter = interpreters.poll(INTERPRETER_TIMEOUT, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TTSException("Interrupted while waiting for a MaryTTS interpreter", e);
+            }
+            if (interpreter == null) {
+                throw new TTSException("Timed out waiting for a MaryTTS interpreter");
+            }
+        }
+        // Set voice (Each voice supports only a single AudioFormat)
+        interpreter.setLocale(voice.getLocale());
+        interpreter.setVoice(voice.getLabel());
+        return interpreter;
+    }
+
+    /**
+     * Returns an interpreter to the pool, unless the pool has been made smaller in the meantime
+     */
+    private void releaseInterpreter(MaryInterface interpreter) {
+        synchronized (interpreters) {
+            if (interpreterCount > poolSize) {
+                interpreterCount--;
+            } else {
+                interpreters.add(interpreter);
+            }
+        }
+    }
+
+    /**
+     * Creates or removes idle interpreters to match the pool size. Busy interpreters are removed when released.
+     */
+    private void resizePool() {
+        if (marytts == null) {
+            return;
+        }
+        synchronized (interpreters) {
             try {
-                return new MaryTTSAudioStream(marytts.generateAudio(text), maryTTSVoiceAudioFormat);
-            } catch (SynthesisException | IOException e) {
-                throw new TTSException("Error generating an AudioStream", e);
+                while (interpreterCount < poolSize) {
+                    interpreters.add(new LocalMaryInterface());
+                    interpreterCount++;
+                }
+            } catch (MaryConfigurationException e) {
+                logger.warn("Failed to create a MaryTTS interpreter: {}", e.getMessage());
+            }
+            while (interpreterCount > poolSize && interpreters.poll() != null) {
+                interpreterCount--;
             }
         }
+        logger.debug("Using a pool of {} MaryTTS interpreters, streaming: {}", poolSize, streaming);
+    }
+
+    /**
+     * Synthesizes a short text with every voice in the background
+     */
+    private void warmUp() {
+        for (org.eclipse.smarthome.core.voice.Voice voice : voices) {
+            executor.execute(() -> {
+                try {
+                    generateAudio(WARM_UP_TEXT, voice);
+                    logger.debug("Warmed up voice {}", voice.getUID());
+                } catch (TTSException e) {
+                    logger.debug("Failed to warm up voice {}: {}", voice.getUID(), e.getMessage());
+                }
+            });
+        }
     }
 
     /**
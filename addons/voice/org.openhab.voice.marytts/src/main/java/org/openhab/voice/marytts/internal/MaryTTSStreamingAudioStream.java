@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.voice.marytts.internal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.audio.AudioFormat;
+import org.eclipse.smarthome.core.audio.AudioStream;
+
+/**
+ * An {@link AudioStream} of the {@link MaryTTSService} which can be read while the audio is still synthesized.
+ *
+ * The raw audio is appended sentence by sentence by the synthesizing thread. As the length of the audio is not known
+ * in advance, the WAVE header announces the maximum length.
+ *
+ * For the same reason it is not a {@link org.eclipse.smarthome.core.audio.FixedLengthAudioStream}, so it can only be
+ * read once. Sinks which fetch the audio from a URL, and therefore need a fixed length stream, cannot play it.
+ *
+ * @author agent - Initial contribution
+ */
+class MaryTTSStreamingAudioStream extends AudioStream {
+
+    /**
+     * Length announced in the WAVE header
+     */
+    private static final long UNKNOWN_LENGTH = 0xFFFFFFFFL;
+
+    /**
+     * Maximum number of sentences synthesized ahead of the reader
+     */
+    private static final int MAX_QUEUED_CHUNKS = 16;
+
+    /**
+     * Time to wait for the reader before the synthesis is aborted
+     */
+    private static final long APPEND_TIMEOUT_SECONDS = 60;
+
+    /**
+     * Marks the end of the audio
+     */
+    private static final byte[] END = new byte[0];
+
+    private final AudioFormat audioFormat;
+
+    private final BlockingQueue<byte[]> chunks = new LinkedBlockingQueue<>(MAX_QUEUED_CHUNKS + 2);
+
+    private byte[] chunk;
+    private int position;
+
+    private volatile boolean closed;
+    private volatile IOException error;
+
+    /**
+     * Constructs an instance with the passed properties
+     *
+     * @param audioFormat The AudioFormat of this instance
+     */
+    MaryTTSStreamingAudioStream(AudioFormat audioFormat) {
+        this.audioFormat = audioFormat;
+        chunks.add(MaryTTSAudioStream.createWavHeader(audioFormat, UNKNOWN_LENGTH));
+    }
+
+    /**
+     * Appends synthesized raw audio, waiting for the reader if too much audio is queued
+     *
+     * @param rawAudio The raw audio, without WAVE header
+     * @return false if the stream has been closed or is not read anymore, so that the synthesis can be stopped
+     */
+    boolean append(byte[] rawAudio) {
+        return rawAudio.length == 0 ? !closed : offer(rawAudio);
+    }
+
+    /**
+     * Marks the end of the audio
+     */
+    void complete() {
+        offer(END);
+    }
+
+    /**
+     * Ends the audio with an error, which is thrown to the reader once the already appended audio has been read
+     *
+     * @param cause The cause of the error
+     */
+    void fail(Exception cause) {
+        error = new IOException("Error generating an AudioStream", cause);
+        offer(END);
+    }
+
+    private boolean offer(byte[] data) {
+        if (closed) {
+            return false;
+        }
+        try {
+            return chunks.offer(data, APPEND_TIMEOUT_SECONDS, TimeUnit.SECONDS) && !closed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public AudioFormat getFormat() {
+        return audioFormat;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!nextChunk()) {
+            return -1;
+        }
+        return chunk[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!nextChunk()) {
+            return -1;
+        }
+        int count = Math.min(len, chunk.length - position);
+        System.arraycopy(chunk, position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return chunk == null || chunk == END ? 0 : chunk.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        chunks.clear();
+        super.close();
+    }
+
+    /**
+     * Waits for the next chunk if the current one has been read completely
+     *
+     * @return false if the end of the audio has been reached
+     */
+    private boolean nextChunk() throws IOException {
+        if (closed) {
+            return false;
+        }
+        while (chunk != END && (chunk == null || position >= chunk.length)) {
+            try {
+                chunk = chunks.take();
+                position = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the synthesized audio");
+            }
+        }
+        if (chunk == END) {
+            if (error != null) {
+                throw error;
+            }
+            return false;
+        }
+        return true;
+    }
+}
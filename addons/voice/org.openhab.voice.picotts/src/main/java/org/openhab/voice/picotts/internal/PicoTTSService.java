@@ -8,19 +8,24 @@
  */
 package org.openhab.voice.picotts.internal;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Collections;
 import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import org.eclipse.smarthome.core.audio.AudioException;
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioStream;
+import org.eclipse.smarthome.core.audio.ByteArrayAudioStream;
 import org.eclipse.smarthome.core.voice.TTSException;
 import org.eclipse.smarthome.core.voice.TTSService;
 import org.eclipse.smarthome.core.voice.Voice;
+import org.openhab.voice.ttscache.TTSCache;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
 
 /**
  * @author Florian Schmidt - Initial Contribution
@@ -35,6 +40,17 @@ public class PicoTTSService implements TTSService {
     private final Set<AudioFormat> audioFormats = Collections.singleton(
             new AudioFormat(AudioFormat.CONTAINER_WAVE, AudioFormat.CODEC_PCM_SIGNED, false, 16, null, 16000L));
 
+    private TTSCache ttsCache;
+
+    @Reference
+    protected void setTTSCache(TTSCache ttsCache) {
+        this.ttsCache = ttsCache;
+    }
+
+    protected void unsetTTSCache(TTSCache ttsCache) {
+        this.ttsCache = null;
+    }
+
     @Override
     public Set<Voice> getAvailableVoices() {
         return this.voices;
@@ -63,10 +79,42 @@ public class PicoTTSService implements TTSService {
             throw new TTSException("The passed AudioFormat is unsupported");
         }
 
+        // pico2wave is only run for texts which are not cached yet
+        byte[] audio = ttsCache.get(getId(), voice.getUID() + "|" + text, () -> generateAudio(text, voice));
+        return new ByteArrayAudioStream(audio, requestedFormat);
+    }
+
+    /**
+     * Runs pico2wave to generate the audio in a temporary file
+     *
+     * @param text The text to speak
+     * @param voice The voice to use
+     * @return The generated audio
+     */
+    private byte[] generateAudio(String text, Voice voice) throws TTSException {
+        File file;
+        try {
+            file = File.createTempFile(Integer.toString(text.hashCode()), ".wav");
+        } catch (IOException e) {
+            throw new TTSException("Unable to create temp file.", e);
+        }
+
+        String[] command = new String[] { "pico2wave", "-l=" + voice.getLabel(), "-w=" + file.getAbsolutePath(),
+                text };
         try {
-            return new PicoTTSAudioStream(text, voice, requestedFormat);
-        } catch (AudioException e) {
-            throw new TTSException(e);
+            Process process = Runtime.getRuntime().exec(command);
+            process.waitFor();
+            if (!file.exists() || file.length() == 0) {
+                throw new TTSException("Temporary file '" + file.getName() + "' not found!");
+            }
+            return Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            throw new TTSException("Error while executing '" + String.join(" ", command) + "'", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TTSException("The '" + String.join(" ", command) + "' has been interrupted", e);
+        } finally {
+            file.delete();
         }
     }
 
@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.voice.ttscache.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.smarthome.core.voice.TTSException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openhab.voice.ttscache.TTSSynthesizer;
+
+/**
+ * Tests for {@link TTSCacheImpl}
+ *
+ * @author agent - Initial contribution
+ */
+public class TTSCacheImplTest {
+
+    private static final String SERVICE = "test";
+
+    private static final int KB = 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Map<String, Object> config = new HashMap<>();
+    private final AtomicInteger syntheses = new AtomicInteger();
+    private TTSCacheImpl cache;
+
+    @Before
+    public void setUp() {
+        config.put("maxDiskSize", 1);
+        config.put("maxAge", 90);
+        // audio up to 4 kB is kept in memory
+        config.put("memorySize", 32);
+        cache = activate();
+    }
+
+    private TTSCacheImpl activate() {
+        TTSCacheImpl cache = new TTSCacheImpl();
+        cache.activate(folder.getRoot(), config);
+        return cache;
+    }
+
+    private TTSSynthesizer synthesizer(int size) {
+        return () -> {
+            syntheses.incrementAndGet();
+            return new byte[size];
+        };
+    }
+
+    private List<File> cachedFiles() {
+        List<File> files = new ArrayList<>();
+        File[] folders = folder.getRoot().listFiles(File::isDirectory);
+        for (File serviceFolder : folders) {
+            for (File file : serviceFolder.listFiles()) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    @Test
+    public void testSmallAudioServedFromMemory() throws TTSException {
+        byte[] audio = cache.get(SERVICE, "hello", synthesizer(KB));
+        assertSame(audio, cache.get(SERVICE, "hello", synthesizer(KB)));
+
+        assertEquals(1, syntheses.get());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getMemoryHits());
+        assertEquals(0, cache.getDiskHits());
+    }
+
+    @Test
+    public void testLargeAudioServedFromDisk() throws TTSException {
+        cache.get(SERVICE, "hello", synthesizer(8 * KB));
+        assertEquals(8 * KB, cache.get(SERVICE, "hello", synthesizer(8 * KB)).length);
+
+        assertEquals(1, syntheses.get());
+        assertEquals(0, cache.getMemoryHits());
+        assertEquals(1, cache.getDiskHits());
+    }
+
+    @Test
+    public void testFilesKeptAcrossActivations() throws TTSException {
+        cache.get(SERVICE, "hello", synthesizer(KB));
+        cache.deactivate();
+
+        TTSCacheImpl reactivated = activate();
+        assertEquals(KB, reactivated.get(SERVICE, "hello", synthesizer(KB)).length);
+
+        assertEquals(1, syntheses.get());
+        assertEquals(1, reactivated.getDiskHits());
+    }
+
+    @Test
+    public void testKeysAndServicesAreSeparate() throws TTSException {
+        cache.get(SERVICE, "hello", synthesizer(KB));
+        cache.get(SERVICE, "world", synthesizer(KB));
+        cache.get("other", "hello", synthesizer(KB));
+
+        assertEquals(3, syntheses.get());
+        assertEquals(3, cachedFiles().size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedFileEvicted() throws TTSException {
+        config.put("memorySize", 0);
+        cache.modified(config);
+
+        cache.get(SERVICE, "a", synthesizer(400 * KB));
+        cache.get(SERVICE, "b", synthesizer(400 * KB));
+        // a is used again, so b is the least recently used file when c exceeds the size of the cache
+        cache.get(SERVICE, "a", synthesizer(400 * KB));
+        cache.get(SERVICE, "c", synthesizer(400 * KB));
+        assertEquals(3, syntheses.get());
+        assertEquals(2, cachedFiles().size());
+
+        cache.get(SERVICE, "a", synthesizer(400 * KB));
+        cache.get(SERVICE, "c", synthesizer(400 * KB));
+        assertEquals(3, syntheses.get());
+        cache.get(SERVICE, "b", synthesizer(400 * KB));
+        assertEquals(4, syntheses.get());
+    }
+
+    @Test
+    public void testReducedMaxDiskSizeEvictsFiles() throws TTSException {
+        config.put("memorySize", 0);
+        cache.modified(config);
+        cache.get(SERVICE, "a", synthesizer(600 * KB));
+        assertEquals(1, cachedFiles().size());
+
+        config.put("maxDiskSize", 0);
+        cache.modified(config);
+
+        assertTrue(cachedFiles().isEmpty());
+    }
+
+    @Test
+    public void testExpiredFilesDeletedOnActivation() throws TTSException {
+        cache.get(SERVICE, "old", synthesizer(KB));
+        cache.get(SERVICE, "new", synthesizer(KB));
+        cache.deactivate();
+        List<File> files = cachedFiles();
+        assertEquals(2, files.size());
+        File old = files.get(0);
+        assertTrue(old.setLastModified(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(91)));
+
+        cache = activate();
+
+        assertFalse(old.exists());
+        assertEquals(1, cachedFiles().size());
+    }
+
+    @Test
+    public void testPurgeRemovesOnlyAudioOfService() throws TTSException {
+        cache.get(SERVICE, "hello", synthesizer(KB));
+        cache.get("other", "hello", synthesizer(KB));
+
+        cache.purge(SERVICE);
+
+        assertEquals(1, cachedFiles().size());
+        cache.get("other", "hello", synthesizer(KB));
+        assertEquals(2, syntheses.get());
+        cache.get(SERVICE, "hello", synthesizer(KB));
+        assertEquals(3, syntheses.get());
+    }
+
+    @Test
+    public void testConcurrentRequestsSynthesizedOnce() throws Exception {
+        int requests = 8;
+        CountDownLatch release = new CountDownLatch(1);
+        TTSSynthesizer blockingSynthesizer = () -> {
+            syntheses.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new TTSException("Interrupted", e);
+            }
+            return new byte[KB];
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                results.add(executor.submit(() -> cache.get(SERVICE, "hello", blockingSynthesizer)));
+            }
+            // all but the synthesizing request wait for it
+            long deadline = System.currentTimeMillis() + 5000;
+            while (cache.getSharedRequests() < requests - 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            byte[] audio = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<byte[]> result : results) {
+                assertSame(audio, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, syntheses.get());
+        assertEquals(requests - 1, cache.getSharedRequests());
+    }
+
+    @Test
+    public void testConcurrentRequestsShareFailure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        TTSSynthesizer failingSynthesizer = () -> {
+            syntheses.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new TTSException("Synthesis failed");
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<byte[]> first = executor.submit(() -> cache.get(SERVICE, "hello", failingSynthesizer));
+            Future<byte[]> second = executor.submit(() -> cache.get(SERVICE, "hello", failingSynthesizer));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (cache.getSharedRequests() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (Future<byte[]> result : Arrays.asList(first, second)) {
+                try {
+                    result.get(5, TimeUnit.SECONDS);
+                    fail("Failure of the synthesis is not reported");
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof TTSException);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, syntheses.get());
+        // a failed synthesis is not cached
+        assertEquals(KB, cache.get(SERVICE, "hello", synthesizer(KB)).length);
+        assertEquals(2, syntheses.get());
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.voice.ttscache;
+
+import org.eclipse.smarthome.core.voice.TTSException;
+
+/**
+ * A cache of synthesized audio shared by the TTS services.
+ *
+ * The audio is addressed by a hash of the service id and a key, which has to contain everything that changes the
+ * synthesized audio, e.g. the text, voice, audio format and relevant configuration. The cache keeps the audio on disk
+ * bounded in size and age and the recently used short audio in memory.
+ *
+ * @author agent - Initial contribution
+ */
+public interface TTSCache {
+
+    /**
+     * Returns the cached audio for the key or synthesizes and caches it if it is not cached yet. Concurrent requests
+     * for the same audio are synthesized only once.
+     *
+     * @param serviceId the id of the TTS service
+     * @param key everything that identifies the audio
+     * @param synthesizer synthesizes the audio if it is not cached
+     * @return the audio
+     * @throws TTSException if the audio is not cached and could not be synthesized
+     */
+    byte[] get(String serviceId, String key, TTSSynthesizer synthesizer) throws TTSException;
+
+    /**
+     * Returns the cached audio for the key without synthesizing it. This is meant for services which stream the audio
+     * while it is synthesized and {@link #put(String, String, byte[])} it into the cache afterwards.
+     *
+     * @param serviceId the id of the TTS service
+     * @param key everything that identifies the audio
+     * @return the audio or null if it is not cached
+     */
+    byte[] getIfPresent(String serviceId, String key);
+
+    /**
+     * Adds synthesized audio to the cache
+     *
+     * @param serviceId the id of the TTS service
+     * @param key everything that identifies the audio
+     * @param audio the complete audio
+     */
+    void put(String serviceId, String key, byte[] audio);
+
+    /**
+     * Removes all cached audio of the service
+     *
+     * @param serviceId the id of the TTS service
+     */
+    void purge(String serviceId);
+
+    /**
+     * @return the number of requests served from memory
+     */
+    long getMemoryHits();
+
+    /**
+     * @return the number of requests served from disk
+     */
+    long getDiskHits();
+
+    /**
+     * @return the number of requests which had to be synthesized
+     */
+    long getMisses();
+
+    /**
+     * @return the number of requests which waited for the synthesis of a concurrent identical request
+     */
+    long getSharedRequests();
+}
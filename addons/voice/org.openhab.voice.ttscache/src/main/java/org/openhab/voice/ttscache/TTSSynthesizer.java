@@ -0,0 +1,28 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.voice.ttscache;
+
+import org.eclipse.smarthome.core.voice.TTSException;
+
+/**
+ * Synthesizes audio which is not in the {@link TTSCache}.
+ *
+ * @author agent - Initial contribution
+ */
+@FunctionalInterface
+public interface TTSSynthesizer {
+
+    /**
+     * Synthesizes the audio
+     *
+     * @return the audio
+     * @throws TTSException if the audio could not be synthesized
+     */
+    byte[] synthesize() throws TTSException;
+}
@@ -0,0 +1,530 @@
+/**
+ * Copyright (c) 2010-2018 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.voice.ttscache.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.config.core.ConfigurableService;
+import org.eclipse.smarthome.core.voice.TTSException;
+import org.openhab.voice.ttscache.TTSCache;
+import org.openhab.voice.ttscache.TTSSynthesizer;
+import org.osgi.framework.Constants;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation of the {@link TTSCache}.
+ *
+ * The audio is stored in files named by the hash of its key below userdata/cache/org.openhab.ttscache/{serviceId}. The
+ * least recently used files are deleted when the cache exceeds its size and files which have not been used for the
+ * maximum age are deleted. Audio which is not larger than an eighth of the memory size is also kept in memory, so that
+ * frequently repeated announcements do not need to be read from disk.
+ *
+ * @author agent - Initial contribution
+ */
+@Component(service = TTSCache.class, configurationPid = TTSCacheImpl.SERVICE_PID, property = {
+        Constants.SERVICE_PID + "=" + TTSCacheImpl.SERVICE_PID,
+        ConfigurableService.SERVICE_PROPERTY_LABEL + "=Text-to-Speech Cache",
+        ConfigurableService.SERVICE_PROPERTY_DESCRIPTION_URI + "=" + TTSCacheImpl.SERVICE_CATEGORY + ":"
+                + TTSCacheImpl.SERVICE_ID,
+        ConfigurableService.SERVICE_PROPERTY_CATEGORY + "=" + TTSCacheImpl.SERVICE_CATEGORY })
+public class TTSCacheImpl implements TTSCache {
+
+    static final String SERVICE_ID = "ttscache";
+
+    static final String SERVICE_CATEGORY = "voice";
+
+    static final String SERVICE_PID = "org.openhab." + SERVICE_ID;
+
+    /**
+     * Cache folder under $userdata
+     */
+    private static final String CACHE_FOLDER_NAME = "cache";
+
+    /**
+     * Maximum size of the files on disk in MB
+     */
+    private static final String PARAM_MAX_DISK_SIZE = "maxDiskSize";
+
+    /**
+     * Maximum time in days since a file has been used
+     */
+    private static final String PARAM_MAX_AGE = "maxAge";
+
+    /**
+     * Maximum size of the audio kept in memory in kB
+     */
+    private static final String PARAM_MEMORY_SIZE = "memorySize";
+
+    private static final long DEFAULT_MAX_DISK_SIZE = 50;
+    private static final long DEFAULT_MAX_AGE = 90;
+    private static final long DEFAULT_MEMORY_SIZE = 4096;
+
+    /**
+     * Prefix of files being written
+     */
+    private static final String TEMP_FILE_PREFIX = ".tmp";
+
+    private final Logger logger = LoggerFactory.getLogger(TTSCacheImpl.class);
+
+    private File cacheFolder;
+
+    private long maxDiskSize = DEFAULT_MAX_DISK_SIZE * 1024 * 1024;
+    private long maxAge = TimeUnit.DAYS.toMillis(DEFAULT_MAX_AGE);
+    private long memorySize = DEFAULT_MEMORY_SIZE * 1024;
+
+    /**
+     * Files on disk by id, least recently used first
+     */
+    private final Map<String, CachedFile> files = new LinkedHashMap<>(16, 0.75f, true);
+    private long diskSize = 0;
+
+    /**
+     * Audio in memory by id, least recently used first
+     */
+    private final Map<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryUsed = 0;
+
+    /**
+     * Running requests by id
+     */
+    private final Map<String, CompletableFuture<byte[]>> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong sharedRequests = new AtomicLong();
+
+    /**
+     * A file on disk
+     */
+    private static class CachedFile {
+        private final File file;
+        private final long size;
+        private long lastUsed;
+
+        CachedFile(File file, long size, long lastUsed) {
+            this.file = file;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    /**
+     * DS activate, with access to ConfigAdmin
+     */
+    @Activate
+    protected void activate(Map<String, Object> config) {
+        File userData = new File(ConfigConstants.getUserDataFolder());
+        activate(new File(new File(userData, CACHE_FOLDER_NAME), SERVICE_PID), config);
+    }
+
+    /**
+     * Activate with the given cache folder, for tests
+     */
+    void activate(File cacheFolder, Map<String, Object> config) {
+        this.cacheFolder = cacheFolder;
+        if (!cacheFolder.exists()) {
+            cacheFolder.mkdirs();
+        }
+        logger.debug("Using cache folder {}", cacheFolder.getAbsolutePath());
+
+        loadFiles();
+        modified(config);
+    }
+
+    @Modified
+    protected void modified(Map<String, Object> config) {
+        if (config != null) {
+            maxDiskSize = getLong(config, PARAM_MAX_DISK_SIZE, DEFAULT_MAX_DISK_SIZE) * 1024 * 1024;
+            maxAge = TimeUnit.DAYS.toMillis(getLong(config, PARAM_MAX_AGE, DEFAULT_MAX_AGE));
+            memorySize = getLong(config, PARAM_MEMORY_SIZE, DEFAULT_MEMORY_SIZE) * 1024;
+        }
+        synchronized (this) {
+            evictFiles();
+            evictMemory();
+        }
+    }
+
+    @Deactivate
+    protected synchronized void deactivate() {
+        memory.clear();
+        memoryUsed = 0;
+        files.clear();
+        diskSize = 0;
+    }
+
+    @Override
+    public byte[] get(String serviceId, String key, TTSSynthesizer synthesizer) throws TTSException {
+        String id = getId(serviceId, key);
+
+        byte[] cached = readMemory(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        CompletableFuture<byte[]> running = pending.putIfAbsent(id, future);
+        if (running != null) {
+            sharedRequests.incrementAndGet();
+            logger.debug("Waiting for the running request of audio {}", id);
+            return await(running);
+        }
+
+        try {
+            byte[] audio = read(id);
+            if (audio != null) {
+                diskHits.incrementAndGet();
+                logger.debug("Audio {} served from disk", id);
+            } else {
+                misses.incrementAndGet();
+                audio = synthesizer.synthesize();
+                if (audio == null) {
+                    throw new TTSException("No audio was synthesized");
+                }
+                write(id, audio);
+                logger.debug("Audio {} synthesized and cached (memory hits: {}, disk hits: {}, misses: {})", id,
+                        memoryHits, diskHits, misses);
+            }
+            remember(id, audio);
+            future.complete(audio);
+            return audio;
+        } catch (TTSException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            pending.remove(id);
+        }
+    }
+
+    @Override
+    public byte[] getIfPresent(String serviceId, String key) {
+        String id = getId(serviceId, key);
+
+        byte[] audio = readMemory(id);
+        if (audio != null) {
+            return audio;
+        }
+        audio = read(id);
+        if (audio != null) {
+            diskHits.incrementAndGet();
+            logger.debug("Audio {} served from disk", id);
+            remember(id, audio);
+        } else {
+            misses.incrementAndGet();
+        }
+        return audio;
+    }
+
+    @Override
+    public void put(String serviceId, String key, byte[] audio) {
+        String id = getId(serviceId, key);
+        write(id, audio);
+        remember(id, audio);
+        logger.debug("Audio {} cached", id);
+    }
+
+    @Override
+    public void purge(String serviceId) {
+        String prefix = serviceId + File.separator;
+        synchronized (this) {
+            Iterator<Map.Entry<String, CachedFile>> it = files.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, CachedFile> entry = it.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    delete(entry.getValue());
+                    it.remove();
+                }
+            }
+            Iterator<Map.Entry<String, byte[]>> memoryIt = memory.entrySet().iterator();
+            while (memoryIt.hasNext()) {
+                Map.Entry<String, byte[]> entry = memoryIt.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    memoryUsed -= entry.getValue().length;
+                    memoryIt.remove();
+                }
+            }
+        }
+        logger.debug("Cache of {} purged.", serviceId);
+    }
+
+    @Override
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    @Override
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public long getSharedRequests() {
+        return sharedRequests.get();
+    }
+
+    /**
+     * Returns the audio if it is in memory
+     *
+     * @return the audio or null if it is not in memory
+     */
+    private synchronized byte[] readMemory(String id) {
+        byte[] audio = memory.get(id);
+        if (audio != null) {
+            // keep the file from being evicted as well
+            CachedFile cachedFile = files.get(id);
+            if (cachedFile != null) {
+                cachedFile.lastUsed = System.currentTimeMillis();
+            }
+            memoryHits.incrementAndGet();
+            logger.debug("Audio {} served from memory", id);
+        }
+        return audio;
+    }
+
+    private byte[] await(CompletableFuture<byte[]> future) throws TTSException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TTSException("Interrupted while waiting for the audio", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TTSException) {
+                throw (TTSException) e.getCause();
+            }
+            throw new TTSException("Could not synthesize the audio", e.getCause());
+        }
+    }
+
+    /**
+     * Reads the audio from disk
+     *
+     * @return the audio or null if it is not cached
+     */
+    private byte[] read(String id) {
+        CachedFile cachedFile;
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            cachedFile = files.get(id);
+            if (cachedFile == null) {
+                return null;
+            }
+            if (now - cachedFile.lastUsed > maxAge) {
+                remove(id);
+                return null;
+            }
+            cachedFile.lastUsed = now;
+        }
+
+        try {
+            byte[] audio = Files.readAllBytes(cachedFile.file.toPath());
+            // the modification time is the last use when the cache is loaded again
+            cachedFile.file.setLastModified(now);
+            return audio;
+        } catch (IOException e) {
+            logger.debug("Could not read {} from cache: {}", cachedFile.file, e.getMessage());
+            synchronized (this) {
+                if (files.get(id) == cachedFile) {
+                    remove(id);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Writes the audio to disk. Errors are logged only, as the audio can be synthesized again.
+     */
+    private void write(String id, byte[] audio) {
+        File file = new File(cacheFolder, id);
+        File folder = file.getParentFile();
+        try {
+            folder.mkdirs();
+            File tempFile = File.createTempFile(TEMP_FILE_PREFIX, null, folder);
+            try {
+                Files.write(tempFile.toPath(), audio);
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                tempFile.delete();
+            }
+        } catch (IOException e) {
+            logger.warn("Could not write {} to cache: {}", file, e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            CachedFile previous = files.put(id, new CachedFile(file, audio.length, System.currentTimeMillis()));
+            if (previous != null) {
+                diskSize -= previous.size;
+            }
+            diskSize += audio.length;
+            evictFiles();
+        }
+    }
+
+    /**
+     * Keeps the audio in memory if it is small enough
+     */
+    private synchronized void remember(String id, byte[] audio) {
+        if (audio.length > memorySize / 8) {
+            return;
+        }
+        byte[] previous = memory.put(id, audio);
+        if (previous != null) {
+            memoryUsed -= previous.length;
+        }
+        memoryUsed += audio.length;
+        evictMemory();
+    }
+
+    /**
+     * Removes the least recently used files while the cache is too large or the files are too old. Must be called
+     * while holding the lock.
+     */
+    private void evictFiles() {
+        long now = System.currentTimeMillis();
+        Iterator<CachedFile> it = files.values().iterator();
+        while (it.hasNext()) {
+            CachedFile cachedFile = it.next();
+            if (diskSize <= maxDiskSize && now - cachedFile.lastUsed <= maxAge) {
+                break;
+            }
+            delete(cachedFile);
+            it.remove();
+        }
+    }
+
+    /**
+     * Removes the least recently used audio from memory while it uses too much memory. Must be called while holding
+     * the lock.
+     */
+    private void evictMemory() {
+        Iterator<byte[]> it = memory.values().iterator();
+        while (memoryUsed > memorySize && it.hasNext()) {
+            memoryUsed -= it.next().length;
+            it.remove();
+        }
+    }
+
+    /**
+     * Removes a file from the cache. Must be called while holding the lock.
+     */
+    private void remove(String id) {
+        CachedFile cachedFile = files.remove(id);
+        if (cachedFile != null) {
+            delete(cachedFile);
+        }
+    }
+
+    /**
+     * Deletes a file which has been removed from the index. Must be called while holding the lock.
+     */
+    private void delete(CachedFile cachedFile) {
+        diskSize -= cachedFile.size;
+        if (!cachedFile.file.delete()) {
+            logger.debug("Could not delete {} from cache", cachedFile.file);
+        }
+    }
+
+    /**
+     * Loads the index of the files on disk, using their modification time as time of the last use
+     */
+    private void loadFiles() {
+        List<File> found = new ArrayList<>();
+        File[] folders = cacheFolder.listFiles(File::isDirectory);
+        if (folders != null) {
+            for (File folder : folders) {
+                File[] folderFiles = folder.listFiles(File::isFile);
+                if (folderFiles != null) {
+                    for (File file : folderFiles) {
+                        if (file.getName().startsWith(TEMP_FILE_PREFIX)) {
+                            // left over from an interrupted write
+                            file.delete();
+                        } else {
+                            found.add(file);
+                        }
+                    }
+                }
+            }
+        }
+        found.sort(Comparator.comparingLong(File::lastModified));
+
+        synchronized (this) {
+            files.clear();
+            diskSize = 0;
+            for (File file : found) {
+                String id = file.getParentFile().getName() + File.separator + file.getName();
+                files.put(id, new CachedFile(file, file.length(), file.lastModified()));
+                diskSize += file.length();
+            }
+        }
+        logger.debug("Found {} cached files with {} bytes", found.size(), diskSize);
+    }
+
+    private static long getLong(Map<String, Object> config, String name, long defaultValue) {
+        Object value = config.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        try {
+            return Long.parseLong(value.toString());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static String getId(String serviceId, String key) {
+        return serviceId + File.separator + hash(key);
+    }
+
+    private static String hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hash = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is supported by all Java platforms
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -18,16 +18,18 @@ import java.util.Set;
 
 import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.config.core.ConfigurableService;
-import org.eclipse.smarthome.core.audio.AudioException;
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioStream;
+import org.eclipse.smarthome.core.audio.ByteArrayAudioStream;
 import org.eclipse.smarthome.core.voice.TTSException;
 import org.eclipse.smarthome.core.voice.TTSService;
 import org.eclipse.smarthome.core.voice.Voice;
+import org.openhab.voice.ttscache.TTSCache;
 import org.openhab.voice.voicerss.internal.cloudapi.CachedVoiceRSSCloudImpl;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,7 +45,7 @@ import org.slf4j.LoggerFactory;
         ConfigurableService.SERVICE_PROPERTY_CATEGORY + "=voice" })
 public class VoiceRSSTTSService implements TTSService {
 
-    /** Cache folder name is below userdata/voicerss/cache. */
+    /** Folder name of the cache created in advance is below userdata/voicerss/cache. */
     private static final String CACHE_FOLDER_NAME = "voicerss" + File.separator + "cache";
 
     // API Key comes from ConfigAdmin
@@ -53,10 +55,15 @@ public class VoiceRSSTTSService implements TTSService {
     private final Logger logger = LoggerFactory.getLogger(VoiceRSSTTSService.class);
 
     /**
-     * We need the cached implementation to allow for FixedLengthAudioStream.
+     * We use the cached implementation to serve audio from a cache created in advance.
      */
     private CachedVoiceRSSCloudImpl voiceRssImpl;
 
+    /**
+     * Audio cache shared by the TTS services
+     */
+    private TTSCache ttsCache;
+
     /**
      * Set of supported voices
      */
@@ -83,6 +90,15 @@ public class VoiceRSSTTSService implements TTSService {
         }
     }
 
+    @Reference
+    protected void setTTSCache(TTSCache ttsCache) {
+        this.ttsCache = ttsCache;
+    }
+
+    protected void unsetTTSCache(TTSCache ttsCache) {
+        this.ttsCache = null;
+    }
+
     @Modified
     protected void modified(Map<String, Object> config) {
         if (config != null) {
@@ -130,20 +146,18 @@ public class VoiceRSSTTSService implements TTSService {
             throw new TTSException("The passed AudioFormat is unsupported");
         }
 
-        // now create the input stream for given text, locale, format. There is
+        // now create the audio for given text, locale, format. There is
         // only a default voice
-        try {
-            File cacheAudioFile = voiceRssImpl.getTextToSpeechAsFile(apiKey, trimmedText,
-                    voice.getLocale().toLanguageTag(), getApiAudioFormat(requestedFormat));
-            if (cacheAudioFile == null) {
-                throw new TTSException("Could not read from VoiceRSS service");
+        String locale = voice.getLocale().toLanguageTag();
+        String apiAudioFormat = getApiAudioFormat(requestedFormat);
+        byte[] audio = ttsCache.get(getId(), locale + "," + apiAudioFormat + "|" + trimmedText, () -> {
+            try {
+                return voiceRssImpl.getTextToSpeechAsBytes(apiKey, trimmedText, locale, apiAudioFormat);
+            } catch (IOException ex) {
+                throw new TTSException("Could not read from VoiceRSS service: " + ex.getMessage(), ex);
             }
-            return new VoiceRSSAudioStream(cacheAudioFile, requestedFormat);
-        } catch (AudioException ex) {
-            throw new TTSException("Could not create AudioStream: " + ex.getMessage(), ex);
-        } catch (IOException ex) {
-            throw new TTSException("Could not read from VoiceRSS service: " + ex.getMessage(), ex);
-        }
+        });
+        return new ByteArrayAudioStream(audio, requestedFormat);
     }
 
     /**
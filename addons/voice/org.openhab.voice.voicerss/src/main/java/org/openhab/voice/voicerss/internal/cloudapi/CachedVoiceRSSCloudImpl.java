@@ -8,6 +8,7 @@
  */
 package org.openhab.voice.voicerss.internal.cloudapi;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -16,6 +17,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.math.BigInteger;
+import java.nio.file.Files;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -79,6 +81,25 @@ public class CachedVoiceRSSCloudImpl extends VoiceRSSCloudImpl {
         }
     }
 
+    /**
+     * Gets the audio from the cache folder if it has been created in advance, otherwise from the VoiceRSS service
+     * without adding it to the cache folder.
+     */
+    public byte[] getTextToSpeechAsBytes(String apiKey, String text, String locale, String audioFormat)
+            throws IOException {
+        String fileNameInCache = getUniqueFilenameForText(text, locale);
+        File audioFileInCache = new File(cacheFolder, fileNameInCache + "." + audioFormat.toLowerCase());
+        if (audioFileInCache.exists()) {
+            return Files.readAllBytes(audioFileInCache.toPath());
+        }
+
+        try (InputStream is = super.getTextToSpeech(apiKey, text, locale, audioFormat);
+                ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+            copyStream(is, bos);
+            return bos.toByteArray();
+        }
+    }
+
     /**
      * Gets a unique filename for a give text, by creating a MD5 hash of it. It
      * will be preceded by the locale.